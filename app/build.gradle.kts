@@ -18,14 +18,26 @@ android {
     }
 
     buildTypes {
+        debug {
+            buildConfigField("String", "NETWORK_LOG_MODE", "\"body\"")
+        }
+        create("staging") {
+            initWith(getByName("debug"))
+            matchingFallbacks += listOf("debug")
+            buildConfigField("String", "NETWORK_LOG_MODE", "\"sampled\"")
+        }
         release {
             isMinifyEnabled = false
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
                 "proguard-rules.pro"
             )
+            buildConfigField("String", "NETWORK_LOG_MODE", "\"none\"")
         }
     }
+    buildFeatures {
+        buildConfig = true
+    }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
@@ -33,13 +45,20 @@ android {
     kotlinOptions {
         jvmTarget = "11"
     }
+    testOptions {
+        // JVM-тесты сетевого слоя и хранилищ: Log/SystemClock из android.jar возвращают значения по умолчанию.
+        unitTests.isReturnDefaultValues = true
+        // Бенчмарки в обычном прогоне не идут: ./gradlew testDebugUnitTest -Pbenchmark
+        unitTests.all {
+            it.systemProperty("benchmark", project.hasProperty("benchmark").toString())
+        }
+    }
 }
 
 dependencies {
     implementation(libs.retrofit2)
     implementation(libs.retrofit2.converter.gson)
     implementation(libs.okhttp)
-    implementation(libs.okhttp.logging.interceptor)
     implementation(libs.ucrop)
     implementation(libs.glide)
     annotationProcessor(libs.glide.compiler)
@@ -51,5 +70,7 @@ dependencies {
     implementation(libs.androidx.recyclerview)
     testImplementation(libs.junit)
     androidTestImplementation(libs.androidx.junit)
+    androidTestImplementation(libs.okhttp.mockwebserver)
+    androidTestImplementation(libs.okhttp.tls)
     androidTestImplementation(libs.androidx.espresso.core)
 }
\ No newline at end of file
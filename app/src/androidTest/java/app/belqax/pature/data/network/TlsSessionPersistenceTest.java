@@ -0,0 +1,97 @@
+package app.belqax.pature.data.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.net.InetAddress;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.tls.HandshakeCertificates;
+import okhttp3.tls.HeldCertificate;
+
+/**
+ * Дисковый кеш TLS-сессий NetworkCore: после пересборки ядра (новый SSLContext, пустой кеш в памяти,
+ * свой пул соединений) рукопожатие с тем же сервером возобновляет сессию с диска.
+ *
+ * Падает, если SSLSessionCache.install недоступен на этой версии платформы (ограничения hidden API).
+ */
+@RunWith(AndroidJUnit4.class)
+public class TlsSessionPersistenceTest {
+
+    private static final String CLIENT = "tls-test";
+
+    private MockWebServer server;
+    private HandshakeCertificates clientCertificates;
+
+    @Before
+    public void setUp() throws IOException {
+        HeldCertificate localhost = new HeldCertificate.Builder()
+                .addSubjectAlternativeName(InetAddress.getByName("localhost").getCanonicalHostName())
+                .build();
+        HandshakeCertificates serverCertificates = new HandshakeCertificates.Builder()
+                .heldCertificate(localhost)
+                .build();
+        clientCertificates = new HandshakeCertificates.Builder()
+                .addTrustedCertificate(localhost.certificate())
+                .build();
+
+        server = new MockWebServer();
+        server.useHttps(serverCertificates.sslSocketFactory(), false);
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void sessionIsResumedAfterNetworkCoreRebuild() throws IOException {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+        NetworkCore first = new NetworkCore(context, clientCertificates.trustManager());
+        assertTrue("SSLSessionCache.install unavailable: TLS sessions are in memory only",
+                first.hasPersistentTlsSessions());
+        get(first);
+        assertEquals(1L, stats(first).tlsFull);
+
+        NetworkCore second = new NetworkCore(context, clientCertificates.trustManager());
+        get(second);
+
+        ConnectionStats.Snapshot s = stats(second);
+        assertEquals(1L, s.newConnections);
+        assertTrue(second.getConnectionStats().dump(), s.tlsResumed > 0);
+    }
+
+    private void get(NetworkCore core) throws IOException {
+        server.enqueue(new MockResponse().setBody("ok"));
+        OkHttpClient client = core.newClientBuilder(CLIENT).build();
+        try (Response response = client.newCall(new Request.Builder().url(server.url("/")).build()).execute()) {
+            assertEquals(200, response.code());
+            // Тело дочитывается: тикет сессии TLS 1.3 приходит после рукопожатия.
+            assertEquals("ok", response.body().string());
+        }
+    }
+
+    private static ConnectionStats.Snapshot stats(NetworkCore core) {
+        ConnectionStats.Snapshot s = core.getConnectionStats().snapshot().get(CLIENT);
+        assertNotNull(s);
+        return s;
+    }
+}
@@ -0,0 +1,147 @@
+package app.belqax.pature.data.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.belqax.pature.data.storage.AuthStorage;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Refresh при заполненном Dispatcher основного клиента: все слоты на хост заняты запросами,
+ * которые получили 401 и ждут refresh внутри authenticate(). Refresh должен пройти мимо их очереди.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TokenAuthenticatorTest {
+
+    private static final String STALE_ACCESS = "stale-access";
+    private static final String FRESH_ACCESS = "fresh-access";
+
+    // Ровно столько, сколько Dispatcher пускает на один хост: очередь основного клиента полна.
+    private static final int CONCURRENT_CALLS = NetworkCore.MAX_REQUESTS_PER_HOST;
+
+    private MockWebServer server;
+    private AuthStorage storage;
+    private final AtomicInteger refreshRequests = new AtomicInteger();
+    // Сервер отвечает 401, только когда все вызовы уже заняли слоты Dispatcher.
+    private final CountDownLatch allStaleArrived = new CountDownLatch(CONCURRENT_CALLS);
+
+    @Before
+    public void setUp() throws IOException {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        AuthStorage.init(context);
+        storage = AuthStorage.getInstance();
+        assertTrue(storage.awaitReady(5_000L));
+        storage.saveTokens(STALE_ACCESS, "refresh-1", 3_600L);
+        storage.saveLogin("user@example.com");
+
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) throws InterruptedException {
+                String path = request.getPath();
+                if (path != null && path.startsWith("/auth/refresh")) {
+                    refreshRequests.incrementAndGet();
+                    return new MockResponse().setBody("{\"access_token\":\"" + FRESH_ACCESS
+                            + "\",\"refresh_token\":\"refresh-2\",\"expires_in\":3600}");
+                }
+                if (("Bearer " + FRESH_ACCESS).equals(request.getHeader("Authorization"))) {
+                    return new MockResponse().setBody("{}");
+                }
+                allStaleArrived.countDown();
+                allStaleArrived.await(5, TimeUnit.SECONDS);
+                return new MockResponse().setResponseCode(401);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        storage.clearAll();
+    }
+
+    @Test
+    public void refreshCompletesWhileDispatcherIsSaturatedBy401Waiters() throws InterruptedException {
+        NetworkCore core = new NetworkCore(InstrumentationRegistry.getInstrumentation().getTargetContext());
+        TokenAuthenticator authenticator = new TokenAuthenticator(
+                storage,
+                server.url("/").toString(),
+                core.newIsolatedClientBuilder("refresh").build()
+        );
+        OkHttpClient api = core.newClientBuilder("api")
+                .addInterceptor(chain -> {
+                    String authorization = storage.getAuthorizationHeader();
+                    Request request = chain.request();
+                    return chain.proceed(authorization == null
+                            ? request
+                            : request.newBuilder().header("Authorization", authorization).build());
+                })
+                .authenticator(authenticator)
+                .build();
+
+        CountDownLatch done = new CountDownLatch(CONCURRENT_CALLS);
+        List<Integer> codes = new ArrayList<>();
+        long startNs = System.nanoTime();
+
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            api.newCall(new Request.Builder().url(server.url("/animals/" + i)).build()).enqueue(new Callback() {
+                @Override
+                public void onResponse(@NonNull Call call, @NonNull Response response) {
+                    synchronized (codes) {
+                        codes.add(response.code());
+                    }
+                    response.close();
+                    done.countDown();
+                }
+
+                @Override
+                public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                    synchronized (codes) {
+                        codes.add(-1);
+                    }
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue("calls did not finish", done.await(30, TimeUnit.SECONDS));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+
+        assertEquals(CONCURRENT_CALLS, codes.size());
+        for (int code : codes) {
+            assertEquals(200, code);
+        }
+        assertEquals(1, refreshRequests.get());
+        assertEquals(0, authenticator.getRefreshStats().getTimeouts());
+        // Никто не дожидался таймаута: refresh не стоял в очереди за ждущими его запросами.
+        assertTrue("took " + elapsedMs + "ms", elapsedMs < TokenAuthenticator.REFRESH_WAIT_TIMEOUT_MS);
+    }
+}
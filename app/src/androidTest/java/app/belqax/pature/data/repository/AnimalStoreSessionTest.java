@@ -0,0 +1,136 @@
+package app.belqax.pature.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Instrumentation;
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import app.belqax.pature.data.storage.AnimalDatabase;
+import app.belqax.pature.data.storage.AuthStorage;
+
+/**
+ * Смена сессии стирает животных прежнего пользователя: память AnimalStore и таблицы feed,
+ * my_animals и animals в AnimalDatabase.
+ *
+ * Работает с настоящими синглтонами: PatureApp уже запустил StartupOrchestrator, который подключил
+ * базу к AnimalStore и подписал его на AuthStorage.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AnimalStoreSessionTest {
+
+    private static final long TIMEOUT_MS = 5_000L;
+
+    private Instrumentation instrumentation;
+    private AnimalStore store;
+    private AnimalDatabase database;
+
+    @Before
+    public void setUp() {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        Context context = instrumentation.getTargetContext();
+        assertTrue(AuthStorage.getInstance().awaitReady(TIMEOUT_MS));
+        store = AnimalStore.getInstance();
+        // Второй helper на тот же файл: читает то, что AnimalStore записал в своём потоке.
+        database = new AnimalDatabase(context);
+        instrumentation.runOnMainSync(store::clear);
+    }
+
+    @After
+    public void tearDown() {
+        instrumentation.runOnMainSync(store::clear);
+        database.close();
+    }
+
+    @Test
+    public void databaseClearEmptiesAllTables() {
+        database.appendFeed(Arrays.asList(animal(1L), animal(2L)));
+        database.replaceMyAnimals(Arrays.asList(animal(2L), animal(3L)));
+        assertEquals(2, database.readFeed(100).size());
+        assertEquals(2, database.readMyAnimals().size());
+
+        database.clear();
+
+        assertTrue(database.readFeed(100).isEmpty());
+        assertTrue(database.readMyAnimals().isEmpty());
+    }
+
+    @Test
+    public void logoutWipesStoreAndDatabase() throws InterruptedException {
+        instrumentation.runOnMainSync(() -> {
+            store.putFeedPage(Arrays.asList(animal(10L), animal(11L)));
+            store.putMyAnimals(Arrays.asList(animal(12L)));
+        });
+        assertEquals(2, loadSavedFeed().size());
+        assertEquals(1, database.readMyAnimals().size());
+
+        // Как logout: clearAll() с фонового потока, AnimalStore чистится на главном.
+        AuthStorage.getInstance().clearAll();
+        instrumentation.waitForIdleSync();
+
+        AtomicReference<AnimalRepository.AnimalDto> peeked = new AtomicReference<>();
+        instrumentation.runOnMainSync(() -> peeked.set(store.peek(10L)));
+        assertNull(peeked.get());
+        // Чтение идёт в очереди диска после очистки: пустой результат значит, что таблицы уже пусты.
+        assertTrue(loadSavedFeed().isEmpty());
+        assertTrue(database.readFeed(100).isEmpty());
+        assertTrue(database.readMyAnimals().isEmpty());
+    }
+
+    @Test
+    public void readStartedBeforeClearIsDropped() throws InterruptedException {
+        instrumentation.runOnMainSync(() -> store.putFeedPage(Arrays.asList(animal(20L), animal(21L))));
+        assertEquals(2, loadSavedFeed().size());
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<List<AnimalRepository.AnimalDto>> result = new AtomicReference<>();
+        instrumentation.runOnMainSync(() -> {
+            // Чтение уже в очереди диска и найдёт строки, но пришло оно для прежней сессии.
+            store.loadSavedFeed(100, saved -> {
+                result.set(saved);
+                done.countDown();
+            });
+            store.clear();
+        });
+
+        assertTrue(done.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(result.get().isEmpty());
+        AtomicReference<AnimalRepository.AnimalDto> peeked = new AtomicReference<>();
+        instrumentation.runOnMainSync(() -> peeked.set(store.peek(20L)));
+        assertNull(peeked.get());
+    }
+
+    private List<AnimalRepository.AnimalDto> loadSavedFeed() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<List<AnimalRepository.AnimalDto>> result = new AtomicReference<>();
+        instrumentation.runOnMainSync(() -> store.loadSavedFeed(100, saved -> {
+            result.set(saved);
+            done.countDown();
+        }));
+        assertTrue("saved feed read timed out", done.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        return result.get();
+    }
+
+    private static AnimalRepository.AnimalDto animal(long id) {
+        AnimalRepository.AnimalDto dto = new AnimalRepository.AnimalDto();
+        dto.id = id;
+        dto.name = "animal-" + id;
+        dto.updatedAt = "2026-01-01T00:00:00Z";
+        return dto;
+    }
+}
@@ -2,8 +2,8 @@ package app.belqax.pature;
 
 import android.app.Application;
 
-import app.belqax.pature.data.network.ApiClient;
-import app.belqax.pature.data.storage.AuthStorage;
+import app.belqax.pature.helper.AppForegroundTracker;
+import app.belqax.pature.helper.StartupOrchestrator;
 
 public class PatureApp extends Application {
 
@@ -11,7 +11,9 @@ public class PatureApp extends Application {
     public void onCreate() {
         super.onCreate();
 
-        AuthStorage authStorage = new AuthStorage(this);
-        ApiClient.init(this, authStorage);
+        AppForegroundTracker.init(this);
+
+        // AuthStorage, ApiClient, SwipeOutbox и прогрев идут параллельно в фоне; Splash ждёт готовности.
+        StartupOrchestrator.start(this);
     }
 }
@@ -29,8 +29,10 @@ import java.util.Locale;
 import java.util.Objects;
 
 import app.belqax.pature.R;
+import app.belqax.pature.data.network.RequestHandle;
 import app.belqax.pature.data.repository.AddressRepository;
 import app.belqax.pature.data.repository.AnimalRepository;
+import app.belqax.pature.helper.RequestScope;
 
 public final class AnimalFormActivity extends AppCompatActivity {
 
@@ -103,6 +105,8 @@ public final class AnimalFormActivity extends AppCompatActivity {
     // Data
     private AnimalRepository animalRepo;
     private AddressRepository addressRepo;
+    // Чтения экрана; сохранение формы сюда не входит и доходит до сервера даже после выхода.
+    private final RequestScope requests = RequestScope.bind(this);
 
     private String mode;
     private long animalId = -1;
@@ -122,7 +126,8 @@ public final class AnimalFormActivity extends AppCompatActivity {
 
     private boolean suppressAddressTextWatcher = false;
     private boolean addressLoading = false;
-    private long addressRequestSeq = 0;
+    @Nullable
+    private RequestHandle addressRequest;
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -286,6 +291,8 @@ public final class AnimalFormActivity extends AppCompatActivity {
 
         final String trimmed = query.trim();
         if (trimmed.length() < ADDRESS_MIN_CHARS) {
+            requests.cancel(addressRequest);
+            addressLoading = false;
             lastSuggestions = null;
             acAddress.dismissDropDown();
             return;
@@ -300,10 +307,11 @@ public final class AnimalFormActivity extends AppCompatActivity {
             return;
         }
 
+        // Подсказки для прежнего текста больше не нужны: отменённый запрос не вызовет callback.
+        requests.cancel(addressRequest);
         addressLoading = true;
-        long seq = ++addressRequestSeq;
 
-        addressRepo.autocomplete(
+        addressRequest = requests.add(addressRepo.autocomplete(
                 query,
                 ADDRESS_LIMIT,
                 "ru",
@@ -314,9 +322,6 @@ public final class AnimalFormActivity extends AppCompatActivity {
                         if (isFinishing()) {
                             return;
                         }
-                        if (seq != addressRequestSeq) {
-                            return;
-                        }
 
                         addressLoading = false;
                         lastSuggestions = suggestions;
@@ -346,9 +351,6 @@ public final class AnimalFormActivity extends AppCompatActivity {
                         if (isFinishing()) {
                             return;
                         }
-                        if (seq != addressRequestSeq) {
-                            return;
-                        }
 
                         addressLoading = false;
                         lastSuggestions = null;
@@ -357,7 +359,7 @@ public final class AnimalFormActivity extends AppCompatActivity {
                         Log.w(TAG, "autocomplete error: " + error.getMessage() + " http=" + error.getHttpCode());
                     }
                 }
-        );
+        ));
     }
 
     @NonNull
@@ -506,7 +508,7 @@ public final class AnimalFormActivity extends AppCompatActivity {
 
     private void loadAnimal(long id) {
         setBusy(true);
-        animalRepo.getAnimalById(id, result -> {
+        requests.add(animalRepo.getAnimalById(id, result -> {
             if (isFinishing()) {
                 return;
             }
@@ -572,7 +574,7 @@ public final class AnimalFormActivity extends AppCompatActivity {
             lastSuggestions = null;
 
             setBusy(false);
-        });
+        }));
     }
 
     private void onSaveClicked() {
@@ -28,9 +28,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 import app.belqax.pature.R;
+import app.belqax.pature.data.network.RequestHandle;
 import app.belqax.pature.data.repository.AddressRepository;
 import app.belqax.pature.data.repository.AddressRepository.AddressError;
 import app.belqax.pature.data.repository.AddressRepository.SuggestionDto;
+import app.belqax.pature.helper.RequestScope;
 
 public class EditProfileFieldActivity extends AppCompatActivity {
 
@@ -88,6 +90,10 @@ public class EditProfileFieldActivity extends AppCompatActivity {
     @Nullable
     private String lastAddressQuery = null;
 
+    private final RequestScope requests = RequestScope.bind(this);
+    @Nullable
+    private RequestHandle addressRequest;
+
     private boolean isProgrammaticTextChange = false;
 
     @Override
@@ -373,6 +379,7 @@ public class EditProfileFieldActivity extends AppCompatActivity {
         lastAddressQuery = query;
 
         if (query.length() < ADDRESS_AUTOCOMPLETE_MIN_LENGTH) {
+            requests.cancel(addressRequest);
             clearAddressSuggestions();
             return;
         }
@@ -395,7 +402,9 @@ public class EditProfileFieldActivity extends AppCompatActivity {
             return;
         }
 
-        addressRepository.autocomplete(
+        // Ответ для прежнего текста уже не нужен.
+        requests.cancel(addressRequest);
+        addressRequest = requests.add(addressRepository.autocomplete(
                 query,
                 ADDRESS_AUTOCOMPLETE_LIMIT,
                 ADDRESS_AUTOCOMPLETE_LANG,
@@ -412,7 +421,7 @@ public class EditProfileFieldActivity extends AppCompatActivity {
                         clearAddressSuggestions();
                     }
                 }
-        );
+        ));
     }
 
     private void updateAddressSuggestionsFromDtos(@NonNull List<SuggestionDto> dtos) {
@@ -47,8 +47,7 @@ public class LoginActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_login);
 
-        AuthStorage authStorage = new AuthStorage(this);
-        authRepository = new AuthRepository(authStorage);
+        authRepository = new AuthRepository(AuthStorage.getInstance());
 
         inputLogin = findViewById(R.id.inputLogin);
         inputPassword = findViewById(R.id.inputPassword);
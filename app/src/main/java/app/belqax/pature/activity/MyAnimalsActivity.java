@@ -18,7 +18,10 @@ import java.util.List;
 
 import app.belqax.pature.R;
 import app.belqax.pature.adapter.MyAnimalsAdapter;
+import app.belqax.pature.data.network.RequestHandle;
 import app.belqax.pature.data.repository.AnimalRepository;
+import app.belqax.pature.data.repository.AnimalStore;
+import app.belqax.pature.helper.RequestScope;
 
 public final class MyAnimalsActivity extends AppCompatActivity {
 
@@ -31,6 +34,12 @@ public final class MyAnimalsActivity extends AppCompatActivity {
     private ImageButton backButton;
     private MyAnimalsAdapter adapter;
 
+    private final RequestScope requests = RequestScope.bind(this);
+    @Nullable
+    private RequestHandle listRequest;
+    // Список с сервера уже показан: сохранённый с диска его не перекрывает.
+    private boolean listLoaded = false;
+
     private final androidx.activity.result.ActivityResultLauncher<Intent> formLauncher =
             registerForActivityResult(
                     new androidx.activity.result.contract.ActivityResultContracts.StartActivityForResult(),
@@ -63,11 +72,23 @@ public final class MyAnimalsActivity extends AppCompatActivity {
         fab.setOnClickListener(v -> openCreateAnimal());
         backButton.setOnClickListener(v -> finish());
 
+        // Правки из формы (и любых других экранов) приходят сюда без перезапроса списка.
+        AnimalStore.getInstance().observe(this, adapter::updateItem);
+
+        // Сохранённый список показывается сразу, актуальный с сервера заменит его.
+        repo.getSavedMyAnimals(result -> {
+            if (!isFinishing() && !listLoaded && result.data != null && !result.data.isEmpty()) {
+                adapter.setItems(result.data);
+            }
+        });
         loadMyAnimals();
     }
 
     private void loadMyAnimals() {
-        repo.listMyAnimals(result -> {
+        // После возврата из формы список читается заново: правки уже в AnimalStore,
+        // в сеть уходит только если состав списка изменился (создание) или он устарел.
+        requests.cancel(listRequest);
+        listRequest = requests.add(repo.listMyAnimals(result -> {
             if (isFinishing()) {
                 return;
             }
@@ -82,8 +103,9 @@ public final class MyAnimalsActivity extends AppCompatActivity {
             if (items == null) {
                 items = java.util.Collections.emptyList();
             }
+            listLoaded = true;
             adapter.setItems(items);
-        });
+        }));
     }
 
     private void openCreateAnimal() {
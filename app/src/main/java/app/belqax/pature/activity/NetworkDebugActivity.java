@@ -0,0 +1,55 @@
+package app.belqax.pature.activity;
+
+import android.os.Bundle;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+
+import app.belqax.pature.R;
+import app.belqax.pature.data.network.ApiClient;
+import app.belqax.pature.helper.StartupOrchestrator;
+
+/**
+ * Debug-экран сетевых метрик: тайминги по эндпоинтам, соединения, HTTP-кеш, refresh и фазы старта.
+ * Открывается долгим нажатием на заголовок настроек профиля в debug-сборке.
+ */
+public class NetworkDebugActivity extends AppCompatActivity {
+
+    private TextView text;
+
+    @Override
+    protected void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_network_debug);
+
+        text = findViewById(R.id.networkDebugText);
+
+        findViewById(R.id.networkDebugBackButton).setOnClickListener(v -> finish());
+        findViewById(R.id.networkDebugRefreshButton).setOnClickListener(v -> render());
+        findViewById(R.id.networkDebugWriteButton).setOnClickListener(v -> {
+            ApiClient api = ApiClient.getInstance();
+            api.getMetricsFileWriter().dumpAsync();
+            Toast.makeText(this,
+                    getString(R.string.network_debug_written, api.getMetricsFileWriter().getCurrentFile().getPath()),
+                    Toast.LENGTH_SHORT).show();
+        });
+        findViewById(R.id.networkDebugResetButton).setOnClickListener(v -> {
+            ApiClient.getInstance().getNetworkMetrics().reset();
+            render();
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        render();
+    }
+
+    private void render() {
+        String report = ApiClient.getInstance().dumpNetworkReport()
+                + "\n[startup]\n" + StartupOrchestrator.getInstance().getTrace().dump();
+        text.setText(report);
+    }
+}
@@ -1,5 +1,6 @@
 package app.belqax.pature.activity;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
@@ -15,8 +16,10 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.google.android.material.switchmaterial.SwitchMaterial;
 
+import app.belqax.pature.BuildConfig;
 import app.belqax.pature.R;
 import app.belqax.pature.data.repository.ProfileRepository;
+import app.belqax.pature.helper.RequestScope;
 import app.belqax.pature.ui.ChangePasswordBottomSheet;
 import app.belqax.pature.ui.PrivacyVisibilityBottomSheet;
 
@@ -39,6 +42,8 @@ public class ProfileSettingsActivity extends AppCompatActivity {
 
     private boolean isUpdatingUiProgrammatically = false;
 
+    private final RequestScope requests = RequestScope.bind(this);
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -55,8 +60,8 @@ public class ProfileSettingsActivity extends AppCompatActivity {
             renderFromMe(cached);
         }
 
-        // 2) Затем обновляет с сервера (актуально)
-        repository.loadProfile(new ProfileRepository.ProfileCallback() {
+        // 2) Затем обновляет с сервера (актуально); при закрытии экрана запрос отменяется
+        requests.add(repository.loadProfile(new ProfileRepository.ProfileCallback() {
             @Override
             public void onSuccess(@NonNull ProfileRepository.MeResponse meResponse) {
                 renderFromMe(meResponse);
@@ -69,7 +74,7 @@ public class ProfileSettingsActivity extends AppCompatActivity {
                     toast(error.getMessage());
                 }
             }
-        });
+        }));
     }
 
     private void bindViews() {
@@ -101,6 +106,13 @@ public class ProfileSettingsActivity extends AppCompatActivity {
         });
         hideProfileRow.setOnClickListener(v -> showProfileVisibilityDialog());
         hidePhotosRow.setOnClickListener(v -> showPhotosVisibilityDialog());
+
+        if (BuildConfig.DEBUG) {
+            findViewById(R.id.profileSettingsTitle).setOnLongClickListener(v -> {
+                startActivity(new Intent(this, NetworkDebugActivity.class));
+                return true;
+            });
+        }
     }
 
     private void renderFromMe(@NonNull ProfileRepository.MeResponse me) {
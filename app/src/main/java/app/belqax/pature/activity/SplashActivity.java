@@ -2,8 +2,7 @@ package app.belqax.pature.activity;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
+import android.widget.Toast;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
@@ -11,26 +10,34 @@ import androidx.appcompat.app.AppCompatActivity;
 import app.belqax.pature.R;
 import app.belqax.pature.data.repository.AuthRepository;
 import app.belqax.pature.data.storage.AuthStorage;
+import app.belqax.pature.helper.StartupOrchestrator;
 
 public class SplashActivity extends AppCompatActivity {
 
-    private static final long SPLASH_DELAY_MS = 1000L;
-
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_splash);
 
-        AuthStorage authStorage = new AuthStorage(this);
-        AuthRepository authRepository = new AuthRepository(authStorage);
-
-        new Handler(Looper.getMainLooper()).postDelayed(() -> {
+        // Запуск уже идёт с Application.onCreate(); splash закрывается, как только готов критический набор.
+        StartupOrchestrator.getInstance().whenReadyForFirstScreen(() -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            AuthRepository authRepository = new AuthRepository(AuthStorage.getInstance());
             if (authRepository.isLoggedIn()) {
                 openHome();
             } else {
                 openLogin();
             }
-        }, SPLASH_DELAY_MS);
+        }, error -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            // Без сетевого клиента ни один экран не работает: закрываемся, а не падаем на первом запросе.
+            Toast.makeText(this, R.string.startup_error, Toast.LENGTH_LONG).show();
+            finishAffinity();
+        });
     }
 
     private void openHome() {
@@ -28,8 +28,19 @@ public final class CardAdapter {
         void onCardClicked(@NonNull AnimalCardItem item);
     }
 
+    /**
+     * Наблюдатель изменений данных адаптера (аналог RecyclerView.AdapterDataObserver).
+     * Позволяет стеку точечно реагировать на изменения вместо полной пересборки.
+     */
+    public interface DataObserver {
+        void onChanged();
+        void onItemsAppended(int positionStart, int itemCount);
+        void onItemRemoved(int position);
+    }
+
     private final Context context;
     private final List<AnimalCardItem> items = new ArrayList<>();
+    private final List<DataObserver> observers = new ArrayList<>();
     @Nullable
     private CardActionListener listener;
 
@@ -41,13 +52,37 @@ public final class CardAdapter {
         this.listener = listener;
     }
 
+    public void registerDataObserver(@NonNull DataObserver observer) {
+        Objects.requireNonNull(observer, "observer");
+        if (!observers.contains(observer)) {
+            observers.add(observer);
+        }
+    }
+
+    public void unregisterDataObserver(@NonNull DataObserver observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * Полностью заменяет данные. Стек будет пересобран, поэтому для подгрузки страниц использовать addItems.
+     */
     public void setItems(@NonNull List<AnimalCardItem> newItems) {
         items.clear();
         items.addAll(Objects.requireNonNull(newItems, "newItems"));
+        notifyChanged();
     }
 
+    /**
+     * Добавляет элементы в конец. Уже показанные карточки не трогаются.
+     */
     public void addItems(@NonNull List<AnimalCardItem> more) {
-        items.addAll(Objects.requireNonNull(more, "more"));
+        Objects.requireNonNull(more, "more");
+        if (more.isEmpty()) {
+            return;
+        }
+        int start = items.size();
+        items.addAll(more);
+        notifyItemsAppended(start, more.size());
     }
 
     public int getCount() {
@@ -59,64 +94,146 @@ public final class CardAdapter {
         return items.get(position);
     }
 
+    /**
+     * Подменяет данные карточки (например, более свежая версия с сервера). Карточки, которые стек
+     * уже привязал, не перерисовываются; новые данные увидят те, что будут привязаны позже.
+     */
+    public void replaceItem(int position, @NonNull AnimalCardItem item) {
+        if (position < 0 || position >= items.size()) {
+            return;
+        }
+        items.set(position, Objects.requireNonNull(item, "item"));
+    }
+
     public void removeAt(int position) {
         if (position < 0 || position >= items.size()) {
             return;
         }
         items.remove(position);
+        notifyItemRemoved(position);
     }
 
-    @NonNull
-    public View getView(int position, @NonNull ViewGroup parent) {
-        View v = LayoutInflater.from(context).inflate(R.layout.item_animal_card, parent, false);
+    private void notifyChanged() {
+        for (DataObserver o : new ArrayList<>(observers)) {
+            o.onChanged();
+        }
+    }
 
-        AnimalCardItem item = items.get(position);
+    private void notifyItemsAppended(int positionStart, int itemCount) {
+        for (DataObserver o : new ArrayList<>(observers)) {
+            o.onItemsAppended(positionStart, itemCount);
+        }
+    }
 
-        ImageView image = v.findViewById(R.id.cardImage);
-        TextView name = v.findViewById(R.id.cardName);
-        TextView desc = v.findViewById(R.id.cardDescription);
-        ImageButton like = v.findViewById(R.id.cardLike);
-        ImageButton dislike = v.findViewById(R.id.cardDislike);
-        ImageButton contact = v.findViewById(R.id.cardContact);
+    private void notifyItemRemoved(int position) {
+        for (DataObserver o : new ArrayList<>(observers)) {
+            o.onItemRemoved(position);
+        }
+    }
 
-        name.setText(item.getName());
-        desc.setText(item.getDescription() != null ? item.getDescription() : "");
+    // ======================================================================
+    // ViewHolder-контракт: create / bind / recycle
+    // ======================================================================
 
-        Glide.with(context)
-                .load(item.getImageUrl())
-                .centerCrop()
-                .placeholder(R.drawable.photo)
-                .into(image);
+    /**
+     * Создаёт новую карточку. Стек вызывает это только когда в пуле нет свободной карточки.
+     */
+    @NonNull
+    public CardViewHolder createViewHolder(@NonNull ViewGroup parent) {
+        View v = LayoutInflater.from(context).inflate(R.layout.item_animal_card, parent, false);
+        CardViewHolder h = new CardViewHolder(v);
 
-        v.setOnClickListener(view -> {
-            CardActionListener l = listener;
-            if (l != null) {
-                l.onCardClicked(item);
-            }
-        });
+        // Листенеры вешаются один раз и читают текущий элемент из холдера, поэтому при rebind не пересоздаются.
+        v.setOnClickListener(view -> dispatchCardClicked(h));
 
-        like.setOnClickListener(view -> {
+        h.like.setOnClickListener(view -> {
             CardActionListener l = listener;
-            if (l != null) {
+            AnimalCardItem item = h.item;
+            if (l != null && item != null) {
                 l.onLikeClicked(item);
             }
         });
 
-        dislike.setOnClickListener(view -> {
+        h.dislike.setOnClickListener(view -> {
             CardActionListener l = listener;
-            if (l != null) {
+            AnimalCardItem item = h.item;
+            if (l != null && item != null) {
                 l.onDislikeClicked(item);
             }
         });
 
         // Пока нет contactUrl с бэка: оставляем кнопку, но не падаем.
-        contact.setOnClickListener(view -> {
-            CardActionListener l = listener;
-            if (l != null) {
-                l.onCardClicked(item);
-            }
-        });
+        h.contact.setOnClickListener(view -> dispatchCardClicked(h));
+
+        return h;
+    }
+
+    public void bindViewHolder(@NonNull CardViewHolder h, int position) {
+        AnimalCardItem item = items.get(position);
+        h.item = item;
 
-        return v;
+        h.name.setText(item.getName());
+        h.description.setText(item.getDescription() != null ? item.getDescription() : "");
+
+        Glide.with(context)
+                .load(item.getImageUrl())
+                .centerCrop()
+                .placeholder(R.drawable.photo)
+                .into(h.image);
+    }
+
+    /**
+     * Освобождает ресурсы карточки перед возвратом в пул.
+     */
+    public void onViewRecycled(@NonNull CardViewHolder h) {
+        h.item = null;
+        Glide.with(context).clear(h.image);
+    }
+
+    private void dispatchCardClicked(@NonNull CardViewHolder h) {
+        CardActionListener l = listener;
+        AnimalCardItem item = h.item;
+        if (l != null && item != null) {
+            l.onCardClicked(item);
+        }
+    }
+
+    public static final class CardViewHolder {
+
+        @NonNull
+        public final View itemView;
+
+        final ImageView image;
+        final TextView name;
+        final TextView description;
+        final ImageButton like;
+        final ImageButton dislike;
+        final ImageButton contact;
+
+        @Nullable
+        public final View likeBg;
+        @Nullable
+        public final View dislikeBg;
+        @Nullable
+        public final View likeOverlay;
+        @Nullable
+        public final View dislikeOverlay;
+
+        @Nullable
+        AnimalCardItem item;
+
+        CardViewHolder(@NonNull View itemView) {
+            this.itemView = itemView;
+            image = itemView.findViewById(R.id.cardImage);
+            name = itemView.findViewById(R.id.cardName);
+            description = itemView.findViewById(R.id.cardDescription);
+            like = itemView.findViewById(R.id.cardLike);
+            dislike = itemView.findViewById(R.id.cardDislike);
+            contact = itemView.findViewById(R.id.cardContact);
+            likeBg = itemView.findViewById(R.id.swipeLikeBg);
+            dislikeBg = itemView.findViewById(R.id.swipeDislikeBg);
+            likeOverlay = itemView.findViewById(R.id.swipeLikeOverlay);
+            dislikeOverlay = itemView.findViewById(R.id.swipeDislikeOverlay);
+        }
     }
 }
@@ -45,6 +45,25 @@ public final class MyAnimalsAdapter extends RecyclerView.Adapter<MyAnimalsAdapte
         notifyDataSetChanged();
     }
 
+    /**
+     * Точечное обновление по изменению в AnimalStore. dto == null – животное удалено.
+     */
+    public void updateItem(long animalId, @Nullable AnimalRepository.AnimalDto dto) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).id != animalId) {
+                continue;
+            }
+            if (dto == null) {
+                items.remove(i);
+                notifyItemRemoved(i);
+            } else {
+                items.set(i, dto);
+                notifyItemChanged(i);
+            }
+            return;
+        }
+    }
+
     @NonNull
     @Override
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -1,17 +1,23 @@
 package app.belqax.pature.data.network;
 
 import android.content.Context;
-import android.os.Build;
+import android.util.Log;
 
 import androidx.annotation.NonNull;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
+import app.belqax.pature.BuildConfig;
 import app.belqax.pature.data.storage.AuthStorage;
+import okhttp3.Cache;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
@@ -20,93 +26,167 @@ import retrofit2.converter.gson.GsonConverterFactory;
  * Содержит:
  * - заголовки устройства;
  * - Authorization: Bearer ...;
- * - TokenAuthenticator с автоматическим refresh при 401.
+ * - TokenAuthenticator с автоматическим refresh при 401;
+ * - TokenRefreshScheduler с проактивным refresh до истечения токена;
+ * - дисковый HTTP-кеш с политиками по эндпоинтам (HttpCachePolicy).
+ *
+ * Основной клиент и клиент refresh строятся на одном NetworkCore (общий пул соединений, DNS и TLS;
+ * Dispatcher у refresh свой, см. NetworkCore).
  */
 public final class ApiClient {
 
     public static final String API_BASE_URL = "https://api.belqax.xyz/";
-    private static final long NETWORK_TIMEOUT_SECONDS = 30L;
-    private static final String APP_VERSION = "0.1.0-dev";
 
-    private static ApiClient instance;
+    private static final String TAG = "ApiClient";
+    private static final String HTTP_CACHE_DIR = "http_cache";
+    private static final long HTTP_CACHE_SIZE_BYTES = 20L * 1024L * 1024L;
+
+    // Сколько getInstance() ждёт сборки клиента, запущенной через initAsync().
+    private static final long INIT_WAIT_TIMEOUT_MS = 10_000L;
+
+    private static volatile ApiClient instance;
+    private static volatile boolean initPending = false;
+    private static final CountDownLatch initDone = new CountDownLatch(1);
 
     private final Retrofit retrofit;
     private final AuthApi authApi;
+    private final Cache httpCache;
+    private final HttpCacheStats httpCacheStats = new HttpCacheStats();
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+    private final CallRetrier callRetrier;
+    private final PriorityDispatcher priorityDispatcher;
+    private final NetworkCore networkCore;
+    private final TokenAuthenticator tokenAuthenticator;
+    private final TokenRefreshScheduler tokenRefreshScheduler;
+    private final ConnectionWarmer connectionWarmer;
+    private final MetricsFileWriter metricsFileWriter;
 
     private ApiClient(@NonNull Context context, @NonNull AuthStorage authStorage) {
-        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+        networkCore = new NetworkCore(context);
+        connectionWarmer = new ConnectionWarmer(networkCore, API_BASE_URL);
+        metricsFileWriter = new MetricsFileWriter(context.getFilesDir(), this);
 
         // Технические заголовки устройства/приложения
-        Interceptor deviceHeadersInterceptor = chain -> {
-            Request original = chain.request();
-
-            String deviceId = authStorage.getOrCreateDeviceId();
-            String platform = "android";
-            String deviceModel = Build.MANUFACTURER + " " + Build.MODEL;
-            String osVersion = Build.VERSION.RELEASE;
-
-            Request request = original.newBuilder()
-                    .header("X-Device-Id", deviceId)
-                    .header("X-Platform", platform)
-                    .header("X-Device-Model", deviceModel)
-                    .header("X-OS-Version", osVersion)
-                    .header("X-App-Version", APP_VERSION)
-                    .build();
-
-            return chain.proceed(request);
-        };
+        Interceptor deviceHeadersInterceptor = new DeviceHeadersInterceptor(authStorage);
 
-        // Authorization: Bearer ...
+        // Authorization: Bearer ... (значение заранее собрано в памяти AuthStorage)
         Interceptor authHeaderInterceptor = chain -> {
             Request original = chain.request();
 
-            String accessToken = authStorage.getAccessToken();
-            if (accessToken == null || accessToken.isEmpty()) {
+            String authorization = authStorage.getAuthorizationHeader();
+            if (authorization == null) {
                 return chain.proceed(original);
             }
 
             Request request = original.newBuilder()
-                    .header("Authorization", "Bearer " + accessToken)
+                    .header("Authorization", authorization)
                     .build();
 
             return chain.proceed(request);
         };
 
-        TokenAuthenticator tokenAuthenticator =
-                new TokenAuthenticator(authStorage,API_BASE_URL);
+        tokenAuthenticator = new TokenAuthenticator(
+                authStorage,
+                API_BASE_URL,
+                networkCore.newIsolatedClientBuilder("refresh")
+                        .addInterceptor(deviceHeadersInterceptor)
+                        .build()
+        );
+        tokenRefreshScheduler = new TokenRefreshScheduler(authStorage, tokenAuthenticator);
 
-        OkHttpClient okHttpClient = new OkHttpClient.Builder()
-                .addInterceptor(loggingInterceptor)
+        httpCache = new Cache(new File(context.getCacheDir(), HTTP_CACHE_DIR), HTTP_CACHE_SIZE_BYTES);
+        HttpCachePolicy.RevalidationInterceptor revalidationInterceptor =
+                new HttpCachePolicy.RevalidationInterceptor(httpCacheStats);
+
+        OkHttpClient.Builder builder = networkCore.newClientBuilder("api")
+                .cache(httpCache)
                 .addInterceptor(deviceHeadersInterceptor)
                 .addInterceptor(authHeaderInterceptor)
-                .authenticator(tokenAuthenticator)
-                .connectTimeout(NETWORK_TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .readTimeout(NETWORK_TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .writeTimeout(NETWORK_TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .build();
+                .addInterceptor(revalidationInterceptor)
+                .addNetworkInterceptor(new HttpCachePolicy.NetworkInterceptor(httpCache))
+                .authenticator(tokenAuthenticator);
+
+        // Лог последним в цепочке: видит итоговые заголовки (с редактированием) и ответы из кеша.
+        // В release режим NONE и интерцептор не ставится вовсе.
+        NetworkLogger.Mode logMode = NetworkLogger.Mode.parse(BuildConfig.NETWORK_LOG_MODE);
+        if (logMode != NetworkLogger.Mode.NONE) {
+            builder.addInterceptor(new NetworkLogger(logMode));
+        }
+
+        OkHttpClient okHttpClient = builder.build();
+
+        revalidationInterceptor.setCallFactory(okHttpClient);
 
         retrofit = new Retrofit.Builder()
                 .baseUrl(API_BASE_URL)
                 .client(okHttpClient)
-                .addConverterFactory(GsonConverterFactory.create())
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
                 .build();
 
         authApi = retrofit.create(AuthApi.class);
+
+        Executor callbackExecutor = retrofit.callbackExecutor() != null ? retrofit.callbackExecutor() : Runnable::run;
+        callRetrier = new CallRetrier(callbackExecutor);
+        priorityDispatcher = new PriorityDispatcher(callbackExecutor);
     }
 
     public static void init(@NonNull Context context, @NonNull AuthStorage authStorage) {
-        if (instance == null) {
-            instance = new ApiClient(context.getApplicationContext(), authStorage);
+        synchronized (ApiClient.class) {
+            if (instance == null) {
+                try {
+                    instance = new ApiClient(context.getApplicationContext(), authStorage);
+                } finally {
+                    initDone.countDown();
+                }
+            }
         }
     }
 
+    /**
+     * Собирает клиент на executor. Пока сборка идёт, getInstance() ждёт её, а не падает.
+     */
+    @NonNull
+    public static CompletableFuture<ApiClient> initAsync(
+            @NonNull Context context,
+            @NonNull AuthStorage authStorage,
+            @NonNull Executor executor
+    ) {
+        initPending = true;
+        Context appContext = context.getApplicationContext();
+        return CompletableFuture.supplyAsync(() -> {
+            init(appContext, authStorage);
+            return instance;
+        }, executor);
+    }
+
     @NonNull
     public static ApiClient getInstance() {
-        if (instance == null) {
-            throw new IllegalStateException("ApiClient.init() must be called in Application.onCreate()");
+        ApiClient c = instance;
+        if (c != null) {
+            return c;
         }
-        return instance;
+
+        if (initPending) {
+            Log.w(TAG, "getInstance: waiting for async init on " + Thread.currentThread().getName());
+            try {
+                initDone.await(INIT_WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            c = instance;
+            if (c != null) {
+                return c;
+            }
+        }
+        throw new IllegalStateException("ApiClient.init() must be called in Application.onCreate()");
+    }
+
+    /**
+     * Прогрев соединения к API_BASE_URL на старте и при возврате из фона.
+     */
+    @NonNull
+    public ConnectionWarmer getConnectionWarmer() {
+        return connectionWarmer;
     }
 
     @NonNull
@@ -118,4 +198,92 @@ public final class ApiClient {
     public AuthApi getAuthApi() {
         return authApi;
     }
+
+    @NonNull
+    public TokenAuthenticator getTokenAuthenticator() {
+        return tokenAuthenticator;
+    }
+
+    @NonNull
+    public TokenRefreshScheduler getTokenRefreshScheduler() {
+        return tokenRefreshScheduler;
+    }
+
+    /**
+     * Новые соединения, TLS-рукопожатия (полные/возобновлённые) и переиспользования пула по клиентам.
+     */
+    @NonNull
+    public ConnectionStats getConnectionStats() {
+        return networkCore.getConnectionStats();
+    }
+
+    /**
+     * Тайминги DNS/connect/TLS/TTFB/total, байты, reuse и повторы по эндпоинтам.
+     */
+    @NonNull
+    public NetworkMetrics getNetworkMetrics() {
+        return networkCore.getNetworkMetrics();
+    }
+
+    @NonNull
+    public MetricsFileWriter getMetricsFileWriter() {
+        return metricsFileWriter;
+    }
+
+    /**
+     * Общий single-flight для одинаковых GET из репозиториев.
+     */
+    @NonNull
+    public RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    /**
+     * Повторы с backoff для операций, которые безопасно повторять (см. RetryPolicy).
+     */
+    @NonNull
+    public CallRetrier getCallRetrier() {
+        return callRetrier;
+    }
+
+    /**
+     * Приоритетные полосы (interactive/prefetch/bulk) для запросов репозиториев.
+     */
+    @NonNull
+    public PriorityDispatcher getPriorityDispatcher() {
+        return priorityDispatcher;
+    }
+
+    /**
+     * Сводный текстовый отчёт по сети для debug-экрана и файла метрик.
+     */
+    @NonNull
+    public String dumpNetworkReport() {
+        return "[endpoints]\n" + getNetworkMetrics().dump()
+                + "\n[connections]\n" + getConnectionStats().dump()
+                + "\n[http cache]\n" + httpCacheStats.dump()
+                + "\n[coalesced GET]\n" + requestCoalescer.dump()
+                + "\n[retries]\n" + callRetrier.dump()
+                + "\n[priority lanes]\n" + priorityDispatcher.dump()
+                + "\n[token refresh]\n" + tokenAuthenticator.getRefreshStats() + "\n";
+    }
+
+    /**
+     * Счётчики hit/miss/304 HTTP-кеша по эндпоинтам.
+     */
+    @NonNull
+    public HttpCacheStats getHttpCacheStats() {
+        return httpCacheStats;
+    }
+
+    /**
+     * Полностью очищает HTTP-кеш. Вызывается при смене сессии, чтобы не отдать чужие ответы.
+     */
+    public void evictHttpCache() {
+        try {
+            httpCache.evictAll();
+        } catch (IOException e) {
+            Log.w(TAG, "evictHttpCache failed: " + e);
+        }
+    }
 }
@@ -0,0 +1,92 @@
+package app.belqax.pature.data.network;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+/**
+ * Сопоставляет HTTP-запрос логическому эндпоинту API.
+ * Используется для кеш-политик и счётчиков, чтобы /animals/12 и /animals/13 считались одним эндпоинтом.
+ */
+public final class ApiEndpoints {
+
+    public static final String FEED = "feed";
+    public static final String ANIMALS_PUBLIC = "animals/public";
+    public static final String ANIMALS_MY = "animals/my";
+    public static final String ANIMAL_BY_ID = "animals/{id}";
+    public static final String ANIMAL_WRITE = "animals/write";
+    public static final String LIKE = "like";
+    public static final String USERS_ME = "users/me";
+    public static final String USERS_ME_WRITE = "users/me/write";
+    public static final String ADDRESS_AUTOCOMPLETE = "addresses/autocomplete";
+    public static final String UPLOADS = "uploads";
+    public static final String AUTH = "auth";
+    public static final String OTHER = "other";
+
+    private ApiEndpoints() {
+    }
+
+    @NonNull
+    public static String classify(@NonNull Request request) {
+        return classify(request.method(), request.url());
+    }
+
+    @NonNull
+    public static String classify(@NonNull String method, @NonNull HttpUrl url) {
+        List<String> s = url.pathSegments();
+        if (s.isEmpty()) {
+            return OTHER;
+        }
+
+        boolean isGet = "GET".equals(method) || "HEAD".equals(method);
+        String first = s.get(0);
+
+        switch (first) {
+            case "feed":
+                return FEED;
+
+            case "auth":
+                return AUTH;
+
+            case "addresses":
+                return ADDRESS_AUTOCOMPLETE;
+
+            case "users":
+                if (s.size() >= 3 && "avatar".equals(s.get(2)) && "POST".equals(method)) {
+                    return UPLOADS;
+                }
+                return isGet ? USERS_ME : USERS_ME_WRITE;
+
+            case "animal-photos":
+                return ANIMAL_WRITE;
+
+            case "animals":
+                if (s.size() == 1) {
+                    return ANIMAL_WRITE;
+                }
+                String second = s.get(1);
+                if ("public".equals(second)) {
+                    return ANIMALS_PUBLIC;
+                }
+                if ("my".equals(second)) {
+                    return ANIMALS_MY;
+                }
+                if ("likes".equals(second)) {
+                    return LIKE;
+                }
+                if (s.size() >= 3 && "like".equals(s.get(2))) {
+                    return LIKE;
+                }
+                if (s.size() == 3 && "photos".equals(s.get(2)) && "POST".equals(method)) {
+                    return UPLOADS;
+                }
+                return isGet && s.size() == 2 ? ANIMAL_BY_ID : ANIMAL_WRITE;
+
+            default:
+                return OTHER;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package app.belqax.pature.data.network;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import retrofit2.Call;
+
+/**
+ * Оборачивает Retrofit-вызовы репозиториев в RetryingCall с политикой конкретной операции
+ * и считает повторы по операциям. Один экземпляр на процесс, живёт в ApiClient.
+ */
+public final class CallRetrier {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "net-retry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Executor callbackExecutor;
+    private final ConcurrentHashMap<String, Counters> byOp = new ConcurrentHashMap<>();
+
+    CallRetrier(@NonNull Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Вызов с повторами по policy. Для RetryPolicy.NONE возвращает исходный вызов.
+     */
+    @NonNull
+    public <T> Call<T> wrap(@NonNull String opName, @NonNull Call<T> call, @NonNull RetryPolicy policy) {
+        if (policy.getMaxRetries() == 0) {
+            return call;
+        }
+        return new RetryingCall<>(this, opName, policy, call, scheduler, callbackExecutor);
+    }
+
+    /**
+     * Сколько повторов понадобилось вызову, пришедшему в callback (0 для вызовов без политики).
+     */
+    public static int retriesOf(@NonNull Call<?> call) {
+        return call instanceof RetryingCall ? ((RetryingCall<?>) call).getRetries() : 0;
+    }
+
+    void record(@NonNull String opName, int retries, boolean success) {
+        Counters c = byOp.get(opName);
+        if (c == null) {
+            Counters created = new Counters();
+            c = byOp.putIfAbsent(opName, created);
+            if (c == null) {
+                c = created;
+            }
+        }
+        c.calls.incrementAndGet();
+        if (retries > 0) {
+            c.retries.addAndGet(retries);
+            if (success) {
+                c.recovered.incrementAndGet();
+            } else {
+                c.exhausted.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Снимок счётчиков, отсортированный по имени операции.
+     */
+    @NonNull
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> out = new TreeMap<>();
+        for (Map.Entry<String, Counters> e : byOp.entrySet()) {
+            Counters c = e.getValue();
+            out.put(e.getKey(), new Snapshot(c.calls.get(), c.retries.get(), c.recovered.get(), c.exhausted.get()));
+        }
+        return out;
+    }
+
+    @NonNull
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Snapshot> e : snapshot().entrySet()) {
+            Snapshot s = e.getValue();
+            sb.append(e.getKey())
+                    .append(": calls=").append(s.calls)
+                    .append(" retries=").append(s.retries)
+                    .append(" recovered=").append(s.recovered)
+                    .append(" exhausted=").append(s.exhausted)
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static final class Snapshot {
+        public final long calls;
+        public final long retries;
+        // Вызов удался после повторов.
+        public final long recovered;
+        // Повторы не помогли: отказ после последней попытки или дедлайна.
+        public final long exhausted;
+
+        Snapshot(long calls, long retries, long recovered, long exhausted) {
+            this.calls = calls;
+            this.retries = retries;
+            this.recovered = recovered;
+            this.exhausted = exhausted;
+        }
+    }
+
+    private static final class Counters {
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong retries = new AtomicLong();
+        final AtomicLong recovered = new AtomicLong();
+        final AtomicLong exhausted = new AtomicLong();
+    }
+}
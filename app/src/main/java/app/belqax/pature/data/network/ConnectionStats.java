@@ -0,0 +1,94 @@
+package app.belqax.pature.data.network;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики соединений по клиентам, построенным на NetworkCore ("api", "refresh", "preconnect").
+ * newConnections – полный TCP connect, tlsHandshakes – TLS-рукопожатия,
+ * reused – запрос получил уже открытое соединение из общего пула, то есть сэкономил connect+TLS.
+ *
+ * Рукопожатия делятся на полные и возобновлённые: у возобновлённой сессии время создания
+ * раньше начала connect (сессия пришла из кеша, в том числе с прошлого запуска).
+ */
+public final class ConnectionStats {
+
+    private final ConcurrentHashMap<String, Counters> byClient = new ConcurrentHashMap<>();
+
+    /**
+     * Счётчики клиента с именем clientName; пишет в них MetricsEventListener.
+     */
+    @NonNull
+    Counters counters(@NonNull String clientName) {
+        Counters c = byClient.get(clientName);
+        if (c == null) {
+            Counters created = new Counters();
+            c = byClient.putIfAbsent(clientName, created);
+            if (c == null) {
+                c = created;
+            }
+        }
+        return c;
+    }
+
+    @NonNull
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> out = new TreeMap<>();
+        for (Map.Entry<String, Counters> e : byClient.entrySet()) {
+            Counters c = e.getValue();
+            out.put(e.getKey(), new Snapshot(
+                    c.newConnections.get(),
+                    c.tlsHandshakes.get(),
+                    c.tlsFull.get(),
+                    c.tlsResumed.get(),
+                    c.reused.get()
+            ));
+        }
+        return out;
+    }
+
+    @NonNull
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Snapshot> e : snapshot().entrySet()) {
+            Snapshot s = e.getValue();
+            sb.append(e.getKey())
+                    .append(": connects=").append(s.newConnections)
+                    .append(" tls=").append(s.tlsHandshakes)
+                    .append(" (full=").append(s.tlsFull)
+                    .append(" resumed=").append(s.tlsResumed).append(')')
+                    .append(" reused=").append(s.reused)
+                    .append(" (saved handshakes)")
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static final class Snapshot {
+        public final long newConnections;
+        public final long tlsHandshakes;
+        public final long tlsFull;
+        public final long tlsResumed;
+        public final long reused;
+
+        Snapshot(long newConnections, long tlsHandshakes, long tlsFull, long tlsResumed, long reused) {
+            this.newConnections = newConnections;
+            this.tlsHandshakes = tlsHandshakes;
+            this.tlsFull = tlsFull;
+            this.tlsResumed = tlsResumed;
+            this.reused = reused;
+        }
+    }
+
+    static final class Counters {
+        final AtomicLong newConnections = new AtomicLong();
+        final AtomicLong tlsHandshakes = new AtomicLong();
+        final AtomicLong tlsFull = new AtomicLong();
+        final AtomicLong tlsResumed = new AtomicLong();
+        final AtomicLong reused = new AtomicLong();
+    }
+}
@@ -0,0 +1,105 @@
+package app.belqax.pature.data.network;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import app.belqax.pature.helper.AppForegroundTracker;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Прогрев соединения к API: HEAD на базовый URL через клиент без интерцепторов и authenticator,
+ * построенный на общем NetworkCore. Открытое соединение (DNS + TCP + TLS) остаётся в пуле,
+ * и первый настоящий запрос берёт его готовым.
+ *
+ * Прогрев идёт на старте процесса и при возврате из фона; если в пуле уже есть живое соединение
+ * или прогрев был недавно, запрос не отправляется.
+ */
+public final class ConnectionWarmer implements AppForegroundTracker.Listener {
+
+    private static final String TAG = "ConnectionWarmer";
+
+    // Не прогревать чаще, чем раз в это время: keep-alive пула всё равно 5 минут.
+    private static final long MIN_INTERVAL_MS = 60_000L;
+
+    private final NetworkCore core;
+    private final OkHttpClient client;
+    private final String baseUrl;
+
+    private final AtomicBoolean inFlight = new AtomicBoolean(false);
+    private volatile long lastWarmUptimeMs = -MIN_INTERVAL_MS;
+
+    ConnectionWarmer(@NonNull NetworkCore core, @NonNull String baseUrl) {
+        this.core = core;
+        this.client = core.newClientBuilder("preconnect").build();
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Подписывается на возврат приложения из фона. Вызывается с главного потока.
+     */
+    public void start() {
+        AppForegroundTracker.getInstance().addListener(this);
+    }
+
+    @Override
+    public void onForeground() {
+        warm("foreground", null);
+    }
+
+    @Override
+    public void onBackground() {
+    }
+
+    /**
+     * @param onDone вызывается на потоке OkHttp после прогрева или сразу, если прогрев не нужен
+     */
+    public void warm(@NonNull String reason, @Nullable Runnable onDone) {
+        long now = SystemClock.uptimeMillis();
+        if (core.hasIdleConnections()
+                || now - lastWarmUptimeMs < MIN_INTERVAL_MS
+                || !inFlight.compareAndSet(false, true)) {
+            if (onDone != null) {
+                onDone.run();
+            }
+            return;
+        }
+        lastWarmUptimeMs = now;
+
+        Request request = new Request.Builder()
+                .url(baseUrl)
+                .head()
+                .build();
+
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                Log.w(TAG, "warm(" + reason + ") failed: " + e);
+                done();
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                response.close();
+                Log.d(TAG, "warm(" + reason + ") ok");
+                done();
+            }
+
+            private void done() {
+                inFlight.set(false);
+                if (onDone != null) {
+                    onDone.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package app.belqax.pature.data.network;
+
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import app.belqax.pature.data.storage.AuthStorage;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Технические заголовки устройства/приложения. Общий для основного клиента и клиента refresh.
+ *
+ * Набор заголовков неизменяемый и собирается один раз; на запросе остаётся только чтение ссылки.
+ * Пересобирается, лишь если сменился device id (clearAll в AuthStorage сбрасывает его).
+ */
+final class DeviceHeadersInterceptor implements Interceptor {
+
+    static final String APP_VERSION = "0.1.0-dev";
+
+    private final AuthStorage authStorage;
+
+    @Nullable
+    private volatile Snapshot snapshot;
+
+    DeviceHeadersInterceptor(@NonNull AuthStorage authStorage) {
+        this.authStorage = Objects.requireNonNull(authStorage, "authStorage");
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request original = chain.request();
+        Headers headers = headers();
+
+        Request.Builder b = original.newBuilder();
+        for (int i = 0; i < headers.size(); i++) {
+            b.header(headers.name(i), headers.value(i));
+        }
+        return chain.proceed(b.build());
+    }
+
+    @NonNull
+    private Headers headers() {
+        // getOrCreateDeviceId читает значение из памяти AuthStorage.
+        String deviceId = authStorage.getOrCreateDeviceId();
+        Snapshot s = snapshot;
+        if (s != null && s.deviceId.equals(deviceId)) {
+            return s.headers;
+        }
+
+        Headers headers = new Headers.Builder()
+                .add("X-Device-Id", deviceId)
+                .add("X-Platform", "android")
+                .add("X-Device-Model", Build.MANUFACTURER + " " + Build.MODEL)
+                .add("X-OS-Version", Build.VERSION.RELEASE)
+                .add("X-App-Version", APP_VERSION)
+                .build();
+        snapshot = new Snapshot(deviceId, headers);
+        return headers;
+    }
+
+    private static final class Snapshot {
+        final String deviceId;
+        final Headers headers;
+
+        Snapshot(@NonNull String deviceId, @NonNull Headers headers) {
+            this.deviceId = deviceId;
+            this.headers = headers;
+        }
+    }
+}
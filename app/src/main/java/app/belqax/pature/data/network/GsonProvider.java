@@ -0,0 +1,29 @@
+package app.belqax.pature.data.network;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import app.belqax.pature.data.repository.DtoAdapters;
+
+/**
+ * Единственный Gson приложения: Retrofit-конвертеры, refresh токена и локальные хранилища.
+ *
+ * Для DTO ответов подключены потоковые адаптеры DtoAdapters, остальные типы разбираются
+ * как в Gson по умолчанию. Gson потокобезопасен, адаптеры кешируются в нём один раз.
+ */
+public final class GsonProvider {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(DtoAdapters.FACTORY)
+            .create();
+
+    private GsonProvider() {
+    }
+
+    @NonNull
+    public static Gson get() {
+        return GSON;
+    }
+}
@@ -0,0 +1,298 @@
+package app.belqax.pature.data.network;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Okio;
+
+/**
+ * Кеш-политики по эндпоинтам поверх okhttp3.Cache.
+ *
+ * Сервер отдаёт ETag, но не управляет свежестью, поэтому клиент сам выставляет Cache-Control:
+ * - max-age: сколько ответ считается свежим и отдаётся без сети;
+ * - stale-while-revalidate: сколько ещё после этого можно отдать устаревший ответ,
+ *   одновременно обновляя его в фоне условным запросом (If-None-Match -> 304);
+ * - auth-роуты никогда не кешируются.
+ *
+ * Успешные изменения (PUT/PATCH/POST/DELETE) выкидывают из кеша связанные GET-ответы.
+ */
+public final class HttpCachePolicy {
+
+    private static final String TAG = "HttpCachePolicy";
+
+    private static final Map<String, Policy> POLICIES;
+
+    static {
+        Map<String, Policy> m = new ConcurrentHashMap<>();
+        // Лента и свои животные меняются часто: всегда условный запрос, но без перекачки тела при 304.
+        m.put(ApiEndpoints.FEED, new Policy(0, 0, false));
+        m.put(ApiEndpoints.ANIMALS_MY, new Policy(0, 0, false));
+        m.put(ApiEndpoints.ANIMALS_PUBLIC, new Policy(30, 120, false));
+        m.put(ApiEndpoints.ANIMAL_BY_ID, new Policy(30, 300, false));
+        m.put(ApiEndpoints.USERS_ME, new Policy(0, 60, false));
+        m.put(ApiEndpoints.ADDRESS_AUTOCOMPLETE, new Policy(600, 0, false));
+        m.put(ApiEndpoints.AUTH, new Policy(0, 0, true));
+        POLICIES = Collections.unmodifiableMap(m);
+    }
+
+    private HttpCachePolicy() {
+    }
+
+    @Nullable
+    static Policy forEndpoint(@NonNull String endpoint) {
+        return POLICIES.get(endpoint);
+    }
+
+    static final class Policy {
+        final int maxAgeSec;
+        final int staleWhileRevalidateSec;
+        final boolean noStore;
+
+        Policy(int maxAgeSec, int staleWhileRevalidateSec, boolean noStore) {
+            this.maxAgeSec = maxAgeSec;
+            this.staleWhileRevalidateSec = staleWhileRevalidateSec;
+            this.noStore = noStore;
+        }
+
+        @NonNull
+        String toHeader() {
+            if (noStore) {
+                return "no-store";
+            }
+            return "private, max-age=" + maxAgeSec;
+        }
+    }
+
+    /**
+     * Network-интерцептор: переписывает Cache-Control ответа до того, как его увидит okhttp3.Cache,
+     * и инвалидирует связанные записи после успешных изменений.
+     */
+    static final class NetworkInterceptor implements Interceptor {
+
+        @NonNull
+        private final Cache cache;
+
+        NetworkInterceptor(@NonNull Cache cache) {
+            this.cache = cache;
+        }
+
+        @NonNull
+        @Override
+        public Response intercept(@NonNull Chain chain) throws IOException {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+
+            String endpoint = ApiEndpoints.classify(request);
+            boolean isGet = "GET".equals(request.method());
+
+            if (!isGet && response.isSuccessful()) {
+                invalidateRelated(endpoint, request.url());
+            }
+
+            Policy p = forEndpoint(endpoint);
+            if (p == null) {
+                return response;
+            }
+            if (!p.noStore && (!isGet || (!response.isSuccessful() && response.code() != 304))) {
+                return response;
+            }
+
+            return response.newBuilder()
+                    .removeHeader("Pragma")
+                    .header("Cache-Control", p.toHeader())
+                    .build();
+        }
+
+        private void invalidateRelated(@NonNull String endpoint, @NonNull HttpUrl url) {
+            Set<String> targets;
+            boolean usersPath = !url.pathSegments().isEmpty() && "users".equals(url.pathSegments().get(0));
+
+            if (ApiEndpoints.USERS_ME_WRITE.equals(endpoint)
+                    || (ApiEndpoints.UPLOADS.equals(endpoint) && usersPath)) {
+                targets = Collections.singleton(ApiEndpoints.USERS_ME);
+            } else if (ApiEndpoints.ANIMAL_WRITE.equals(endpoint)
+                    || (ApiEndpoints.UPLOADS.equals(endpoint) && !usersPath)) {
+                targets = new HashSet<>();
+                targets.add(ApiEndpoints.ANIMALS_MY);
+                targets.add(ApiEndpoints.ANIMAL_BY_ID);
+            } else {
+                return;
+            }
+
+            try {
+                Iterator<String> it = cache.urls();
+                while (it.hasNext()) {
+                    HttpUrl cached = HttpUrl.parse(it.next());
+                    if (cached != null && targets.contains(ApiEndpoints.classify("GET", cached))) {
+                        it.remove();
+                    }
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "invalidateRelated: " + e);
+            }
+        }
+    }
+
+    /**
+     * Application-интерцептор: реализует stale-while-revalidate и ведёт счётчики кеша.
+     */
+    static final class RevalidationInterceptor implements Interceptor {
+
+        // Метка фонового запроса: он не должен снова уходить в ветку stale-while-revalidate.
+        private static final class Revalidation {
+        }
+
+        private static final Revalidation REVALIDATION_TAG = new Revalidation();
+
+        @NonNull
+        private final HttpCacheStats stats;
+        private final Set<String> inFlightRevalidations = ConcurrentHashMap.newKeySet();
+        @Nullable
+        private volatile Call.Factory callFactory;
+
+        RevalidationInterceptor(@NonNull HttpCacheStats stats) {
+            this.stats = stats;
+        }
+
+        /**
+         * Клиент для фоновых обновлений. Задаётся после сборки OkHttpClient.
+         */
+        void setCallFactory(@NonNull Call.Factory callFactory) {
+            this.callFactory = callFactory;
+        }
+
+        @NonNull
+        @Override
+        public Response intercept(@NonNull Chain chain) throws IOException {
+            Request request = chain.request();
+            String endpoint = ApiEndpoints.classify(request);
+
+            if (!"GET".equals(request.method())) {
+                return chain.proceed(request);
+            }
+
+            Policy p = forEndpoint(endpoint);
+            boolean background = request.tag(Revalidation.class) != null;
+            boolean explicitControl = request.header("Cache-Control") != null;
+
+            if (p != null && p.staleWhileRevalidateSec > 0 && !background && !explicitControl) {
+                Request cacheOnly = request.newBuilder()
+                        .cacheControl(new CacheControl.Builder()
+                                .onlyIfCached()
+                                .maxStale(p.staleWhileRevalidateSec, TimeUnit.SECONDS)
+                                .build())
+                        .build();
+
+                Response cached = chain.proceed(cacheOnly);
+                if (cached.code() != 504) {
+                    long bytes = contentLength(cached);
+                    if (isStale(cached)) {
+                        stats.recordStale(endpoint, bytes);
+                        revalidateInBackground(request);
+                    } else {
+                        stats.recordHit(endpoint, bytes);
+                    }
+                    return cached;
+                }
+                cached.close();
+            }
+
+            Response response = chain.proceed(request);
+            if (p != null && !p.noStore) {
+                record(endpoint, response);
+            }
+            return response;
+        }
+
+        private void record(@NonNull String endpoint, @NonNull Response response) {
+            Response network = response.networkResponse();
+            Response cache = response.cacheResponse();
+
+            if (network == null && cache != null) {
+                stats.recordHit(endpoint, contentLength(cache));
+            } else if (network != null && cache != null && network.code() == 304) {
+                stats.recordRevalidated(endpoint, contentLength(cache));
+            } else if (network != null) {
+                stats.recordMiss(endpoint);
+            }
+        }
+
+        private void revalidateInBackground(@NonNull Request original) {
+            Call.Factory f = callFactory;
+            String key = original.url().toString();
+            if (f == null || !inFlightRevalidations.add(key)) {
+                return;
+            }
+
+            Request r = original.newBuilder()
+                    .tag(Revalidation.class, REVALIDATION_TAG)
+                    .build();
+
+            f.newCall(r).enqueue(new Callback() {
+                @Override
+                public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                    inFlightRevalidations.remove(key);
+                    Log.w(TAG, "revalidate failed: " + original.url().encodedPath() + " " + e);
+                }
+
+                @Override
+                public void onResponse(@NonNull Call call, @NonNull Response response) {
+                    // Тело нужно дочитать до конца, иначе okhttp3.Cache не запишет новую версию.
+                    try (ResponseBody body = response.body()) {
+                        if (body != null) {
+                            body.source().readAll(Okio.blackhole());
+                        }
+                    } catch (IOException e) {
+                        Log.w(TAG, "revalidate read failed: " + e);
+                    } finally {
+                        inFlightRevalidations.remove(key);
+                    }
+                }
+            });
+        }
+
+        private static boolean isStale(@NonNull Response cached) {
+            for (String w : cached.headers("Warning")) {
+                if (w.startsWith("110")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static long contentLength(@Nullable Response r) {
+            if (r == null) {
+                return 0L;
+            }
+            String h = r.header("Content-Length");
+            if (h == null) {
+                return 0L;
+            }
+            try {
+                return Long.parseLong(h);
+            } catch (NumberFormatException e) {
+                return 0L;
+            }
+        }
+    }
+}
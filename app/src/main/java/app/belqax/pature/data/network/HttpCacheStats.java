@@ -0,0 +1,112 @@
+package app.belqax.pature.data.network;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики HTTP-кеша по логическим эндпоинтам (см. ApiEndpoints).
+ * hit – ответ целиком из кеша, revalidated – сервер ответил 304, miss – полное тело по сети,
+ * stale – отдан устаревший ответ, а обновление ушло в фоне.
+ */
+public final class HttpCacheStats {
+
+    private final ConcurrentHashMap<String, Counters> byEndpoint = new ConcurrentHashMap<>();
+
+    void recordHit(@NonNull String endpoint, long bytes) {
+        Counters c = counters(endpoint);
+        c.hits.incrementAndGet();
+        c.bytesSaved.addAndGet(Math.max(0L, bytes));
+    }
+
+    void recordStale(@NonNull String endpoint, long bytes) {
+        Counters c = counters(endpoint);
+        c.stale.incrementAndGet();
+        c.bytesSaved.addAndGet(Math.max(0L, bytes));
+    }
+
+    void recordRevalidated(@NonNull String endpoint, long bytes) {
+        Counters c = counters(endpoint);
+        c.revalidated.incrementAndGet();
+        c.bytesSaved.addAndGet(Math.max(0L, bytes));
+    }
+
+    void recordMiss(@NonNull String endpoint) {
+        counters(endpoint).misses.incrementAndGet();
+    }
+
+    @NonNull
+    private Counters counters(@NonNull String endpoint) {
+        Counters c = byEndpoint.get(endpoint);
+        if (c == null) {
+            Counters created = new Counters();
+            c = byEndpoint.putIfAbsent(endpoint, created);
+            if (c == null) {
+                c = created;
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Снимок счётчиков, отсортированный по имени эндпоинта.
+     */
+    @NonNull
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> out = new TreeMap<>();
+        for (Map.Entry<String, Counters> e : byEndpoint.entrySet()) {
+            Counters c = e.getValue();
+            out.put(e.getKey(), new Snapshot(
+                    c.hits.get(),
+                    c.stale.get(),
+                    c.revalidated.get(),
+                    c.misses.get(),
+                    c.bytesSaved.get()
+            ));
+        }
+        return out;
+    }
+
+    @NonNull
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Snapshot> e : snapshot().entrySet()) {
+            Snapshot s = e.getValue();
+            sb.append(e.getKey())
+                    .append(": hit=").append(s.hits)
+                    .append(" stale=").append(s.stale)
+                    .append(" 304=").append(s.revalidated)
+                    .append(" miss=").append(s.misses)
+                    .append(" saved=").append(s.bytesSaved).append("B")
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static final class Snapshot {
+        public final long hits;
+        public final long stale;
+        public final long revalidated;
+        public final long misses;
+        public final long bytesSaved;
+
+        Snapshot(long hits, long stale, long revalidated, long misses, long bytesSaved) {
+            this.hits = hits;
+            this.stale = stale;
+            this.revalidated = revalidated;
+            this.misses = misses;
+            this.bytesSaved = bytesSaved;
+        }
+    }
+
+    private static final class Counters {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong stale = new AtomicLong();
+        final AtomicLong revalidated = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong bytesSaved = new AtomicLong();
+    }
+}
@@ -0,0 +1,81 @@
+package app.belqax.pature.data.network;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Гистограмма задержек с фиксированными бакетами (мс). Потокобезопасна и без блокировок;
+ * перцентили оцениваются по верхней границе бакета.
+ */
+public final class LatencyHistogram {
+
+    // Верхние границы бакетов; последний бакет – всё, что больше.
+    private static final long[] BOUNDS_MS = {5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumMs = new AtomicLong();
+    private final AtomicLong maxMs = new AtomicLong();
+
+    void record(long ms) {
+        if (ms < 0) {
+            return;
+        }
+        int i = 0;
+        while (i < BOUNDS_MS.length && ms > BOUNDS_MS[i]) {
+            i++;
+        }
+        buckets.incrementAndGet(i);
+        count.incrementAndGet();
+        sumMs.addAndGet(ms);
+        maxMs.accumulateAndGet(ms, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getAverageMs() {
+        long n = count.get();
+        return n == 0 ? 0 : sumMs.get() / n;
+    }
+
+    public long getMaxMs() {
+        return maxMs.get();
+    }
+
+    /**
+     * Оценка перцентиля: верхняя граница бакета, в который попадает p-я доля замеров.
+     */
+    public long percentileMs(double p) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(n * p);
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return i < BOUNDS_MS.length ? BOUNDS_MS[i] : maxMs.get();
+            }
+        }
+        return maxMs.get();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        if (count.get() == 0) {
+            return "-";
+        }
+        return "n=" + getCount()
+                + " avg=" + getAverageMs()
+                + " p50≤" + percentileMs(0.50)
+                + " p90≤" + percentileMs(0.90)
+                + " p99≤" + percentileMs(0.99)
+                + " max=" + getMaxMs();
+    }
+}
@@ -0,0 +1,185 @@
+package app.belqax.pature.data.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.Socket;
+import java.util.List;
+
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * EventListener одного вызова: пишет тайминги по эндпоинту в NetworkMetrics и счётчики
+ * соединений клиента в ConnectionStats. Один экземпляр на вызов, события идут последовательно,
+ * поэтому поля без синхронизации.
+ */
+final class MetricsEventListener extends EventListener {
+
+    private final ConnectionStats.Counters client;
+    private final NetworkMetrics.Endpoint endpoint;
+
+    private long callStartNs;
+    private long dnsStartNs;
+    private long connectStartNs;
+    private long secureStartNs;
+    private long requestStartNs;
+
+    private boolean connected = false;
+    private long connectStartWallMs;
+    private int requestAttempts = 0;
+    private boolean anyConnectionReused = false;
+
+    MetricsEventListener(@NonNull ConnectionStats.Counters client, @NonNull NetworkMetrics.Endpoint endpoint) {
+        this.client = client;
+        this.endpoint = endpoint;
+    }
+
+    @NonNull
+    static EventListener.Factory factory(@NonNull ConnectionStats.Counters client, @NonNull NetworkMetrics metrics) {
+        return call -> new MetricsEventListener(client, metrics.endpoint(ApiEndpoints.classify(call.request())));
+    }
+
+    @Override
+    public void callStart(@NonNull Call call) {
+        callStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+        dnsStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> inetAddressList) {
+        record(endpoint.dns, dnsStartNs);
+    }
+
+    @Override
+    public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+        connectStartNs = System.nanoTime();
+        connected = true;
+        connectStartWallMs = System.currentTimeMillis();
+        client.newConnections.incrementAndGet();
+    }
+
+    @Override
+    public void secureConnectStart(@NonNull Call call) {
+        secureStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(@NonNull Call call, @Nullable Handshake handshake) {
+        client.tlsHandshakes.incrementAndGet();
+        record(endpoint.tls, secureStartNs);
+    }
+
+    @Override
+    public void connectEnd(@NonNull Call call,
+                           @NonNull InetSocketAddress inetSocketAddress,
+                           @NonNull Proxy proxy,
+                           @Nullable Protocol protocol) {
+        record(endpoint.connect, connectStartNs);
+    }
+
+    @Override
+    public void connectionAcquired(@NonNull Call call, @NonNull Connection connection) {
+        if (!connected) {
+            client.reused.incrementAndGet();
+            anyConnectionReused = true;
+        } else {
+            countHandshakeKind(connection.socket());
+        }
+        connected = false;
+    }
+
+    @Override
+    public void requestHeadersStart(@NonNull Call call) {
+        requestStartNs = System.nanoTime();
+        requestAttempts++;
+    }
+
+    @Override
+    public void requestHeadersEnd(@NonNull Call call, @NonNull Request request) {
+        endpoint.requestBytes.addAndGet(request.headers().byteCount());
+    }
+
+    @Override
+    public void requestBodyEnd(@NonNull Call call, long byteCount) {
+        endpoint.requestBytes.addAndGet(byteCount);
+    }
+
+    @Override
+    public void responseHeadersStart(@NonNull Call call) {
+        record(endpoint.ttfb, requestStartNs);
+    }
+
+    @Override
+    public void responseHeadersEnd(@NonNull Call call, @NonNull Response response) {
+        endpoint.responseBytes.addAndGet(response.headers().byteCount());
+    }
+
+    @Override
+    public void responseBodyEnd(@NonNull Call call, long byteCount) {
+        endpoint.responseBytes.addAndGet(byteCount);
+    }
+
+    @Override
+    public void callEnd(@NonNull Call call) {
+        finish(false);
+    }
+
+    @Override
+    public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+        finish(true);
+    }
+
+    private void finish(boolean failed) {
+        NetworkMetrics.Endpoint e = endpoint;
+        e.calls.incrementAndGet();
+        if (failed) {
+            e.failures.incrementAndGet();
+        }
+        if (requestAttempts > 1) {
+            e.retries.addAndGet(requestAttempts - 1);
+        }
+        if (anyConnectionReused) {
+            e.reusedConnections.incrementAndGet();
+        }
+        // Ответ целиком из кеша сети не касался: в total он не попадает, чтобы не смазывать задержки.
+        if (requestAttempts > 0) {
+            record(e.total, callStartNs);
+        }
+    }
+
+    private void countHandshakeKind(@NonNull Socket socket) {
+        if (!(socket instanceof SSLSocket)) {
+            return;
+        }
+        SSLSession session = ((SSLSocket) socket).getSession();
+        if (session.getCreationTime() < connectStartWallMs) {
+            client.tlsResumed.incrementAndGet();
+        } else {
+            client.tlsFull.incrementAndGet();
+        }
+    }
+
+    private static void record(@NonNull LatencyHistogram h, long startNs) {
+        if (startNs == 0L) {
+            return;
+        }
+        h.record((System.nanoTime() - startNs) / 1_000_000L);
+    }
+}
@@ -0,0 +1,117 @@
+package app.belqax.pature.data.network;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import app.belqax.pature.helper.AppForegroundTracker;
+
+/**
+ * Пишет сетевые метрики в ротируемые файлы filesDir/network_metrics/metrics.N.txt
+ * (0 – текущий, не больше MAX_FILES штук по MAX_FILE_BYTES). Снимок дописывается по запросу
+ * и при каждом уходе приложения в фон, чтобы цифры можно было снять с реального устройства.
+ */
+public final class MetricsFileWriter implements AppForegroundTracker.Listener {
+
+    private static final String TAG = "MetricsFileWriter";
+
+    private static final String DIR = "network_metrics";
+    private static final int MAX_FILES = 3;
+    private static final long MAX_FILE_BYTES = 256L * 1024L;
+
+    private final File dir;
+    private final ApiClient apiClient;
+
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "metrics-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    MetricsFileWriter(@NonNull File filesDir, @NonNull ApiClient apiClient) {
+        this.dir = new File(filesDir, DIR);
+        this.apiClient = apiClient;
+    }
+
+    /**
+     * Подписывается на уход в фон. Вызывается с главного потока.
+     */
+    public void start() {
+        AppForegroundTracker.getInstance().addListener(this);
+    }
+
+    @Override
+    public void onForeground() {
+    }
+
+    @Override
+    public void onBackground() {
+        dumpAsync();
+    }
+
+    /**
+     * Дописывает текущий отчёт в файл в фоне.
+     */
+    public void dumpAsync() {
+        String report = apiClient.dumpNetworkReport();
+        io.execute(() -> write(report));
+    }
+
+    @NonNull
+    public File getCurrentFile() {
+        return fileAt(0);
+    }
+
+    private void write(@NonNull String report) {
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "cannot create " + dir);
+            return;
+        }
+
+        File current = fileAt(0);
+        if (current.length() > MAX_FILE_BYTES) {
+            rotate();
+        }
+
+        String stamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).format(new Date());
+        try (Writer w = new OutputStreamWriter(new FileOutputStream(current, true), StandardCharsets.UTF_8)) {
+            w.write("==== ");
+            w.write(stamp);
+            w.write(" ====\n");
+            w.write(report);
+            w.write('\n');
+        } catch (IOException e) {
+            Log.w(TAG, "write failed: " + e);
+        }
+    }
+
+    private void rotate() {
+        File oldest = fileAt(MAX_FILES - 1);
+        if (oldest.exists() && !oldest.delete()) {
+            Log.w(TAG, "rotate: cannot delete " + oldest);
+        }
+        for (int i = MAX_FILES - 2; i >= 0; i--) {
+            File f = fileAt(i);
+            if (f.exists() && !f.renameTo(fileAt(i + 1))) {
+                Log.w(TAG, "rotate: cannot rename " + f);
+            }
+        }
+    }
+
+    @NonNull
+    private File fileAt(int index) {
+        return new File(dir, "metrics." + index + ".txt");
+    }
+}
@@ -0,0 +1,223 @@
+package app.belqax.pature.data.network;
+
+import android.content.Context;
+import android.net.SSLSessionCache;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.security.KeyStore;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Dns;
+import okhttp3.OkHttpClient;
+
+/**
+ * Общее сетевое ядро: один ConnectionPool, DNS и TLS-настройки на процесс.
+ *
+ * Основной клиент и клиент refresh строятся поверх base: они делят пул соединений
+ * (и вместе с ним TLS-сессии), но у каждого своя цепочка интерцепторов. Клиент refresh не имеет
+ * authenticator, поэтому 401 на /auth/refresh не может рекурсивно запустить ещё один refresh.
+ *
+ * Dispatcher у клиента refresh свой (newIsolatedClientBuilder): запросы, получившие 401, ждут refresh
+ * внутри authenticate() и держат слоты общего Dispatcher. Если бы refresh стоял в той же очереди,
+ * при заполненном лимите он ждал бы их, а они – его, до REFRESH_WAIT_TIMEOUT_MS в TokenAuthenticator.
+ *
+ * Чтобы первый запрос после запуска не платил полный handshake:
+ * - DNS-ответы сохраняются между запусками (PersistentDns);
+ * - у всех клиентов один SSLContext, а его кеш клиентских TLS-сессий пишется на диск
+ *   (android.net.SSLSessionCache), так что сессия переживает перезапуск процесса.
+ *
+ * Дисковый кеш сессий держится на скрытом SSLSessionCache.install и может быть недоступен
+ * (ограничения hidden API). Тогда сессии живут только в памяти процесса;
+ * hasPersistentTlsSessions() и TlsSessionPersistenceTest показывают, какой режим получился.
+ */
+final class NetworkCore {
+
+    private static final String TAG = "NetworkCore";
+
+    private static final long NETWORK_TIMEOUT_SECONDS = 30L;
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5L;
+    // Очерёдность запросов репозиториев решает PriorityDispatcher; FIFO-лимит OkHttp на хост
+    // (по умолчанию 5) не должен ставить interactive-вызов за уже выпущенными prefetch/bulk.
+    static final int MAX_REQUESTS_PER_HOST = 16;
+
+    private static final String DNS_CACHE_FILE = "dns_cache_v1";
+    private static final String TLS_SESSION_DIR = "tls_sessions";
+    private static final int TLS_SESSION_CACHE_SIZE = 32;
+    private static final int TLS_SESSION_TIMEOUT_SEC = 24 * 60 * 60;
+
+    private final OkHttpClient base;
+    private final ConnectionPool connectionPool =
+            new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES);
+    private final ConnectionStats connectionStats = new ConnectionStats();
+    private final NetworkMetrics networkMetrics = new NetworkMetrics();
+    private final boolean persistentTlsSessions;
+
+    NetworkCore(@NonNull Context context) {
+        this(context, null);
+    }
+
+    /**
+     * @param trustManager кому доверять вместо системных CA (тесты с MockWebServer); null – системные
+     */
+    NetworkCore(@NonNull Context context, @Nullable X509TrustManager trustManager) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+        OkHttpClient.Builder b = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .dns(new PersistentDns(new File(context.getCacheDir(), DNS_CACHE_FILE), Dns.SYSTEM))
+                .connectTimeout(NETWORK_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(NETWORK_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .writeTimeout(NETWORK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        persistentTlsSessions = installSharedTls(b, new File(context.getCacheDir(), TLS_SESSION_DIR), trustManager);
+
+        base = b.build();
+    }
+
+    /**
+     * Новый builder поверх общего ядра; clientName – ключ в ConnectionStats.
+     * Все клиенты пишут тайминги по эндпоинтам в общий NetworkMetrics.
+     */
+    @NonNull
+    OkHttpClient.Builder newClientBuilder(@NonNull String clientName) {
+        return base.newBuilder()
+                .eventListenerFactory(MetricsEventListener.factory(connectionStats.counters(clientName), networkMetrics));
+    }
+
+    @NonNull
+    ConnectionStats getConnectionStats() {
+        return connectionStats;
+    }
+
+    @NonNull
+    NetworkMetrics getNetworkMetrics() {
+        return networkMetrics;
+    }
+
+    /**
+     * Как newClientBuilder, но со своим Dispatcher: вызовы этого клиента не встают в очередь
+     * за вызовами остальных. Пул соединений, DNS и TLS остаются общими.
+     */
+    @NonNull
+    OkHttpClient.Builder newIsolatedClientBuilder(@NonNull String clientName) {
+        return newClientBuilder(clientName).dispatcher(new Dispatcher());
+    }
+
+    /**
+     * Есть ли в пуле открытые соединения (значит, прогрев не нужен).
+     */
+    boolean hasIdleConnections() {
+        return connectionPool.idleConnectionCount() > 0;
+    }
+
+    /**
+     * Кеш TLS-сессий пишется на диск: сессия с прошлого запуска возобновится.
+     */
+    boolean hasPersistentTlsSessions() {
+        return persistentTlsSessions;
+    }
+
+    /**
+     * @return true, если подключён дисковый кеш TLS-сессий
+     */
+    private static boolean installSharedTls(@NonNull OkHttpClient.Builder b,
+                                            @NonNull File sessionDir,
+                                            @Nullable X509TrustManager customTrustManager) {
+        boolean persistent = false;
+        try {
+            X509TrustManager trustManager = customTrustManager;
+            if (trustManager == null) {
+                TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+                tmf.init((KeyStore) null);
+                trustManager = findX509(tmf.getTrustManagers());
+            }
+            if (trustManager == null) {
+                Log.w(TAG, "no X509TrustManager, using OkHttp defaults");
+                return false;
+            }
+
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[]{trustManager}, null);
+
+            SSLSessionContext sessions = sslContext.getClientSessionContext();
+            if (sessions != null) {
+                sessions.setSessionCacheSize(TLS_SESSION_CACHE_SIZE);
+                sessions.setSessionTimeout(TLS_SESSION_TIMEOUT_SEC);
+            }
+
+            try {
+                persistent = installPersistentSessionCache(sslContext, sessionDir);
+            } catch (IOException e) {
+                // Общий SSLContext нужен и без диска: сессии останутся в памяти процесса.
+                Log.e(TAG, "persistent TLS session cache failed, in-memory only", e);
+            }
+
+            b.sslSocketFactory(sslContext.getSocketFactory(), trustManager);
+            return persistent;
+        } catch (Exception e) {
+            Log.w(TAG, "shared TLS setup failed, using OkHttp defaults: " + e);
+            return false;
+        }
+    }
+
+    /**
+     * Подключает дисковый кеш TLS-сессий платформы к общему SSLContext.
+     *
+     * SSLSessionCache – публичный API и создаётся напрямую. Привязка к произвольному SSLContext
+     * (статический install) в SDK не опубликована, поэтому только она ищется по имени. При
+     * ограничениях hidden API рефлексия её не находит: это не ошибка, а кеш в памяти (false);
+     * сбой самой установки пробрасывается.
+     *
+     * @return true, если кеш подключён
+     * @throws IOException каталог кеша не создаётся
+     */
+    private static boolean installPersistentSessionCache(@NonNull SSLContext sslContext, @NonNull File dir)
+            throws IOException {
+        SSLSessionCache cache = new SSLSessionCache(dir);
+
+        Method install;
+        try {
+            install = SSLSessionCache.class.getMethod("install", SSLSessionCache.class, SSLContext.class);
+        } catch (NoSuchMethodException e) {
+            Log.e(TAG, "SSLSessionCache.install not available (hidden API?), TLS sessions in memory only");
+            return false;
+        }
+        try {
+            install.invoke(null, cache, sslContext);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("SSLSessionCache.install not accessible", e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("SSLSessionCache.install failed", e.getCause());
+        }
+        Log.i(TAG, "persistent TLS session cache enabled");
+        return true;
+    }
+
+    @Nullable
+    private static X509TrustManager findX509(@NonNull TrustManager[] managers) {
+        for (TrustManager m : managers) {
+            if (m instanceof X509TrustManager) {
+                return (X509TrustManager) m;
+            }
+        }
+        return null;
+    }
+}
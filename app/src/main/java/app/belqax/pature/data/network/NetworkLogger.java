@@ -0,0 +1,211 @@
+package app.belqax.pature.data.network;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * Сетевой лог вместо HttpLoggingInterceptor(BODY).
+ *
+ * Режим задаётся build type (BuildConfig.NETWORK_LOG_MODE):
+ * - none: интерцептор вообще не ставится (release);
+ * - sampled: только строка запроса/ответа и заголовки для доли запросов (staging);
+ * - headers: заголовки для всех запросов;
+ * - body: заголовки и тело, но не больше MAX_BODY_BYTES и только текстовые тела (debug).
+ *
+ * Multipart и бинарные тела не читаются никогда. Authorization/Cookie и токены/пароли в JSON редактируются.
+ */
+public final class NetworkLogger implements Interceptor {
+
+    private static final String TAG = "Http";
+
+    private static final long MAX_BODY_BYTES = 4L * 1024L;
+    private static final int SAMPLE_PERCENT = 10;
+    private static final String REDACTED = "██";
+
+    private static final String[] SENSITIVE_HEADERS = {
+            "Authorization",
+            "Proxy-Authorization",
+            "Cookie",
+            "Set-Cookie"
+    };
+
+    private static final Pattern SENSITIVE_JSON = Pattern.compile(
+            "\"(access_token|refresh_token|password|old_password|new_password|code)\"\\s*:\\s*\"[^\"]*\""
+    );
+
+    public enum Mode {
+        NONE,
+        SAMPLED,
+        HEADERS,
+        BODY;
+
+        @NonNull
+        public static Mode parse(@Nullable String value) {
+            if (value == null) {
+                return NONE;
+            }
+            switch (value.trim().toLowerCase(Locale.US)) {
+                case "body":
+                    return BODY;
+                case "headers":
+                    return HEADERS;
+                case "sampled":
+                    return SAMPLED;
+                default:
+                    return NONE;
+            }
+        }
+    }
+
+    private final Mode mode;
+
+    public NetworkLogger(@NonNull Mode mode) {
+        this.mode = mode;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+
+        if (mode == Mode.NONE
+                || (mode == Mode.SAMPLED && ThreadLocalRandom.current().nextInt(100) >= SAMPLE_PERCENT)) {
+            return chain.proceed(request);
+        }
+
+        boolean logBody = mode == Mode.BODY;
+
+        StringBuilder req = new StringBuilder(256);
+        req.append("--> ").append(request.method()).append(' ').append(request.url().encodedPath());
+        appendHeaders(req, request.headers());
+        if (logBody) {
+            appendRequestBody(req, request.body());
+        }
+        Log.d(TAG, req.toString());
+
+        long startNs = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            Log.d(TAG, "<-- FAILED " + request.url().encodedPath() + ": " + e);
+            throw e;
+        }
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+
+        StringBuilder resp = new StringBuilder(256);
+        resp.append("<-- ").append(response.code())
+                .append(' ').append(request.url().encodedPath())
+                .append(" (").append(tookMs).append("ms")
+                .append(response.networkResponse() == null ? ", cache" : "")
+                .append(')');
+        appendHeaders(resp, response.headers());
+        if (logBody) {
+            appendResponseBody(resp, response);
+        }
+        Log.d(TAG, resp.toString());
+
+        return response;
+    }
+
+    private static void appendHeaders(@NonNull StringBuilder sb, @NonNull Headers headers) {
+        for (int i = 0; i < headers.size(); i++) {
+            String name = headers.name(i);
+            sb.append('\n').append(name).append(": ")
+                    .append(isSensitiveHeader(name) ? REDACTED : headers.value(i));
+        }
+    }
+
+    private static void appendRequestBody(@NonNull StringBuilder sb, @Nullable RequestBody body) throws IOException {
+        if (body == null) {
+            return;
+        }
+
+        MediaType type = body.contentType();
+        long length = body.contentLength();
+
+        if (!isTextual(type) || body.isOneShot() || body.isDuplex()) {
+            sb.append("\n(body omitted: ").append(type).append(", ").append(length).append("B)");
+            return;
+        }
+        if (length < 0 || length > MAX_BODY_BYTES) {
+            sb.append("\n(body omitted: ").append(length).append("B)");
+            return;
+        }
+
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        sb.append('\n').append(redact(buffer.readString(charsetOf(type))));
+    }
+
+    private static void appendResponseBody(@NonNull StringBuilder sb, @NonNull Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) {
+            return;
+        }
+
+        MediaType type = body.contentType();
+        if (!isTextual(type)) {
+            sb.append("\n(body omitted: ").append(type).append(", ").append(body.contentLength()).append("B)");
+            return;
+        }
+
+        // peekBody копирует не больше лимита и не трогает тело, которое прочитает Retrofit.
+        ResponseBody peek = response.peekBody(MAX_BODY_BYTES);
+        String text = peek.string();
+        sb.append('\n').append(redact(text));
+        long length = body.contentLength();
+        if (length < 0 || length > MAX_BODY_BYTES) {
+            sb.append("…(truncated, ").append(length).append("B)");
+        }
+    }
+
+    private static boolean isSensitiveHeader(@NonNull String name) {
+        for (String h : SENSITIVE_HEADERS) {
+            if (h.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTextual(@Nullable MediaType type) {
+        if (type == null) {
+            return false;
+        }
+        String subtype = type.subtype().toLowerCase(Locale.US);
+        return "text".equals(type.type())
+                || subtype.contains("json")
+                || subtype.contains("x-www-form-urlencoded");
+    }
+
+    @NonNull
+    private static Charset charsetOf(@Nullable MediaType type) {
+        Charset cs = type != null ? type.charset(StandardCharsets.UTF_8) : null;
+        return cs != null ? cs : StandardCharsets.UTF_8;
+    }
+
+    @NonNull
+    static String redact(@NonNull String text) {
+        return SENSITIVE_JSON.matcher(text).replaceAll("\"$1\":\"" + REDACTED + "\"");
+    }
+}
@@ -0,0 +1,109 @@
+package app.belqax.pature.data.network;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сетевые метрики по логическим эндпоинтам (см. ApiEndpoints), собираемые из EventListener.
+ *
+ * На эндпоинт: гистограммы DNS, connect, TLS, TTFB (отправка заголовков -> первые байты ответа)
+ * и полного времени вызова; байты запроса/ответа; сколько вызовов взяли соединение из пула;
+ * повторы внутри вызова (retry/redirect/401 -> refresh) и неудачи.
+ */
+public final class NetworkMetrics {
+
+    private final ConcurrentHashMap<String, Endpoint> byEndpoint = new ConcurrentHashMap<>();
+
+    @NonNull
+    Endpoint endpoint(@NonNull String name) {
+        Endpoint e = byEndpoint.get(name);
+        if (e == null) {
+            Endpoint created = new Endpoint();
+            e = byEndpoint.putIfAbsent(name, created);
+            if (e == null) {
+                e = created;
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Снимок по эндпоинтам, отсортированный по имени. Гистограммы живые, не копии.
+     */
+    @NonNull
+    public Map<String, Endpoint> snapshot() {
+        return new TreeMap<>(byEndpoint);
+    }
+
+    public void reset() {
+        byEndpoint.clear();
+    }
+
+    @NonNull
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Endpoint> e : snapshot().entrySet()) {
+            Endpoint m = e.getValue();
+            long calls = m.calls.get();
+            long reusePct = calls == 0 ? 0 : m.reusedConnections.get() * 100 / calls;
+
+            sb.append(e.getKey())
+                    .append(": calls=").append(calls)
+                    .append(" failed=").append(m.failures.get())
+                    .append(" retries=").append(m.retries.get())
+                    .append(" reuse=").append(reusePct).append('%')
+                    .append(" out=").append(m.requestBytes.get()).append('B')
+                    .append(" in=").append(m.responseBytes.get()).append('B')
+                    .append('\n')
+                    .append("  total ").append(m.total).append('\n')
+                    .append("  ttfb  ").append(m.ttfb).append('\n')
+                    .append("  dns   ").append(m.dns).append('\n')
+                    .append("  conn  ").append(m.connect).append('\n')
+                    .append("  tls   ").append(m.tls).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static final class Endpoint {
+        public final LatencyHistogram dns = new LatencyHistogram();
+        public final LatencyHistogram connect = new LatencyHistogram();
+        public final LatencyHistogram tls = new LatencyHistogram();
+        public final LatencyHistogram ttfb = new LatencyHistogram();
+        public final LatencyHistogram total = new LatencyHistogram();
+
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong retries = new AtomicLong();
+        final AtomicLong reusedConnections = new AtomicLong();
+        final AtomicLong requestBytes = new AtomicLong();
+        final AtomicLong responseBytes = new AtomicLong();
+
+        public long getCalls() {
+            return calls.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        public long getRetries() {
+            return retries.get();
+        }
+
+        public long getReusedConnections() {
+            return reusedConnections.get();
+        }
+
+        public long getRequestBytes() {
+            return requestBytes.get();
+        }
+
+        public long getResponseBytes() {
+            return responseBytes.get();
+        }
+    }
+}
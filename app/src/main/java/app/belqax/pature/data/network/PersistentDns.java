@@ -0,0 +1,201 @@
+package app.belqax.pature.data.network;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.Dns;
+
+/**
+ * DNS с ответами, сохранёнными между запусками.
+ *
+ * На холодном старте первый запрос не ждёт резолвер: если сохранённый ответ моложе FRESH_MS,
+ * он отдаётся сразу, а системный lookup уходит в фон и обновляет запись. Если системный DNS
+ * упал, а сохранённый ответ не старше MAX_STALE_MS, отдаётся он.
+ *
+ * Файл: по строке на хост, "host\tsavedAtMs\tip1,ip2".
+ */
+final class PersistentDns implements Dns {
+
+    private static final String TAG = "PersistentDns";
+
+    private static final long FRESH_MS = 30L * 60_000L;
+    private static final long MAX_STALE_MS = 24L * 60L * 60_000L;
+    private static final int MAX_HOSTS = 16;
+
+    private final File file;
+    private final Dns delegate;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    // Фоновые lookup и запись файла; один поток, чтобы записи не перемешивались.
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "dns-cache");
+        t.setDaemon(true);
+        return t;
+    });
+
+    PersistentDns(@NonNull File file, @NonNull Dns delegate) {
+        this.file = file;
+        this.delegate = delegate;
+        io.execute(this::load);
+    }
+
+    @NonNull
+    @Override
+    public List<InetAddress> lookup(@NonNull String hostname) throws UnknownHostException {
+        Entry cached = entries.get(hostname);
+        long now = System.currentTimeMillis();
+
+        if (cached != null && now - cached.savedAtMs < FRESH_MS) {
+            refreshInBackground(hostname);
+            return cached.addresses;
+        }
+
+        try {
+            List<InetAddress> fresh = delegate.lookup(hostname);
+            store(hostname, fresh);
+            return fresh;
+        } catch (UnknownHostException e) {
+            if (cached != null && now - cached.savedAtMs < MAX_STALE_MS) {
+                Log.w(TAG, "lookup failed, serving stale answer for " + hostname + ": " + e);
+                return cached.addresses;
+            }
+            throw e;
+        }
+    }
+
+    private void refreshInBackground(@NonNull String hostname) {
+        if (!refreshing.add(hostname)) {
+            return;
+        }
+        io.execute(() -> {
+            try {
+                store(hostname, delegate.lookup(hostname));
+            } catch (UnknownHostException e) {
+                Log.w(TAG, "background lookup failed for " + hostname + ": " + e);
+            } finally {
+                refreshing.remove(hostname);
+            }
+        });
+    }
+
+    private void store(@NonNull String hostname, @NonNull List<InetAddress> addresses) {
+        if (addresses.isEmpty()) {
+            return;
+        }
+        Entry previous = entries.put(hostname, new Entry(System.currentTimeMillis(), addresses));
+        if (previous != null && previous.addresses.equals(addresses)
+                && System.currentTimeMillis() - previous.savedAtMs < FRESH_MS) {
+            // Ответ не поменялся и запись на диске ещё свежая: не перезаписываем файл на каждый lookup.
+            return;
+        }
+        io.execute(this::save);
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (BufferedReader r = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                Entry e = parse(line);
+                if (e != null) {
+                    String host = line.substring(0, line.indexOf('\t'));
+                    // Ответ, полученный в этом процессе раньше загрузки, важнее сохранённого.
+                    entries.putIfAbsent(host, e);
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "load failed: " + e);
+        }
+    }
+
+    @Nullable
+    private static Entry parse(@NonNull String line) {
+        String[] parts = line.split("\t");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            long savedAt = Long.parseLong(parts[1]);
+            if (System.currentTimeMillis() - savedAt > MAX_STALE_MS) {
+                return null;
+            }
+            List<InetAddress> list = new ArrayList<>();
+            for (String ip : parts[2].split(",")) {
+                // Литерал IP: getByName не ходит в сеть.
+                list.add(InetAddress.getByName(ip));
+            }
+            return list.isEmpty() ? null : new Entry(savedAt, list);
+        } catch (NumberFormatException | UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private void save() {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp);
+             Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            int n = 0;
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                if (n++ >= MAX_HOSTS) {
+                    break;
+                }
+                w.write(e.getKey());
+                w.write('\t');
+                w.write(Long.toString(e.getValue().savedAtMs));
+                w.write('\t');
+                List<InetAddress> addresses = e.getValue().addresses;
+                for (int i = 0; i < addresses.size(); i++) {
+                    if (i > 0) {
+                        w.write(',');
+                    }
+                    w.write(addresses.get(i).getHostAddress());
+                }
+                w.write('\n');
+            }
+            w.flush();
+            out.getFD().sync();
+        } catch (IOException e) {
+            Log.w(TAG, "save failed: " + e);
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            Log.w(TAG, "save: rename failed");
+        }
+    }
+
+    private static final class Entry {
+        final long savedAtMs;
+        final List<InetAddress> addresses;
+
+        Entry(long savedAtMs, @NonNull List<InetAddress> addresses) {
+            this.savedAtMs = savedAtMs;
+            this.addresses = Collections.unmodifiableList(new ArrayList<>(addresses));
+        }
+    }
+}
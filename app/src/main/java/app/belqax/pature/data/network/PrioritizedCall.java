@@ -0,0 +1,142 @@
+package app.belqax.pature.data.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Call, который уходит в OkHttp только после того, как PriorityDispatcher выдал слот его полосе.
+ * Слот освобождается, когда запрос завершился (успехом, ошибкой или отменой).
+ */
+final class PrioritizedCall<T> implements Call<T> {
+
+    private final PriorityDispatcher dispatcher;
+    private final Call<T> delegate;
+    private final PriorityDispatcher.Priority priority;
+    private final Executor callbackExecutor;
+
+    private final AtomicBoolean executed = new AtomicBoolean(false);
+    private volatile boolean canceled = false;
+    @Nullable
+    private volatile PriorityDispatcher.Ticket ticket;
+    @Nullable
+    private volatile Callback<T> callback;
+
+    PrioritizedCall(@NonNull PriorityDispatcher dispatcher,
+                    @NonNull Call<T> delegate,
+                    @NonNull PriorityDispatcher.Priority priority,
+                    @NonNull Executor callbackExecutor) {
+        this.dispatcher = dispatcher;
+        this.delegate = delegate;
+        this.priority = priority;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    @Override
+    public void enqueue(@NonNull Callback<T> cb) {
+        if (!executed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Already executed.");
+        }
+        callback = cb;
+
+        ticket = dispatcher.submit(priority, slot -> {
+            if (canceled) {
+                delegate.cancel();
+            }
+            delegate.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(@NonNull Call<T> c, @NonNull Response<T> response) {
+                    dispatcher.release(slot);
+                    cb.onResponse(PrioritizedCall.this, response);
+                }
+
+                @Override
+                public void onFailure(@NonNull Call<T> c, @NonNull Throwable t) {
+                    dispatcher.release(slot);
+                    cb.onFailure(PrioritizedCall.this, t);
+                }
+            });
+        });
+    }
+
+    @NonNull
+    @Override
+    public Response<T> execute() throws IOException {
+        if (!executed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Already executed.");
+        }
+
+        CountDownLatch slot = new CountDownLatch(1);
+        PriorityDispatcher.Ticket t = dispatcher.submit(priority, granted -> slot.countDown());
+        ticket = t;
+        try {
+            slot.await();
+        } catch (InterruptedException e) {
+            if (!dispatcher.withdraw(t)) {
+                dispatcher.release(t);
+            }
+            Thread.currentThread().interrupt();
+            throw new IOException("Canceled", e);
+        }
+
+        try {
+            if (canceled) {
+                throw new IOException("Canceled");
+            }
+            return delegate.execute();
+        } finally {
+            dispatcher.release(t);
+        }
+    }
+
+    @Override
+    public boolean isExecuted() {
+        return executed.get();
+    }
+
+    @Override
+    public void cancel() {
+        canceled = true;
+        delegate.cancel();
+
+        // Вызов ещё ждёт слот: в сеть он уже не уйдёт, callback получает отказ как от OkHttp.
+        PriorityDispatcher.Ticket t = ticket;
+        Callback<T> cb = callback;
+        if (t != null && cb != null && dispatcher.withdraw(t)) {
+            callbackExecutor.execute(() -> cb.onFailure(this, new IOException("Canceled")));
+        }
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    @NonNull
+    @Override
+    public Call<T> clone() {
+        return new PrioritizedCall<>(dispatcher, delegate.clone(), priority, callbackExecutor);
+    }
+
+    @NonNull
+    @Override
+    public Request request() {
+        return delegate.request();
+    }
+
+    @NonNull
+    @Override
+    public Timeout timeout() {
+        return delegate.timeout();
+    }
+}
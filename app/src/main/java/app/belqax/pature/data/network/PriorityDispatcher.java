@@ -0,0 +1,251 @@
+package app.belqax.pature.data.network;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import retrofit2.Call;
+
+/**
+ * Приоритетные полосы для запросов репозиториев поверх общего OkHttp Dispatcher.
+ *
+ * Вызов, обёрнутый через wrap(), уходит в OkHttp только когда его полоса получает слот:
+ * - у каждой полосы свой лимит одновременных запросов (тяжёлые загрузки не занимают всё);
+ * - последние RESERVED_FOR_INTERACTIVE слотов из MAX_ACTIVE достаются только INTERACTIVE,
+ *   поэтому лайк или автодополнение не ждут, пока догрузится фото;
+ * - защита от голодания: вызов, прождавший в очереди AGING_MS, поднимается на класс выше
+ *   (лимит своей полосы при этом сохраняется).
+ *
+ * Внутри полосы порядок FIFO. Запросы вне полос (refresh, прогрев, Glide) сюда не попадают.
+ */
+public final class PriorityDispatcher {
+
+    public enum Priority {
+        // Пользователь ждёт ответ прямо сейчас: реакции, профиль, автодополнение, сохранение форм.
+        INTERACTIVE,
+        // Загрузка впрок: следующая страница ленты.
+        PREFETCH,
+        // Тяжёлые и фоновые передачи: загрузка фото.
+        BULK
+    }
+
+    static final int MAX_ACTIVE = 8;
+    static final int RESERVED_FOR_INTERACTIVE = 2;
+    static final int[] LANE_LIMITS = {MAX_ACTIVE, 3, 2};
+    static final long AGING_MS = 2_000L;
+
+    private final Object lock = new Object();
+    private final List<ArrayDeque<Ticket>> queues = new ArrayList<>();
+    private final int[] active = new int[Priority.values().length];
+    private int activeTotal = 0;
+    private boolean recheckScheduled = false;
+
+    private final LaneStats[] stats = new LaneStats[Priority.values().length];
+
+    private final Executor callbackExecutor;
+    // elapsedRealtime; в тестах – управляемые часы, чтобы проверять старение без ожидания.
+    private final LongSupplier clock;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "net-lanes");
+        t.setDaemon(true);
+        return t;
+    });
+
+    PriorityDispatcher(@NonNull Executor callbackExecutor) {
+        this(callbackExecutor, SystemClock::elapsedRealtime);
+    }
+
+    PriorityDispatcher(@NonNull Executor callbackExecutor, @NonNull LongSupplier clock) {
+        this.callbackExecutor = callbackExecutor;
+        this.clock = clock;
+        for (int i = 0; i < Priority.values().length; i++) {
+            queues.add(new ArrayDeque<>());
+            stats[i] = new LaneStats();
+        }
+    }
+
+    /**
+     * Вызов, который перед отправкой ждёт слот своей полосы.
+     */
+    @NonNull
+    public <T> Call<T> wrap(@NonNull Call<T> call, @NonNull Priority priority) {
+        return new PrioritizedCall<>(this, call, priority, callbackExecutor);
+    }
+
+    /**
+     * Ставит вызов в очередь полосы; start получает свой билет, когда для него есть слот.
+     * После завершения запроса нужно вызвать release(ticket).
+     */
+    @NonNull
+    Ticket submit(@NonNull Priority priority, @NonNull Consumer<Ticket> start) {
+        Ticket ticket = new Ticket(priority, start, clock.getAsLong());
+        synchronized (lock) {
+            queues.get(priority.ordinal()).addLast(ticket);
+        }
+        pump();
+        return ticket;
+    }
+
+    /**
+     * Убирает ещё не запущенный вызов из очереди. false – вызов уже получил слот.
+     */
+    boolean withdraw(@NonNull Ticket ticket) {
+        synchronized (lock) {
+            return !ticket.started && queues.get(ticket.priority.ordinal()).remove(ticket);
+        }
+    }
+
+    void release(@NonNull Ticket ticket) {
+        synchronized (lock) {
+            if (!ticket.started || ticket.released) {
+                return;
+            }
+            ticket.released = true;
+            active[ticket.priority.ordinal()]--;
+            activeTotal--;
+        }
+        pump();
+    }
+
+    private void pump() {
+        List<Ticket> toStart = new ArrayList<>();
+        synchronized (lock) {
+            long now = clock.getAsLong();
+            while (activeTotal < MAX_ACTIVE) {
+                Ticket next = selectLocked(now);
+                if (next == null) {
+                    break;
+                }
+                queues.get(next.priority.ordinal()).pollFirst();
+                next.started = true;
+                active[next.priority.ordinal()]++;
+                activeTotal++;
+                toStart.add(next);
+            }
+            scheduleRecheckLocked();
+        }
+
+        for (Ticket t : toStart) {
+            stats[t.priority.ordinal()].onStart(clock.getAsLong() - t.enqueuedAt);
+            t.start.accept(t);
+        }
+    }
+
+    /**
+     * Голова очереди с наименьшим эффективным классом (с учётом ожидания), которой хватает слотов.
+     * При равенстве побеждает исходно более приоритетная полоса.
+     */
+    @Nullable
+    private Ticket selectLocked(long now) {
+        Ticket best = null;
+        int bestRank = Integer.MAX_VALUE;
+        for (int lane = 0; lane < queues.size(); lane++) {
+            Ticket head = queues.get(lane).peekFirst();
+            if (head == null || active[lane] >= LANE_LIMITS[lane]) {
+                continue;
+            }
+            int rank = effectiveRank(head, now);
+            if (rank > 0 && activeTotal >= MAX_ACTIVE - RESERVED_FOR_INTERACTIVE) {
+                continue;
+            }
+            if (rank < bestRank) {
+                best = head;
+                bestRank = rank;
+            }
+        }
+        if (best != null && bestRank < best.priority.ordinal()) {
+            stats[best.priority.ordinal()].promoted.incrementAndGet();
+        }
+        return best;
+    }
+
+    private static int effectiveRank(@NonNull Ticket t, long now) {
+        long aged = (now - t.enqueuedAt) / AGING_MS;
+        return (int) Math.max(0L, t.priority.ordinal() - aged);
+    }
+
+    /**
+     * Если есть ожидающие, которых держит только резерв INTERACTIVE, перепроверяет очередь позже:
+     * со временем они поднимутся в классе и смогут занять резерв.
+     */
+    private void scheduleRecheckLocked() {
+        if (recheckScheduled || activeTotal >= MAX_ACTIVE) {
+            return;
+        }
+        for (int lane = 1; lane < queues.size(); lane++) {
+            if (!queues.get(lane).isEmpty()) {
+                recheckScheduled = true;
+                timer.schedule(() -> {
+                    synchronized (lock) {
+                        recheckScheduled = false;
+                    }
+                    pump();
+                }, AGING_MS, TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+    }
+
+    @NonNull
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        synchronized (lock) {
+            sb.append("active=").append(activeTotal).append('/').append(MAX_ACTIVE).append('\n');
+            for (Priority p : Priority.values()) {
+                LaneStats s = stats[p.ordinal()];
+                long started = s.started.get();
+                sb.append(p.name().toLowerCase(Locale.ROOT))
+                        .append(": active=").append(active[p.ordinal()]).append('/').append(LANE_LIMITS[p.ordinal()])
+                        .append(" queued=").append(queues.get(p.ordinal()).size())
+                        .append(" started=").append(started)
+                        .append(" avgWaitMs=").append(started == 0 ? 0 : s.totalWaitMs.get() / started)
+                        .append(" maxWaitMs=").append(s.maxWaitMs.get())
+                        .append(" promoted=").append(s.promoted.get())
+                        .append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    static final class Ticket {
+        final Priority priority;
+        final Consumer<Ticket> start;
+        final long enqueuedAt;
+
+        // Меняются под lock диспетчера.
+        boolean started = false;
+        boolean released = false;
+
+        Ticket(@NonNull Priority priority, @NonNull Consumer<Ticket> start, long enqueuedAt) {
+            this.priority = priority;
+            this.start = start;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    private static final class LaneStats {
+        final AtomicLong started = new AtomicLong();
+        final AtomicLong totalWaitMs = new AtomicLong();
+        final AtomicLong maxWaitMs = new AtomicLong();
+        final AtomicLong promoted = new AtomicLong();
+
+        void onStart(long waitedMs) {
+            started.incrementAndGet();
+            totalWaitMs.addAndGet(waitedMs);
+            maxWaitMs.accumulateAndGet(waitedMs, Math::max);
+        }
+    }
+}
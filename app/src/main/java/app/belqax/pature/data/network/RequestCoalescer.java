@@ -0,0 +1,277 @@
+package app.belqax.pature.data.network;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Single-flight для одинаковых GET-запросов уровня приложения.
+ *
+ * Пока GET с тем же opName и URL в полёте, новый вызов не уходит в сеть: его callback
+ * подписывается на уже идущий запрос и получает тот же результат. Остальные методы
+ * не склеиваются, но тоже получают RequestHandle.
+ *
+ * Отмена подписчика снимает только его callback; сетевой запрос отменяется, когда
+ * отписались все, кто его ждал.
+ *
+ * Тело успешного ответа – общий объект для всех подписчиков, менять его нельзя.
+ * Тело ошибки читается один раз и раздаётся каждому подписчику отдельной копией.
+ */
+public final class RequestCoalescer {
+
+    private static final String TAG = "RequestCoalescer";
+
+    private final Object lock = new Object();
+    private final HashMap<String, Flight<?>> inFlight = new HashMap<>();
+    private final ConcurrentHashMap<String, Counters> byOp = new ConcurrentHashMap<>();
+
+    /**
+     * Ставит вызов в очередь или присоединяет callback к такому же запросу в полёте.
+     * opName входит в ключ: одинаковый URL с разными типами ответа не склеивается.
+     */
+    @NonNull
+    public <T> RequestHandle enqueue(@NonNull String opName, @NonNull Call<T> call, @NonNull Callback<T> cb) {
+        Request request = call.request();
+        boolean coalesce = "GET".equals(request.method());
+        String key = coalesce ? opName + ' ' + request.url() : null;
+        Counters counters = counters(opName);
+
+        Subscriber<T> subscriber = new Subscriber<>(cb);
+        Flight<T> flight;
+        synchronized (lock) {
+            if (key != null) {
+                @SuppressWarnings("unchecked")
+                Flight<T> existing = (Flight<T>) inFlight.get(key);
+                if (existing != null) {
+                    existing.subscribers.add(subscriber);
+                    subscriber.flight = existing;
+                    counters.suppressed.incrementAndGet();
+                    return subscriber;
+                }
+            }
+            flight = new Flight<>(key, call);
+            flight.subscribers.add(subscriber);
+            subscriber.flight = flight;
+            if (key != null) {
+                inFlight.put(key, flight);
+            }
+        }
+        if (key != null) {
+            counters.sent.incrementAndGet();
+        }
+
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(@NonNull Call<T> c, @NonNull Response<T> response) {
+                List<Subscriber<T>> subscribers = finish(flight);
+                if (subscribers.isEmpty()) {
+                    closeQuietly(response);
+                    return;
+                }
+                if (subscribers.size() == 1 || response.isSuccessful()) {
+                    for (Subscriber<T> each : subscribers) {
+                        each.callback.onResponse(c, response);
+                    }
+                    return;
+                }
+
+                byte[] errorBytes = readErrorBody(response);
+                MediaType type = response.errorBody() != null ? response.errorBody().contentType() : null;
+                for (Subscriber<T> each : subscribers) {
+                    each.callback.onResponse(c, Response.error(ResponseBody.create(errorBytes, type), response.raw()));
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<T> c, @NonNull Throwable t) {
+                for (Subscriber<T> each : finish(flight)) {
+                    each.callback.onFailure(c, t);
+                }
+            }
+        });
+        return subscriber;
+    }
+
+    /**
+     * Снимает запрос с карты и возвращает подписчиков, которые ещё ждут результат.
+     */
+    @NonNull
+    private <T> List<Subscriber<T>> finish(@NonNull Flight<T> flight) {
+        synchronized (lock) {
+            if (flight.key != null && inFlight.get(flight.key) == flight) {
+                inFlight.remove(flight.key);
+            }
+            List<Subscriber<T>> out = new ArrayList<>(flight.subscribers);
+            flight.subscribers.clear();
+            for (Subscriber<T> s : out) {
+                s.done = true;
+            }
+            return out;
+        }
+    }
+
+    private <T> void cancel(@NonNull Subscriber<T> subscriber) {
+        Flight<T> flight;
+        synchronized (lock) {
+            if (subscriber.done) {
+                return;
+            }
+            subscriber.done = true;
+            subscriber.canceled = true;
+            flight = subscriber.flight;
+            flight.subscribers.remove(subscriber);
+            if (!flight.subscribers.isEmpty()) {
+                return;
+            }
+            // Больше никто не ждёт: новый такой же GET должен уйти в сеть, а не ждать отменённый.
+            if (flight.key != null && inFlight.get(flight.key) == flight) {
+                inFlight.remove(flight.key);
+            }
+        }
+        flight.call.cancel();
+    }
+
+    private static void closeQuietly(@NonNull Response<?> response) {
+        if (response.errorBody() != null) {
+            response.errorBody().close();
+        }
+    }
+
+    @NonNull
+    private static byte[] readErrorBody(@NonNull Response<?> response) {
+        ResponseBody body = response.errorBody();
+        if (body == null) {
+            return new byte[0];
+        }
+        try {
+            return body.bytes();
+        } catch (IOException e) {
+            Log.w(TAG, "failed to buffer errorBody: " + e);
+            return new byte[0];
+        }
+    }
+
+    @NonNull
+    private Counters counters(@NonNull String opName) {
+        Counters c = byOp.get(opName);
+        if (c == null) {
+            Counters created = new Counters();
+            c = byOp.putIfAbsent(opName, created);
+            if (c == null) {
+                c = created;
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Сколько дубликатов не ушло в сеть, всего по всем операциям.
+     */
+    public long getSuppressedCount() {
+        long total = 0;
+        for (Counters c : byOp.values()) {
+            total += c.suppressed.get();
+        }
+        return total;
+    }
+
+    /**
+     * Снимок счётчиков, отсортированный по имени операции.
+     */
+    @NonNull
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> out = new TreeMap<>();
+        for (Map.Entry<String, Counters> e : byOp.entrySet()) {
+            out.put(e.getKey(), new Snapshot(e.getValue().sent.get(), e.getValue().suppressed.get()));
+        }
+        return out;
+    }
+
+    @NonNull
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Snapshot> e : snapshot().entrySet()) {
+            sb.append(e.getKey())
+                    .append(": sent=").append(e.getValue().sent)
+                    .append(" suppressed=").append(e.getValue().suppressed)
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static final class Snapshot {
+        public final long sent;
+        public final long suppressed;
+
+        Snapshot(long sent, long suppressed) {
+            this.sent = sent;
+            this.suppressed = suppressed;
+        }
+    }
+
+    private static final class Flight<T> {
+        @Nullable
+        final String key;
+        final Call<T> call;
+        // Меняется под lock.
+        final List<Subscriber<T>> subscribers = new ArrayList<>();
+
+        Flight(@Nullable String key, @NonNull Call<T> call) {
+            this.key = key;
+            this.call = call;
+        }
+    }
+
+    private final class Subscriber<T> implements RequestHandle {
+        final Callback<T> callback;
+        // Поля ниже меняются под lock.
+        Flight<T> flight;
+        boolean done = false;
+        boolean canceled = false;
+
+        Subscriber(@NonNull Callback<T> callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void cancel() {
+            RequestCoalescer.this.cancel(this);
+        }
+
+        @Override
+        public boolean isCanceled() {
+            synchronized (lock) {
+                return canceled;
+            }
+        }
+
+        @Override
+        public boolean isDone() {
+            synchronized (lock) {
+                return done;
+            }
+        }
+    }
+
+    private static final class Counters {
+        final AtomicLong sent = new AtomicLong();
+        final AtomicLong suppressed = new AtomicLong();
+    }
+}
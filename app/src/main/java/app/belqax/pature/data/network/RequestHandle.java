@@ -0,0 +1,39 @@
+package app.belqax.pature.data.network;
+
+/**
+ * Ручка асинхронного вызова репозитория.
+ *
+ * cancel() прерывает сетевой запрос (освобождает слот и соединение, тело не дочитывается и не парсится)
+ * и гарантирует, что callback вызова больше не придёт. Повторный cancel() и cancel() после
+ * завершения ничего не делают. Вызывается с главного потока, там же, где приходят callback'и.
+ */
+public interface RequestHandle {
+
+    /**
+     * Ручка для вызова, который завершился сразу (например, не прошёл проверку аргументов).
+     */
+    RequestHandle DONE = new RequestHandle() {
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return true;
+        }
+    };
+
+    void cancel();
+
+    boolean isCanceled();
+
+    /**
+     * Вызов завершён: callback уже отработал или вызов отменён.
+     */
+    boolean isDone();
+}
@@ -0,0 +1,130 @@
+package app.belqax.pature.data.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Политика повторов одной операции: экспоненциальный backoff с full jitter,
+ * Retry-After от сервера и общий дедлайн на все попытки.
+ *
+ * Повторяются только запросы, которые безопасно отправить ещё раз:
+ * GET/HEAD/PUT/DELETE/OPTIONS, запросы с заголовком Idempotency-Key и операции,
+ * явно объявленные повторяемыми (repeatSafe(), например PATCH статуса, который выставляет абсолютное значение).
+ * POST без ключа идемпотентности не повторяется никогда.
+ */
+public final class RetryPolicy {
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Без повторов.
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(0, 0L, 0L, 0L, false);
+
+    /**
+     * Фоновые и экранные загрузки: до 3 повторов за 15 с.
+     */
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, 300L, 4_000L, 15_000L, false);
+
+    /**
+     * Запросы, которые ждут прямо сейчас (автодополнение): один быстрый повтор, не дольше 3 с.
+     */
+    public static final RetryPolicy QUICK = new RetryPolicy(1, 200L, 1_000L, 3_000L, false);
+
+    private final int maxRetries;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final long deadlineMs;
+    private final boolean repeatSafe;
+
+    public RetryPolicy(int maxRetries, long baseDelayMs, long maxDelayMs, long deadlineMs, boolean repeatSafe) {
+        this.maxRetries = Math.max(0, maxRetries);
+        this.baseDelayMs = Math.max(0L, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+        this.deadlineMs = Math.max(0L, deadlineMs);
+        this.repeatSafe = repeatSafe;
+    }
+
+    /**
+     * Та же политика для операции, которую можно повторять независимо от HTTP-метода.
+     */
+    @NonNull
+    public RetryPolicy repeatSafe() {
+        return new RetryPolicy(maxRetries, baseDelayMs, maxDelayMs, deadlineMs, true);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getDeadlineMs() {
+        return deadlineMs;
+    }
+
+    /**
+     * Можно ли в принципе повторять этот запрос.
+     */
+    boolean allows(@NonNull Request request) {
+        if (maxRetries == 0) {
+            return false;
+        }
+        if (repeatSafe || request.header(IDEMPOTENCY_KEY_HEADER) != null) {
+            return true;
+        }
+        switch (request.method()) {
+            case "GET":
+            case "HEAD":
+            case "PUT":
+            case "DELETE":
+            case "OPTIONS":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    static boolean isRetryableStatus(int code) {
+        return code == 408 || code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+    /**
+     * Пауза перед повтором номер retry (с нуля): случайная в [0, min(max, base * 2^retry)].
+     */
+    long backoffMs(int retry) {
+        long cap = baseDelayMs << Math.min(retry, 20);
+        cap = Math.min(maxDelayMs, cap);
+        if (cap <= 0L) {
+            return 0L;
+        }
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    /**
+     * Пауза из Retry-After (секунды или HTTP-дата), -1 если заголовка нет или он не разобран.
+     */
+    static long retryAfterMs(@Nullable Response raw) {
+        if (raw == null) {
+            return -1L;
+        }
+        String value = raw.header("Retry-After");
+        if (value == null) {
+            return -1L;
+        }
+        try {
+            return Math.max(0L, Long.parseLong(value.trim()) * 1000L);
+        } catch (NumberFormatException ignored) {
+            // Не число: пробуем как HTTP-дату.
+        }
+        Date date = raw.headers().getDate("Retry-After");
+        if (date == null) {
+            return -1L;
+        }
+        return Math.max(0L, date.getTime() - System.currentTimeMillis());
+    }
+}
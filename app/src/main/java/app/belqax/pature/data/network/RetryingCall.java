@@ -0,0 +1,228 @@
+package app.belqax.pature.data.network;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Call, который сам повторяет попытки по RetryPolicy. Каждая попытка – clone() исходного вызова,
+ * паузы между попытками ждут на общем планировщике, а не в потоке OkHttp.
+ * Вызывающий видит один вызов: callback приходит один раз, в callbackExecutor Retrofit.
+ */
+final class RetryingCall<T> implements Call<T> {
+
+    private final CallRetrier retrier;
+    private final String opName;
+    private final RetryPolicy policy;
+    private final Call<T> original;
+    private final ScheduledExecutorService scheduler;
+    private final Executor callbackExecutor;
+
+    private final AtomicBoolean executed = new AtomicBoolean(false);
+    private volatile boolean canceled = false;
+    private volatile Call<T> current;
+    @Nullable
+    private volatile ScheduledFuture<?> pendingRetry;
+    @Nullable
+    private volatile Callback<T> callback;
+    private volatile int retries = 0;
+    private long deadlineAt;
+
+    RetryingCall(@NonNull CallRetrier retrier,
+                 @NonNull String opName,
+                 @NonNull RetryPolicy policy,
+                 @NonNull Call<T> original,
+                 @NonNull ScheduledExecutorService scheduler,
+                 @NonNull Executor callbackExecutor) {
+        this.retrier = retrier;
+        this.opName = opName;
+        this.policy = policy;
+        this.original = original;
+        this.current = original;
+        this.scheduler = scheduler;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Сколько повторов понадобилось (0 – ответ с первой попытки).
+     */
+    int getRetries() {
+        return retries;
+    }
+
+    @Override
+    public void enqueue(@NonNull Callback<T> cb) {
+        if (!executed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Already executed.");
+        }
+        callback = cb;
+        deadlineAt = SystemClock.elapsedRealtime() + policy.getDeadlineMs();
+        attempt(original, cb);
+    }
+
+    private void attempt(@NonNull Call<T> call, @NonNull Callback<T> cb) {
+        current = call;
+        if (canceled) {
+            call.cancel();
+        }
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(@NonNull Call<T> c, @NonNull Response<T> response) {
+                long delay = response.isSuccessful() ? -1L : delayBeforeRetry(response);
+                if (delay >= 0L) {
+                    closeQuietly(response.errorBody());
+                    scheduleRetry(cb, delay);
+                    return;
+                }
+                retrier.record(opName, retries, response.isSuccessful());
+                cb.onResponse(RetryingCall.this, response);
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<T> c, @NonNull Throwable t) {
+                long delay = t instanceof IOException ? delayBeforeRetry(null) : -1L;
+                if (delay >= 0L) {
+                    scheduleRetry(cb, delay);
+                    return;
+                }
+                retrier.record(opName, retries, false);
+                cb.onFailure(RetryingCall.this, t);
+            }
+        });
+    }
+
+    private void scheduleRetry(@NonNull Callback<T> cb, long delayMs) {
+        retries++;
+        pendingRetry = scheduler.schedule(() -> attempt(current.clone(), cb), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Пауза перед следующей попыткой или -1, если повторять нельзя.
+     * response == null – попытка упала с IOException.
+     */
+    private long delayBeforeRetry(@Nullable Response<T> response) {
+        if (canceled || retries >= policy.getMaxRetries() || !policy.allows(original.request())) {
+            return -1L;
+        }
+        long delay;
+        if (response != null) {
+            if (!RetryPolicy.isRetryableStatus(response.code())) {
+                return -1L;
+            }
+            long retryAfter = RetryPolicy.retryAfterMs(response.raw());
+            delay = retryAfter >= 0L ? retryAfter : policy.backoffMs(retries);
+        } else {
+            delay = policy.backoffMs(retries);
+        }
+        if (SystemClock.elapsedRealtime() + delay > deadlineAt) {
+            return -1L;
+        }
+        return delay;
+    }
+
+    @NonNull
+    @Override
+    public Response<T> execute() throws IOException {
+        if (!executed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Already executed.");
+        }
+        deadlineAt = SystemClock.elapsedRealtime() + policy.getDeadlineMs();
+
+        Call<T> call = original;
+        while (true) {
+            current = call;
+            if (canceled) {
+                call.cancel();
+            }
+
+            long delay;
+            try {
+                Response<T> response = call.execute();
+                delay = response.isSuccessful() ? -1L : delayBeforeRetry(response);
+                if (delay < 0L) {
+                    retrier.record(opName, retries, response.isSuccessful());
+                    return response;
+                }
+                closeQuietly(response.errorBody());
+            } catch (IOException e) {
+                delay = delayBeforeRetry(null);
+                if (delay < 0L) {
+                    retrier.record(opName, retries, false);
+                    throw e;
+                }
+            }
+
+            retries++;
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Canceled", e);
+            }
+            call = call.clone();
+        }
+    }
+
+    @Override
+    public boolean isExecuted() {
+        return executed.get();
+    }
+
+    @Override
+    public void cancel() {
+        canceled = true;
+        current.cancel();
+
+        // Отмена во время паузы: следующей попытки не будет, callback получает отказ как от OkHttp.
+        ScheduledFuture<?> pending = pendingRetry;
+        Callback<T> cb = callback;
+        if (pending != null && cb != null && pending.cancel(false)) {
+            retrier.record(opName, retries, false);
+            callbackExecutor.execute(() -> cb.onFailure(this, new IOException("Canceled")));
+        }
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    @NonNull
+    @Override
+    public Call<T> clone() {
+        return new RetryingCall<>(retrier, opName, policy, original.clone(), scheduler, callbackExecutor);
+    }
+
+    @NonNull
+    @Override
+    public Request request() {
+        return original.request();
+    }
+
+    @NonNull
+    @Override
+    public Timeout timeout() {
+        return current.timeout();
+    }
+
+    private static void closeQuietly(@Nullable ResponseBody body) {
+        if (body != null) {
+            body.close();
+        }
+    }
+}
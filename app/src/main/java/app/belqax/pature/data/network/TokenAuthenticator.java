@@ -1,6 +1,5 @@
 package app.belqax.pature.data.network;
 
-import android.os.Build;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
@@ -10,22 +9,44 @@ import com.google.gson.annotations.SerializedName;
 
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import app.belqax.pature.data.storage.AuthStorage;
 import okhttp3.Authenticator;
-import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.Route;
 import retrofit2.Call;
+import retrofit2.Callback;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 import retrofit2.http.Body;
 import retrofit2.http.POST;
 
+/**
+ * Обновляет токены при 401.
+ *
+ * Refresh single-flight: первый запрос, получивший 401, запускает асинхронный refresh,
+ * остальные подписываются на тот же future и ждут не дольше REFRESH_WAIT_TIMEOUT_MS.
+ *
+ * Authenticator синхронный: каждый ждущий запрос блокирует свой поток OkHttp и держит слот
+ * Dispatcher основного клиента, пока refresh не закончится. Поэтому у клиента refresh должен быть
+ * свой Dispatcher: в общей очереди refresh при заполненном лимите встал бы за ждущими его
+ * запросами, и все они получили бы 401 по таймауту.
+ *
+ * Клиент refresh строится вызывающей стороной на общем NetworkCore (см. ApiClient): refresh идёт
+ * по уже прогретому соединению, а отсутствие authenticator в этом клиенте исключает рекурсию.
+ *
+ * Тот же flight используется и для проактивного обновления (TokenRefreshScheduler):
+ * если 401 приходит во время проактивного refresh, запрос просто ждёт его результат.
+ */
 public final class TokenAuthenticator implements Authenticator {
 
     private static final String TAG = "TokenAuthenticator";
@@ -35,50 +56,30 @@ public final class TokenAuthenticator implements Authenticator {
 
     private static final int MAX_AUTH_RETRIES = 2;
 
-    private static final long NETWORK_TIMEOUT_SECONDS = 30L;
-    private static final String APP_VERSION = "0.1.0-dev";
+    // Сколько запрос, получивший 401, максимум ждёт общий refresh.
+    static final long REFRESH_WAIT_TIMEOUT_MS = 10_000L;
 
     private final AuthStorage authStorage;
     private final RefreshApi refreshApi;
 
-    private final ReentrantLock refreshLock = new ReentrantLock(true);
+    private final AtomicReference<RefreshFlight> inFlight = new AtomicReference<>();
+    private final RefreshStats stats = new RefreshStats();
 
+    /**
+     * @param refreshClient клиент без authenticator и без Authorization-интерцептора,
+     *                      со своим Dispatcher (NetworkCore.newIsolatedClientBuilder)
+     */
     public TokenAuthenticator(
             @NonNull AuthStorage authStorage,
-            @NonNull String baseUrl
+            @NonNull String baseUrl,
+            @NonNull OkHttpClient refreshClient
     ) {
         this.authStorage = Objects.requireNonNull(authStorage, "authStorage");
 
-        Interceptor deviceHeadersInterceptor = chain -> {
-            Request original = chain.request();
-
-            String deviceId = authStorage.getOrCreateDeviceId();
-            String platform = "android";
-            String deviceModel = Build.MANUFACTURER + " " + Build.MODEL;
-            String osVersion = Build.VERSION.RELEASE;
-
-            Request request = original.newBuilder()
-                    .header("X-Device-Id", deviceId)
-                    .header("X-Platform", platform)
-                    .header("X-Device-Model", deviceModel)
-                    .header("X-OS-Version", osVersion)
-                    .header("X-App-Version", APP_VERSION)
-                    .build();
-
-            return chain.proceed(request);
-        };
-
-        OkHttpClient refreshClient = new OkHttpClient.Builder()
-                .addInterceptor(deviceHeadersInterceptor)
-                .connectTimeout(NETWORK_TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .readTimeout(NETWORK_TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .writeTimeout(NETWORK_TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .build();
-
         Retrofit retrofit = new Retrofit.Builder()
                 .baseUrl(Objects.requireNonNull(baseUrl, "baseUrl"))
-                .client(refreshClient)
-                .addConverterFactory(GsonConverterFactory.create())
+                .client(Objects.requireNonNull(refreshClient, "refreshClient"))
+                .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
                 .build();
 
         this.refreshApi = retrofit.create(RefreshApi.class);
@@ -112,79 +113,226 @@ public final class TokenAuthenticator implements Authenticator {
                     .build();
         }
 
-        refreshLock.lock();
-        try {
-            String accessAfterWait = authStorage.getAccessToken();
-            if (accessAfterWait != null
-                    && !accessAfterWait.trim().isEmpty()
-                    && requestAccess != null
-                    && !requestAccess.equals(accessAfterWait)) {
-                Log.i(TAG, "authenticate: token refreshed while waiting lock, retrying. url=" + response.request().url());
-                return response.request().newBuilder()
-                        .header(AUTH_HEADER, BEARER_PREFIX + accessAfterWait)
-                        .build();
+        RefreshFlight flight = joinOrStartRefresh(requestAccess, response.request().url().toString());
+        if (flight == null) {
+            return null;
+        }
+
+        String newAccess = awaitRefresh(flight, response);
+        if (newAccess == null) {
+            return null;
+        }
+
+        return response.request().newBuilder()
+                .header(AUTH_HEADER, BEARER_PREFIX + newAccess)
+                .build();
+    }
+
+    /**
+     * Метрики refresh: сколько запросов разблокировал каждый refresh и сколько они ждали.
+     */
+    @NonNull
+    public RefreshStats getRefreshStats() {
+        return stats;
+    }
+
+    /**
+     * Проактивный refresh до истечения access-токена. Не блокирует: возвращает future
+     * с новым access-токеном (null при неудаче). Если refresh уже идёт, возвращает его.
+     */
+    @NonNull
+    public CompletableFuture<String> refreshProactively() {
+        RefreshFlight flight = joinOrStartRefresh(authStorage.getAccessToken(), "proactive");
+        if (flight == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // Проактивный вызов не ждёт синхронно и не должен попадать в статистику ожиданий 401.
+        flight.waiters.decrementAndGet();
+        return flight.future;
+    }
+
+    /**
+     * Возвращает текущий refresh или запускает новый. null – refresh невозможен (нет refresh_token/login).
+     *
+     * @param staleAccess токен, с которым был сделан запрос; если в хранилище уже другой, refresh не нужен
+     * @param reason      для логов: url запроса или "proactive"
+     */
+    @Nullable
+    private RefreshFlight joinOrStartRefresh(@Nullable String staleAccess, @NonNull String reason) {
+        while (true) {
+            RefreshFlight existing = inFlight.get();
+            if (existing != null) {
+                existing.waiters.incrementAndGet();
+                return existing;
+            }
+
+            RefreshFlight created = new RefreshFlight();
+            if (!inFlight.compareAndSet(null, created)) {
+                continue;
+            }
+            created.waiters.incrementAndGet();
+
+            // Пока ждали гонку, токен мог уже обновиться.
+            String current = authStorage.getAccessToken();
+            if (current != null
+                    && !current.trim().isEmpty()
+                    && staleAccess != null
+                    && !staleAccess.equals(current)) {
+                Log.i(TAG, "authenticate: token refreshed while joining, retrying. reason=" + reason);
+                finish(created, current);
+                return created;
             }
 
             String refreshToken = authStorage.getRefreshToken();
             String login = authStorage.getLogin();
 
             if (refreshToken == null || refreshToken.trim().isEmpty()) {
-                Log.e(TAG, "authenticate: no refresh token, cannot refresh. url=" + response.request().url());
+                Log.e(TAG, "authenticate: no refresh token, cannot refresh. reason=" + reason);
+                finish(created, null);
                 return null;
             }
             if (login == null || login.trim().isEmpty()) {
-                Log.e(TAG, "authenticate: no login saved, cannot refresh. url=" + response.request().url());
+                Log.e(TAG, "authenticate: no login saved, cannot refresh. reason=" + reason);
+                finish(created, null);
                 return null;
             }
 
-            Log.i(TAG, "authenticate: refreshing tokens, url=" + response.request().url());
+            Log.i(TAG, "authenticate: refreshing tokens, reason=" + reason);
+            startRefresh(created, new RefreshRequest(refreshToken, login));
+            return created;
+        }
+    }
 
-            RefreshRequest body = new RefreshRequest(refreshToken, login);
+    private void startRefresh(@NonNull RefreshFlight flight, @NonNull RefreshRequest body) {
+        refreshApi.refresh(body).enqueue(new Callback<TokenPairDto>() {
+            @Override
+            public void onResponse(@NonNull Call<TokenPairDto> call,
+                                   @NonNull retrofit2.Response<TokenPairDto> refreshResp) {
+                if (refreshResp.isSuccessful() && refreshResp.body() != null) {
+                    TokenPairDto pair = refreshResp.body();
+
+                    if (pair.access_token == null || pair.access_token.trim().isEmpty()) {
+                        Log.e(TAG, "authenticate: refresh success but access_token empty");
+                        finish(flight, null);
+                        return;
+                    }
+                    if (pair.refresh_token == null || pair.refresh_token.trim().isEmpty()) {
+                        Log.e(TAG, "authenticate: refresh success but refresh_token empty");
+                        finish(flight, null);
+                        return;
+                    }
+
+                    authStorage.saveTokens(pair.access_token, pair.refresh_token, pair.expires_in);
+                    Log.i(TAG, "authenticate: refresh success, retrying original requests");
+                    finish(flight, pair.access_token);
+                    return;
+                }
 
-            retrofit2.Response<TokenPairDto> refreshResp;
-            try {
-                refreshResp = refreshApi.refresh(body).execute();
-            } catch (IOException io) {
-                Log.w(TAG, "authenticate: refresh network error: " + io);
-                return null;
-            } catch (Exception ex) {
-                Log.e(TAG, "authenticate: refresh unexpected error: " + ex);
-                return null;
+                int code = refreshResp.code();
+                if (code == 401) {
+                    Log.e(TAG, "authenticate: refresh rejected (401). Clearing session.");
+                    authStorage.clearAll();
+                } else {
+                    Log.e(TAG, "authenticate: refresh failed code=" + code);
+                }
+                finish(flight, null);
             }
 
-            if (refreshResp.isSuccessful() && refreshResp.body() != null) {
-                TokenPairDto pair = refreshResp.body();
+            @Override
+            public void onFailure(@NonNull Call<TokenPairDto> call, @NonNull Throwable t) {
+                Log.w(TAG, "authenticate: refresh network error: " + t);
+                finish(flight, null);
+            }
+        });
+    }
 
-                if (pair.access_token == null || pair.access_token.trim().isEmpty()) {
-                    Log.e(TAG, "authenticate: refresh success but access_token empty");
-                    return null;
-                }
-                if (pair.refresh_token == null || pair.refresh_token.trim().isEmpty()) {
-                    Log.e(TAG, "authenticate: refresh success but refresh_token empty");
-                    return null;
-                }
+    private void finish(@NonNull RefreshFlight flight, @Nullable String newAccess) {
+        // Сначала снимает flight, чтобы следующий 401 (уже с новым токеном) начинал новый refresh.
+        inFlight.compareAndSet(flight, null);
+        flight.future.complete(newAccess);
+    }
 
-                authStorage.saveTokens(pair.access_token, pair.refresh_token);
+    @Nullable
+    private String awaitRefresh(@NonNull RefreshFlight flight, @NonNull Response response) {
+        long startNs = System.nanoTime();
+        try {
+            return flight.future.get(REFRESH_WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            stats.timeouts.incrementAndGet();
+            Log.w(TAG, "authenticate: refresh wait timed out. url=" + response.request().url());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            Log.e(TAG, "authenticate: refresh failed: " + e.getCause());
+            return null;
+        } finally {
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+            stats.onWaiterDone(flight, waitedMs);
+        }
+    }
 
-                Log.i(TAG, "authenticate: refresh success, retrying original request");
+    private static final class RefreshFlight {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        final AtomicInteger waiters = new AtomicInteger();
+        final AtomicInteger finishedWaiters = new AtomicInteger();
+    }
 
-                return response.request().newBuilder()
-                        .header(AUTH_HEADER, BEARER_PREFIX + pair.access_token)
-                        .build();
+    public static final class RefreshStats {
+        private final AtomicLong refreshes = new AtomicLong();
+        private final AtomicLong unblockedRequests = new AtomicLong();
+        private final AtomicInteger maxUnblockedPerRefresh = new AtomicInteger();
+        private final AtomicLong totalWaitMs = new AtomicLong();
+        private final AtomicLong maxWaitMs = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+
+        void onWaiterDone(@NonNull RefreshFlight flight, long waitedMs) {
+            unblockedRequests.incrementAndGet();
+            totalWaitMs.addAndGet(waitedMs);
+            maxWaitMs.accumulateAndGet(waitedMs, Math::max);
+
+            int done = flight.finishedWaiters.incrementAndGet();
+            if (done == 1) {
+                refreshes.incrementAndGet();
             }
+            maxUnblockedPerRefresh.accumulateAndGet(done, Math::max);
+        }
 
-            int code = refreshResp.code();
-            if (code == 401) {
-                Log.e(TAG, "authenticate: refresh rejected (401). Clearing session.");
-                authStorage.clearAll();
-                return null;
-            }
+        public long getRefreshes() {
+            return refreshes.get();
+        }
 
-            Log.e(TAG, "authenticate: refresh failed code=" + code);
-            return null;
+        public long getUnblockedRequests() {
+            return unblockedRequests.get();
+        }
 
-        } finally {
-            refreshLock.unlock();
+        public int getMaxUnblockedPerRefresh() {
+            return maxUnblockedPerRefresh.get();
+        }
+
+        public long getAverageWaitMs() {
+            long n = unblockedRequests.get();
+            return n == 0 ? 0 : totalWaitMs.get() / n;
+        }
+
+        public long getMaxWaitMs() {
+            return maxWaitMs.get();
+        }
+
+        public long getTimeouts() {
+            return timeouts.get();
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "refreshes=" + getRefreshes()
+                    + " unblocked=" + getUnblockedRequests()
+                    + " maxPerRefresh=" + getMaxUnblockedPerRefresh()
+                    + " avgWaitMs=" + getAverageWaitMs()
+                    + " maxWaitMs=" + getMaxWaitMs()
+                    + " timeouts=" + getTimeouts();
         }
     }
 
@@ -234,5 +382,9 @@ public final class TokenAuthenticator implements Authenticator {
 
         @SerializedName("refresh_token")
         public String refresh_token;
+
+        // Необязательное поле: если сервер его не отдаёт, срок берётся из claim "exp".
+        @SerializedName("expires_in")
+        public Long expires_in;
     }
 }
@@ -0,0 +1,147 @@
+package app.belqax.pature.data.network;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import app.belqax.pature.data.storage.AuthStorage;
+import app.belqax.pature.helper.AppForegroundTracker;
+
+/**
+ * Проактивное обновление access-токена до истечения.
+ *
+ * Срок берётся из AuthStorage (expires_in сервера или claims токена). Пока приложение на переднем плане,
+ * refresh планируется за REFRESH_AHEAD_MS до истечения; при возврате из фона план пересчитывается
+ * и, если токен уже почти истёк, refresh идёт сразу. В фоне таймер снимается.
+ *
+ * После получения новых токенов следующий проактивный refresh – не раньше половины их срока жизни
+ * и не раньше RETRY_DELAY_MS. Иначе токен, живущий меньше REFRESH_AHEAD_MS, или срок, посчитанный
+ * по спешащим часам устройства, давали бы refresh сразу после refresh без конца.
+ *
+ * Refresh выполняется через TokenAuthenticator.refreshProactively(), то есть тем же single-flight,
+ * что и реактивный путь по 401. Реактивный путь остаётся запасным: если проактивный refresh не успел
+ * или не удался, первый 401 обновит токен как раньше.
+ */
+public final class TokenRefreshScheduler implements AppForegroundTracker.Listener, AuthStorage.TokensListener {
+
+    private static final String TAG = "TokenRefreshScheduler";
+
+    // За сколько до истечения обновлять токен.
+    private static final long REFRESH_AHEAD_MS = 60_000L;
+    // Повтор после неудачного проактивного refresh.
+    private static final long RETRY_DELAY_MS = 30_000L;
+
+    private final AuthStorage authStorage;
+    private final TokenAuthenticator authenticator;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "token-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Доступ только из потока executor.
+    @Nullable
+    private ScheduledFuture<?> scheduled;
+    private boolean foreground = false;
+    // Раньше этого момента (epoch ms) проактивный refresh не запускается.
+    private long notBeforeMs = 0L;
+
+    TokenRefreshScheduler(@NonNull AuthStorage authStorage, @NonNull TokenAuthenticator authenticator) {
+        this.authStorage = Objects.requireNonNull(authStorage, "authStorage");
+        this.authenticator = Objects.requireNonNull(authenticator, "authenticator");
+    }
+
+    /**
+     * Подписывается на смену токенов и на foreground/background. Вызывается один раз из Application.
+     */
+    public void start() {
+        authStorage.addTokensListener(this);
+        AppForegroundTracker tracker = AppForegroundTracker.getInstance();
+        tracker.addListener(this);
+        if (tracker.isForeground()) {
+            onForeground();
+        }
+    }
+
+    @Override
+    public void onForeground() {
+        executor.execute(() -> {
+            foreground = true;
+            rescheduleLocked(0L);
+        });
+    }
+
+    @Override
+    public void onBackground() {
+        executor.execute(() -> {
+            foreground = false;
+            cancelLocked();
+        });
+    }
+
+    @Override
+    public void onTokensChanged() {
+        executor.execute(() -> {
+            long now = System.currentTimeMillis();
+            long lifetimeMs = authStorage.getAccessTokenExpiresAtMs() - now;
+            notBeforeMs = now + Math.max(RETRY_DELAY_MS, lifetimeMs / 2);
+            rescheduleLocked(0L);
+        });
+    }
+
+    private void rescheduleLocked(long minDelayMs) {
+        cancelLocked();
+        if (!foreground) {
+            return;
+        }
+
+        String refreshToken = authStorage.getRefreshToken();
+        if (refreshToken == null || refreshToken.trim().isEmpty()) {
+            return;
+        }
+
+        long expiresAtMs = authStorage.getAccessTokenExpiresAtMs();
+        if (expiresAtMs <= 0L) {
+            // Срок неизвестен: остаётся только реактивный refresh по 401.
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long delayMs = Math.max(
+                Math.max(minDelayMs, notBeforeMs - now),
+                expiresAtMs - REFRESH_AHEAD_MS - now
+        );
+        scheduled = executor.schedule(this::refreshNow, Math.max(0L, delayMs), TimeUnit.MILLISECONDS);
+        Log.d(TAG, "next proactive refresh in " + delayMs + "ms");
+    }
+
+    private void cancelLocked() {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+    }
+
+    private void refreshNow() {
+        scheduled = null;
+        if (!foreground) {
+            return;
+        }
+
+        authenticator.refreshProactively().whenComplete((access, error) -> {
+            if (access == null || error != null) {
+                // При успехе AuthStorage сам вызовет onTokensChanged и перепланирует следующий refresh.
+                Log.w(TAG, "proactive refresh failed, retry in " + RETRY_DELAY_MS + "ms");
+                executor.execute(() -> rescheduleLocked(RETRY_DELAY_MS));
+            }
+        });
+    }
+}
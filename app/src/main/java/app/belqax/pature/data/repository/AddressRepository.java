@@ -11,6 +11,11 @@ import java.util.Collections;
 import java.util.List;
 
 import app.belqax.pature.data.network.ApiClient;
+import app.belqax.pature.data.network.CallRetrier;
+import app.belqax.pature.data.network.PriorityDispatcher;
+import app.belqax.pature.data.network.RequestCoalescer;
+import app.belqax.pature.data.network.RequestHandle;
+import app.belqax.pature.data.network.RetryPolicy;
 import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -29,9 +34,18 @@ public class AddressRepository {
     private static final String TAG = "AddressRepository";
 
     private final AddressApi api;
-
-    public AddressRepository(@NonNull AddressApi api) {
+    private final RequestCoalescer coalescer;
+    private final CallRetrier retrier;
+    private final PriorityDispatcher lanes;
+
+    public AddressRepository(@NonNull AddressApi api,
+                             @NonNull RequestCoalescer coalescer,
+                             @NonNull CallRetrier retrier,
+                             @NonNull PriorityDispatcher lanes) {
         this.api = api;
+        this.coalescer = coalescer;
+        this.retrier = retrier;
+        this.lanes = lanes;
     }
 
     /**
@@ -42,7 +56,12 @@ public class AddressRepository {
         ApiClient apiClient = ApiClient.getInstance();
         Retrofit retrofit = apiClient.getRetrofit();
         AddressApi api = retrofit.create(AddressApi.class);
-        return new AddressRepository(api);
+        return new AddressRepository(
+                api,
+                apiClient.getRequestCoalescer(),
+                apiClient.getCallRetrier(),
+                apiClient.getPriorityDispatcher()
+        );
     }
 
     // region Public API
@@ -54,8 +73,10 @@ public class AddressRepository {
      * @param limit  максимум подсказок (1–20), можно null для значения по умолчанию на бэке
      * @param lang   язык (например, "ru"), можно null
      * @param type   тип Geoapify (building, amenity и т.п.), можно null
+     * @return ручка для отмены, когда подсказки для этого текста уже не нужны
      */
-    public void autocomplete(
+    @NonNull
+    public RequestHandle autocomplete(
             @NonNull String text,
             @Nullable Integer limit,
             @Nullable String lang,
@@ -64,7 +85,13 @@ public class AddressRepository {
     ) {
         Log.d(TAG, "autocomplete: text=" + text + " limit=" + limit + " lang=" + lang + " type=" + type);
 
-        api.autocomplete(text, limit, lang, type).enqueue(new Callback<AutocompleteResponse>() {
+        // Пользователь ждёт подсказки прямо сейчас: один быстрый повтор, иначе ответ уже не нужен.
+        Call<AutocompleteResponse> call = lanes.wrap(
+                api.autocomplete(text, limit, lang, type),
+                PriorityDispatcher.Priority.INTERACTIVE
+        );
+        return coalescer.enqueue("autocomplete", retrier.wrap("autocomplete", call, RetryPolicy.QUICK),
+                new Callback<AutocompleteResponse>() {
             @Override
             public void onResponse(@NonNull Call<AutocompleteResponse> call,
                                    @NonNull Response<AutocompleteResponse> response) {
@@ -78,7 +105,7 @@ public class AddressRepository {
                     callback.onSuccess(suggestions);
                 } else {
                     Log.w(TAG, "autocomplete: http error " + response.code());
-                    callback.onError(mapHttpError(response));
+                    callback.onError(mapHttpError(call, response));
                 }
             }
 
@@ -86,17 +113,28 @@ public class AddressRepository {
             public void onFailure(@NonNull Call<AutocompleteResponse> call,
                                   @NonNull Throwable t) {
                 Log.e(TAG, "autocomplete: failure", t);
-                callback.onError(mapNetworkError(t));
+                callback.onError(mapNetworkError(call, t));
             }
         });
     }
 
+    /**
+     * autocomplete в виде future (ошибка – RepoException).
+     */
+    @NonNull
+    public RepoFuture<List<SuggestionDto>> autocompleteAsync(@NonNull String text,
+                                                            @Nullable Integer limit,
+                                                            @Nullable String lang,
+                                                            @Nullable String type) {
+        return RepoFutures.suggestions(cb -> autocomplete(text, limit, lang, type, cb));
+    }
+
     // endregion
 
     // region Error mapping
 
     @NonNull
-    private AddressError mapHttpError(@NonNull Response<?> response) {
+    private AddressError mapHttpError(@NonNull Call<?> call, @NonNull Response<?> response) {
         int code = response.code();
         String rawBody = null;
 
@@ -128,12 +166,13 @@ public class AddressRepository {
                 false,
                 unauthorized,
                 rawBody,
-                null
+                null,
+                CallRetrier.retriesOf(call)
         );
     }
 
     @NonNull
-    private AddressError mapNetworkError(@NonNull Throwable t) {
+    private AddressError mapNetworkError(@NonNull Call<?> call, @NonNull Throwable t) {
         if (t instanceof HttpException) {
             HttpException httpException = (HttpException) t;
             int code = httpException.code();
@@ -144,7 +183,8 @@ public class AddressRepository {
                     true,
                     unauthorized,
                     null,
-                    t
+                    t,
+                    CallRetrier.retriesOf(call)
             );
         }
 
@@ -154,7 +194,8 @@ public class AddressRepository {
                 true,
                 false,
                 null,
-                t
+                t,
+                CallRetrier.retriesOf(call)
         );
     }
 
@@ -178,6 +219,7 @@ public class AddressRepository {
         private final String rawBody;
         @Nullable
         private final Throwable cause;
+        private final int retries;
 
         public AddressError(int httpCode,
                             @NonNull String message,
@@ -185,12 +227,23 @@ public class AddressRepository {
                             boolean unauthorized,
                             @Nullable String rawBody,
                             @Nullable Throwable cause) {
+            this(httpCode, message, networkError, unauthorized, rawBody, cause, 0);
+        }
+
+        public AddressError(int httpCode,
+                            @NonNull String message,
+                            boolean networkError,
+                            boolean unauthorized,
+                            @Nullable String rawBody,
+                            @Nullable Throwable cause,
+                            int retries) {
             this.httpCode = httpCode;
             this.message = message;
             this.networkError = networkError;
             this.unauthorized = unauthorized;
             this.rawBody = rawBody;
             this.cause = cause;
+            this.retries = retries;
         }
 
         public int getHttpCode() {
@@ -219,6 +272,13 @@ public class AddressRepository {
         public Throwable getCause() {
             return cause;
         }
+
+        /**
+         * Сколько раз запрос повторялся по RetryPolicy перед этой ошибкой.
+         */
+        public int getRetries() {
+            return retries;
+        }
     }
 
     public interface AddressApi {
@@ -232,13 +292,14 @@ public class AddressRepository {
         );
     }
 
+    // Поля DTO ответов пакетные: их напрямую читает и пишет DtoAdapters.
     public static final class AutocompleteResponse {
 
         @Nullable
-        private String query_text;
+        String query_text;
 
         @Nullable
-        private List<SuggestionDto> suggestions;
+        List<SuggestionDto> suggestions;
 
         @Nullable
         public String getQueryText() {
@@ -258,39 +319,39 @@ public class AddressRepository {
     public static final class SuggestionDto {
 
         @Nullable
-        private String formatted;
+        String formatted;
         @Nullable
-        private Double lat;
+        Double lat;
         @Nullable
-        private Double lon;
+        Double lon;
         @Nullable
-        private String country;
+        String country;
         @Nullable
-        private String state;
+        String state;
         @Nullable
-        private String region;
+        String region;
         @Nullable
-        private String county;
+        String county;
         @Nullable
-        private String city;
+        String city;
         @Nullable
-        private String district;
+        String district;
         @Nullable
-        private String neighbourhood;
+        String neighbourhood;
         @Nullable
-        private String postcode;
+        String postcode;
         @Nullable
-        private String street;
+        String street;
         @Nullable
-        private String housenumber;
+        String housenumber;
         @Nullable
-        private String plus_code;
+        String plus_code;
         @Nullable
-        private String timezone;
+        String timezone;
         @Nullable
-        private String result_type;
+        String result_type;
         @Nullable
-        private Double confidence;
+        Double confidence;
 
         @Nullable
         public String getFormatted() {
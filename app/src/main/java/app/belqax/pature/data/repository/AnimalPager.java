@@ -0,0 +1,268 @@
+package app.belqax.pature.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import app.belqax.pature.data.network.PriorityDispatcher;
+import app.belqax.pature.data.network.RequestHandle;
+
+/**
+ * Постраничная загрузка списка животных (лента, публичный каталог) для экранов.
+ *
+ * Страницы листаются по непрозрачному курсору из заголовка X-Next-Cursor. Если сервер курсор
+ * не присылает, пейджер листает по offset, как раньше.
+ *
+ * Гарантии для получателя:
+ * - одна карточка (по id) приходит не больше одного раза за жизнь пейджера;
+ * - один loadNext делает не больше MAX_REQUESTS_PER_LOAD запросов, даже если сервер отдаёт
+ *   страницы из одних дубликатов (сдвиг offset при вставках, пересечение с первой страницей).
+ *
+ * Все методы вызываются на главном потоке.
+ */
+public final class AnimalPager {
+
+    // Сколько страниц подряд можно запросить за один loadNext, пока не найдётся новая карточка.
+    static final int MAX_REQUESTS_PER_LOAD = 3;
+
+    /**
+     * Источник страниц: курсор (или offset, если курсора нет) -> потоковая страница.
+     */
+    interface PageSource {
+        @NonNull
+        RequestHandle fetch(@Nullable String cursor,
+                            int offset,
+                            int limit,
+                            @NonNull PriorityDispatcher.Priority priority,
+                            @NonNull AnimalRepository.FeedStreamListener listener);
+    }
+
+    /**
+     * Получатель одной загрузки. Методы вызываются на главном потоке.
+     */
+    public interface Listener {
+
+        // Новая карточка, которой ещё не было в этом пейджере.
+        void onItem(@NonNull AnimalRepository.AnimalDto dto);
+
+        /**
+         * Конец загрузки. При успехе data – новые карточки (те же, что пришли в onItem), может быть
+         * пустым, если лимит запросов исчерпан на дубликатах. При ошибке часть карточек могла уже прийти.
+         */
+        void onLoaded(@NonNull AnimalRepository.RepoResult<List<AnimalRepository.AnimalDto>> result);
+    }
+
+    private final PageSource source;
+    private final int pageSize;
+
+    private final Set<Long> seenIds = new HashSet<>();
+
+    // Курсор следующей страницы; null – курсора нет (первая страница или сервер без курсоров).
+    @Nullable
+    private String cursor;
+    // Сервер хотя бы раз прислал курсор: дальше конец ленты – ответ без курсора.
+    private boolean cursorMode = false;
+    // Запасной режим: сколько карточек уже получено от сервера.
+    private int offset = 0;
+    private boolean endReached = false;
+
+    @Nullable
+    private Load current;
+
+    AnimalPager(@NonNull PageSource source, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be > 0");
+        }
+        this.source = source;
+        this.pageSize = pageSize;
+    }
+
+    public boolean isLoading() {
+        return current != null;
+    }
+
+    public boolean isEndReached() {
+        return endReached;
+    }
+
+    /**
+     * true, пока ни одной страницы не загружено: первую можно взять из готового запроса (startup prefetch).
+     */
+    public boolean isAtStart() {
+        return offset == 0 && !cursorMode && !endReached;
+    }
+
+    /**
+     * Первая страница, загруженная в обход пейджера по offset=0. Учитывает её так, как если бы
+     * её загрузил сам пейджер, и возвращает карточки, которых ещё не было. nextCursor – X-Next-Cursor
+     * этой страницы; без него пейджер продолжает по offset.
+     */
+    @NonNull
+    public List<AnimalRepository.AnimalDto> acceptFirstPage(
+            @NonNull List<AnimalRepository.AnimalDto> page,
+            @Nullable String nextCursor
+    ) {
+        Objects.requireNonNull(page, "page");
+        if (!isAtStart() || current != null) {
+            throw new IllegalStateException("acceptFirstPage after pager has started");
+        }
+
+        List<AnimalRepository.AnimalDto> fresh = new ArrayList<>(page.size());
+        for (AnimalRepository.AnimalDto dto : page) {
+            if (dto != null && seenIds.add(dto.id)) {
+                fresh.add(dto);
+            }
+        }
+        offset = page.size();
+        // То же правило, что в Load.onComplete.
+        if (nextCursor != null) {
+            cursor = nextCursor;
+            cursorMode = true;
+        } else if (page.isEmpty()) {
+            endReached = true;
+        }
+        return fresh;
+    }
+
+    /**
+     * Карточка, показанная из другого источника (сохранённая колода): пейджер её больше не отдаст.
+     * false – она уже была.
+     */
+    public boolean markSeen(long animalId) {
+        return seenIds.add(animalId);
+    }
+
+    /**
+     * Загружает следующую порцию новых карточек. Если загрузка уже идёт, возвращает её ручку
+     * (listener второго вызова не подключается); после конца ленты – RequestHandle.DONE.
+     */
+    @NonNull
+    public RequestHandle loadNext(@NonNull PriorityDispatcher.Priority priority, @NonNull Listener listener) {
+        Objects.requireNonNull(priority, "priority");
+        Objects.requireNonNull(listener, "listener");
+
+        if (current != null) {
+            return current;
+        }
+        if (endReached) {
+            return RequestHandle.DONE;
+        }
+
+        Load load = new Load(priority, listener);
+        current = load;
+        load.request();
+        return load;
+    }
+
+    /**
+     * Одна загрузка: до MAX_REQUESTS_PER_LOAD последовательных страниц, пока не будет новых карточек.
+     */
+    private final class Load implements RequestHandle, AnimalRepository.FeedStreamListener {
+
+        private final PriorityDispatcher.Priority priority;
+        private final Listener listener;
+        private final List<AnimalRepository.AnimalDto> added = new ArrayList<>();
+
+        @Nullable
+        private RequestHandle page;
+        private int requests = 0;
+
+        // Текущая страница: сколько карточек пришло и какой курсор прислал сервер.
+        private int received = 0;
+        @Nullable
+        private String nextCursor;
+
+        private boolean canceled = false;
+        private boolean done = false;
+
+        Load(@NonNull PriorityDispatcher.Priority priority, @NonNull Listener listener) {
+            this.priority = priority;
+            this.listener = listener;
+        }
+
+        void request() {
+            requests++;
+            received = 0;
+            nextCursor = null;
+            page = source.fetch(cursorMode ? cursor : null, offset, pageSize, priority, this);
+        }
+
+        @Override
+        public void onItem(@NonNull AnimalRepository.AnimalDto dto) {
+            received++;
+            if (seenIds.add(dto.id)) {
+                added.add(dto);
+                listener.onItem(dto);
+            }
+        }
+
+        @Override
+        public void onNextCursor(@Nullable String cursor) {
+            nextCursor = cursor;
+        }
+
+        @Override
+        public void onComplete(@NonNull AnimalRepository.RepoResult<List<AnimalRepository.AnimalDto>> result) {
+            if (canceled) {
+                return;
+            }
+            // Всё, что уже пришло, учитывается в offset, даже если поток оборвался.
+            offset += received;
+
+            if (!result.isSuccess) {
+                // Курсор не сдвигается: повтор запросит ту же страницу, пришедшие карточки отсеются.
+                finish(AnimalRepository.RepoResult.failureFrom(result));
+                return;
+            }
+
+            if (nextCursor != null) {
+                cursor = nextCursor;
+                cursorMode = true;
+            } else if (cursorMode || received == 0) {
+                endReached = true;
+            }
+
+            if (added.isEmpty() && !endReached && requests < MAX_REQUESTS_PER_LOAD) {
+                request();
+                return;
+            }
+            finish(AnimalRepository.RepoResult.<List<AnimalRepository.AnimalDto>>success(added)
+                    .withRetries(result.retries));
+        }
+
+        private void finish(@NonNull AnimalRepository.RepoResult<List<AnimalRepository.AnimalDto>> result) {
+            done = true;
+            current = null;
+            listener.onLoaded(result);
+        }
+
+        @Override
+        public void cancel() {
+            if (done || canceled) {
+                return;
+            }
+            canceled = true;
+            current = null;
+            offset += received;
+            RequestHandle p = page;
+            if (p != null) {
+                p.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done || canceled;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package app.belqax.pature.data.repository;
 
 
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
@@ -9,13 +12,24 @@ import androidx.annotation.Nullable;
 import com.google.gson.annotations.SerializedName;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import app.belqax.pature.data.network.ApiClient;
+import app.belqax.pature.data.network.CallRetrier;
+import app.belqax.pature.data.network.PriorityDispatcher;
+import app.belqax.pature.data.network.RequestCoalescer;
+import app.belqax.pature.data.network.RequestHandle;
+import app.belqax.pature.data.network.RetryPolicy;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -23,12 +37,14 @@ import retrofit2.Retrofit;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.Multipart;
 import retrofit2.http.PATCH;
 import retrofit2.http.POST;
 import retrofit2.http.Part;
 import retrofit2.http.Path;
 import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 public final class AnimalRepository {
 
@@ -40,62 +56,137 @@ public final class AnimalRepository {
     private static final String DEFAULT_STATUS = "active";
     private static final String DEFAULT_ORDER_BY = "created_at_desc";
 
+    // Курсор следующей страницы ленты/каталога: тело остаётся массивом, курсор едет в заголовке.
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Батчинг реакций: окно склейки и максимальный размер пачки
+    private static final long DEFAULT_LIKE_BATCH_WINDOW_MS = 300L;
+    private static final int DEFAULT_LIKE_BATCH_MAX_ITEMS = 20;
+
+    private static volatile long likeBatchWindowMs = DEFAULT_LIKE_BATCH_WINDOW_MS;
+    private static volatile int likeBatchMaxItems = DEFAULT_LIKE_BATCH_MAX_ITEMS;
+
+    // Сервер без batch-роута (405/501): до likeBatchDisabledUntilMs (elapsedRealtime) шлём поштучно,
+    // потом пробуем пачку снова – роут мог появиться после деплоя.
+    private static final long LIKE_BATCH_DISABLE_MS = 30 * 60_000L;
+    private static volatile long likeBatchDisabledUntilMs = 0L;
+
+    private static final AtomicLong likeReactionsSent = new AtomicLong();
+    private static final AtomicLong likeHttpRequests = new AtomicLong();
+
+    @Nullable
+    private static LikeBatcher sharedLikeBatcher;
+
     private final AnimalApi api;
+    private final RequestCoalescer coalescer;
+    private final CallRetrier retrier;
+    private final PriorityDispatcher lanes;
+    private final AnimalStore store = AnimalStore.getInstance();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     public AnimalRepository() {
-        Retrofit retrofit = ApiClient.getInstance().getRetrofit();
+        ApiClient apiClient = ApiClient.getInstance();
+        Retrofit retrofit = apiClient.getRetrofit();
         this.api = retrofit.create(AnimalApi.class);
+        this.coalescer = apiClient.getRequestCoalescer();
+        this.retrier = apiClient.getCallRetrier();
+        this.lanes = apiClient.getPriorityDispatcher();
     }
 
-    public AnimalRepository(@NonNull AnimalApi api) {
+    public AnimalRepository(@NonNull AnimalApi api,
+                            @NonNull RequestCoalescer coalescer,
+                            @NonNull CallRetrier retrier,
+                            @NonNull PriorityDispatcher lanes) {
         this.api = Objects.requireNonNull(api, "api");
+        this.coalescer = Objects.requireNonNull(coalescer, "coalescer");
+        this.retrier = Objects.requireNonNull(retrier, "retrier");
+        this.lanes = Objects.requireNonNull(lanes, "lanes");
     }
 
     // ======================================================================
     // Public API: CRUD
     // ======================================================================
 
-    public void createAnimal(
+    @NonNull
+    public RequestHandle createAnimal(
             @NonNull AnimalCreateRequestDto body,
             @NonNull RepoCallback<AnimalDto> cb
     ) {
         Objects.requireNonNull(body, "body");
         Objects.requireNonNull(cb, "cb");
-        enqueue(api.createAnimal(body), cb, "createAnimal");
+        return enqueue(api.createAnimal(body), storing(cb, store::onCreated), "createAnimal");
     }
 
-    public void getAnimalById(
+    /**
+     * Животное, уже увиденное в ленте или списке (свежая запись AnimalStore), отдаётся без запроса.
+     * callback и в этом случае приходит позже, следующим сообщением главного потока, а не до возврата.
+     */
+    @NonNull
+    public RequestHandle getAnimalById(
             long animalId,
             @NonNull RepoCallback<AnimalDto> cb
     ) {
         Objects.requireNonNull(cb, "cb");
-        enqueue(api.getAnimalById(animalId), cb, "getAnimalById");
+        AnimalDto cached = store.getFresh(animalId);
+        if (cached != null) {
+            return deliverLater(cb, cached);
+        }
+        return enqueue(api.getAnimalById(animalId), storing(cb, store::put), "getAnimalById", RetryPolicy.DEFAULT);
     }
 
-    public void listMyAnimals(@NonNull RepoCallback<List<AnimalDto>> cb) {
+    @NonNull
+    public RequestHandle listMyAnimals(@NonNull RepoCallback<List<AnimalDto>> cb) {
         Objects.requireNonNull(cb, "cb");
-        enqueue(api.listMyAnimals(), cb, "listMyAnimals");
+        List<AnimalDto> cached = store.getFreshMyAnimals();
+        if (cached != null) {
+            return deliverLater(cb, cached);
+        }
+        return enqueue(api.listMyAnimals(), storing(cb, store::putMyAnimals), "listMyAnimals", RetryPolicy.DEFAULT);
+    }
+
+    /**
+     * Список "мои животные" с прошлого запуска (с диска), пока listMyAnimals идёт в сеть.
+     */
+    public void getSavedMyAnimals(@NonNull RepoCallback<List<AnimalDto>> cb) {
+        Objects.requireNonNull(cb, "cb");
+        store.loadSavedMyAnimals(saved -> cb.onComplete(RepoResult.success(saved)));
+    }
+
+    /**
+     * getAnimalById в виде future (ошибка – RepoException).
+     */
+    @NonNull
+    public RepoFuture<AnimalDto> getAnimalByIdAsync(long animalId) {
+        return RepoFutures.animal(cb -> getAnimalById(animalId, cb));
+    }
+
+    @NonNull
+    public RepoFuture<List<AnimalDto>> listMyAnimalsAsync() {
+        return RepoFutures.animal(this::listMyAnimals);
     }
 
-    public void updateAnimal(
+    @NonNull
+    public RequestHandle updateAnimal(
             long animalId,
             @NonNull AnimalUpdateRequestDto body,
             @NonNull RepoCallback<AnimalDto> cb
     ) {
         Objects.requireNonNull(body, "body");
         Objects.requireNonNull(cb, "cb");
-        enqueue(api.updateAnimal(animalId, body), cb, "updateAnimal");
+        return enqueue(api.updateAnimal(animalId, body), storing(cb, store::put), "updateAnimal");
     }
 
-    public void deleteAnimal(
+    @NonNull
+    public RequestHandle deleteAnimal(
             long animalId,
             @NonNull RepoCallback<Void> cb
     ) {
         Objects.requireNonNull(cb, "cb");
-        enqueue(api.deleteAnimal(animalId), cb, "deleteAnimal");
+        return enqueue(api.deleteAnimal(animalId), storing(cb, v -> store.onDeleted(animalId)), "deleteAnimal");
     }
 
-    public void updateAnimalStatus(
+    @NonNull
+    public RequestHandle updateAnimalStatus(
             long animalId,
             @NonNull String newStatus,
             @NonNull RepoCallback<AnimalDto> cb
@@ -106,14 +197,17 @@ public final class AnimalRepository {
         AnimalStatusUpdateRequestDto body = new AnimalStatusUpdateRequestDto();
         body.status = newStatus;
 
-        enqueue(api.updateAnimalStatus(animalId, body), cb, "updateAnimalStatus");
+        // Статус выставляется абсолютным значением: повтор после обрыва безопасен.
+        return enqueue(api.updateAnimalStatus(animalId, body), storing(cb, store::put), "updateAnimalStatus",
+                RetryPolicy.DEFAULT.repeatSafe());
     }
 
     // ======================================================================
     // Public API: FEED
     // ======================================================================
 
-    public void getFeed(
+    @NonNull
+    public RequestHandle getFeed(
             @Nullable String species,
             @Nullable String city,
             @Nullable String sex,
@@ -124,12 +218,33 @@ public final class AnimalRepository {
             @Nullable Integer offset,
             @NonNull RepoCallback<List<AnimalDto>> cb
     ) {
+        return getFeed(species, city, sex, ageFromYears, ageToYears, hasPhotos, limit, offset,
+                PriorityDispatcher.Priority.INTERACTIVE, cb);
+    }
+
+    /**
+     * То же, с явным классом приоритета: страницы, которые грузятся впрок, идут как PREFETCH.
+     */
+    @NonNull
+    public RequestHandle getFeed(
+            @Nullable String species,
+            @Nullable String city,
+            @Nullable String sex,
+            @Nullable Integer ageFromYears,
+            @Nullable Integer ageToYears,
+            @Nullable Boolean hasPhotos,
+            @Nullable Integer limit,
+            @Nullable Integer offset,
+            @NonNull PriorityDispatcher.Priority priority,
+            @NonNull RepoCallback<List<AnimalDto>> cb
+    ) {
+        Objects.requireNonNull(priority, "priority");
         Objects.requireNonNull(cb, "cb");
 
         int safeLimit = (limit != null) ? limit : DEFAULT_LIMIT;
         int safeOffset = (offset != null) ? offset : DEFAULT_OFFSET;
 
-        enqueue(
+        return enqueue(
                 api.getFeed(
                         species,
                         city,
@@ -141,12 +256,103 @@ public final class AnimalRepository {
                         safeLimit,
                         safeOffset
                 ),
-                cb,
-                "getFeed"
+                storing(cb, store::putFeedPage),
+                "getFeed",
+                RetryPolicy.DEFAULT,
+                priority
         );
     }
 
-    public void getPublic(
+    /**
+     * Страница ленты в потоковом режиме: карточки приходят в listener по одной, по мере разбора
+     * тела ответа, первая – раньше, чем догрузится вся страница. Полезно на медленной сети.
+     */
+    @NonNull
+    public RequestHandle streamFeed(
+            @Nullable String species,
+            @Nullable String city,
+            @Nullable String sex,
+            @Nullable Integer ageFromYears,
+            @Nullable Integer ageToYears,
+            @Nullable Boolean hasPhotos,
+            @Nullable Integer limit,
+            @Nullable Integer offset,
+            @NonNull PriorityDispatcher.Priority priority,
+            @NonNull FeedStreamListener listener
+    ) {
+        Objects.requireNonNull(priority, "priority");
+        Objects.requireNonNull(listener, "listener");
+
+        int safeLimit = (limit != null) ? limit : DEFAULT_LIMIT;
+        int safeOffset = (offset != null) ? offset : DEFAULT_OFFSET;
+
+        Call<ResponseBody> call = api.streamFeed(
+                species,
+                city,
+                sex,
+                ageFromYears,
+                ageToYears,
+                hasPhotos,
+                DEFAULT_STATUS,
+                safeLimit,
+                safeOffset,
+                null
+        );
+        return stream("streamFeed", call, true, priority, listener);
+    }
+
+    /**
+     * Пейджер ленты с этими фильтрами: курсорная пагинация без дубликатов (см. AnimalPager).
+     */
+    @NonNull
+    public AnimalPager feedPager(
+            @Nullable String species,
+            @Nullable String city,
+            @Nullable String sex,
+            @Nullable Integer ageFromYears,
+            @Nullable Integer ageToYears,
+            @Nullable Boolean hasPhotos,
+            int pageSize
+    ) {
+        return new AnimalPager((cursor, offset, limit, priority, listener) -> stream(
+                "feedPage",
+                api.streamFeed(
+                        species,
+                        city,
+                        sex,
+                        ageFromYears,
+                        ageToYears,
+                        hasPhotos,
+                        DEFAULT_STATUS,
+                        limit,
+                        // С курсором offset не нужен: позицию задаёт курсор.
+                        cursor != null ? null : offset,
+                        cursor
+                ),
+                true,
+                priority,
+                listener
+        ), pageSize);
+    }
+
+    /**
+     * Колода, сохранённая на устройстве с прошлого запуска, – показать до ответа сервера.
+     * Чтение с диска, без сети; callback на главном потоке, всегда успешный (пусто, если ничего нет).
+     */
+    public void getSavedFeed(int limit, @NonNull RepoCallback<List<AnimalDto>> cb) {
+        Objects.requireNonNull(cb, "cb");
+        store.loadSavedFeed(limit, saved -> cb.onComplete(RepoResult.success(saved)));
+    }
+
+    /**
+     * Карточка свайпнута: из сохранённой колоды она удаляется.
+     */
+    public void onFeedCardSwiped(long animalId) {
+        store.onFeedCardSwiped(animalId);
+    }
+
+    @NonNull
+    public RequestHandle getPublic(
             @Nullable String species,
             @Nullable String city,
             @Nullable String sex,
@@ -164,7 +370,7 @@ public final class AnimalRepository {
         int safeOffset = (offset != null) ? offset : DEFAULT_OFFSET;
         String safeOrderBy = (orderBy != null) ? orderBy : DEFAULT_ORDER_BY;
 
-        enqueue(
+        return enqueue(
                 api.getPublic(
                         species,
                         city,
@@ -177,33 +383,234 @@ public final class AnimalRepository {
                         safeOffset,
                         safeOrderBy
                 ),
-                cb,
-                "getPublic"
+                storing(cb, store::putAll),
+                "getPublic",
+                RetryPolicy.DEFAULT
         );
     }
 
+    /**
+     * Пейджер публичного каталога: то же, что feedPager, для animals/public.
+     */
+    @NonNull
+    public AnimalPager publicPager(
+            @Nullable String species,
+            @Nullable String city,
+            @Nullable String sex,
+            @Nullable Integer ageFromYears,
+            @Nullable Integer ageToYears,
+            @Nullable Boolean hasPhotos,
+            @Nullable String orderBy,
+            int pageSize
+    ) {
+        String safeOrderBy = (orderBy != null) ? orderBy : DEFAULT_ORDER_BY;
+        return new AnimalPager((cursor, offset, limit, priority, listener) -> stream(
+                "publicPage",
+                api.streamPublic(
+                        species,
+                        city,
+                        sex,
+                        ageFromYears,
+                        ageToYears,
+                        hasPhotos,
+                        DEFAULT_STATUS,
+                        limit,
+                        cursor != null ? null : offset,
+                        safeOrderBy,
+                        cursor
+                ),
+                false,
+                priority,
+                listener
+        ), pageSize);
+    }
+
     // ======================================================================
     // Public API: LIKES
     // ======================================================================
 
-    public void likeAnimal(
+    /**
+     * Отправляет реакцию через общий батчер: реакции в пределах окна уходят одним запросом.
+     */
+    @NonNull
+    public RequestHandle likeAnimal(
             long animalId,
             boolean isLike,
             @NonNull RepoCallback<AnimalLikeResultDto> cb
     ) {
         Objects.requireNonNull(cb, "cb");
+        return likeBatcher().submit(new LikeItem(animalId, isLike, null), cb);
+    }
 
+    /**
+     * Синхронная отправка реакции для фоновых очередей (SwipeOutbox).
+     * Нельзя вызывать с главного потока.
+     *
+     * @param idempotencyKey ключ идемпотентности: повтор с тем же ключом сервер не засчитывает дважды
+     */
+    @NonNull
+    public RepoResult<AnimalLikeResultDto> likeAnimalBlocking(
+            long animalId,
+            boolean isLike,
+            @Nullable String idempotencyKey
+    ) {
         AnimalLikeRequestDto body = new AnimalLikeRequestDto();
         body.result = isLike ? "like" : "dislike";
 
-        enqueue(api.likeAnimal(animalId, body), cb, "likeAnimal");
+        likeReactionsSent.incrementAndGet();
+        likeHttpRequests.incrementAndGet();
+        return execute(api.likeAnimal(animalId, idempotencyKey, body), "likeAnimal");
+    }
+
+    /**
+     * Синхронно отправляет пачку реакций одним запросом POST animals/likes/batch.
+     * Результаты возвращаются в порядке items. Если сервер не знает batch-роут (405/501),
+     * переключается на поштучные запросы на LIKE_BATCH_DISABLE_MS. Если пачку отклонили целиком
+     * с 4xx (одна плохая реакция, неоднозначный 404), эта пачка переотправляется поштучно, чтобы
+     * ошибка досталась только своей реакции.
+     * Нельзя вызывать с главного потока.
+     */
+    @NonNull
+    public List<RepoResult<AnimalLikeResultDto>> likeAnimalsBlocking(@NonNull List<LikeItem> items) {
+        Objects.requireNonNull(items, "items");
+
+        List<RepoResult<AnimalLikeResultDto>> out = new ArrayList<>(items.size());
+        if (items.isEmpty()) {
+            return out;
+        }
+
+        if (items.size() == 1 || SystemClock.elapsedRealtime() < likeBatchDisabledUntilMs) {
+            return likeEachBlocking(items);
+        }
+
+        AnimalLikeBatchRequestDto body = new AnimalLikeBatchRequestDto();
+        body.items = new ArrayList<>(items.size());
+        for (LikeItem item : items) {
+            AnimalLikeBatchItemDto dto = new AnimalLikeBatchItemDto();
+            dto.animalId = item.animalId;
+            dto.result = item.isLike ? "like" : "dislike";
+            dto.idempotencyKey = item.idempotencyKey;
+            body.items.add(dto);
+        }
+
+        likeReactionsSent.addAndGet(items.size());
+        likeHttpRequests.incrementAndGet();
+        RepoResult<AnimalLikeBatchResponseDto> batch = execute(api.likeAnimalsBatch(body), "likeAnimalsBatch");
+
+        if (!batch.isSuccess && isBatchRouteMissing(batch.httpCode)) {
+            Log.i(TAG, "likeAnimalsBatch: batch route unsupported (http=" + batch.httpCode
+                    + "), per-item for " + LIKE_BATCH_DISABLE_MS + "ms");
+            likeBatchDisabledUntilMs = SystemClock.elapsedRealtime() + LIKE_BATCH_DISABLE_MS;
+            // Пачка не была засчитана сервером: пересчитывает её как поштучную отправку.
+            likeReactionsSent.addAndGet(-items.size());
+            return likeEachBlocking(items);
+        }
+
+        if (!batch.isSuccess && isRejectedAsWhole(batch.httpCode)) {
+            Log.w(TAG, "likeAnimalsBatch: batch rejected (http=" + batch.httpCode + "), retrying per-item");
+            likeReactionsSent.addAndGet(-items.size());
+            return likeEachBlocking(items);
+        }
+
+        if (!batch.isSuccess) {
+            for (int i = 0; i < items.size(); i++) {
+                out.add(RepoResult.failureFrom(batch));
+            }
+            return out;
+        }
+
+        Map<Long, AnimalLikeResultDto> byAnimal = new HashMap<>();
+        if (batch.data != null && batch.data.results != null) {
+            for (AnimalLikeResultDto r : batch.data.results) {
+                if (r != null) {
+                    byAnimal.put(r.animalId, r);
+                }
+            }
+        }
+
+        for (LikeItem item : items) {
+            AnimalLikeResultDto r = byAnimal.get(item.animalId);
+            if (r != null) {
+                out.add(RepoResult.success(r));
+            } else {
+                // Нет результата для элемента: вызывающий повторит его с тем же Idempotency-Key.
+                out.add(RepoResult.networkError("likeAnimalsBatch: no result for animalId=" + item.animalId));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Настраивает окно склейки реакций. Действует на батчер, созданный после вызова.
+     */
+    public static void setLikeBatchConfig(long windowMs, int maxItems) {
+        likeBatchWindowMs = Math.max(0L, windowMs);
+        likeBatchMaxItems = Math.max(1, maxItems);
+    }
+
+    public static long getLikeBatchWindowMs() {
+        return likeBatchWindowMs;
+    }
+
+    public static int getLikeBatchMaxItems() {
+        return likeBatchMaxItems;
+    }
+
+    /**
+     * Сколько HTTP-запросов ушло на каждые 100 реакций (с начала процесса).
+     * Без батчинга это 100, с батчингом – примерно 100 / средний размер пачки.
+     */
+    public static double getLikeRequestsPer100Swipes() {
+        long reactions = likeReactionsSent.get();
+        if (reactions <= 0) {
+            return 0d;
+        }
+        return likeHttpRequests.get() * 100d / reactions;
+    }
+
+    @NonNull
+    private LikeBatcher likeBatcher() {
+        synchronized (AnimalRepository.class) {
+            if (sharedLikeBatcher == null) {
+                sharedLikeBatcher = new LikeBatcher(
+                        this::likeAnimalsBlocking,
+                        likeBatchWindowMs,
+                        likeBatchMaxItems
+                );
+            }
+            return sharedLikeBatcher;
+        }
+    }
+
+    @NonNull
+    private List<RepoResult<AnimalLikeResultDto>> likeEachBlocking(@NonNull List<LikeItem> items) {
+        List<RepoResult<AnimalLikeResultDto>> out = new ArrayList<>(items.size());
+        for (LikeItem item : items) {
+            out.add(likeAnimalBlocking(item.animalId, item.isLike, item.idempotencyKey));
+        }
+        return out;
+    }
+
+    private static boolean isBatchRouteMissing(@Nullable Integer httpCode) {
+        // 404 сюда не входит: его же сервер отдаёт на удалённое животное внутри пачки.
+        return httpCode != null && (httpCode == 405 || httpCode == 501);
+    }
+
+    /**
+     * 4xx на всю пачку, который может относиться к одной реакции. 401/408/429 – про запрос
+     * целиком, поштучная отправка их не исправит: такая пачка повторяется как есть.
+     */
+    private static boolean isRejectedAsWhole(@Nullable Integer httpCode) {
+        return httpCode != null && httpCode >= 400 && httpCode < 500
+                && httpCode != 401 && httpCode != 408 && httpCode != 429;
     }
 
     // ======================================================================
     // Public API: PHOTOS
     // ======================================================================
 
-    public void uploadAnimalPhoto(
+    @NonNull
+    public RequestHandle uploadAnimalPhoto(
             long animalId,
             @NonNull byte[] bytes,
             @Nullable String fileName,
@@ -215,7 +622,7 @@ public final class AnimalRepository {
 
         if (bytes.length == 0) {
             cb.onComplete(RepoResult.networkError("uploadAnimalPhoto: file bytes are empty"));
-            return;
+            return RequestHandle.DONE;
         }
 
         String safeName = (fileName == null || fileName.trim().isEmpty()) ? "photo.jpg" : fileName.trim();
@@ -224,21 +631,25 @@ public final class AnimalRepository {
         MediaType mt = MediaType.parse(safeMime);
         if (mt == null) {
             cb.onComplete(RepoResult.networkError("uploadAnimalPhoto: invalid mimeType=" + safeMime));
-            return;
+            return RequestHandle.DONE;
         }
 
         RequestBody rb = RequestBody.create(bytes, mt);
         MultipartBody.Part part = MultipartBody.Part.createFormData("file", safeName, rb);
 
-        enqueue(api.uploadAnimalPhoto(animalId, part), cb, "uploadAnimalPhoto");
+        // Тяжёлая multipart-загрузка не должна занимать слоты, которые ждут лайки и экраны.
+        return enqueue(api.uploadAnimalPhoto(animalId, part), storing(cb, store::put), "uploadAnimalPhoto", RetryPolicy.NONE,
+                PriorityDispatcher.Priority.BULK);
     }
 
-    public void deletePhoto(long photoId, @NonNull RepoCallback<Void> cb) {
+    @NonNull
+    public RequestHandle deletePhoto(long photoId, @NonNull RepoCallback<Void> cb) {
         Objects.requireNonNull(cb, "cb");
-        enqueue(api.deletePhoto(photoId), cb, "deletePhoto");
+        return enqueue(api.deletePhoto(photoId), storing(cb, v -> store.onPhotoDeleted(photoId)), "deletePhoto");
     }
 
-    public void reorderPhotos(
+    @NonNull
+    public RequestHandle reorderPhotos(
             long animalId,
             @NonNull List<Long> orderedIds,
             @NonNull RepoCallback<Void> cb
@@ -248,38 +659,132 @@ public final class AnimalRepository {
 
         if (orderedIds.isEmpty()) {
             cb.onComplete(RepoResult.networkError("reorderPhotos: photo_ids are empty"));
-            return;
+            return RequestHandle.DONE;
         }
 
         AnimalPhotosReorderRequestDto body = new AnimalPhotosReorderRequestDto();
         body.photoIds = orderedIds;
 
-        enqueue(api.reorderPhotos(animalId, body), cb, "reorderPhotos");
+        // Передаётся полный порядок, а не сдвиг: повтор даёт тот же результат.
+        List<Long> order = new ArrayList<>(orderedIds);
+        return enqueue(api.reorderPhotos(animalId, body), storing(cb, v -> store.onPhotosReordered(animalId, order)),
+                "reorderPhotos", RetryPolicy.DEFAULT.repeatSafe());
     }
 
-    public void setPrimaryPhoto(long animalId, long photoId, @NonNull RepoCallback<Void> cb) {
+    @NonNull
+    public RequestHandle setPrimaryPhoto(long animalId, long photoId, @NonNull RepoCallback<Void> cb) {
         Objects.requireNonNull(cb, "cb");
-        enqueue(api.setPrimaryPhoto(animalId, photoId), cb, "setPrimaryPhoto");
+        return enqueue(api.setPrimaryPhoto(animalId, photoId),
+                storing(cb, v -> store.onPrimaryPhotoSet(animalId, photoId)), "setPrimaryPhoto");
     }
 
     // ======================================================================
     // Internal: enqueue helper
     // ======================================================================
 
-    private static <T> void enqueue(
+    /**
+     * Потоковая страница (лента, каталог) через те же ретраи и полосы приоритета, без склейки.
+     * Каждая карточка по пути попадает в AnimalStore, страница ленты (feed) – ещё и в сохранённую колоду.
+     */
+    @NonNull
+    private RequestHandle stream(
+            @NonNull String opName,
+            @NonNull Call<ResponseBody> call,
+            boolean feed,
+            @NonNull PriorityDispatcher.Priority priority,
+            @NonNull FeedStreamListener listener
+    ) {
+        return new FeedStream(opName, retrier.wrap(opName, lanes.wrap(call, priority), RetryPolicy.DEFAULT),
+                new FeedStreamListener() {
+                    @Override
+                    public void onItem(@NonNull AnimalDto dto) {
+                        store.put(dto);
+                        listener.onItem(dto);
+                    }
+
+                    @Override
+                    public void onComplete(@NonNull RepoResult<List<AnimalDto>> result) {
+                        if (feed && result.isSuccess) {
+                            store.putFeedPage(result.data);
+                        }
+                        listener.onComplete(result);
+                    }
+
+                    @Override
+                    public void onNextCursor(@Nullable String nextCursor) {
+                        listener.onNextCursor(nextCursor);
+                    }
+                }).start();
+    }
+
+    /**
+     * Успешный ответ сначала попадает в AnimalStore (и к его наблюдателям), потом в callback.
+     */
+    @NonNull
+    private static <T> RepoCallback<T> storing(@NonNull RepoCallback<T> cb, @NonNull Consumer<T> toStore) {
+        return result -> {
+            if (result.isSuccess) {
+                toStore.accept(result.data);
+            }
+            cb.onComplete(result);
+        };
+    }
+
+    /**
+     * Ответ из AnimalStore доставляется так же, как из сети: асинхронно на главный поток.
+     * Вызывающий успевает сохранить ручку и выйти из метода, а cancel() до доставки снимает callback.
+     */
+    @NonNull
+    private <T> RequestHandle deliverLater(@NonNull RepoCallback<T> cb, @NonNull T data) {
+        StoreHit<T> hit = new StoreHit<>(cb, RepoResult.success(data));
+        mainHandler.post(hit);
+        return hit;
+    }
+
+    @NonNull
+    private <T> RequestHandle enqueue(
             @NonNull Call<T> call,
             @NonNull RepoCallback<T> cb,
             @NonNull String opName
+    ) {
+        return enqueue(call, cb, opName, RetryPolicy.NONE);
+    }
+
+    @NonNull
+    private <T> RequestHandle enqueue(
+            @NonNull Call<T> call,
+            @NonNull RepoCallback<T> cb,
+            @NonNull String opName,
+            @NonNull RetryPolicy policy
+    ) {
+        return enqueue(call, cb, opName, policy, PriorityDispatcher.Priority.INTERACTIVE);
+    }
+
+    /**
+     * Одинаковые GET в полёте склеиваются через общий RequestCoalescer, остальные уходят как есть.
+     * Внутри склеенного вызова работают повторы по policy; их число попадает в RepoResult.retries.
+     * Каждая попытка ждёт слот своей полосы в PriorityDispatcher.
+     * Отмена через возвращённую ручку снимает callback и, если больше никто не ждёт, сам запрос.
+     */
+    @NonNull
+    private <T> RequestHandle enqueue(
+            @NonNull Call<T> call,
+            @NonNull RepoCallback<T> cb,
+            @NonNull String opName,
+            @NonNull RetryPolicy policy,
+            @NonNull PriorityDispatcher.Priority priority
     ) {
         Objects.requireNonNull(call, "call");
         Objects.requireNonNull(cb, "cb");
         Objects.requireNonNull(opName, "opName");
 
-        call.enqueue(new Callback<T>() {
+        Call<T> laned = lanes.wrap(call, priority);
+        return coalescer.enqueue(opName, retrier.wrap(opName, laned, policy), new Callback<T>() {
             @Override
             public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+                int retries = CallRetrier.retriesOf(call);
                 if (response.isSuccessful()) {
-                    cb.onComplete(RepoResult.success(response.body()));
+                    cb.onComplete(RepoResult.<T>success(response.body()).withRetries(retries));
                     return;
                 }
 
@@ -293,26 +798,103 @@ public final class AnimalRepository {
                 }
 
                 cb.onComplete(
-                        RepoResult.httpError(
+                        RepoResult.<T>httpError(
                                 response.code(),
                                 opName + ": http error",
                                 errBody
-                        )
+                        ).withRetries(retries)
                 );
             }
 
             @Override
             public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+                int retries = CallRetrier.retriesOf(call);
                 String msg = (t.getMessage() != null) ? t.getMessage() : "network error";
                 if (t instanceof IOException) {
-                    cb.onComplete(RepoResult.networkError(opName + ": " + msg));
+                    cb.onComplete(RepoResult.<T>networkError(opName + ": " + msg).withRetries(retries));
                     return;
                 }
-                cb.onComplete(RepoResult.networkError(opName + ": " + msg));
+                cb.onComplete(RepoResult.<T>networkError(opName + ": " + msg).withRetries(retries));
             }
         });
     }
 
+    private final class StoreHit<T> implements RequestHandle, Runnable {
+        private final RepoCallback<T> cb;
+        private final RepoResult<T> result;
+
+        // Всё на главном потоке: доставка, cancel() и проверки состояния.
+        private boolean canceled = false;
+        private boolean done = false;
+
+        StoreHit(@NonNull RepoCallback<T> cb, @NonNull RepoResult<T> result) {
+            this.cb = cb;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            if (done) {
+                return;
+            }
+            done = true;
+            cb.onComplete(result);
+        }
+
+        @Override
+        public void cancel() {
+            if (done) {
+                return;
+            }
+            canceled = true;
+            done = true;
+            mainHandler.removeCallbacks(this);
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+    }
+
+    @NonNull
+    private <T> RepoResult<T> execute(
+            @NonNull Call<T> call,
+            @NonNull String opName
+    ) {
+        Objects.requireNonNull(call, "call");
+        Objects.requireNonNull(opName, "opName");
+
+        Response<T> response;
+        try {
+            // Реакции – interactive: их не должны задерживать prefetch ленты и загрузка фото.
+            response = lanes.wrap(call, PriorityDispatcher.Priority.INTERACTIVE).execute();
+        } catch (Exception e) {
+            String msg = (e.getMessage() != null) ? e.getMessage() : "network error";
+            return RepoResult.networkError(opName + ": " + msg);
+        }
+
+        if (response.isSuccessful()) {
+            return RepoResult.success(response.body());
+        }
+
+        String errBody = null;
+        try {
+            if (response.errorBody() != null) {
+                errBody = response.errorBody().string();
+            }
+        } catch (Exception e) {
+            Log.w(TAG, opName + ": failed to read errorBody: " + e);
+        }
+
+        return RepoResult.httpError(response.code(), opName + ": http error", errBody);
+    }
+
     // ======================================================================
     // Retrofit API (эндпоинты)
     // ======================================================================
@@ -331,6 +913,22 @@ public final class AnimalRepository {
                 @Query("limit") Integer limit,
                 @Query("offset") Integer offset
         );
+        // То же, что getFeed, но тело не буферизуется: его разбирает FeedStream по мере прихода.
+        @Streaming
+        @GET("feed")
+        Call<ResponseBody> streamFeed(
+                @Query("species") String species,
+                @Query("city") String city,
+                @Query("sex") String sex,
+                @Query("age_from_years") Integer ageFromYears,
+                @Query("age_to_years") Integer ageToYears,
+                @Query("has_photos") Boolean hasPhotos,
+                @Query("status") String status,
+                @Query("limit") Integer limit,
+                @Query("offset") Integer offset,
+                @Query("cursor") String cursor
+        );
+
         // CRUD
         @POST("animals")
         Call<AnimalDto> createAnimal(@Body AnimalCreateRequestDto body);
@@ -367,9 +965,33 @@ public final class AnimalRepository {
                 @Query("order_by") String orderBy
         );
 
+        // Потоковая страница каталога для AnimalPager, курсор – из X-Next-Cursor прошлой страницы.
+        @Streaming
+        @GET("animals/public")
+        Call<ResponseBody> streamPublic(
+                @Query("species") String species,
+                @Query("city") String city,
+                @Query("sex") String sex,
+                @Query("age_from_years") Integer ageFromYears,
+                @Query("age_to_years") Integer ageToYears,
+                @Query("has_photos") Boolean hasPhotos,
+                @Query("status") String status,
+                @Query("limit") Integer limit,
+                @Query("offset") Integer offset,
+                @Query("order_by") String orderBy,
+                @Query("cursor") String cursor
+        );
+
         // Likes
+        @POST("animals/likes/batch")
+        Call<AnimalLikeBatchResponseDto> likeAnimalsBatch(@Body AnimalLikeBatchRequestDto body);
+
         @POST("animals/{id}/like")
-        Call<AnimalLikeResultDto> likeAnimal(@Path("id") long animalId, @Body AnimalLikeRequestDto body);
+        Call<AnimalLikeResultDto> likeAnimal(
+                @Path("id") long animalId,
+                @Header("Idempotency-Key") String idempotencyKey,
+                @Body AnimalLikeRequestDto body
+        );
         
         // Photos
         @Multipart
@@ -399,24 +1021,43 @@ public final class AnimalRepository {
         public final String errorMessage;
         public final String errorBody;
 
-        private RepoResult(boolean isSuccess, T data, Integer httpCode, String errorMessage, String errorBody) {
+        // Сколько раз запрос повторялся по RetryPolicy (для диагностики).
+        public final int retries;
+
+        private RepoResult(boolean isSuccess, T data, Integer httpCode, String errorMessage, String errorBody, int retries) {
             this.isSuccess = isSuccess;
             this.data = data;
             this.httpCode = httpCode;
             this.errorMessage = errorMessage;
             this.errorBody = errorBody;
+            this.retries = retries;
         }
 
         public static <T> RepoResult<T> success(T data) {
-            return new RepoResult<>(true, data, null, null, null);
+            return new RepoResult<>(true, data, null, null, null, 0);
         }
 
         public static <T> RepoResult<T> httpError(int httpCode, String errorMessage, String errorBody) {
-            return new RepoResult<>(false, null, httpCode, errorMessage, errorBody);
+            return new RepoResult<>(false, null, httpCode, errorMessage, errorBody, 0);
         }
 
         public static <T> RepoResult<T> networkError(String errorMessage) {
-            return new RepoResult<>(false, null, null, errorMessage, null);
+            return new RepoResult<>(false, null, null, errorMessage, null, 0);
+        }
+
+        /**
+         * Переносит ошибку из результата другого типа (например, общей batch-ошибки на элемент пачки).
+         */
+        public static <T> RepoResult<T> failureFrom(@NonNull RepoResult<?> failed) {
+            return new RepoResult<>(false, null, failed.httpCode, failed.errorMessage, failed.errorBody, failed.retries);
+        }
+
+        @NonNull
+        public RepoResult<T> withRetries(int retries) {
+            if (retries == this.retries) {
+                return this;
+            }
+            return new RepoResult<>(isSuccess, data, httpCode, errorMessage, errorBody, retries);
         }
     }
 
@@ -424,6 +1065,28 @@ public final class AnimalRepository {
         void onComplete(RepoResult<T> result);
     }
 
+    /**
+     * Получатель потоковой страницы ленты. Оба метода вызываются на главном потоке.
+     */
+    public interface FeedStreamListener {
+
+        // Очередная карточка, в порядке ответа сервера.
+        void onItem(@NonNull AnimalDto dto);
+
+        /**
+         * Конец страницы. При успехе data – все карточки страницы (те же, что пришли в onItem).
+         * При ошибке часть карточек могла уже прийти в onItem.
+         */
+        void onComplete(@NonNull RepoResult<List<AnimalDto>> result);
+
+        /**
+         * Курсор следующей страницы из X-Next-Cursor (null – сервер не прислал).
+         * Вызывается перед onComplete, только для успешно дочитанной страницы.
+         */
+        default void onNextCursor(@Nullable String nextCursor) {
+        }
+    }
+
     // ======================================================================
     // DTO (модели)
     // ======================================================================
@@ -674,6 +1337,44 @@ public final class AnimalRepository {
         public String result;
     }
 
+    /**
+     * Одна реакция для пачки (likeAnimalsBlocking / SwipeOutbox).
+     */
+    public static final class LikeItem {
+
+        public final long animalId;
+        public final boolean isLike;
+        @Nullable
+        public final String idempotencyKey;
+
+        public LikeItem(long animalId, boolean isLike, @Nullable String idempotencyKey) {
+            this.animalId = animalId;
+            this.isLike = isLike;
+            this.idempotencyKey = idempotencyKey;
+        }
+    }
+
+    public static final class AnimalLikeBatchItemDto {
+        @SerializedName("animal_id")
+        public long animalId;
+
+        @SerializedName("result")
+        public String result;
+
+        @SerializedName("idempotency_key")
+        public String idempotencyKey;
+    }
+
+    public static final class AnimalLikeBatchRequestDto {
+        @SerializedName("items")
+        public List<AnimalLikeBatchItemDto> items;
+    }
+
+    public static final class AnimalLikeBatchResponseDto {
+        @SerializedName("results")
+        public List<AnimalLikeResultDto> results;
+    }
+
     public static final class AnimalLikeResultDto {
 
         @SerializedName("animal_id")
@@ -0,0 +1,476 @@
+package app.belqax.pature.data.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import app.belqax.pature.data.storage.AnimalDatabase;
+
+/**
+ * Общее хранилище AnimalDto в памяти процесса: одна запись на id животного.
+ *
+ * Лента, каталог, "мои животные" и карточка животного читают и пишут одни и те же записи,
+ * поэтому животное, уже увиденное в любом списке, открывается без запроса, пока запись свежая
+ * (FRESH_TTL_MS). Ответы мутаций (update/status/photos/delete) меняют запись на месте
+ * и уведомляют наблюдателей.
+ *
+ * Размер ограничен MAX_ENTRIES, вытесняются давно не читанные записи.
+ *
+ * Под памятью лежит AnimalDatabase: лента и "мои животные" пишутся в неё в фоне и читаются
+ * при следующем запуске (loadSavedFeed/loadSavedMyAnimals) как устаревшие записи –
+ * их видно сразу, а свежие ответы сервера их заменяют.
+ *
+ * Все методы вызываются на главном потоке (там же приходят callback'и репозитория).
+ */
+public final class AnimalStore {
+
+    static final int MAX_ENTRIES = 300;
+    static final long FRESH_TTL_MS = 5 * 60_000L;
+
+    /**
+     * Изменение записи. dto == null – животное удалено.
+     */
+    public interface Observer {
+        void onAnimalChanged(long animalId, @Nullable AnimalRepository.AnimalDto dto);
+    }
+
+    private static final String TAG = "AnimalStore";
+
+    private static final AnimalStore INSTANCE = new AnimalStore();
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<Long, Entry>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // Список "мои животные": только id, сами DTO – в entries. null – списка нет или он устарел.
+    @Nullable
+    private List<Long> myAnimalIds;
+    private long myAnimalsStoredAtMs = 0L;
+
+    private final CopyOnWriteArrayList<Observer> observers = new CopyOnWriteArrayList<>();
+
+    // Свайпнутые в этой сессии карточки: повторно в сохранённую колоду не попадают.
+    private final Set<Long> swipedIds = new HashSet<>();
+
+    // Растёт на каждый clear(): чтение с диска, начатое до смены сессии, после неё не применяется.
+    private int generation = 0;
+
+    @Nullable
+    private volatile AnimalDatabase disk;
+    // Один поток: записи применяются в том порядке, в каком пришли ответы.
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "animal-db");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private AnimalStore() {
+    }
+
+    @NonNull
+    public static AnimalStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Подключает диск. Вызывается на старте (StartupOrchestrator); база открывается в фоне сразу,
+     * чтобы первое чтение колоды не платило за открытие.
+     */
+    public void attachDatabase(@NonNull AnimalDatabase database) {
+        disk = database;
+        persist(AnimalDatabase::getWritableDatabase);
+    }
+
+    // region Reads
+
+    /**
+     * Свежая запись (моложе FRESH_TTL_MS) или null.
+     */
+    @Nullable
+    public AnimalRepository.AnimalDto getFresh(long animalId) {
+        Entry e = entries.get(animalId);
+        return (e != null && isFresh(e.storedAtMs)) ? e.dto : null;
+    }
+
+    /**
+     * Запись любой давности: для мгновенного показа, пока идёт запрос свежей.
+     */
+    @Nullable
+    public AnimalRepository.AnimalDto peek(long animalId) {
+        Entry e = entries.get(animalId);
+        return e != null ? e.dto : null;
+    }
+
+    /**
+     * Свежий список "мои животные" или null, если его надо загрузить.
+     */
+    @Nullable
+    public List<AnimalRepository.AnimalDto> getFreshMyAnimals() {
+        List<Long> ids = myAnimalIds;
+        if (ids == null || !isFresh(myAnimalsStoredAtMs)) {
+            return null;
+        }
+        List<AnimalRepository.AnimalDto> out = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entry e = entries.get(id);
+            if (e == null) {
+                // Запись вытеснена: список неполный, его надо перезагрузить.
+                return null;
+            }
+            out.add(e.dto);
+        }
+        return out;
+    }
+
+    /**
+     * Сохранённая с прошлого запуска колода (до limit карточек), без свайпнутых.
+     * Результат приходит на главный поток; записи попадают в память как устаревшие.
+     */
+    public void loadSavedFeed(int limit, @NonNull Consumer<List<AnimalRepository.AnimalDto>> cb) {
+        loadSaved(db -> db.readFeed(limit), cb);
+    }
+
+    public void loadSavedMyAnimals(@NonNull Consumer<List<AnimalRepository.AnimalDto>> cb) {
+        loadSaved(AnimalDatabase::readMyAnimals, cb);
+    }
+
+    private void loadSaved(@NonNull Function<AnimalDatabase, List<AnimalRepository.AnimalDto>> read,
+                           @NonNull Consumer<List<AnimalRepository.AnimalDto>> cb) {
+        AnimalDatabase db = disk;
+        if (db == null) {
+            cb.accept(Collections.emptyList());
+            return;
+        }
+        int startedIn = generation;
+        diskExecutor.execute(() -> {
+            List<AnimalRepository.AnimalDto> saved;
+            try {
+                saved = read.apply(db);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "saved read failed: " + e);
+                saved = Collections.emptyList();
+            }
+            List<AnimalRepository.AnimalDto> result = saved;
+            mainHandler.post(() -> {
+                if (startedIn != generation) {
+                    // Записи прежнего пользователя: ни в память, ни на экран.
+                    cb.accept(Collections.emptyList());
+                    return;
+                }
+                List<AnimalRepository.AnimalDto> out = new ArrayList<>(result.size());
+                for (AnimalRepository.AnimalDto dto : result) {
+                    if (swipedIds.contains(dto.id)) {
+                        continue;
+                    }
+                    putStale(dto);
+                    out.add(dto);
+                }
+                cb.accept(out);
+            });
+        });
+    }
+
+    // endregion
+
+    // region Writes
+
+    /**
+     * Кладёт ответ сервера. Более старая версия (по updated_at) существующую запись не затирает.
+     */
+    public void put(@Nullable AnimalRepository.AnimalDto dto) {
+        if (dto == null) {
+            return;
+        }
+        Entry old = entries.get(dto.id);
+        if (old != null && isOlder(dto, old.dto)) {
+            return;
+        }
+        entries.put(dto.id, new Entry(dto, now()));
+        if (old == null || old.dto != dto) {
+            persist(db -> db.updateIfPresent(dto));
+            notifyChanged(dto.id, dto);
+        }
+    }
+
+    /**
+     * Запись с диска: нужна для peek(), но свежей не считается. Память не затирает.
+     */
+    private void putStale(@NonNull AnimalRepository.AnimalDto dto) {
+        if (!entries.containsKey(dto.id)) {
+            entries.put(dto.id, new Entry(dto, 0L));
+        }
+    }
+
+    /**
+     * Страница ленты: в память и в сохранённую колоду.
+     */
+    void putFeedPage(@Nullable List<AnimalRepository.AnimalDto> page) {
+        if (page == null) {
+            return;
+        }
+        List<AnimalRepository.AnimalDto> keep = new ArrayList<>(page.size());
+        for (AnimalRepository.AnimalDto dto : page) {
+            if (dto == null) {
+                continue;
+            }
+            put(dto);
+            if (!swipedIds.contains(dto.id)) {
+                keep.add(dto);
+            }
+        }
+        persist(db -> db.appendFeed(keep));
+    }
+
+    /**
+     * Карточка ушла из колоды: после перезапуска её не показываем.
+     */
+    void onFeedCardSwiped(long animalId) {
+        swipedIds.add(animalId);
+        persist(db -> db.removeFromFeed(animalId));
+    }
+
+    public void putAll(@Nullable List<AnimalRepository.AnimalDto> dtos) {
+        if (dtos == null) {
+            return;
+        }
+        for (AnimalRepository.AnimalDto dto : dtos) {
+            put(dto);
+        }
+    }
+
+    void putMyAnimals(@Nullable List<AnimalRepository.AnimalDto> dtos) {
+        if (dtos == null) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(dtos.size());
+        for (AnimalRepository.AnimalDto dto : dtos) {
+            if (dto != null) {
+                put(dto);
+                ids.add(dto.id);
+            }
+        }
+        myAnimalIds = Collections.unmodifiableList(ids);
+        myAnimalsStoredAtMs = now();
+        List<AnimalRepository.AnimalDto> copy = new ArrayList<>(dtos);
+        persist(db -> db.replaceMyAnimals(copy));
+    }
+
+    /**
+     * Новое животное: состав списка "мои животные" изменился, его порядок знает только сервер.
+     */
+    void onCreated(@Nullable AnimalRepository.AnimalDto dto) {
+        put(dto);
+        myAnimalIds = null;
+    }
+
+    void onDeleted(long animalId) {
+        boolean removed = entries.remove(animalId) != null;
+        List<Long> ids = myAnimalIds;
+        if (ids != null && ids.contains(animalId)) {
+            List<Long> rest = new ArrayList<>(ids);
+            rest.remove(animalId);
+            myAnimalIds = Collections.unmodifiableList(rest);
+            removed = true;
+        }
+        persist(db -> db.delete(animalId));
+        if (removed) {
+            notifyChanged(animalId, null);
+        }
+    }
+
+    /**
+     * Порядок фото после reorderPhotos: position по порядку orderedIds.
+     */
+    void onPhotosReordered(long animalId, @NonNull List<Long> orderedIds) {
+        Entry e = entries.get(animalId);
+        if (e == null || e.dto.photos == null) {
+            return;
+        }
+        List<AnimalRepository.AnimalPhotoDto> sorted = new ArrayList<>(e.dto.photos.size());
+        for (Long photoId : orderedIds) {
+            for (AnimalRepository.AnimalPhotoDto p : e.dto.photos) {
+                if (p != null && p.id == photoId) {
+                    p.position = sorted.size();
+                    sorted.add(p);
+                    break;
+                }
+            }
+        }
+        if (sorted.size() != e.dto.photos.size()) {
+            // Локальная копия расходится с сервером: проще перечитать животное.
+            invalidate(animalId);
+            return;
+        }
+        e.dto.photos = sorted;
+        changedInPlace(e.dto);
+    }
+
+    void onPrimaryPhotoSet(long animalId, long photoId) {
+        Entry e = entries.get(animalId);
+        if (e == null || e.dto.photos == null) {
+            return;
+        }
+        for (AnimalRepository.AnimalPhotoDto p : e.dto.photos) {
+            if (p != null) {
+                p.isPrimary = p.id == photoId;
+            }
+        }
+        changedInPlace(e.dto);
+    }
+
+    /**
+     * deletePhoto знает только id фото: ищем животное, у которого оно есть.
+     */
+    void onPhotoDeleted(long photoId) {
+        for (Entry e : new ArrayList<>(entries.values())) {
+            if (e.dto.photos == null) {
+                continue;
+            }
+            for (int i = 0; i < e.dto.photos.size(); i++) {
+                AnimalRepository.AnimalPhotoDto p = e.dto.photos.get(i);
+                if (p != null && p.id == photoId) {
+                    List<AnimalRepository.AnimalPhotoDto> rest = new ArrayList<>(e.dto.photos);
+                    rest.remove(i);
+                    e.dto.photos = rest;
+                    changedInPlace(e.dto);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Запись остаётся для peek(), но следующее чтение пойдёт в сеть.
+     */
+    public void invalidate(long animalId) {
+        Entry e = entries.get(animalId);
+        if (e != null) {
+            e.storedAtMs = 0L;
+        }
+    }
+
+    public void invalidateMyAnimals() {
+        myAnimalIds = null;
+    }
+
+    /**
+     * Смена пользователя (logout, отказ refresh, новый login): чужие данные не должны пережить сессию.
+     * Память чистится сразу, таблицы базы – в очереди диска после уже поставленных записей.
+     */
+    public void clear() {
+        generation++;
+        entries.clear();
+        myAnimalIds = null;
+        swipedIds.clear();
+        persist(AnimalDatabase::clear);
+    }
+
+    private void changedInPlace(@NonNull AnimalRepository.AnimalDto dto) {
+        persist(db -> db.updateIfPresent(dto));
+        notifyChanged(dto.id, dto);
+    }
+
+    /**
+     * Запись на диск в фоне. Ошибка диска не ломает работу из памяти, только пишется в лог.
+     * DTO меняются на месте лишь заменой полей, поэтому сериализация в фоне видит целую версию.
+     */
+    private void persist(@NonNull Consumer<AnimalDatabase> write) {
+        AnimalDatabase db = disk;
+        if (db == null) {
+            return;
+        }
+        diskExecutor.execute(() -> {
+            try {
+                write.accept(db);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "disk write failed: " + e);
+            }
+        });
+    }
+
+    // endregion
+
+    // region Observers
+
+    public void addObserver(@NonNull Observer observer) {
+        observers.addIfAbsent(observer);
+    }
+
+    public void removeObserver(@NonNull Observer observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * Наблюдатель на время жизни owner: снимается на ON_DESTROY.
+     */
+    public void observe(@NonNull LifecycleOwner owner, @NonNull Observer observer) {
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            return;
+        }
+        addObserver(observer);
+        owner.getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onDestroy(@NonNull LifecycleOwner o) {
+                removeObserver(observer);
+            }
+        });
+    }
+
+    private void notifyChanged(long animalId, @Nullable AnimalRepository.AnimalDto dto) {
+        for (Observer o : observers) {
+            o.onAnimalChanged(animalId, dto);
+        }
+    }
+
+    // endregion
+
+    private static boolean isOlder(@NonNull AnimalRepository.AnimalDto incoming,
+                                   @NonNull AnimalRepository.AnimalDto current) {
+        // updated_at – ISO-8601 в одном формате, строки сравниваются как время.
+        return incoming.updatedAt != null
+                && current.updatedAt != null
+                && incoming.updatedAt.compareTo(current.updatedAt) < 0;
+    }
+
+    private static boolean isFresh(long storedAtMs) {
+        return storedAtMs > 0L && now() - storedAtMs < FRESH_TTL_MS;
+    }
+
+    private static long now() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    private static final class Entry {
+        final AnimalRepository.AnimalDto dto;
+        long storedAtMs;
+
+        Entry(@NonNull AnimalRepository.AnimalDto dto, long storedAtMs) {
+            this.dto = dto;
+            this.storedAtMs = storedAtMs;
+        }
+    }
+}
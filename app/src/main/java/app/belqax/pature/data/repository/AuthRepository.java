@@ -89,7 +89,11 @@ public class AuthRepository {
                 }
 
                 TokenPairDto tokens = response.body();
-                authStorage.saveTokens(tokens.access_token, tokens.refresh_token);
+                // Новая сессия: кешированные ответы и сохранённые животные предыдущего пользователя
+                // больше не валидны. Callback Retrofit – на главном потоке, как и требует AnimalStore.
+                ApiClient.getInstance().evictHttpCache();
+                AnimalStore.getInstance().clear();
+                authStorage.saveTokens(tokens.access_token, tokens.refresh_token, tokens.expires_in);
                 authStorage.saveLogin(login);
 
                 callback.onSuccess();
@@ -394,7 +398,7 @@ public class AuthRepository {
                 }
 
                 TokenPairDto tokens = response.body();
-                authStorage.saveTokens(tokens.access_token, tokens.refresh_token);
+                authStorage.saveTokens(tokens.access_token, tokens.refresh_token, tokens.expires_in);
                 callback.onSuccess();
             }
 
@@ -473,6 +477,8 @@ public class AuthRepository {
     public static final class TokenPairDto {
         public String access_token;
         public String refresh_token;
+        // Срок жизни access-токена в секундах; может отсутствовать.
+        public Long expires_in;
     }
 
     public static final class UserLoginRequestDto {
@@ -0,0 +1,900 @@
+package app.belqax.pature.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import app.belqax.pature.data.network.TokenAuthenticator;
+
+/**
+ * Потоковые TypeAdapter'ы для DTO ответов API, написанные вручную.
+ *
+ * Gson по умолчанию разбирает DTO через reflection: ищет поля, создаёт объекты через Unsafe
+ * и упаковывает примитивы. Здесь каждое поле читается прямым switch по имени из JsonReader,
+ * поэтому страница ленты из 50 AnimalDto разбирается без reflection и лишних объектов.
+ *
+ * Имена в switch совпадают с @SerializedName полей. Новое поле в DTO нужно добавить и сюда,
+ * иначе оно молча останется пустым; неизвестные поля ответа пропускаются.
+ * DTO запросов сюда не входят: они маленькие и пишутся редко.
+ */
+public final class DtoAdapters {
+
+    private static final TypeAdapter<AnimalRepository.AnimalPhotoDto> ANIMAL_PHOTO = new AnimalPhotoDtoAdapter().nullSafe();
+    private static final TypeAdapter<AnimalRepository.AnimalDto> ANIMAL = new AnimalDtoAdapter().nullSafe();
+    private static final TypeAdapter<AnimalRepository.AnimalLikeResultDto> LIKE_RESULT = new AnimalLikeResultDtoAdapter().nullSafe();
+    private static final TypeAdapter<AnimalRepository.AnimalLikeBatchResponseDto> LIKE_BATCH_RESPONSE = new AnimalLikeBatchResponseDtoAdapter().nullSafe();
+    private static final TypeAdapter<AuthRepository.TokenPairDto> AUTH_TOKEN_PAIR = new AuthTokenPairAdapter().nullSafe();
+    private static final TypeAdapter<TokenAuthenticator.TokenPairDto> REFRESH_TOKEN_PAIR = new RefreshTokenPairAdapter().nullSafe();
+    private static final TypeAdapter<ProfileRepository.UserDto> USER = new UserDtoAdapter().nullSafe();
+    private static final TypeAdapter<ProfileRepository.ProfileDto> PROFILE = new ProfileDtoAdapter().nullSafe();
+    private static final TypeAdapter<ProfileRepository.PrivacyDto> PRIVACY = new PrivacyDtoAdapter().nullSafe();
+    private static final TypeAdapter<ProfileRepository.SettingsDto> SETTINGS = new SettingsDtoAdapter().nullSafe();
+    private static final TypeAdapter<ProfileRepository.MeResponse> ME = new MeResponseAdapter().nullSafe();
+    private static final TypeAdapter<AddressRepository.SuggestionDto> SUGGESTION = new SuggestionDtoAdapter().nullSafe();
+    private static final TypeAdapter<AddressRepository.AutocompleteResponse> AUTOCOMPLETE = new AutocompleteResponseAdapter().nullSafe();
+
+    // Пакетный доступ – для DtoAdaptersTest: он сверяет каждый адаптер отсюда с reflection.
+    static final Map<Class<?>, TypeAdapter<?>> ADAPTERS = new HashMap<>();
+
+    static {
+        ADAPTERS.put(AnimalRepository.AnimalPhotoDto.class, ANIMAL_PHOTO);
+        ADAPTERS.put(AnimalRepository.AnimalDto.class, ANIMAL);
+        ADAPTERS.put(AnimalRepository.AnimalLikeResultDto.class, LIKE_RESULT);
+        ADAPTERS.put(AnimalRepository.AnimalLikeBatchResponseDto.class, LIKE_BATCH_RESPONSE);
+        ADAPTERS.put(AuthRepository.TokenPairDto.class, AUTH_TOKEN_PAIR);
+        ADAPTERS.put(TokenAuthenticator.TokenPairDto.class, REFRESH_TOKEN_PAIR);
+        ADAPTERS.put(ProfileRepository.UserDto.class, USER);
+        ADAPTERS.put(ProfileRepository.ProfileDto.class, PROFILE);
+        ADAPTERS.put(ProfileRepository.PrivacyDto.class, PRIVACY);
+        ADAPTERS.put(ProfileRepository.SettingsDto.class, SETTINGS);
+        ADAPTERS.put(ProfileRepository.MeResponse.class, ME);
+        ADAPTERS.put(AddressRepository.SuggestionDto.class, SUGGESTION);
+        ADAPTERS.put(AddressRepository.AutocompleteResponse.class, AUTOCOMPLETE);
+    }
+
+    /**
+     * Фабрика для GsonBuilder.registerTypeAdapterFactory(): отдаёт адаптер только для известных DTO,
+     * остальные типы Gson обрабатывает как обычно.
+     */
+    public static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
+        @Nullable
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(@NonNull Gson gson, @NonNull TypeToken<T> type) {
+            return (TypeAdapter<T>) ADAPTERS.get(type.getRawType());
+        }
+    };
+
+    private DtoAdapters() {
+    }
+
+    // region Readers
+
+    @Nullable
+    private static String readString(@NonNull JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        // Как у Gson: число или boolean на месте строки читаются как текст.
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    @Nullable
+    private static Integer readInteger(@NonNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static int readInt(@NonNull JsonReader in, int fallback) throws IOException {
+        Integer value = readInteger(in);
+        return value != null ? value : fallback;
+    }
+
+    @Nullable
+    private static Long readLong(@NonNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static long readLong(@NonNull JsonReader in, long fallback) throws IOException {
+        Long value = readLong(in);
+        return value != null ? value : fallback;
+    }
+
+    @Nullable
+    private static Double readDouble(@NonNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        try {
+            return in.nextDouble();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    @Nullable
+    private static Boolean readBoolean(@NonNull JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    private static boolean readBoolean(@NonNull JsonReader in, boolean fallback) throws IOException {
+        Boolean value = readBoolean(in);
+        return value != null ? value : fallback;
+    }
+
+    @Nullable
+    private static <T> List<T> readList(@NonNull JsonReader in, @NonNull TypeAdapter<T> element) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<T> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(element.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    private static <T> void writeList(@NonNull JsonWriter out,
+                                      @NonNull TypeAdapter<T> element,
+                                      @Nullable List<T> list) throws IOException {
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (T item : list) {
+            element.write(out, item);
+        }
+        out.endArray();
+    }
+
+    // endregion
+
+    // region Adapters
+
+    private static final class AnimalPhotoDtoAdapter extends TypeAdapter<AnimalRepository.AnimalPhotoDto> {
+
+        @Override
+        public AnimalRepository.AnimalPhotoDto read(JsonReader in) throws IOException {
+            AnimalRepository.AnimalPhotoDto dto = new AnimalRepository.AnimalPhotoDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        dto.id = readLong(in, dto.id);
+                        break;
+                    case "url":
+                        dto.url = readString(in);
+                        break;
+                    case "thumb_url":
+                        dto.thumbUrl = readString(in);
+                        break;
+                    case "is_primary":
+                        dto.isPrimary = readBoolean(in, dto.isPrimary);
+                        break;
+                    case "position":
+                        dto.position = readInt(in, dto.position);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+
+        @Override
+        public void write(JsonWriter out, AnimalRepository.AnimalPhotoDto dto) throws IOException {
+            out.beginObject();
+            out.name("id").value(dto.id);
+            out.name("url").value(dto.url);
+            out.name("thumb_url").value(dto.thumbUrl);
+            out.name("is_primary").value(dto.isPrimary);
+            out.name("position").value(dto.position);
+            out.endObject();
+        }
+    }
+
+    private static final class AnimalDtoAdapter extends TypeAdapter<AnimalRepository.AnimalDto> {
+
+        @Override
+        public AnimalRepository.AnimalDto read(JsonReader in) throws IOException {
+            AnimalRepository.AnimalDto dto = new AnimalRepository.AnimalDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        dto.id = readLong(in, dto.id);
+                        break;
+                    case "owner_user_id":
+                        dto.ownerUserId = readLong(in, dto.ownerUserId);
+                        break;
+                    case "name":
+                        dto.name = readString(in);
+                        break;
+                    case "species":
+                        dto.species = readString(in);
+                        break;
+                    case "breed":
+                        dto.breed = readString(in);
+                        break;
+                    case "sex":
+                        dto.sex = readString(in);
+                        break;
+                    case "date_of_birth":
+                        dto.dateOfBirth = readString(in);
+                        break;
+                    case "approx_age_years":
+                        dto.approxAgeYears = readInteger(in);
+                        break;
+                    case "approx_age_months":
+                        dto.approxAgeMonths = readInteger(in);
+                        break;
+                    case "weight_kg":
+                        dto.weightKg = readDouble(in);
+                        break;
+                    case "height_cm":
+                        dto.heightCm = readDouble(in);
+                        break;
+                    case "color":
+                        dto.color = readString(in);
+                        break;
+                    case "pattern":
+                        dto.pattern = readString(in);
+                        break;
+                    case "is_neutered":
+                        dto.isNeutered = readBoolean(in);
+                        break;
+                    case "is_vaccinated":
+                        dto.isVaccinated = readBoolean(in);
+                        break;
+                    case "is_chipped":
+                        dto.isChipped = readBoolean(in);
+                        break;
+                    case "chip_number":
+                        dto.chipNumber = readString(in);
+                        break;
+                    case "temperament_note":
+                        dto.temperamentNote = readString(in);
+                        break;
+                    case "description":
+                        dto.description = readString(in);
+                        break;
+                    case "status":
+                        dto.status = readString(in);
+                        break;
+                    case "city":
+                        dto.city = readString(in);
+                        break;
+                    case "geo_lat":
+                        dto.geoLat = readDouble(in);
+                        break;
+                    case "geo_lng":
+                        dto.geoLng = readDouble(in);
+                        break;
+                    case "created_at":
+                        dto.createdAt = readString(in);
+                        break;
+                    case "updated_at":
+                        dto.updatedAt = readString(in);
+                        break;
+                    case "photos":
+                        dto.photos = readList(in, ANIMAL_PHOTO);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+
+        @Override
+        public void write(JsonWriter out, AnimalRepository.AnimalDto dto) throws IOException {
+            out.beginObject();
+            out.name("id").value(dto.id);
+            out.name("owner_user_id").value(dto.ownerUserId);
+            out.name("name").value(dto.name);
+            out.name("species").value(dto.species);
+            out.name("breed").value(dto.breed);
+            out.name("sex").value(dto.sex);
+            out.name("date_of_birth").value(dto.dateOfBirth);
+            out.name("approx_age_years").value(dto.approxAgeYears);
+            out.name("approx_age_months").value(dto.approxAgeMonths);
+            out.name("weight_kg").value(dto.weightKg);
+            out.name("height_cm").value(dto.heightCm);
+            out.name("color").value(dto.color);
+            out.name("pattern").value(dto.pattern);
+            out.name("is_neutered").value(dto.isNeutered);
+            out.name("is_vaccinated").value(dto.isVaccinated);
+            out.name("is_chipped").value(dto.isChipped);
+            out.name("chip_number").value(dto.chipNumber);
+            out.name("temperament_note").value(dto.temperamentNote);
+            out.name("description").value(dto.description);
+            out.name("status").value(dto.status);
+            out.name("city").value(dto.city);
+            out.name("geo_lat").value(dto.geoLat);
+            out.name("geo_lng").value(dto.geoLng);
+            out.name("created_at").value(dto.createdAt);
+            out.name("updated_at").value(dto.updatedAt);
+            out.name("photos");
+            writeList(out, ANIMAL_PHOTO, dto.photos);
+            out.endObject();
+        }
+    }
+
+    private static final class AnimalLikeResultDtoAdapter extends TypeAdapter<AnimalRepository.AnimalLikeResultDto> {
+
+        @Override
+        public AnimalRepository.AnimalLikeResultDto read(JsonReader in) throws IOException {
+            AnimalRepository.AnimalLikeResultDto dto = new AnimalRepository.AnimalLikeResultDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "animal_id":
+                        dto.animalId = readLong(in, dto.animalId);
+                        break;
+                    case "from_user_id":
+                        dto.fromUserId = readLong(in, dto.fromUserId);
+                        break;
+                    case "result":
+                        dto.result = readString(in);
+                        break;
+                    case "created_at":
+                        dto.createdAt = readString(in);
+                        break;
+                    case "match_created":
+                        dto.matchCreated = readBoolean(in, dto.matchCreated);
+                        break;
+                    case "match_user_id":
+                        dto.matchUserId = readLong(in);
+                        break;
+                    case "match_id":
+                        dto.matchId = readLong(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+
+        @Override
+        public void write(JsonWriter out, AnimalRepository.AnimalLikeResultDto dto) throws IOException {
+            out.beginObject();
+            out.name("animal_id").value(dto.animalId);
+            out.name("from_user_id").value(dto.fromUserId);
+            out.name("result").value(dto.result);
+            out.name("created_at").value(dto.createdAt);
+            out.name("match_created").value(dto.matchCreated);
+            out.name("match_user_id").value(dto.matchUserId);
+            out.name("match_id").value(dto.matchId);
+            out.endObject();
+        }
+    }
+
+    private static final class AnimalLikeBatchResponseDtoAdapter extends TypeAdapter<AnimalRepository.AnimalLikeBatchResponseDto> {
+
+        @Override
+        public AnimalRepository.AnimalLikeBatchResponseDto read(JsonReader in) throws IOException {
+            AnimalRepository.AnimalLikeBatchResponseDto dto = new AnimalRepository.AnimalLikeBatchResponseDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "results":
+                        dto.results = readList(in, LIKE_RESULT);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+
+        @Override
+        public void write(JsonWriter out, AnimalRepository.AnimalLikeBatchResponseDto dto) throws IOException {
+            out.beginObject();
+            out.name("results");
+            writeList(out, LIKE_RESULT, dto.results);
+            out.endObject();
+        }
+    }
+
+    private static final class AuthTokenPairAdapter extends TypeAdapter<AuthRepository.TokenPairDto> {
+
+        @Override
+        public AuthRepository.TokenPairDto read(JsonReader in) throws IOException {
+            AuthRepository.TokenPairDto dto = new AuthRepository.TokenPairDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "access_token":
+                        dto.access_token = readString(in);
+                        break;
+                    case "refresh_token":
+                        dto.refresh_token = readString(in);
+                        break;
+                    case "expires_in":
+                        dto.expires_in = readLong(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+
+        @Override
+        public void write(JsonWriter out, AuthRepository.TokenPairDto dto) throws IOException {
+            out.beginObject();
+            out.name("access_token").value(dto.access_token);
+            out.name("refresh_token").value(dto.refresh_token);
+            out.name("expires_in").value(dto.expires_in);
+            out.endObject();
+        }
+    }
+
+    private static final class RefreshTokenPairAdapter extends TypeAdapter<TokenAuthenticator.TokenPairDto> {
+
+        @Override
+        public TokenAuthenticator.TokenPairDto read(JsonReader in) throws IOException {
+            TokenAuthenticator.TokenPairDto dto = new TokenAuthenticator.TokenPairDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "access_token":
+                        dto.access_token = readString(in);
+                        break;
+                    case "refresh_token":
+                        dto.refresh_token = readString(in);
+                        break;
+                    case "expires_in":
+                        dto.expires_in = readLong(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+
+        @Override
+        public void write(JsonWriter out, TokenAuthenticator.TokenPairDto dto) throws IOException {
+            out.beginObject();
+            out.name("access_token").value(dto.access_token);
+            out.name("refresh_token").value(dto.refresh_token);
+            out.name("expires_in").value(dto.expires_in);
+            out.endObject();
+        }
+    }
+
+    private static final class UserDtoAdapter extends TypeAdapter<ProfileRepository.UserDto> {
+
+        @Override
+        public ProfileRepository.UserDto read(JsonReader in) throws IOException {
+            ProfileRepository.UserDto dto = new ProfileRepository.UserDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        dto.id = readInt(in, dto.id);
+                        break;
+                    case "phone":
+                        dto.phone = readString(in);
+                        break;
+                    case "email":
+                        dto.email = readString(in);
+                        break;
+                    case "is_active":
+                        dto.is_active = readBoolean(in, dto.is_active);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+
+        @Override
+        public void write(JsonWriter out, ProfileRepository.UserDto dto) throws IOException {
+            out.beginObject();
+            out.name("id").value(dto.id);
+            out.name("phone").value(dto.phone);
+            out.name("email").value(dto.email);
+            out.name("is_active").value(dto.is_active);
+            out.endObject();
+        }
+    }
+
+    private static final class ProfileDtoAdapter extends TypeAdapter<ProfileRepository.ProfileDto> {
+
+        @Override
+        public ProfileRepository.ProfileDto read(JsonReader in) throws IOException {
+            ProfileRepository.ProfileDto dto = new ProfileRepository.ProfileDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "display_name":
+                        dto.display_name = readString(in);
+                        break;
+                    case "age":
+                        dto.age = readInteger(in);
+                        break;
+                    case "about":
+                        dto.about = readString(in);
+                        break;
+                    case "location_formatted":
+                        dto.location_formatted = readString(in);
+                        break;
+                    case "location_city":
+                        dto.location_city = readString(in);
+                        break;
+                    case "location_state":
+                        dto.location_state = readString(in);
+                        break;
+                    case "location_country":
+                        dto.location_country = readString(in);
+                        break;
+                    case "location_postcode":
+                        dto.location_postcode = readString(in);
+                        break;
+                    case "location_lat":
+                        dto.location_lat = readDouble(in);
+                        break;
+                    case "location_lon":
+                        dto.location_lon = readDouble(in);
+                        break;
+                    case "location_result_type":
+                        dto.location_result_type = readString(in);
+                        break;
+                    case "location_confidence":
+                        dto.location_confidence = readDouble(in);
+                        break;
+                    case "avatar_url":
+                        dto.avatar_url = readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+
+        @Override
+        public void write(JsonWriter out, ProfileRepository.ProfileDto dto) throws IOException {
+            out.beginObject();
+            out.name("display_name").value(dto.display_name);
+            out.name("age").value(dto.age);
+            out.name("about").value(dto.about);
+            out.name("location_formatted").value(dto.location_formatted);
+            out.name("location_city").value(dto.location_city);
+            out.name("location_state").value(dto.location_state);
+            out.name("location_country").value(dto.location_country);
+            out.name("location_postcode").value(dto.location_postcode);
+            out.name("location_lat").value(dto.location_lat);
+            out.name("location_lon").value(dto.location_lon);
+            out.name("location_result_type").value(dto.location_result_type);
+            out.name("location_confidence").value(dto.location_confidence);
+            out.name("avatar_url").value(dto.avatar_url);
+            out.endObject();
+        }
+    }
+
+    private static final class PrivacyDtoAdapter extends TypeAdapter<ProfileRepository.PrivacyDto> {
+
+        @Override
+        public ProfileRepository.PrivacyDto read(JsonReader in) throws IOException {
+            ProfileRepository.PrivacyDto dto = new ProfileRepository.PrivacyDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "profile_visibility":
+                        dto.profile_visibility = readString(in);
+                        break;
+                    case "photos_visibility":
+                        dto.photos_visibility = readString(in);
+                        break;
+                    case "online_status_visibility":
+                        dto.online_status_visibility = readString(in);
+                        break;
+                    case "last_seen_precision":
+                        dto.last_seen_precision = readString(in);
+                        break;
+                    case "show_age":
+                        dto.show_age = readBoolean(in, dto.show_age);
+                        break;
+                    case "show_distance":
+                        dto.show_distance = readBoolean(in, dto.show_distance);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+
+        @Override
+        public void write(JsonWriter out, ProfileRepository.PrivacyDto dto) throws IOException {
+            out.beginObject();
+            out.name("profile_visibility").value(dto.profile_visibility);
+            out.name("photos_visibility").value(dto.photos_visibility);
+            out.name("online_status_visibility").value(dto.online_status_visibility);
+            out.name("last_seen_precision").value(dto.last_seen_precision);
+            out.name("show_age").value(dto.show_age);
+            out.name("show_distance").value(dto.show_distance);
+            out.endObject();
+        }
+    }
+
+    private static final class SettingsDtoAdapter extends TypeAdapter<ProfileRepository.SettingsDto> {
+
+        @Override
+        public ProfileRepository.SettingsDto read(JsonReader in) throws IOException {
+            ProfileRepository.SettingsDto dto = new ProfileRepository.SettingsDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "language_code":
+                        dto.language_code = readString(in);
+                        break;
+                    case "timezone":
+                        dto.timezone = readString(in);
+                        break;
+                    case "biometric_login_enabled":
+                        dto.biometric_login_enabled = readBoolean(in, dto.biometric_login_enabled);
+                        break;
+                    case "push_enabled":
+                        dto.push_enabled = readBoolean(in, dto.push_enabled);
+                        break;
+                    case "push_new_messages":
+                        dto.push_new_messages = readBoolean(in, dto.push_new_messages);
+                        break;
+                    case "push_events":
+                        dto.push_events = readBoolean(in, dto.push_events);
+                        break;
+                    case "push_news":
+                        dto.push_news = readBoolean(in, dto.push_news);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+
+        @Override
+        public void write(JsonWriter out, ProfileRepository.SettingsDto dto) throws IOException {
+            out.beginObject();
+            out.name("language_code").value(dto.language_code);
+            out.name("timezone").value(dto.timezone);
+            out.name("biometric_login_enabled").value(dto.biometric_login_enabled);
+            out.name("push_enabled").value(dto.push_enabled);
+            out.name("push_new_messages").value(dto.push_new_messages);
+            out.name("push_events").value(dto.push_events);
+            out.name("push_news").value(dto.push_news);
+            out.endObject();
+        }
+    }
+
+    private static final class MeResponseAdapter extends TypeAdapter<ProfileRepository.MeResponse> {
+
+        @Override
+        public ProfileRepository.MeResponse read(JsonReader in) throws IOException {
+            ProfileRepository.MeResponse dto = new ProfileRepository.MeResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "user":
+                        dto.user = USER.read(in);
+                        break;
+                    case "profile":
+                        dto.profile = PROFILE.read(in);
+                        break;
+                    case "privacy":
+                        dto.privacy = PRIVACY.read(in);
+                        break;
+                    case "settings":
+                        dto.settings = SETTINGS.read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+
+        @Override
+        public void write(JsonWriter out, ProfileRepository.MeResponse dto) throws IOException {
+            out.beginObject();
+            out.name("user");
+            USER.write(out, dto.user);
+            out.name("profile");
+            PROFILE.write(out, dto.profile);
+            out.name("privacy");
+            PRIVACY.write(out, dto.privacy);
+            out.name("settings");
+            SETTINGS.write(out, dto.settings);
+            out.endObject();
+        }
+    }
+
+    private static final class SuggestionDtoAdapter extends TypeAdapter<AddressRepository.SuggestionDto> {
+
+        @Override
+        public AddressRepository.SuggestionDto read(JsonReader in) throws IOException {
+            AddressRepository.SuggestionDto dto = new AddressRepository.SuggestionDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "formatted":
+                        dto.formatted = readString(in);
+                        break;
+                    case "lat":
+                        dto.lat = readDouble(in);
+                        break;
+                    case "lon":
+                        dto.lon = readDouble(in);
+                        break;
+                    case "country":
+                        dto.country = readString(in);
+                        break;
+                    case "state":
+                        dto.state = readString(in);
+                        break;
+                    case "region":
+                        dto.region = readString(in);
+                        break;
+                    case "county":
+                        dto.county = readString(in);
+                        break;
+                    case "city":
+                        dto.city = readString(in);
+                        break;
+                    case "district":
+                        dto.district = readString(in);
+                        break;
+                    case "neighbourhood":
+                        dto.neighbourhood = readString(in);
+                        break;
+                    case "postcode":
+                        dto.postcode = readString(in);
+                        break;
+                    case "street":
+                        dto.street = readString(in);
+                        break;
+                    case "housenumber":
+                        dto.housenumber = readString(in);
+                        break;
+                    case "plus_code":
+                        dto.plus_code = readString(in);
+                        break;
+                    case "timezone":
+                        dto.timezone = readString(in);
+                        break;
+                    case "result_type":
+                        dto.result_type = readString(in);
+                        break;
+                    case "confidence":
+                        dto.confidence = readDouble(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+
+        @Override
+        public void write(JsonWriter out, AddressRepository.SuggestionDto dto) throws IOException {
+            out.beginObject();
+            out.name("formatted").value(dto.formatted);
+            out.name("lat").value(dto.lat);
+            out.name("lon").value(dto.lon);
+            out.name("country").value(dto.country);
+            out.name("state").value(dto.state);
+            out.name("region").value(dto.region);
+            out.name("county").value(dto.county);
+            out.name("city").value(dto.city);
+            out.name("district").value(dto.district);
+            out.name("neighbourhood").value(dto.neighbourhood);
+            out.name("postcode").value(dto.postcode);
+            out.name("street").value(dto.street);
+            out.name("housenumber").value(dto.housenumber);
+            out.name("plus_code").value(dto.plus_code);
+            out.name("timezone").value(dto.timezone);
+            out.name("result_type").value(dto.result_type);
+            out.name("confidence").value(dto.confidence);
+            out.endObject();
+        }
+    }
+
+    private static final class AutocompleteResponseAdapter extends TypeAdapter<AddressRepository.AutocompleteResponse> {
+
+        @Override
+        public AddressRepository.AutocompleteResponse read(JsonReader in) throws IOException {
+            AddressRepository.AutocompleteResponse dto = new AddressRepository.AutocompleteResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "query_text":
+                        dto.query_text = readString(in);
+                        break;
+                    case "suggestions":
+                        dto.suggestions = readList(in, SUGGESTION);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return dto;
+        }
+
+        @Override
+        public void write(JsonWriter out, AddressRepository.AutocompleteResponse dto) throws IOException {
+            out.beginObject();
+            out.name("query_text").value(dto.query_text);
+            out.name("suggestions");
+            writeList(out, SUGGESTION, dto.suggestions);
+            out.endObject();
+        }
+    }
+
+    // endregion
+}
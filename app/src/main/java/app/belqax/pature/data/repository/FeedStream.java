@@ -0,0 +1,187 @@
+package app.belqax.pature.data.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import app.belqax.pature.data.network.CallRetrier;
+import app.belqax.pature.data.network.GsonProvider;
+import app.belqax.pature.data.network.RequestHandle;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Потоковый разбор JSON-массива AnimalDto прямо из тела ответа.
+ *
+ * Тело читается на фоновом потоке по мере прихода байтов, каждая карточка уходит в listener
+ * на главный поток сразу после разбора, не дожидаясь конца страницы.
+ *
+ * Одинаковые запросы не склеиваются: поток тела читается один раз и раздать его нескольким
+ * подписчикам нельзя. Повторы по RetryPolicy срабатывают только до начала чтения тела.
+ */
+final class FeedStream implements RequestHandle, Callback<ResponseBody> {
+
+    private static final String TAG = "FeedStream";
+
+    private static final ExecutorService READERS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "feed-stream");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private final String opName;
+    private final AnimalRepository.FeedStreamListener listener;
+    private final Call<ResponseBody> call;
+
+    // Меняются и читаются на главном потоке.
+    private boolean canceled = false;
+    private boolean done = false;
+    @Nullable
+    private String nextCursor;
+
+    FeedStream(@NonNull String opName,
+               @NonNull Call<ResponseBody> call,
+               @NonNull AnimalRepository.FeedStreamListener listener) {
+        this.opName = opName;
+        this.call = call;
+        this.listener = listener;
+    }
+
+    @NonNull
+    FeedStream start() {
+        call.enqueue(this);
+        return this;
+    }
+
+    @Override
+    public void onResponse(@NonNull Call<ResponseBody> c, @NonNull Response<ResponseBody> response) {
+        if (canceled) {
+            closeQuietly(response.isSuccessful() ? response.body() : response.errorBody());
+            return;
+        }
+        int retries = CallRetrier.retriesOf(c);
+
+        if (!response.isSuccessful()) {
+            String errBody = null;
+            try {
+                if (response.errorBody() != null) {
+                    errBody = response.errorBody().string();
+                }
+            } catch (IOException e) {
+                Log.w(TAG, opName + ": failed to read errorBody: " + e);
+            }
+            finish(AnimalRepository.RepoResult.<List<AnimalRepository.AnimalDto>>httpError(
+                    response.code(), opName + ": http error", errBody).withRetries(retries));
+            return;
+        }
+
+        nextCursor = response.headers().get(AnimalRepository.NEXT_CURSOR_HEADER);
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            finish(AnimalRepository.RepoResult.<List<AnimalRepository.AnimalDto>>success(new ArrayList<>())
+                    .withRetries(retries));
+            return;
+        }
+        READERS.execute(() -> read(body, retries));
+    }
+
+    @Override
+    public void onFailure(@NonNull Call<ResponseBody> c, @NonNull Throwable t) {
+        if (canceled) {
+            return;
+        }
+        String msg = (t.getMessage() != null) ? t.getMessage() : "network error";
+        finish(AnimalRepository.RepoResult.<List<AnimalRepository.AnimalDto>>networkError(opName + ": " + msg)
+                .withRetries(CallRetrier.retriesOf(c)));
+    }
+
+    /**
+     * Фоновый поток: разбирает массив поэлементно. Отмена обрывает чтение через call.cancel().
+     */
+    private void read(@NonNull ResponseBody body, int retries) {
+        TypeAdapter<AnimalRepository.AnimalDto> adapter = GsonProvider.get().getAdapter(AnimalRepository.AnimalDto.class);
+        List<AnimalRepository.AnimalDto> all = new ArrayList<>();
+        AnimalRepository.RepoResult<List<AnimalRepository.AnimalDto>> result;
+
+        try (JsonReader reader = new JsonReader(body.charStream())) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                AnimalRepository.AnimalDto dto = adapter.read(reader);
+                if (dto == null) {
+                    continue;
+                }
+                all.add(dto);
+                MAIN.post(() -> {
+                    if (!canceled) {
+                        listener.onItem(dto);
+                    }
+                });
+            }
+            reader.endArray();
+            result = AnimalRepository.RepoResult.success(all);
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            // Уже отданные карточки остаются у получателя; он сам решает, догружать ли остаток.
+            String msg = (e.getMessage() != null) ? e.getMessage() : e.getClass().getSimpleName();
+            Log.w(TAG, opName + ": stream broken after " + all.size() + " items: " + msg);
+            result = AnimalRepository.RepoResult.networkError(opName + ": " + msg);
+        }
+
+        AnimalRepository.RepoResult<List<AnimalRepository.AnimalDto>> last = result.withRetries(retries);
+        MAIN.post(() -> finish(last));
+    }
+
+    private void finish(@NonNull AnimalRepository.RepoResult<List<AnimalRepository.AnimalDto>> result) {
+        if (canceled || done) {
+            return;
+        }
+        done = true;
+        if (result.isSuccess) {
+            // Курсор относится к странице целиком: по оборванному потоку он не отдаётся.
+            listener.onNextCursor(nextCursor);
+        }
+        listener.onComplete(result);
+    }
+
+    @Override
+    public void cancel() {
+        if (done || canceled) {
+            return;
+        }
+        canceled = true;
+        call.cancel();
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done || canceled;
+    }
+
+    private static void closeQuietly(@Nullable ResponseBody body) {
+        if (body != null) {
+            body.close();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package app.belqax.pature.data.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import app.belqax.pature.data.network.RequestHandle;
+
+/**
+ * Склеивает реакции, пришедшие в коротком окне, в один batch-запрос.
+ * Окно открывается первой реакцией и закрывается по таймеру или при наборе maxItems.
+ * Результаты раздаются исходным колбэкам на главном потоке, как и у обычного enqueue.
+ * Реакция, отменённая до закрытия окна, в пачку не попадает; после отправки отмена снимает только callback.
+ */
+final class LikeBatcher {
+
+    private static final String TAG = "LikeBatcher";
+
+    interface Sender {
+        @NonNull
+        List<AnimalRepository.RepoResult<AnimalRepository.AnimalLikeResultDto>> send(
+                @NonNull List<AnimalRepository.LikeItem> items
+        );
+    }
+
+    private final Sender sender;
+    private final long windowMs;
+    private final int maxItems;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "like-batcher");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Доступ только из потока executor.
+    private final List<Pending> pending = new ArrayList<>();
+    @Nullable
+    private ScheduledFuture<?> windowTimer;
+
+    LikeBatcher(@NonNull Sender sender, long windowMs, int maxItems) {
+        this.sender = Objects.requireNonNull(sender, "sender");
+        this.windowMs = Math.max(0L, windowMs);
+        this.maxItems = Math.max(1, maxItems);
+    }
+
+    @NonNull
+    RequestHandle submit(
+            @NonNull AnimalRepository.LikeItem item,
+            @NonNull AnimalRepository.RepoCallback<AnimalRepository.AnimalLikeResultDto> cb
+    ) {
+        Objects.requireNonNull(item, "item");
+        Objects.requireNonNull(cb, "cb");
+
+        Pending p = new Pending(item, cb);
+        executor.execute(() -> {
+            pending.add(p);
+
+            if (pending.size() >= maxItems) {
+                flush();
+                return;
+            }
+            if (windowTimer == null) {
+                windowTimer = executor.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+            }
+        });
+        return p;
+    }
+
+    private void flush() {
+        ScheduledFuture<?> timer = windowTimer;
+        if (timer != null) {
+            timer.cancel(false);
+            windowTimer = null;
+        }
+        List<Pending> sending = new ArrayList<>(pending.size());
+        for (Pending p : pending) {
+            if (!p.canceled) {
+                sending.add(p);
+            }
+        }
+        pending.clear();
+        if (sending.isEmpty()) {
+            return;
+        }
+
+        List<AnimalRepository.LikeItem> batch = new ArrayList<>(sending.size());
+        for (Pending p : sending) {
+            batch.add(p.item);
+        }
+
+        List<AnimalRepository.RepoResult<AnimalRepository.AnimalLikeResultDto>> results;
+        try {
+            results = sender.send(batch);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "flush: send failed: " + e);
+            results = new ArrayList<>();
+        }
+
+        for (int i = 0; i < sending.size(); i++) {
+            AnimalRepository.RepoResult<AnimalRepository.AnimalLikeResultDto> r = i < results.size()
+                    ? results.get(i)
+                    : AnimalRepository.RepoResult.networkError("likeAnimal: no batch result");
+            Pending p = sending.get(i);
+            mainHandler.post(() -> p.deliver(r));
+        }
+    }
+
+    private static final class Pending implements RequestHandle {
+        final AnimalRepository.LikeItem item;
+        final AnimalRepository.RepoCallback<AnimalRepository.AnimalLikeResultDto> cb;
+
+        // cancel() и доставка идут на главном потоке, flush читает canceled в потоке executor.
+        volatile boolean canceled = false;
+        volatile boolean done = false;
+
+        Pending(@NonNull AnimalRepository.LikeItem item,
+                @NonNull AnimalRepository.RepoCallback<AnimalRepository.AnimalLikeResultDto> cb) {
+            this.item = item;
+            this.cb = cb;
+        }
+
+        void deliver(@NonNull AnimalRepository.RepoResult<AnimalRepository.AnimalLikeResultDto> r) {
+            if (done) {
+                return;
+            }
+            done = true;
+            cb.onComplete(r);
+        }
+
+        @Override
+        public void cancel() {
+            if (done) {
+                return;
+            }
+            canceled = true;
+            done = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+    }
+}
@@ -12,6 +12,11 @@ import com.google.gson.annotations.SerializedName;
 import java.io.IOException;
 
 import app.belqax.pature.data.network.ApiClient;
+import app.belqax.pature.data.network.CallRetrier;
+import app.belqax.pature.data.network.PriorityDispatcher;
+import app.belqax.pature.data.network.RequestCoalescer;
+import app.belqax.pature.data.network.RequestHandle;
+import app.belqax.pature.data.network.RetryPolicy;
 import app.belqax.pature.data.storage.ProfileStorage;
 import okhttp3.MultipartBody;
 import okhttp3.ResponseBody;
@@ -39,19 +44,29 @@ public class ProfileRepository {
 
     private final ProfileApi api;
     private final ProfileStorage storage;
+    private final RequestCoalescer coalescer;
+    private final CallRetrier retrier;
+    private final PriorityDispatcher lanes;
 
     public ProfileRepository(@NonNull ProfileApi api,
-                             @NonNull ProfileStorage storage) {
+                             @NonNull ProfileStorage storage,
+                             @NonNull RequestCoalescer coalescer,
+                             @NonNull CallRetrier retrier,
+                             @NonNull PriorityDispatcher lanes) {
         this.api = api;
         this.storage = storage;
+        this.coalescer = coalescer;
+        this.retrier = retrier;
+        this.lanes = lanes;
     }
 
     public static ProfileRepository create(@NonNull Context context) {
         ApiClient apiClient = ApiClient.getInstance();
         Retrofit retrofit = apiClient.getRetrofit();
         ProfileApi api = retrofit.create(ProfileApi.class);
-        ProfileStorage storage = new ProfileStorage(context);
-        return new ProfileRepository(api, storage);
+        ProfileStorage storage = ProfileStorage.getInstance(context);
+        return new ProfileRepository(api, storage, apiClient.getRequestCoalescer(),
+                apiClient.getCallRetrier(), apiClient.getPriorityDispatcher());
     }
 
     @Nullable
@@ -59,9 +74,12 @@ public class ProfileRepository {
         return storage.getProfile();
     }
 
-    public void loadProfile(@NonNull final ProfileCallback callback) {
+    @NonNull
+    public RequestHandle loadProfile(@NonNull final ProfileCallback callback) {
         Log.d(TAG, "loadProfile: sending GET /users/me request");
-        api.getMe().enqueue(new Callback<MeResponse>() {
+        // Профиль одновременно грузят несколько экранов: одинаковые запросы в полёте склеиваются.
+        return submit("loadProfile", api.getMe(), RetryPolicy.DEFAULT, PriorityDispatcher.Priority.INTERACTIVE,
+                new Callback<MeResponse>() {
             @Override
             public void onResponse(@NonNull Call<MeResponse> call,
                                    @NonNull Response<MeResponse> response) {
@@ -72,22 +90,32 @@ public class ProfileRepository {
                     callback.onSuccess(body);
                 } else {
                     Log.w(TAG, "loadProfile: error, HTTP " + response.code());
-                    callback.onError(mapHttpError(response));
+                    callback.onError(mapHttpError(call, response));
                 }
             }
 
             @Override
             public void onFailure(@NonNull Call<MeResponse> call, @NonNull Throwable t) {
                 Log.e(TAG, "loadProfile: failure", t);
-                callback.onError(mapNetworkError(t));
+                callback.onError(mapNetworkError(call, t));
             }
         });
     }
 
-    public void updateProfile(@NonNull UpdateProfileRequest body,
-                              @NonNull final ProfileCallback callback) {
+    /**
+     * loadProfile в виде future (ошибка – RepoException).
+     */
+    @NonNull
+    public RepoFuture<MeResponse> loadProfileAsync() {
+        return RepoFutures.profile(this::loadProfile);
+    }
+
+    @NonNull
+    public RequestHandle updateProfile(@NonNull UpdateProfileRequest body,
+                                       @NonNull final ProfileCallback callback) {
         Log.d(TAG, "updateProfile: sending PUT /users/me/profile request");
-        api.updateProfile(body).enqueue(new Callback<MeResponse>() {
+        return submit("updateProfile", api.updateProfile(body), RetryPolicy.DEFAULT, PriorityDispatcher.Priority.INTERACTIVE,
+                new Callback<MeResponse>() {
             @Override
             public void onResponse(@NonNull Call<MeResponse> call,
                                    @NonNull Response<MeResponse> response) {
@@ -98,22 +126,25 @@ public class ProfileRepository {
                     callback.onSuccess(body);
                 } else {
                     Log.w(TAG, "updateProfile: error, HTTP " + response.code());
-                    callback.onError(mapHttpError(response));
+                    callback.onError(mapHttpError(call, response));
                 }
             }
 
             @Override
             public void onFailure(@NonNull Call<MeResponse> call, @NonNull Throwable t) {
                 Log.e(TAG, "updateProfile: failure", t);
-                callback.onError(mapNetworkError(t));
+                callback.onError(mapNetworkError(call, t));
             }
         });
     }
 
-    public void updatePrivacy(@NonNull UpdatePrivacyRequest body,
-                              @NonNull final ProfileCallback callback) {
+    @NonNull
+    public RequestHandle updatePrivacy(@NonNull UpdatePrivacyRequest body,
+                                       @NonNull final ProfileCallback callback) {
         Log.d(TAG, "updatePrivacy: sending PATCH /users/me/privacy request");
-        api.updatePrivacy(body).enqueue(new Callback<MeResponse>() {
+        // PATCH с абсолютными значениями: повтор после обрыва не меняет итог.
+        return submit("updatePrivacy", api.updatePrivacy(body), RetryPolicy.DEFAULT.repeatSafe(),
+                PriorityDispatcher.Priority.INTERACTIVE, new Callback<MeResponse>() {
             @Override
             public void onResponse(@NonNull Call<MeResponse> call,
                                    @NonNull Response<MeResponse> response) {
@@ -124,22 +155,24 @@ public class ProfileRepository {
                     callback.onSuccess(body);
                 } else {
                     Log.w(TAG, "updatePrivacy: error, HTTP " + response.code());
-                    callback.onError(mapHttpError(response));
+                    callback.onError(mapHttpError(call, response));
                 }
             }
 
             @Override
             public void onFailure(@NonNull Call<MeResponse> call, @NonNull Throwable t) {
                 Log.e(TAG, "updatePrivacy: failure", t);
-                callback.onError(mapNetworkError(t));
+                callback.onError(mapNetworkError(call, t));
             }
         });
     }
 
-    public void updateSettings(@NonNull UpdateSettingsRequest body,
-                               @NonNull final ProfileCallback callback) {
+    @NonNull
+    public RequestHandle updateSettings(@NonNull UpdateSettingsRequest body,
+                                        @NonNull final ProfileCallback callback) {
         Log.d(TAG, "updateSettings: sending PATCH /users/me/settings request");
-        api.updateSettings(body).enqueue(new Callback<MeResponse>() {
+        return submit("updateSettings", api.updateSettings(body), RetryPolicy.DEFAULT.repeatSafe(),
+                PriorityDispatcher.Priority.INTERACTIVE, new Callback<MeResponse>() {
             @Override
             public void onResponse(@NonNull Call<MeResponse> call,
                                    @NonNull Response<MeResponse> response) {
@@ -150,7 +183,7 @@ public class ProfileRepository {
                     callback.onSuccess(body);
                 } else {
                     Log.w(TAG, "updateSettings: error, HTTP " + response.code());
-                    callback.onError(mapHttpError(response));
+                    callback.onError(mapHttpError(call, response));
                 }
             }
 
@@ -158,14 +191,15 @@ public class ProfileRepository {
             public void onFailure(@NonNull Call<MeResponse> call,
                                   @NonNull Throwable t) {
                 Log.e(TAG, "updateSettings: failure", t);
-                callback.onError(mapNetworkError(t));
+                callback.onError(mapNetworkError(call, t));
             }
         });
     }
 
 
-    public void uploadAvatar(@NonNull MultipartBody.Part filePart,
-                             @NonNull final ProfileCallback callback) {
+    @NonNull
+    public RequestHandle uploadAvatar(@NonNull MultipartBody.Part filePart,
+                                      @NonNull final ProfileCallback callback) {
         if (filePart.body() == null) {
             Log.w(TAG, "uploadAvatar: filePart has null body");
             callback.onError(new ProfileError(
@@ -176,11 +210,12 @@ public class ProfileRepository {
                     null,
                     null
             ));
-            return;
+            return RequestHandle.DONE;
         }
 
         Log.d(TAG, "uploadAvatar: sending POST /users/me/avatar request");
-        api.uploadAvatar(filePart).enqueue(new Callback<MeResponse>() {
+        return submit("uploadAvatar", api.uploadAvatar(filePart), RetryPolicy.NONE, PriorityDispatcher.Priority.BULK,
+                new Callback<MeResponse>() {
             @Override
             public void onResponse(@NonNull Call<MeResponse> call,
                                    @NonNull Response<MeResponse> response) {
@@ -191,7 +226,7 @@ public class ProfileRepository {
                     callback.onSuccess(body);
                 } else {
                     Log.w(TAG, "uploadAvatar: error, HTTP " + response.code());
-                    callback.onError(mapHttpError(response));
+                    callback.onError(mapHttpError(call, response));
                 }
             }
 
@@ -199,14 +234,16 @@ public class ProfileRepository {
             public void onFailure(@NonNull Call<MeResponse> call,
                                   @NonNull Throwable t) {
                 Log.e(TAG, "uploadAvatar: failure", t);
-                callback.onError(mapNetworkError(t));
+                callback.onError(mapNetworkError(call, t));
             }
         });
     }
 
-    public void deleteAvatar(@NonNull final ProfileCallback callback) {
+    @NonNull
+    public RequestHandle deleteAvatar(@NonNull final ProfileCallback callback) {
         Log.d(TAG, "deleteAvatar: sending DELETE /users/me/avatar request");
-        api.deleteAvatar().enqueue(new Callback<MeResponse>() {
+        return submit("deleteAvatar", api.deleteAvatar(), RetryPolicy.NONE, PriorityDispatcher.Priority.INTERACTIVE,
+                new Callback<MeResponse>() {
             @Override
             public void onResponse(@NonNull Call<MeResponse> call,
                                    @NonNull Response<MeResponse> response) {
@@ -217,14 +254,14 @@ public class ProfileRepository {
                     callback.onSuccess(body);
                 } else {
                     Log.w(TAG, "deleteAvatar: error, HTTP " + response.code());
-                    callback.onError(mapHttpError(response));
+                    callback.onError(mapHttpError(call, response));
                 }
             }
 
             @Override
             public void onFailure(@NonNull Call<MeResponse> call, @NonNull Throwable t) {
                 Log.e(TAG, "deleteAvatar: failure", t);
-                callback.onError(mapNetworkError(t));
+                callback.onError(mapNetworkError(call, t));
             }
         });
     }
@@ -233,7 +270,19 @@ public class ProfileRepository {
         storage.clear();
     }
 
-    private ProfileError mapHttpError(@NonNull Response<?> response) {
+    /**
+     * Отправляет вызов в полосе priority с повторами по policy; одинаковые GET в полёте склеиваются.
+     */
+    @NonNull
+    private <T> RequestHandle submit(@NonNull String opName,
+                                     @NonNull Call<T> call,
+                                     @NonNull RetryPolicy policy,
+                                     @NonNull PriorityDispatcher.Priority priority,
+                                     @NonNull Callback<T> cb) {
+        return coalescer.enqueue(opName, retrier.wrap(opName, lanes.wrap(call, priority), policy), cb);
+    }
+
+    private ProfileError mapHttpError(@NonNull Call<?> call, @NonNull Response<?> response) {
         int code = response.code();
         String bodyText = null;
 
@@ -265,11 +314,12 @@ public class ProfileRepository {
                 false,
                 isUnauthorized,
                 bodyText,
-                null
+                null,
+                CallRetrier.retriesOf(call)
         );
     }
 
-    private ProfileError mapNetworkError(@NonNull Throwable t) {
+    private ProfileError mapNetworkError(@NonNull Call<?> call, @NonNull Throwable t) {
         if (t instanceof HttpException) {
             HttpException httpException = (HttpException) t;
             int code = httpException.code();
@@ -280,7 +330,8 @@ public class ProfileRepository {
                     true,
                     isUnauthorized,
                     null,
-                    t
+                    t,
+                    CallRetrier.retriesOf(call)
             );
         }
         return new ProfileError(
@@ -289,7 +340,8 @@ public class ProfileRepository {
                 true,
                 false,
                 null,
-                t
+                t,
+                CallRetrier.retriesOf(call)
         );
     }
 
@@ -308,6 +360,7 @@ public class ProfileRepository {
         private final String rawBody;
         @Nullable
         private final Throwable cause;
+        private final int retries;
 
         public ProfileError(int httpCode,
                             @NonNull String message,
@@ -315,12 +368,23 @@ public class ProfileRepository {
                             boolean unauthorized,
                             @Nullable String rawBody,
                             @Nullable Throwable cause) {
+            this(httpCode, message, networkError, unauthorized, rawBody, cause, 0);
+        }
+
+        public ProfileError(int httpCode,
+                            @NonNull String message,
+                            boolean networkError,
+                            boolean unauthorized,
+                            @Nullable String rawBody,
+                            @Nullable Throwable cause,
+                            int retries) {
             this.httpCode = httpCode;
             this.message = message;
             this.networkError = networkError;
             this.unauthorized = unauthorized;
             this.rawBody = rawBody;
             this.cause = cause;
+            this.retries = retries;
         }
 
         public int getHttpCode() {
@@ -349,6 +413,13 @@ public class ProfileRepository {
         public Throwable getCause() {
             return cause;
         }
+
+        /**
+         * Сколько раз запрос повторялся по RetryPolicy перед этой ошибкой.
+         */
+        public int getRetries() {
+            return retries;
+        }
     }
 
     public interface ProfileApi {
@@ -373,27 +444,28 @@ public class ProfileRepository {
         Call<MeResponse> deleteAvatar();
     }
 
+    // Поля DTO ответов пакетные: их напрямую читает и пишет DtoAdapters.
     public static final class MeResponse {
 
         @Nullable
         @SerializedName("user")
         @Expose
-        private UserDto user;
+        UserDto user;
 
         @Nullable
         @SerializedName("profile")
         @Expose
-        private ProfileDto profile;
+        ProfileDto profile;
 
         @Nullable
         @SerializedName("privacy")
         @Expose
-        private PrivacyDto privacy;
+        PrivacyDto privacy;
 
         @Nullable
         @SerializedName("settings")
         @Expose
-        private SettingsDto settings;
+        SettingsDto settings;
 
         @Nullable
         public UserDto getUser() {
@@ -420,21 +492,21 @@ public class ProfileRepository {
 
         @SerializedName("id")
         @Expose
-        private int id;
+        int id;
 
         @Nullable
         @SerializedName("phone")
         @Expose
-        private String phone;
+        String phone;
 
         @Nullable
         @SerializedName("email")
         @Expose
-        private String email;
+        String email;
 
         @SerializedName("is_active")
         @Expose
-        private boolean is_active;
+        boolean is_active;
 
         public int getId() {
             return id;
@@ -460,67 +532,67 @@ public class ProfileRepository {
         @Nullable
         @SerializedName("display_name")
         @Expose
-        private String display_name;
+        String display_name;
 
         @Nullable
         @SerializedName("age")
         @Expose
-        private Integer age;
+        Integer age;
 
         @Nullable
         @SerializedName("about")
         @Expose
-        private String about;
+        String about;
 
         @Nullable
         @SerializedName("location_formatted")
         @Expose
-        private String location_formatted;
+        String location_formatted;
 
         @Nullable
         @SerializedName("location_city")
         @Expose
-        private String location_city;
+        String location_city;
 
         @Nullable
         @SerializedName("location_state")
         @Expose
-        private String location_state;
+        String location_state;
 
         @Nullable
         @SerializedName("location_country")
         @Expose
-        private String location_country;
+        String location_country;
 
         @Nullable
         @SerializedName("location_postcode")
         @Expose
-        private String location_postcode;
+        String location_postcode;
 
         @Nullable
         @SerializedName("location_lat")
         @Expose
-        private Double location_lat;
+        Double location_lat;
 
         @Nullable
         @SerializedName("location_lon")
         @Expose
-        private Double location_lon;
+        Double location_lon;
 
         @Nullable
         @SerializedName("location_result_type")
         @Expose
-        private String location_result_type;
+        String location_result_type;
 
         @Nullable
         @SerializedName("location_confidence")
         @Expose
-        private Double location_confidence;
+        Double location_confidence;
 
         @Nullable
         @SerializedName("avatar_url")
         @Expose
-        private String avatar_url;
+        String avatar_url;
 
         @Nullable
         public String getDisplayName() {
@@ -593,30 +665,30 @@ public class ProfileRepository {
         @Nullable
         @SerializedName("profile_visibility")
         @Expose
-        private String profile_visibility;
+        String profile_visibility;
 
         @Nullable
         @SerializedName("photos_visibility")
         @Expose
-        private String photos_visibility;
+        String photos_visibility;
 
         @Nullable
         @SerializedName("online_status_visibility")
         @Expose
-        private String online_status_visibility;
+        String online_status_visibility;
 
         @Nullable
         @SerializedName("last_seen_precision")
         @Expose
-        private String last_seen_precision;
+        String last_seen_precision;
 
         @SerializedName("show_age")
         @Expose
-        private boolean show_age;
+        boolean show_age;
 
         @SerializedName("show_distance")
         @Expose
-        private boolean show_distance;
+        boolean show_distance;
 
         @Nullable
         public String getProfileVisibility() {
@@ -652,32 +724,32 @@ public class ProfileRepository {
         @Nullable
         @SerializedName("language_code")
         @Expose
-        private String language_code;
+        String language_code;
 
         @Nullable
         @SerializedName("timezone")
         @Expose
-        private String timezone;
+        String timezone;
 
         @SerializedName("biometric_login_enabled")
         @Expose
-        private boolean biometric_login_enabled;
+        boolean biometric_login_enabled;
 
         @SerializedName("push_enabled")
         @Expose
-        private boolean push_enabled;
+        boolean push_enabled;
 
         @SerializedName("push_new_messages")
         @Expose
-        private boolean push_new_messages;
+        boolean push_new_messages;
 
         @SerializedName("push_events")
         @Expose
-        private boolean push_events;
+        boolean push_events;
 
         @SerializedName("push_news")
         @Expose
-        private boolean push_news;
+        boolean push_news;
 
         @Nullable
         public String getLanguageCode() {
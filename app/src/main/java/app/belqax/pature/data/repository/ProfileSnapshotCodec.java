@@ -0,0 +1,214 @@
+package app.belqax.pature.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Компактная бинарная форма MeResponse для ProfileStorage: поля подряд в фиксированном порядке,
+ * без имён. Рамку файла (сигнатура, версия, контрольная сумма) пишет ProfileStorage.
+ *
+ * Порядок полей – часть формата: любое изменение здесь требует нового FORMAT_VERSION в ProfileStorage.
+ * Лежит рядом с DTO, потому что читает и пишет их пакетные поля напрямую.
+ */
+public final class ProfileSnapshotCodec {
+
+    private static final int HAS_USER = 1;
+    private static final int HAS_PROFILE = 1 << 1;
+    private static final int HAS_PRIVACY = 1 << 2;
+    private static final int HAS_SETTINGS = 1 << 3;
+
+    private ProfileSnapshotCodec() {
+    }
+
+    @NonNull
+    public static byte[] encode(@NonNull ProfileRepository.MeResponse me) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        int sections = 0;
+        if (me.user != null) {
+            sections |= HAS_USER;
+        }
+        if (me.profile != null) {
+            sections |= HAS_PROFILE;
+        }
+        if (me.privacy != null) {
+            sections |= HAS_PRIVACY;
+        }
+        if (me.settings != null) {
+            sections |= HAS_SETTINGS;
+        }
+        out.writeByte(sections);
+
+        ProfileRepository.UserDto u = me.user;
+        if (u != null) {
+            out.writeInt(u.id);
+            writeString(out, u.phone);
+            writeString(out, u.email);
+            out.writeBoolean(u.is_active);
+        }
+
+        ProfileRepository.ProfileDto p = me.profile;
+        if (p != null) {
+            writeString(out, p.display_name);
+            writeInteger(out, p.age);
+            writeString(out, p.about);
+            writeString(out, p.location_formatted);
+            writeString(out, p.location_city);
+            writeString(out, p.location_state);
+            writeString(out, p.location_country);
+            writeString(out, p.location_postcode);
+            writeDouble(out, p.location_lat);
+            writeDouble(out, p.location_lon);
+            writeString(out, p.location_result_type);
+            writeDouble(out, p.location_confidence);
+            writeString(out, p.avatar_url);
+        }
+
+        ProfileRepository.PrivacyDto pr = me.privacy;
+        if (pr != null) {
+            writeString(out, pr.profile_visibility);
+            writeString(out, pr.photos_visibility);
+            writeString(out, pr.online_status_visibility);
+            writeString(out, pr.last_seen_precision);
+            out.writeBoolean(pr.show_age);
+            out.writeBoolean(pr.show_distance);
+        }
+
+        ProfileRepository.SettingsDto s = me.settings;
+        if (s != null) {
+            writeString(out, s.language_code);
+            writeString(out, s.timezone);
+            out.writeBoolean(s.biometric_login_enabled);
+            out.writeBoolean(s.push_enabled);
+            out.writeBoolean(s.push_new_messages);
+            out.writeBoolean(s.push_events);
+            out.writeBoolean(s.push_news);
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Обратное к encode. Обрезанные или лишние байты – IOException.
+     */
+    @NonNull
+    public static ProfileRepository.MeResponse decode(@NonNull byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        ProfileRepository.MeResponse me = new ProfileRepository.MeResponse();
+
+        int sections = in.readUnsignedByte();
+
+        if ((sections & HAS_USER) != 0) {
+            ProfileRepository.UserDto u = new ProfileRepository.UserDto();
+            u.id = in.readInt();
+            u.phone = readString(in);
+            u.email = readString(in);
+            u.is_active = in.readBoolean();
+            me.user = u;
+        }
+
+        if ((sections & HAS_PROFILE) != 0) {
+            ProfileRepository.ProfileDto p = new ProfileRepository.ProfileDto();
+            p.display_name = readString(in);
+            p.age = readInteger(in);
+            p.about = readString(in);
+            p.location_formatted = readString(in);
+            p.location_city = readString(in);
+            p.location_state = readString(in);
+            p.location_country = readString(in);
+            p.location_postcode = readString(in);
+            p.location_lat = readDouble(in);
+            p.location_lon = readDouble(in);
+            p.location_result_type = readString(in);
+            p.location_confidence = readDouble(in);
+            p.avatar_url = readString(in);
+            me.profile = p;
+        }
+
+        if ((sections & HAS_PRIVACY) != 0) {
+            ProfileRepository.PrivacyDto pr = new ProfileRepository.PrivacyDto();
+            pr.profile_visibility = readString(in);
+            pr.photos_visibility = readString(in);
+            pr.online_status_visibility = readString(in);
+            pr.last_seen_precision = readString(in);
+            pr.show_age = in.readBoolean();
+            pr.show_distance = in.readBoolean();
+            me.privacy = pr;
+        }
+
+        if ((sections & HAS_SETTINGS) != 0) {
+            ProfileRepository.SettingsDto s = new ProfileRepository.SettingsDto();
+            s.language_code = readString(in);
+            s.timezone = readString(in);
+            s.biometric_login_enabled = in.readBoolean();
+            s.push_enabled = in.readBoolean();
+            s.push_new_messages = in.readBoolean();
+            s.push_events = in.readBoolean();
+            s.push_news = in.readBoolean();
+            me.settings = s;
+        }
+
+        if (in.available() != 0) {
+            throw new IOException("trailing bytes: " + in.available());
+        }
+        return me;
+    }
+
+    // Строка: длина в байтах UTF-8 (-1 – null) и сами байты. writeUTF не подходит: предел 64 КБ.
+    private static void writeString(@NonNull DataOutputStream out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] b = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    @Nullable
+    private static String readString(@NonNull DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len == -1) {
+            return null;
+        }
+        if (len < 0 || len > in.available()) {
+            throw new IOException("bad string length " + len);
+        }
+        byte[] b = new byte[len];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInteger(@NonNull DataOutputStream out, @Nullable Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    @Nullable
+    private static Integer readInteger(@NonNull DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeDouble(@NonNull DataOutputStream out, @Nullable Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    @Nullable
+    private static Double readDouble(@NonNull DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+}
@@ -0,0 +1,71 @@
+package app.belqax.pature.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Ошибка вызова репозитория, которой завершается RepoFuture.
+ * Общий вид для RepoResult, ProfileError и AddressError.
+ */
+public final class RepoException extends Exception {
+
+    // 0 – ответа от сервера не было (ошибка сети).
+    private final int httpCode;
+    private final boolean unauthorized;
+    @Nullable
+    private final String rawBody;
+    private final int retries;
+
+    RepoException(@NonNull String message,
+                  int httpCode,
+                  boolean unauthorized,
+                  @Nullable String rawBody,
+                  int retries,
+                  @Nullable Throwable cause) {
+        super(message, cause);
+        this.httpCode = httpCode;
+        this.unauthorized = unauthorized;
+        this.rawBody = rawBody;
+        this.retries = retries;
+    }
+
+    @NonNull
+    static RepoException from(@NonNull AnimalRepository.RepoResult<?> result) {
+        int code = result.httpCode != null ? result.httpCode : 0;
+        String message = result.errorMessage != null ? result.errorMessage : "Ошибка запроса";
+        return new RepoException(message, code, code == 401 || code == 403, result.errorBody, result.retries, null);
+    }
+
+    @NonNull
+    static RepoException from(@NonNull ProfileRepository.ProfileError error) {
+        return new RepoException(error.getMessage(), error.isNetworkError() ? 0 : error.getHttpCode(),
+                error.isUnauthorized(), error.getRawBody(), error.getRetries(), error.getCause());
+    }
+
+    @NonNull
+    static RepoException from(@NonNull AddressRepository.AddressError error) {
+        return new RepoException(error.getMessage(), error.isNetworkError() ? 0 : error.getHttpCode(),
+                error.isUnauthorized(), error.getRawBody(), error.getRetries(), error.getCause());
+    }
+
+    public int getHttpCode() {
+        return httpCode;
+    }
+
+    public boolean isNetworkError() {
+        return httpCode == 0;
+    }
+
+    public boolean isUnauthorized() {
+        return unauthorized;
+    }
+
+    @Nullable
+    public String getRawBody() {
+        return rawBody;
+    }
+
+    public int getRetries() {
+        return retries;
+    }
+}
@@ -0,0 +1,64 @@
+package app.belqax.pature.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+
+import app.belqax.pature.data.network.RequestHandle;
+
+/**
+ * CompletableFuture вызова репозитория, который заодно служит его RequestHandle:
+ * cancel() отменяет сетевой запрос, поэтому future можно класть в RequestScope.
+ *
+ * Завершается на главном потоке (там же, где приходят callback'и репозиториев), поэтому
+ * не-async стадии (thenApply, thenAccept, whenComplete) тоже выполняются на главном потоке.
+ * Производные future от thenApply и т.п. – обычные CompletableFuture, их отмена запрос не трогает.
+ */
+public final class RepoFuture<T> extends CompletableFuture<T> implements RequestHandle {
+
+    @Nullable
+    private volatile RequestHandle request;
+
+    RepoFuture() {
+    }
+
+    /**
+     * Привязывает запрос. Если future уже отменили, запрос отменяется сразу.
+     */
+    void attach(@NonNull RequestHandle request) {
+        this.request = request;
+        if (isCancelled()) {
+            request.cancel();
+        }
+    }
+
+    /**
+     * Отменяет запрос, не трогая состояние future (нужно, когда future уже завершили таймаутом).
+     */
+    void cancelRequest() {
+        RequestHandle r = request;
+        if (r != null) {
+            r.cancel();
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            cancelRequest();
+        }
+        return cancelled;
+    }
+
+    @Override
+    public void cancel() {
+        cancel(false);
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return isCancelled();
+    }
+}
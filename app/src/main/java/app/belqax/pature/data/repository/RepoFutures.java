@@ -0,0 +1,299 @@
+package app.belqax.pature.data.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import app.belqax.pature.data.network.RequestHandle;
+
+/**
+ * Future-версия callback API репозиториев и комбинаторы над ней.
+ *
+ * Адаптеры animal/profile/suggestions превращают любой метод с callback'ом в RepoFuture:
+ * успех – значение, ошибка – RepoException. Все future завершаются на главном потоке.
+ *
+ * Комбинаторы возвращают RepoFuture: его отмена (и таймаут) отменяет входные запросы.
+ */
+public final class RepoFutures {
+
+    /**
+     * Отложенные задачи комбинаторов; в JVM-тестах подменяется ручным таймером.
+     */
+    interface Timer {
+        void schedule(@NonNull Runnable task, long delayMs);
+
+        void cancel(@NonNull Runnable task);
+    }
+
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private static final Timer MAIN_TIMER = new Timer() {
+        @Override
+        public void schedule(@NonNull Runnable task, long delayMs) {
+            MAIN.postDelayed(task, delayMs);
+        }
+
+        @Override
+        public void cancel(@NonNull Runnable task) {
+            MAIN.removeCallbacks(task);
+        }
+    };
+
+    private RepoFutures() {
+    }
+
+    // region Adapters
+
+    /**
+     * Например: RepoFutures.animal(cb -> repo.getPublic(..., cb)).
+     */
+    @NonNull
+    public static <T> RepoFuture<T> animal(
+            @NonNull Function<AnimalRepository.RepoCallback<T>, RequestHandle> call) {
+        RepoFuture<T> future = new RepoFuture<>();
+        future.attach(call.apply(result -> {
+            if (result.isSuccess) {
+                future.complete(result.data);
+            } else {
+                future.completeExceptionally(RepoException.from(result));
+            }
+        }));
+        return future;
+    }
+
+    @NonNull
+    public static RepoFuture<ProfileRepository.MeResponse> profile(
+            @NonNull Function<ProfileRepository.ProfileCallback, RequestHandle> call) {
+        RepoFuture<ProfileRepository.MeResponse> future = new RepoFuture<>();
+        future.attach(call.apply(new ProfileRepository.ProfileCallback() {
+            @Override
+            public void onSuccess(@NonNull ProfileRepository.MeResponse meResponse) {
+                future.complete(meResponse);
+            }
+
+            @Override
+            public void onError(@NonNull ProfileRepository.ProfileError error) {
+                future.completeExceptionally(RepoException.from(error));
+            }
+        }));
+        return future;
+    }
+
+    @NonNull
+    public static RepoFuture<List<AddressRepository.SuggestionDto>> suggestions(
+            @NonNull Function<AddressRepository.SuggestionsCallback, RequestHandle> call) {
+        RepoFuture<List<AddressRepository.SuggestionDto>> future = new RepoFuture<>();
+        future.attach(call.apply(new AddressRepository.SuggestionsCallback() {
+            @Override
+            public void onSuccess(@NonNull List<AddressRepository.SuggestionDto> suggestions) {
+                future.complete(suggestions);
+            }
+
+            @Override
+            public void onError(@NonNull AddressRepository.AddressError error) {
+                future.completeExceptionally(RepoException.from(error));
+            }
+        }));
+        return future;
+    }
+
+    // endregion
+
+    // region Combinators
+
+    /**
+     * Значения всех future в исходном порядке. Первая ошибка завершает результат сразу,
+     * остальные запросы отменяются.
+     */
+    @NonNull
+    public static <T> RepoFuture<List<T>> all(@NonNull List<? extends CompletableFuture<? extends T>> futures) {
+        RepoFuture<List<T>> out = new RepoFuture<>();
+        out.attach(new Group(futures));
+        if (futures.isEmpty()) {
+            out.complete(Collections.emptyList());
+            return out;
+        }
+
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+        for (CompletableFuture<? extends T> f : futures) {
+            f.whenComplete((value, error) -> {
+                if (error != null) {
+                    if (out.completeExceptionally(unwrap(error))) {
+                        out.cancelRequest();
+                    }
+                    return;
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    List<T> values = new ArrayList<>(futures.size());
+                    for (CompletableFuture<? extends T> each : futures) {
+                        values.add(each.join());
+                    }
+                    out.complete(values);
+                }
+            });
+        }
+        return out;
+    }
+
+    /**
+     * all() для разнотипных future: значения берутся из самих входных future после завершения.
+     */
+    @NonNull
+    public static RepoFuture<Void> all(@NonNull CompletableFuture<?>... futures) {
+        RepoFuture<List<Object>> values = all(Arrays.asList(futures));
+        RepoFuture<Void> out = new RepoFuture<>();
+        out.attach(values);
+        values.whenComplete((v, error) -> {
+            if (error != null) {
+                out.completeExceptionally(unwrap(error));
+            } else {
+                out.complete(null);
+            }
+        });
+        return out;
+    }
+
+    /**
+     * Ждёт завершения всех future, успешного или нет, и ничего не отменяет.
+     * Нужен, когда часть данных необязательна: экран рисуется один раз по тому, что пришло.
+     */
+    @NonNull
+    public static RepoFuture<Void> settled(@NonNull CompletableFuture<?>... futures) {
+        List<CompletableFuture<?>> list = Arrays.asList(futures);
+        RepoFuture<Void> out = new RepoFuture<>();
+        out.attach(new Group(list));
+        if (list.isEmpty()) {
+            out.complete(null);
+            return out;
+        }
+
+        AtomicInteger remaining = new AtomicInteger(list.size());
+        for (CompletableFuture<?> f : list) {
+            f.whenComplete((value, error) -> {
+                if (remaining.decrementAndGet() == 0) {
+                    out.complete(null);
+                }
+            });
+        }
+        return out;
+    }
+
+    /**
+     * Первое успешное значение; остальные запросы после него отменяются.
+     * Если успеха нет, результат – последняя ошибка, прежние добавлены в suppressed.
+     */
+    @NonNull
+    public static <T> RepoFuture<T> firstSuccess(@NonNull List<? extends CompletableFuture<? extends T>> futures) {
+        RepoFuture<T> out = new RepoFuture<>();
+        out.attach(new Group(futures));
+        if (futures.isEmpty()) {
+            out.completeExceptionally(new NoSuchElementException("No futures"));
+            return out;
+        }
+
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        for (CompletableFuture<? extends T> f : futures) {
+            f.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (out.complete(value)) {
+                        out.cancelRequest();
+                    }
+                    return;
+                }
+                errors.add(unwrap(error));
+                if (remaining.decrementAndGet() == 0) {
+                    Throwable last;
+                    synchronized (errors) {
+                        last = errors.get(errors.size() - 1);
+                        for (Throwable t : errors) {
+                            if (t != last) {
+                                last.addSuppressed(t);
+                            }
+                        }
+                    }
+                    out.completeExceptionally(last);
+                }
+            });
+        }
+        return out;
+    }
+
+    /**
+     * Завершает future с TimeoutException, если за timeoutMs результата нет, и отменяет его запрос.
+     * Возвращает тот же future.
+     */
+    @NonNull
+    public static <T> RepoFuture<T> withTimeout(@NonNull RepoFuture<T> future, long timeoutMs) {
+        return withTimeout(future, timeoutMs, MAIN_TIMER);
+    }
+
+    @NonNull
+    static <T> RepoFuture<T> withTimeout(@NonNull RepoFuture<T> future, long timeoutMs, @NonNull Timer timer) {
+        Runnable expire = () -> {
+            if (future.completeExceptionally(new TimeoutException("No result in " + timeoutMs + " ms"))) {
+                future.cancelRequest();
+            }
+        };
+        timer.schedule(expire, timeoutMs);
+        future.whenComplete((value, error) -> timer.cancel(expire));
+        return future;
+    }
+
+    // endregion
+
+    @NonNull
+    private static Throwable unwrap(@NonNull Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * Ручка набора future для комбинатора: отмена отменяет все незавершённые.
+     */
+    private static final class Group implements RequestHandle {
+        private final List<? extends CompletableFuture<?>> futures;
+        private volatile boolean canceled = false;
+
+        Group(@NonNull List<? extends CompletableFuture<?>> futures) {
+            this.futures = futures;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            for (CompletableFuture<?> f : futures) {
+                f.cancel(false);
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public boolean isDone() {
+            for (CompletableFuture<?> f : futures) {
+                if (!f.isDone()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
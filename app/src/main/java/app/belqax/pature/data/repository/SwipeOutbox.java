@@ -0,0 +1,352 @@
+package app.belqax.pature.data.repository;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import app.belqax.pature.data.storage.AuthStorage;
+import app.belqax.pature.data.storage.SwipeJournal;
+
+/**
+ * Очередь реакций (лайк/дизлайк) с гарантией доставки.
+ *
+ * Свайп сразу пишется в журнал на диске (SwipeJournal), затем фоновый поток отправляет
+ * накопленные реакции строго по порядку. Реакции, набежавшие за окно склейки
+ * (AnimalRepository.getLikeBatchWindowMs), уходят одним batch-запросом.
+ * Каждая реакция несёт свой Idempotency-Key, поэтому повтор после обрыва связи
+ * сервер не засчитывает дважды.
+ * При сетевой ошибке отправка откладывается с экспоненциальным backoff,
+ * при появлении сети очередь сбрасывается сразу.
+ *
+ * 401 (refresh не удался или не дождались его) тоже не теряет реакцию: она ждёт нового токена
+ * и уходит сразу после него. Очередь принадлежит сессии: clearAll() в AuthStorage (logout, отказ
+ * refresh) стирает её вместе с журналом, чтобы реакции одного пользователя не ушли с токеном другого.
+ *
+ * Результаты (в том числе matchCreated) отдаются слушателю на главном потоке.
+ * Если слушателя нет (экран закрыт), матчи копятся и отдаются при следующей подписке.
+ */
+public final class SwipeOutbox {
+
+    private static final String TAG = "SwipeOutbox";
+
+    private static final long INITIAL_BACKOFF_MS = 2_000L;
+    private static final long MAX_BACKOFF_MS = 5 * 60_000L;
+    private static final int MAX_UNDELIVERED_MATCHES = 20;
+
+    public interface Listener {
+        void onReactionSent(long animalId, boolean isLike, @NonNull AnimalRepository.AnimalLikeResultDto result);
+    }
+
+    private static volatile SwipeOutbox instance;
+
+    private final SwipeJournal journal;
+    private final Supplier<AnimalRepository> repoFactory;
+    private final AuthStorage authStorage;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "swipe-outbox");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Доступ только из потока executor.
+    private final ArrayDeque<SwipeJournal.Entry> pending = new ArrayDeque<>();
+    // Создаётся при первой отправке: конструктор AnimalRepository ждёт сборки ApiClient.
+    @Nullable
+    private AnimalRepository repo;
+    private long backoffMs = INITIAL_BACKOFF_MS;
+    @Nullable
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean inBackoff = false;
+
+    // Доступ только с главного потока.
+    @Nullable
+    private Listener listener;
+    private final List<SwipeJournal.Entry> undeliveredMatchEntries = new ArrayList<>();
+    private final List<AnimalRepository.AnimalLikeResultDto> undeliveredMatches = new ArrayList<>();
+
+    private SwipeOutbox(@NonNull Context context,
+                        @NonNull Supplier<AnimalRepository> repoFactory,
+                        @NonNull AuthStorage authStorage) {
+        this.journal = new SwipeJournal(context);
+        this.repoFactory = Objects.requireNonNull(repoFactory, "repoFactory");
+        this.authStorage = Objects.requireNonNull(authStorage, "authStorage");
+
+        executor.execute(() -> {
+            pending.addAll(journal.load());
+            if (!pending.isEmpty()) {
+                Log.i(TAG, "restored " + pending.size() + " pending reactions from journal");
+            }
+            flushLocked();
+        });
+
+        registerConnectivityCallback(context);
+        authStorage.addTokensListener(this::onTokensChanged);
+        authStorage.addSessionListener(this::onSessionCleared);
+    }
+
+    /**
+     * Вызывается в Application.onCreate() после AuthStorage.init() и запуска ApiClient.initAsync().
+     * Дёшево и не ждёт сеть: журнал читается, а ApiClient дожидается уже на фоновом потоке.
+     */
+    public static synchronized void init(@NonNull Context context) {
+        if (instance == null) {
+            instance = new SwipeOutbox(context.getApplicationContext(), AnimalRepository::new, AuthStorage.getInstance());
+        }
+    }
+
+    @NonNull
+    public static SwipeOutbox getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("SwipeOutbox.init() must be called in Application.onCreate()");
+        }
+        return instance;
+    }
+
+    /**
+     * Ставит реакцию в очередь. Возвращается сразу, запись в журнал и отправка идут в фоне.
+     */
+    public void enqueue(long animalId, boolean isLike) {
+        SwipeJournal.Entry entry = new SwipeJournal.Entry(
+                UUID.randomUUID().toString(),
+                animalId,
+                isLike,
+                System.currentTimeMillis()
+        );
+
+        executor.execute(() -> {
+            try {
+                journal.append(entry);
+            } catch (IOException e) {
+                // Реакция всё равно уйдёт в этой сессии, просто не переживёт смерть процесса.
+                Log.e(TAG, "enqueue: journal append failed: " + e);
+            }
+            pending.addLast(entry);
+
+            // Если уже ждём backoff, не дёргаем сеть: очередь уйдёт целиком по таймеру.
+            if (inBackoff) {
+                return;
+            }
+            if (pending.size() >= AnimalRepository.getLikeBatchMaxItems()) {
+                cancelScheduledFlush();
+                flushLocked();
+                return;
+            }
+            // Открывает окно склейки: свайпы, пришедшие за это время, уйдут одной пачкой.
+            if (scheduledFlush == null) {
+                scheduledFlush = executor.schedule(
+                        this::flushLocked,
+                        AnimalRepository.getLikeBatchWindowMs(),
+                        TimeUnit.MILLISECONDS
+                );
+            }
+        });
+    }
+
+    /**
+     * Принудительно отправляет очередь, сбрасывая backoff (например, при появлении сети).
+     */
+    public void flushNow() {
+        executor.execute(() -> {
+            cancelScheduledFlush();
+            backoffMs = INITIAL_BACKOFF_MS;
+            flushLocked();
+        });
+    }
+
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+        if (listener == null || undeliveredMatches.isEmpty()) {
+            return;
+        }
+
+        List<SwipeJournal.Entry> entries = new ArrayList<>(undeliveredMatchEntries);
+        List<AnimalRepository.AnimalLikeResultDto> results = new ArrayList<>(undeliveredMatches);
+        undeliveredMatchEntries.clear();
+        undeliveredMatches.clear();
+
+        for (int i = 0; i < results.size(); i++) {
+            SwipeJournal.Entry e = entries.get(i);
+            listener.onReactionSent(e.animalId, e.isLike, results.get(i));
+        }
+    }
+
+    // ======================================================================
+    // Internal (только поток executor)
+    // ======================================================================
+
+    private void flushLocked() {
+        scheduledFlush = null;
+        inBackoff = false;
+
+        while (!pending.isEmpty()) {
+            int max = AnimalRepository.getLikeBatchMaxItems();
+            List<SwipeJournal.Entry> chunk = new ArrayList<>(Math.min(max, pending.size()));
+            for (SwipeJournal.Entry e : pending) {
+                if (chunk.size() >= max) {
+                    break;
+                }
+                chunk.add(e);
+            }
+
+            List<AnimalRepository.LikeItem> items = new ArrayList<>(chunk.size());
+            for (SwipeJournal.Entry e : chunk) {
+                items.add(new AnimalRepository.LikeItem(e.animalId, e.isLike, e.key));
+            }
+
+            List<AnimalRepository.RepoResult<AnimalRepository.AnimalLikeResultDto>> results =
+                    repo().likeAnimalsBlocking(items);
+
+            for (int i = 0; i < chunk.size(); i++) {
+                SwipeJournal.Entry head = chunk.get(i);
+                AnimalRepository.RepoResult<AnimalRepository.AnimalLikeResultDto> result = i < results.size()
+                        ? results.get(i)
+                        : AnimalRepository.RepoResult.networkError("likeAnimal: no result");
+
+                if (result.isSuccess) {
+                    completeHead(head);
+                    if (result.data != null) {
+                        deliver(head, result.data);
+                    }
+                    continue;
+                }
+
+                if (isRetryable(result)) {
+                    // Порядок важнее: всё, начиная с этой реакции, ждёт следующей попытки.
+                    Log.w(TAG, "flush: retry in " + backoffMs + "ms, pending=" + pending.size()
+                            + " http=" + result.httpCode + " msg=" + result.errorMessage);
+                    inBackoff = true;
+                    scheduledFlush = executor.schedule(this::flushLocked, backoffMs, TimeUnit.MILLISECONDS);
+                    backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+                    return;
+                }
+
+                // Постоянная ошибка (например, 404 на удалённое животное): повтор не поможет, выкидываем.
+                Log.e(TAG, "flush: dropping reaction animalId=" + head.animalId
+                        + " http=" + result.httpCode + " body=" + result.errorBody);
+                completeHead(head);
+            }
+        }
+
+        backoffMs = INITIAL_BACKOFF_MS;
+    }
+
+    @NonNull
+    private AnimalRepository repo() {
+        if (repo == null) {
+            repo = repoFactory.get();
+        }
+        return repo;
+    }
+
+    private void completeHead(@NonNull SwipeJournal.Entry head) {
+        pending.pollFirst();
+        try {
+            journal.ack(head.key, pending);
+        } catch (IOException e) {
+            // Без ack запись уйдёт повторно после рестарта, сервер отбросит её по Idempotency-Key.
+            Log.w(TAG, "ack failed: " + e);
+        }
+    }
+
+    private void cancelScheduledFlush() {
+        ScheduledFuture<?> f = scheduledFlush;
+        if (f != null) {
+            f.cancel(false);
+            scheduledFlush = null;
+        }
+        inBackoff = false;
+    }
+
+    private static boolean isRetryable(@NonNull AnimalRepository.RepoResult<?> result) {
+        Integer code = result.httpCode;
+        if (code == null) {
+            return true; // сетевая ошибка
+        }
+        // 401: сессия ещё жива (иначе очередь стёрта), реакция ждёт нового токена.
+        return code == 401 || code == 408 || code == 429 || code >= 500;
+    }
+
+    /**
+     * Новый токен после refresh или логина: то, что ждало из-за 401, уходит сразу, без backoff.
+     */
+    private void onTokensChanged() {
+        if (authStorage.getAuthorizationHeader() != null) {
+            flushNow();
+        }
+    }
+
+    /**
+     * Сессия стёрта: неотправленные реакции прежнего пользователя выкидываются вместе с журналом.
+     */
+    private void onSessionCleared() {
+        executor.execute(() -> {
+            cancelScheduledFlush();
+            backoffMs = INITIAL_BACKOFF_MS;
+            int dropped = pending.size();
+            pending.clear();
+            try {
+                journal.clear();
+            } catch (IOException e) {
+                Log.e(TAG, "session cleared: journal clear failed: " + e);
+            }
+            if (dropped > 0) {
+                Log.i(TAG, "session cleared, dropped " + dropped + " pending reactions");
+            }
+        });
+        mainHandler.post(() -> {
+            undeliveredMatchEntries.clear();
+            undeliveredMatches.clear();
+        });
+    }
+
+    private void deliver(@NonNull SwipeJournal.Entry entry, @NonNull AnimalRepository.AnimalLikeResultDto dto) {
+        mainHandler.post(() -> {
+            Listener l = listener;
+            if (l != null) {
+                l.onReactionSent(entry.animalId, entry.isLike, dto);
+                return;
+            }
+            if (dto.matchCreated && undeliveredMatches.size() < MAX_UNDELIVERED_MATCHES) {
+                undeliveredMatchEntries.add(entry);
+                undeliveredMatches.add(dto);
+            }
+        });
+    }
+
+    private void registerConnectivityCallback(@NonNull Context context) {
+        ConnectivityManager cm = context.getSystemService(ConnectivityManager.class);
+        if (cm == null) {
+            return;
+        }
+        try {
+            cm.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(@NonNull Network network) {
+                    flushNow();
+                }
+            });
+        } catch (RuntimeException e) {
+            Log.w(TAG, "registerDefaultNetworkCallback failed: " + e);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package app.belqax.pature.data.storage;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import app.belqax.pature.data.network.GsonProvider;
+import app.belqax.pature.data.repository.AnimalRepository;
+
+/**
+ * Локальная копия ленты и списка "мои животные" в SQLite: показывается сразу после запуска,
+ * пока сервер ещё не ответил.
+ *
+ * Схема нормализована: animals – по строке на животное (JSON ответа сервера + updated_at),
+ * feed и my_animals – только порядок id. Животное, на которое не ссылается ни один список,
+ * удаляется. Более старая версия (по updated_at) не затирает более новую.
+ *
+ * Лента ограничена MAX_FEED_ROWS строками, при переполнении вытесняются самые старые.
+ * Методы блокирующие: вызывать не с главного потока.
+ */
+public final class AnimalDatabase extends SQLiteOpenHelper {
+
+    private static final String TAG = "AnimalDatabase";
+
+    private static final String DB_NAME = "animals.db";
+    // 1 – animals + feed + my_animals.
+    private static final int DB_VERSION = 1;
+
+    private static final int MAX_FEED_ROWS = 200;
+
+    private static final String T_ANIMALS = "animals";
+    private static final String T_FEED = "feed";
+    private static final String T_MY = "my_animals";
+
+    private final Gson gson = GsonProvider.get();
+
+    public AnimalDatabase(@NonNull Context context) {
+        super(context.getApplicationContext(), DB_NAME, null, DB_VERSION);
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    // region Schema
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + T_ANIMALS + " ("
+                + "id INTEGER PRIMARY KEY, "
+                + "json TEXT NOT NULL, "
+                + "updated_at TEXT, "
+                + "stored_at INTEGER NOT NULL)");
+        // seq растёт с каждой новой карточкой: порядок колоды и очередь на вытеснение.
+        db.execSQL("CREATE TABLE " + T_FEED + " ("
+                + "seq INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "animal_id INTEGER NOT NULL UNIQUE)");
+        db.execSQL("CREATE TABLE " + T_MY + " ("
+                + "animal_id INTEGER PRIMARY KEY, "
+                + "position INTEGER NOT NULL)");
+    }
+
+    /**
+     * Миграции идут по одной версии за шаг. Если шага нет, таблицы пересоздаются:
+     * здесь только копия данных сервера, она перезагрузится.
+     */
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        for (int v = oldVersion; v < newVersion; v++) {
+            if (!migrate(db, v)) {
+                Log.w(TAG, "no migration from v" + v + ", recreating");
+                recreate(db);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onDowngrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        recreate(db);
+    }
+
+    /**
+     * Шаг fromVersion -> fromVersion + 1. Новые версии схемы добавляют сюда свой case.
+     */
+    private static boolean migrate(@NonNull SQLiteDatabase db, int fromVersion) {
+        switch (fromVersion) {
+            default:
+                return false;
+        }
+    }
+
+    private void recreate(@NonNull SQLiteDatabase db) {
+        db.execSQL("DROP TABLE IF EXISTS " + T_FEED);
+        db.execSQL("DROP TABLE IF EXISTS " + T_MY);
+        db.execSQL("DROP TABLE IF EXISTS " + T_ANIMALS);
+        onCreate(db);
+    }
+
+    // endregion
+
+    // region Reads
+
+    /**
+     * Сохранённая колода в исходном порядке, не больше limit карточек.
+     */
+    @NonNull
+    public List<AnimalRepository.AnimalDto> readFeed(int limit) {
+        return readList("SELECT a.json FROM " + T_FEED + " f JOIN " + T_ANIMALS + " a ON a.id = f.animal_id"
+                + " ORDER BY f.seq LIMIT " + Math.max(0, limit));
+    }
+
+    @NonNull
+    public List<AnimalRepository.AnimalDto> readMyAnimals() {
+        return readList("SELECT a.json FROM " + T_MY + " m JOIN " + T_ANIMALS + " a ON a.id = m.animal_id"
+                + " ORDER BY m.position");
+    }
+
+    @NonNull
+    private List<AnimalRepository.AnimalDto> readList(@NonNull String sql) {
+        List<AnimalRepository.AnimalDto> out = new ArrayList<>();
+        try (Cursor c = getReadableDatabase().rawQuery(sql, null)) {
+            while (c.moveToNext()) {
+                AnimalRepository.AnimalDto dto = decode(c.getString(0));
+                if (dto != null) {
+                    out.add(dto);
+                }
+            }
+        }
+        return out;
+    }
+
+    // endregion
+
+    // region Writes
+
+    /**
+     * Дописывает страницу ленты. Карточки, которые уже лежат в колоде, остаются на своём месте.
+     */
+    public void appendFeed(@NonNull List<AnimalRepository.AnimalDto> page) {
+        if (page.isEmpty()) {
+            return;
+        }
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try (SQLiteStatement upsert = compileUpsert(db);
+             SQLiteStatement insert = db.compileStatement(
+                     "INSERT OR IGNORE INTO " + T_FEED + " (animal_id) VALUES (?)")) {
+            long now = System.currentTimeMillis();
+            for (AnimalRepository.AnimalDto dto : page) {
+                if (dto == null) {
+                    continue;
+                }
+                upsert(upsert, dto, now);
+                insert.bindLong(1, dto.id);
+                insert.executeInsert();
+            }
+            db.execSQL("DELETE FROM " + T_FEED + " WHERE seq NOT IN ("
+                    + "SELECT seq FROM " + T_FEED + " ORDER BY seq DESC LIMIT " + MAX_FEED_ROWS + ")");
+            deleteOrphans(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Полный список "мои животные" с сервера: состав и порядок заменяются целиком.
+     */
+    public void replaceMyAnimals(@NonNull List<AnimalRepository.AnimalDto> animals) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try (SQLiteStatement upsert = compileUpsert(db)) {
+            long now = System.currentTimeMillis();
+            db.delete(T_MY, null, null);
+            int position = 0;
+            for (AnimalRepository.AnimalDto dto : animals) {
+                if (dto == null) {
+                    continue;
+                }
+                upsert(upsert, dto, now);
+                ContentValues cv = new ContentValues();
+                cv.put("animal_id", dto.id);
+                cv.put("position", position++);
+                db.insertWithOnConflict(T_MY, null, cv, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            deleteOrphans(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Новая версия животного, если оно уже сохранено в каком-то списке. Остальные не сохраняются.
+     */
+    public void updateIfPresent(@NonNull AnimalRepository.AnimalDto dto) {
+        try (SQLiteStatement update = getWritableDatabase().compileStatement("UPDATE " + T_ANIMALS
+                + " SET json = ?, updated_at = ?, stored_at = ?"
+                + " WHERE id = ? AND (updated_at IS NULL OR ?5 IS NULL OR updated_at <= ?5)")) {
+            update.bindString(1, gson.toJson(dto, AnimalRepository.AnimalDto.class));
+            bindNullable(update, 2, dto.updatedAt);
+            update.bindLong(3, System.currentTimeMillis());
+            update.bindLong(4, dto.id);
+            bindNullable(update, 5, dto.updatedAt);
+            update.executeUpdateDelete();
+        }
+    }
+
+    /**
+     * Карточка ушла из колоды (свайп): после перезапуска её показывать не нужно.
+     */
+    public void removeFromFeed(long animalId) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(T_FEED, "animal_id = ?", new String[]{String.valueOf(animalId)});
+            deleteOrphans(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public void delete(long animalId) {
+        SQLiteDatabase db = getWritableDatabase();
+        String[] args = {String.valueOf(animalId)};
+        db.beginTransaction();
+        try {
+            db.delete(T_FEED, "animal_id = ?", args);
+            db.delete(T_MY, "animal_id = ?", args);
+            db.delete(T_ANIMALS, "id = ?", args);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public void clear() {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(T_FEED, null, null);
+            db.delete(T_MY, null, null);
+            db.delete(T_ANIMALS, null, null);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // endregion
+
+    @NonNull
+    private static SQLiteStatement compileUpsert(@NonNull SQLiteDatabase db) {
+        return db.compileStatement("INSERT INTO " + T_ANIMALS
+                + " (id, json, updated_at, stored_at) VALUES (?, ?, ?, ?)"
+                + " ON CONFLICT(id) DO UPDATE SET json = excluded.json, updated_at = excluded.updated_at,"
+                + " stored_at = excluded.stored_at"
+                + " WHERE " + T_ANIMALS + ".updated_at IS NULL OR excluded.updated_at IS NULL"
+                + " OR excluded.updated_at >= " + T_ANIMALS + ".updated_at");
+    }
+
+    private void upsert(@NonNull SQLiteStatement upsert, @NonNull AnimalRepository.AnimalDto dto, long now) {
+        upsert.bindLong(1, dto.id);
+        upsert.bindString(2, gson.toJson(dto, AnimalRepository.AnimalDto.class));
+        bindNullable(upsert, 3, dto.updatedAt);
+        upsert.bindLong(4, now);
+        upsert.executeInsert();
+    }
+
+    private static void deleteOrphans(@NonNull SQLiteDatabase db) {
+        db.execSQL("DELETE FROM " + T_ANIMALS
+                + " WHERE id NOT IN (SELECT animal_id FROM " + T_FEED + ")"
+                + " AND id NOT IN (SELECT animal_id FROM " + T_MY + ")");
+    }
+
+    @Nullable
+    private AnimalRepository.AnimalDto decode(@Nullable String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return gson.fromJson(json, AnimalRepository.AnimalDto.class);
+        } catch (JsonParseException e) {
+            // Строка от старой версии DTO или повреждена: пропускаем, сервер пришлёт заново.
+            Log.w(TAG, "skip undecodable row: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void bindNullable(@NonNull SQLiteStatement st, int index, @Nullable String value) {
+        if (value == null) {
+            st.bindNull(index);
+        } else {
+            st.bindString(index, value);
+        }
+    }
+}
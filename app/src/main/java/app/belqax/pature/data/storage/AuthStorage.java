@@ -2,14 +2,39 @@ package app.belqax.pature.data.storage;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
 
+import app.belqax.pature.utils.JwtUtils;
+
+/**
+ * Хранилище сессии (токены, логин, device id). Один экземпляр на процесс.
+ *
+ * init() возвращается сразу: создание (шифрованных) prefs и чтение значений идут на фоновом потоке.
+ * Дальше все чтения обслуживаются из снимка в памяти. Чтение с фонового потока, пришедшее раньше
+ * конца загрузки, ждёт её (не дольше READY_TIMEOUT_MS). Главный поток не ждёт никогда: до конца
+ * загрузки он видит только то, что записано в этой сессии, поэтому экранам нужен whenReady().
+ *
+ * Запись загрузку не ждёт: сначала меняет снимок в памяти, затем commit() выполняется на том же
+ * фоновом потоке строго в порядке вызовов (после загрузки). Изменения, сделанные до конца загрузки,
+ * load() накладывает поверх прочитанного с диска, а не затирает им.
+ * flush() дожидается записи всего, что уже поставлено в очередь.
+ */
 public final class AuthStorage {
 
     private static final String TAG = "AuthStorage";
@@ -20,74 +45,410 @@ public final class AuthStorage {
     private static final String KEY_REFRESH_TOKEN = "refresh_token";
     private static final String KEY_LOGIN = "login";
     private static final String KEY_DEVICE_ID = "device_id";
+    private static final String KEY_ACCESS_EXPIRES_AT = "access_expires_at_ms";
+
+    // Предел ожидания загрузки для синхронных чтений и flush().
+    private static final long READY_TIMEOUT_MS = 5_000L;
+
+    /**
+     * Уведомление о смене/очистке токенов (например, чтобы перепланировать proactive refresh).
+     */
+    public interface TokensListener {
+        void onTokensChanged();
+    }
+
+    /**
+     * Сессия стёрта (logout или отказ refresh): данные прежнего пользователя больше не нужны.
+     * Вызывается на потоке, вызвавшем clearAll().
+     */
+    public interface SessionListener {
+        void onSessionCleared();
+    }
+
+    private static AuthStorage instance;
+
+    private final Context appContext;
+    private final CopyOnWriteArrayList<TokensListener> tokensListeners = new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<SessionListener> sessionListeners = new CopyOnWriteArrayList<>();
+    private final CountDownLatch ready = new CountDownLatch(1);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Единственный поток, который трогает prefs: загрузка и все записи идут по очереди.
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "auth-storage");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Доступ только из потока io.
+    @Nullable
+    private SharedPreferences prefs;
+
+    // Снимок в памяти: интерцепторы читают его на каждом запросе без обращения к (шифрованным) prefs.
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // Изменения снимка, сделанные до конца загрузки: load() применяет их к прочитанному с диска.
+    // null – загрузка закончилась. Под synchronized (this).
+    @Nullable
+    private List<UnaryOperator<Snapshot>> earlyWrites = new ArrayList<>();
+
+    private AuthStorage(@NonNull Context context) {
+        this.appContext = context.getApplicationContext();
+        io.execute(this::load);
+    }
+
+    /**
+     * Запускает асинхронную загрузку. Вызывается в Application.onCreate().
+     */
+    public static synchronized void init(@NonNull Context context) {
+        if (instance == null) {
+            instance = new AuthStorage(context);
+        }
+    }
+
+    @NonNull
+    public static synchronized AuthStorage getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("AuthStorage.init() must be called in Application.onCreate()");
+        }
+        return instance;
+    }
+
+    public boolean isReady() {
+        return ready.getCount() == 0;
+    }
 
-    private final SharedPreferences prefs;
+    /**
+     * Блокирует до окончания загрузки. Не вызывать с главного потока.
+     *
+     * @return true, если загрузка закончилась за timeoutMs
+     */
+    public boolean awaitReady(long timeoutMs) {
+        try {
+            return ready.await(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 
-    public AuthStorage(@NonNull Context context) {
-        this.prefs = createBestPrefs(context.getApplicationContext());
+    /**
+     * Выполняет action на главном потоке, как только снимок загружен (или сразу, если уже).
+     */
+    public void whenReady(@NonNull Runnable action) {
+        if (isReady()) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                action.run();
+            } else {
+                mainHandler.post(action);
+            }
+            return;
+        }
+        io.execute(() -> mainHandler.post(action));
     }
 
     @Nullable
     public String getAccessToken() {
-        return prefs.getString(KEY_ACCESS_TOKEN, null);
+        return readySnapshot().access;
+    }
+
+    /**
+     * Готовое значение заголовка Authorization ("Bearer ...") или null, если токена нет.
+     */
+    @Nullable
+    public String getAuthorizationHeader() {
+        return readySnapshot().authorizationHeader;
     }
 
     @Nullable
     public String getRefreshToken() {
-        return prefs.getString(KEY_REFRESH_TOKEN, null);
+        return readySnapshot().refresh;
     }
 
     @Nullable
     public String getLogin() {
-        return prefs.getString(KEY_LOGIN, null);
+        return readySnapshot().login;
     }
 
     public void saveLogin(@NonNull String login) {
-        boolean ok = prefs.edit().putString(KEY_LOGIN, login).commit();
-        if (!ok) {
-            Log.e(TAG, "saveLogin: commit failed");
+        update(s -> s.withLogin(login));
+        persist(editor -> editor.putString(KEY_LOGIN, login), "saveLogin");
+    }
+
+    /**
+     * Момент истечения access-токена (epoch ms) или 0, если неизвестен.
+     */
+    public long getAccessTokenExpiresAtMs() {
+        Snapshot s = readySnapshot();
+        if (s.expiresAtMs > 0L) {
+            return s.expiresAtMs;
         }
+        return JwtUtils.getExpiresAtMs(s.access);
+    }
+
+    /**
+     * Срок отсчитывается от момента получения по часам устройства. Без expires_in берётся exp - iat:
+     * сам exp – время сервера, и при спешащих часах устройства токен казался бы уже истёкшим.
+     * Голый exp – только если iat в токене нет.
+     */
+    private static long computeExpiresAtMs(@NonNull String accessToken, @Nullable Long expiresInSec) {
+        long receivedAtMs = System.currentTimeMillis();
+        if (expiresInSec != null && expiresInSec > 0L) {
+            return receivedAtMs + expiresInSec * 1000L;
+        }
+        long lifetimeMs = JwtUtils.getLifetimeMs(accessToken);
+        if (lifetimeMs > 0L) {
+            return receivedAtMs + lifetimeMs;
+        }
+        return JwtUtils.getExpiresAtMs(accessToken);
+    }
+
+    public void addTokensListener(@NonNull TokensListener listener) {
+        tokensListeners.addIfAbsent(listener);
+    }
+
+    public void removeTokensListener(@NonNull TokensListener listener) {
+        tokensListeners.remove(listener);
+    }
+
+    public void addSessionListener(@NonNull SessionListener listener) {
+        sessionListeners.addIfAbsent(listener);
+    }
+
+    public void removeSessionListener(@NonNull SessionListener listener) {
+        sessionListeners.remove(listener);
     }
 
     public void saveTokens(@NonNull String accessToken, @NonNull String refreshToken) {
-        boolean ok = prefs.edit()
+        saveTokens(accessToken, refreshToken, null);
+    }
+
+    /**
+     * @param expiresInSec expires_in из ответа сервера; если null, срок берётся из claims токена
+     */
+    public void saveTokens(@NonNull String accessToken, @NonNull String refreshToken, @Nullable Long expiresInSec) {
+        long expiresAtMs = computeExpiresAtMs(accessToken, expiresInSec);
+
+        update(s -> s.withTokens(accessToken, refreshToken, expiresAtMs));
+
+        persist(editor -> editor
                 .putString(KEY_ACCESS_TOKEN, accessToken)
                 .putString(KEY_REFRESH_TOKEN, refreshToken)
-                .commit();
+                .putLong(KEY_ACCESS_EXPIRES_AT, expiresAtMs), "saveTokens");
 
-        if (!ok) {
-            Log.e(TAG, "saveTokens: commit failed");
-            return;
+        io.execute(() -> {
+            SharedPreferences p = prefs;
+            if (p == null) {
+                return;
+            }
+            String a = p.getString(KEY_ACCESS_TOKEN, null);
+            String r = p.getString(KEY_REFRESH_TOKEN, null);
+            // Более поздний saveTokens мог уже перезаписать значения: сверяем с актуальным снимком.
+            Snapshot current = snapshot;
+            if (a == null || r == null || !a.equals(current.access) || !r.equals(current.refresh)) {
+                Log.e(TAG, "saveTokens: verification read-back mismatch, storage may be broken");
+            }
+        });
+
+        notifyTokensChanged();
+    }
+
+    public void clearAll() {
+        // Как и раньше, clearAll стирает и device id; новый создаётся сразу, чтобы он всегда был в снимке.
+        String deviceId = generateDeviceId();
+        update(s -> Snapshot.EMPTY.withDeviceId(deviceId));
+
+        persist(editor -> editor.clear().putString(KEY_DEVICE_ID, deviceId), "clearAll");
+
+        for (SessionListener l : sessionListeners) {
+            l.onSessionCleared();
         }
+        notifyTokensChanged();
+    }
 
-        String a = prefs.getString(KEY_ACCESS_TOKEN, null);
-        String r = prefs.getString(KEY_REFRESH_TOKEN, null);
-        if (a == null || r == null || !a.equals(accessToken) || !r.equals(refreshToken)) {
-            Log.e(TAG, "saveTokens: verification read-back mismatch, storage may be broken");
+    /**
+     * Блокирует до записи на диск всего, что уже поставлено в очередь. Не вызывать с главного потока.
+     */
+    public void flush() {
+        CountDownLatch done = new CountDownLatch(1);
+        io.execute(done::countDown);
+        try {
+            if (!done.await(READY_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                Log.w(TAG, "flush: timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
-    public void clearAll() {
-        boolean ok = prefs.edit().clear().commit();
-        if (!ok) {
-            Log.e(TAG, "clearAll: commit failed");
+    private void notifyTokensChanged() {
+        for (TokensListener l : tokensListeners) {
+            l.onTokensChanged();
         }
     }
 
     @NonNull
     public String getOrCreateDeviceId() {
-        String existing = prefs.getString(KEY_DEVICE_ID, null);
-        if (existing != null && !existing.trim().isEmpty()) {
-            return existing;
+        String id = readySnapshot().deviceId;
+        // После load() device id есть всегда; запасной вариант на случай таймаута загрузки.
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            Snapshot s = snapshot;
+            if (s.deviceId != null) {
+                return s.deviceId;
+            }
+            String created = generateDeviceId();
+            // Если загрузка ещё идёт и найдёт id на диске, остаётся тот, что на диске.
+            update(current -> current.deviceId != null ? current : current.withDeviceId(created));
+            persist(editor -> {
+                String stored = snapshot.deviceId;
+                if (stored != null) {
+                    editor.putString(KEY_DEVICE_ID, stored);
+                }
+            }, "getOrCreateDeviceId");
+            return snapshot.deviceId;
+        }
+    }
+
+    /**
+     * Меняет снимок. До конца загрузки изменение запоминается, чтобы load() повторил его поверх диска.
+     */
+    private synchronized void update(@NonNull UnaryOperator<Snapshot> change) {
+        snapshot = change.apply(snapshot);
+        if (earlyWrites != null) {
+            earlyWrites.add(change);
+        }
+    }
+
+    private void load() {
+        long startNs = System.nanoTime();
+        try {
+            SharedPreferences p = createBestPrefs(appContext);
+            prefs = p;
+
+            String deviceId = p.getString(KEY_DEVICE_ID, null);
+            if (deviceId == null || deviceId.trim().isEmpty()) {
+                deviceId = generateDeviceId();
+                if (!p.edit().putString(KEY_DEVICE_ID, deviceId).commit()) {
+                    Log.e(TAG, "load: device id commit failed, using volatile id");
+                }
+            }
+
+            Snapshot loaded = new Snapshot(
+                    p.getString(KEY_ACCESS_TOKEN, null),
+                    p.getString(KEY_REFRESH_TOKEN, null),
+                    p.getLong(KEY_ACCESS_EXPIRES_AT, 0L),
+                    p.getString(KEY_LOGIN, null),
+                    deviceId
+            );
+            synchronized (this) {
+                Snapshot merged = loaded;
+                List<UnaryOperator<Snapshot>> early = earlyWrites;
+                if (early != null) {
+                    for (UnaryOperator<Snapshot> change : early) {
+                        merged = change.apply(merged);
+                    }
+                    if (!early.isEmpty()) {
+                        Log.i(TAG, "load: applied " + early.size() + " writes made while loading");
+                    }
+                }
+                snapshot = merged;
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "load failed: " + e);
+        } finally {
+            synchronized (this) {
+                // Снимок в памяти уже содержит все изменения; дальше они пишутся как обычно.
+                earlyWrites = null;
+            }
+            ready.countDown();
+            Log.i(TAG, "load: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs) + "ms");
+        }
+    }
+
+    @NonNull
+    private Snapshot readySnapshot() {
+        if (ready.getCount() > 0) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                // Главный поток диск не ждёт: ANR хуже, чем устаревшее чтение до whenReady().
+                Log.w(TAG, "read before load finished on main thread, serving in-memory snapshot");
+                return snapshot;
+            }
+            try {
+                if (!ready.await(READY_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    Log.e(TAG, "load timed out, serving empty snapshot");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return snapshot;
+    }
+
+    private interface Edit {
+        void apply(@NonNull SharedPreferences.Editor editor);
+    }
+
+    private void persist(@NonNull Edit edit, @NonNull String op) {
+        io.execute(() -> {
+            SharedPreferences p = prefs;
+            if (p == null) {
+                Log.e(TAG, op + ": storage unavailable, change kept in memory only");
+                return;
+            }
+            SharedPreferences.Editor editor = p.edit();
+            edit.apply(editor);
+            // commit(), а не apply(): поток фоновый, а результат нужен до следующей записи в очереди.
+            if (!editor.commit()) {
+                Log.e(TAG, op + ": commit failed");
+            }
+        });
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(null, null, 0L, null, null);
+
+        @Nullable
+        final String access;
+        @Nullable
+        final String refresh;
+        final long expiresAtMs;
+        @Nullable
+        final String login;
+        @Nullable
+        final String deviceId;
+        @Nullable
+        final String authorizationHeader;
+
+        Snapshot(@Nullable String access,
+                 @Nullable String refresh,
+                 long expiresAtMs,
+                 @Nullable String login,
+                 @Nullable String deviceId) {
+            this.access = access;
+            this.refresh = refresh;
+            this.expiresAtMs = expiresAtMs;
+            this.login = login;
+            this.deviceId = deviceId;
+            this.authorizationHeader = (access == null || access.isEmpty()) ? null : "Bearer " + access;
+        }
+
+        @NonNull
+        Snapshot withTokens(@NonNull String access, @NonNull String refresh, long expiresAtMs) {
+            return new Snapshot(access, refresh, expiresAtMs, login, deviceId);
+        }
+
+        @NonNull
+        Snapshot withLogin(@NonNull String login) {
+            return new Snapshot(access, refresh, expiresAtMs, login, deviceId);
         }
 
-        String created = generateDeviceId();
-        boolean ok = prefs.edit().putString(KEY_DEVICE_ID, created).commit();
-        if (!ok) {
-            Log.e(TAG, "getOrCreateDeviceId: commit failed, returning volatile id");
-            return created;
+        @NonNull
+        Snapshot withDeviceId(@NonNull String deviceId) {
+            return new Snapshot(access, refresh, expiresAtMs, login, deviceId);
         }
-        return created;
     }
 
     @NonNull
@@ -2,57 +2,294 @@ package app.belqax.pature.data.storage;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.AtomicFile;
+import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonParseException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import app.belqax.pature.data.network.GsonProvider;
 import app.belqax.pature.data.repository.ProfileRepository;
+import app.belqax.pature.data.repository.ProfileSnapshotCodec;
+import app.belqax.pature.helper.AppForegroundTracker;
 
 /**
  * Хранит последний успешный ответ /me.
  * Позволяет быстро показать профиль из кеша до загрузки с сервера.
+ *
+ * Один экземпляр на процесс. Разобранный снимок живёт в памяти: getProfile() ничего не читает
+ * и не парсит, кроме самого первого вызова (его делает StartupOrchestrator в фоне).
+ *
+ * saveProfile() только меняет снимок и откладывает запись на WRITE_DELAY_MS: серия ответов
+ * (профиль, приватность, настройки, аватар) даёт одну запись последней версии. При уходе
+ * приложения в фон отложенная запись выполняется сразу.
+ *
+ * Файл: сигнатура, версия формата, длина, тело (ProfileSnapshotCodec), CRC32 тела.
+ * Пишется через AtomicFile, так что смерть процесса посреди записи оставляет прежнюю версию.
+ * Повреждённый файл или файл чужой версии удаляется, профиль перезагрузится с сервера.
  */
-public class ProfileStorage {
+public final class ProfileStorage implements AppForegroundTracker.Listener {
+
+    private static final String TAG = "ProfileStorage";
+
+    private static final String FILE_NAME = "profile_snapshot.bin";
+    private static final int MAGIC = 0x50524F46; // "PROF"
+    private static final int FORMAT_VERSION = 1;
+    // Тело профиля – сотни байт; всё, что сильно больше, – мусор, а не снимок.
+    private static final int MAX_PAYLOAD_BYTES = 256 * 1024;
+
+    private static final long WRITE_DELAY_MS = 500L;
 
-    private static final String PREFS_NAME = "profile_storage_prefs";
-    private static final String KEY_ME_RESPONSE = "key_me_response";
+    // Прежнее хранилище: JSON в SharedPreferences. Читается один раз и переносится в файл.
+    private static final String LEGACY_PREFS_NAME = "profile_storage_prefs";
+    private static final String LEGACY_KEY_ME_RESPONSE = "key_me_response";
 
-    private final SharedPreferences preferences;
-    private final Gson gson;
+    private static ProfileStorage instance;
 
-    public ProfileStorage(@NonNull Context context) {
-        this.preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        this.gson = new Gson();
+    private final Context appContext;
+    private final AtomicFile file;
+
+    // Единственный поток, который трогает файл: записи и удаление идут по очереди.
+    private final ScheduledExecutorService io = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "profile-storage");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Поля ниже – под lock.
+    private final Object lock = new Object();
+    private boolean loaded = false;
+    @Nullable
+    private ProfileRepository.MeResponse snapshot;
+    @Nullable
+    private ScheduledFuture<?> pendingWrite;
+    // Профиль перенесён из старых SharedPreferences: их чистит первая удачная запись файла,
+    // какая бы задача её ни сделала (отложенная, flush или saveProfile).
+    private boolean legacyCleanupPending = false;
+
+    private ProfileStorage(@NonNull Context context) {
+        this.appContext = context.getApplicationContext();
+        this.file = new AtomicFile(new File(appContext.getFilesDir(), FILE_NAME));
+        AppForegroundTracker.getInstance().addListener(this);
+    }
+
+    @NonNull
+    public static synchronized ProfileStorage getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new ProfileStorage(context);
+        }
+        return instance;
     }
 
     public void saveProfile(@NonNull ProfileRepository.MeResponse meResponse) {
-        String json = gson.toJson(meResponse, new TypeToken<ProfileRepository.MeResponse>() {}.getType());
-        preferences.edit()
-                .putString(KEY_ME_RESPONSE, json)
-                .apply();
+        synchronized (lock) {
+            snapshot = meResponse;
+            loaded = true;
+            if (pendingWrite == null) {
+                pendingWrite = io.schedule(this::writeSnapshot, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
     }
 
+    /**
+     * Снимок из памяти. Первый вызов читает файл; с главного потока его лучше не делать.
+     */
     @Nullable
     public ProfileRepository.MeResponse getProfile() {
-        String json = preferences.getString(KEY_ME_RESPONSE, null);
+        synchronized (lock) {
+            if (!loaded) {
+                snapshot = load();
+                loaded = true;
+            }
+            return snapshot;
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            snapshot = null;
+            loaded = true;
+            legacyCleanupPending = false;
+            if (pendingWrite != null) {
+                pendingWrite.cancel(false);
+                pendingWrite = null;
+            }
+        }
+        io.execute(() -> {
+            file.delete();
+            legacyPrefs().edit().clear().apply();
+        });
+    }
+
+    /**
+     * Выполняет отложенную запись сейчас, не дожидаясь WRITE_DELAY_MS.
+     */
+    public void flush() {
+        synchronized (lock) {
+            if (pendingWrite == null) {
+                return;
+            }
+            pendingWrite.cancel(false);
+            pendingWrite = io.schedule(this::writeSnapshot, 0L, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void onForeground() {
+    }
+
+    @Override
+    public void onBackground() {
+        // После ухода в фон процесс могут убить в любой момент: откладывать запись некуда.
+        flush();
+    }
+
+    // region File
+
+    private void writeSnapshot() {
+        ProfileRepository.MeResponse me;
+        boolean cleanupLegacy;
+        synchronized (lock) {
+            pendingWrite = null;
+            me = snapshot;
+            cleanupLegacy = legacyCleanupPending;
+        }
+        if (me == null) {
+            return;
+        }
+
+        FileOutputStream out = null;
+        try {
+            byte[] bytes = encode(me);
+            out = file.startWrite();
+            out.write(bytes);
+            file.finishWrite(out);
+        } catch (IOException e) {
+            Log.w(TAG, "write failed: " + e);
+            if (out != null) {
+                file.failWrite(out);
+            }
+            return;
+        }
+
+        if (cleanupLegacy) {
+            synchronized (lock) {
+                legacyCleanupPending = false;
+            }
+            legacyPrefs().edit().clear().apply();
+        }
+    }
+
+    @Nullable
+    private ProfileRepository.MeResponse load() {
+        try {
+            // readFully сам откатывается на резервную копию, если запись оборвалась.
+            return decode(file.readFully());
+        } catch (FileNotFoundException e) {
+            return migrateLegacy();
+        } catch (IOException e) {
+            Log.w(TAG, "snapshot unreadable, dropping: " + e.getMessage());
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Содержимое файла: рамка вокруг ProfileSnapshotCodec.encode().
+     */
+    @NonNull
+    static byte[] encode(@NonNull ProfileRepository.MeResponse me) throws IOException {
+        byte[] payload = ProfileSnapshotCodec.encode(me);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 20);
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(payload.length);
+        data.write(payload);
+        data.writeLong(crc.getValue());
+        data.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Обратное к encode. Чужая сигнатура или версия, неверная длина, несовпадение CRC – IOException.
+     */
+    @NonNull
+    static ProfileRepository.MeResponse decode(@NonNull byte[] raw) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("bad magic");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("unsupported format version " + version);
+        }
+        int length = in.readInt();
+        if (length < 0 || length > MAX_PAYLOAD_BYTES || length > in.available()) {
+            throw new IOException("bad payload length " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if (in.readLong() != crc.getValue()) {
+            throw new IOException("checksum mismatch");
+        }
+        return ProfileSnapshotCodec.decode(payload);
+    }
+
+    /**
+     * Профиль, сохранённый прежней версией в SharedPreferences: переносится в файл один раз.
+     */
+    @Nullable
+    private ProfileRepository.MeResponse migrateLegacy() {
+        SharedPreferences prefs = legacyPrefs();
+        String json = prefs.getString(LEGACY_KEY_ME_RESPONSE, null);
         if (json == null || json.trim().isEmpty()) {
             return null;
         }
+        ProfileRepository.MeResponse me;
         try {
-            return gson.fromJson(json, new TypeToken<ProfileRepository.MeResponse>() {}.getType());
-        } catch (JsonSyntaxException e) {
-            // Если формат сломан, просто очищает запись.
-            preferences.edit().remove(KEY_ME_RESPONSE).apply();
+            me = GsonProvider.get().fromJson(json, ProfileRepository.MeResponse.class);
+        } catch (JsonParseException e) {
+            Log.w(TAG, "legacy profile unreadable, dropping: " + e.getMessage());
+            me = null;
+        }
+        if (me == null) {
+            prefs.edit().clear().apply();
             return null;
         }
+        // Вызывается под lock из getProfile(): снимок выставит вызывающий. Старая запись
+        // удаляется только после записи файла, чтобы профиль не пропал при смерти процесса.
+        legacyCleanupPending = true;
+        pendingWrite = io.schedule(this::writeSnapshot, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+        return me;
     }
 
-    public void clear() {
-        preferences.edit().clear().apply();
+    @NonNull
+    private SharedPreferences legacyPrefs() {
+        return appContext.getSharedPreferences(LEGACY_PREFS_NAME, Context.MODE_PRIVATE);
     }
-}
 
+    // endregion
+}
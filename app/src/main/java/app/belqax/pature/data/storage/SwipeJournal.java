@@ -0,0 +1,213 @@
+package app.belqax.pature.data.storage;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import app.belqax.pature.data.network.GsonProvider;
+
+/**
+ * Журнал неотправленных реакций (лайк/дизлайк) на диске.
+ * Формат: одна JSON-запись на строку, операции "add" и "ack".
+ * Запись дописывается в конец и сбрасывается на диск (fsync), поэтому переживает смерть процесса.
+ * Повреждённые строки (например, недописанная последняя строка после краша) пропускаются.
+ * Все методы synchronized: журнал пишется из фонового потока SwipeOutbox.
+ */
+public final class SwipeJournal {
+
+    private static final String TAG = "SwipeJournal";
+
+    private static final String FILE_NAME = "swipe_outbox_v1.jsonl";
+    private static final String OP_ADD = "add";
+    private static final String OP_ACK = "ack";
+
+    // После такого числа строк журнал переписывается только с актуальными записями.
+    private static final int COMPACT_THRESHOLD_LINES = 200;
+
+    private final File file;
+    private final Gson gson = GsonProvider.get();
+    private int lineCount = 0;
+
+    public SwipeJournal(@NonNull Context context) {
+        this.file = new File(context.getApplicationContext().getFilesDir(), FILE_NAME);
+    }
+
+    /**
+     * Читает журнал и возвращает неподтверждённые записи в исходном порядке.
+     */
+    @NonNull
+    public synchronized List<Entry> load() {
+        Map<String, Entry> pending = new LinkedHashMap<>();
+        lineCount = 0;
+
+        if (!file.exists()) {
+            return new ArrayList<>();
+        }
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineCount++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+
+                Record r;
+                try {
+                    r = gson.fromJson(line, Record.class);
+                } catch (JsonParseException e) {
+                    Log.w(TAG, "load: skip corrupted line #" + lineCount);
+                    continue;
+                }
+                if (r == null || r.op == null) {
+                    continue;
+                }
+
+                if (OP_ADD.equals(r.op) && r.entry != null && r.entry.key != null) {
+                    pending.put(r.entry.key, r.entry);
+                } else if (OP_ACK.equals(r.op) && r.key != null) {
+                    pending.remove(r.key);
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "load: failed to read journal: " + e);
+        }
+
+        return new ArrayList<>(pending.values());
+    }
+
+    public synchronized void append(@NonNull Entry entry) throws IOException {
+        Objects.requireNonNull(entry, "entry");
+        Record r = new Record();
+        r.op = OP_ADD;
+        r.entry = entry;
+        writeLine(gson.toJson(r));
+    }
+
+    /**
+     * Помечает запись доставленной. Если после этого в очереди ничего не осталось
+     * или журнал разросся, переписывает его.
+     */
+    public synchronized void ack(@NonNull String key, @NonNull Collection<Entry> stillPending) throws IOException {
+        Objects.requireNonNull(key, "key");
+
+        if (stillPending.isEmpty()) {
+            truncate();
+            return;
+        }
+
+        Record r = new Record();
+        r.op = OP_ACK;
+        r.key = key;
+        writeLine(gson.toJson(r));
+
+        if (lineCount >= COMPACT_THRESHOLD_LINES) {
+            rewrite(stillPending);
+        }
+    }
+
+    /**
+     * Стирает все записи, в том числе неотправленные (смена пользователя).
+     */
+    public synchronized void clear() throws IOException {
+        truncate();
+    }
+
+    private void writeLine(@NonNull String json) throws IOException {
+        byte[] bytes = (json + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(bytes);
+            out.getFD().sync();
+        }
+        lineCount++;
+    }
+
+    private void truncate() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file, false)) {
+            out.getFD().sync();
+        }
+        lineCount = 0;
+    }
+
+    private void rewrite(@NonNull Collection<Entry> entries) throws IOException {
+        File tmp = new File(file.getParentFile(), FILE_NAME + ".tmp");
+        int written = 0;
+
+        try (FileOutputStream out = new FileOutputStream(tmp, false)) {
+            for (Entry e : entries) {
+                Record r = new Record();
+                r.op = OP_ADD;
+                r.entry = e;
+                out.write((gson.toJson(r) + "\n").getBytes(StandardCharsets.UTF_8));
+                written++;
+            }
+            out.getFD().sync();
+        }
+
+        // rename атомарен в пределах одной файловой системы: либо старый журнал, либо новый.
+        if (!tmp.renameTo(file)) {
+            throw new IOException("rewrite: rename failed");
+        }
+        lineCount = written;
+    }
+
+    public static final class Entry {
+
+        @SerializedName("key")
+        public String key;
+
+        @SerializedName("animal_id")
+        public long animalId;
+
+        @SerializedName("is_like")
+        public boolean isLike;
+
+        @SerializedName("created_at_ms")
+        public long createdAtMs;
+
+        public Entry() {
+        }
+
+        public Entry(@NonNull String key, long animalId, boolean isLike, long createdAtMs) {
+            this.key = Objects.requireNonNull(key, "key");
+            this.animalId = animalId;
+            this.isLike = isLike;
+            this.createdAtMs = createdAtMs;
+        }
+    }
+
+    private static final class Record {
+
+        @SerializedName("op")
+        String op;
+
+        @Nullable
+        @SerializedName("entry")
+        Entry entry;
+
+        @Nullable
+        @SerializedName("key")
+        String key;
+    }
+}
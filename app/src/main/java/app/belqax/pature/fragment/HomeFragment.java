@@ -7,17 +7,24 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import app.belqax.pature.R;
 import app.belqax.pature.adapter.CardAdapter;
 import app.belqax.pature.adapter.AnimalCardMapper;
+import app.belqax.pature.data.network.PriorityDispatcher;
+import app.belqax.pature.data.repository.AnimalPager;
 import app.belqax.pature.data.repository.AnimalRepository;
+import app.belqax.pature.data.repository.AnimalStore;
+import app.belqax.pature.data.repository.SwipeOutbox;
+import app.belqax.pature.helper.RequestScope;
+import app.belqax.pature.helper.StartupOrchestrator;
 import app.belqax.pature.model.AnimalCardItem;
 import app.belqax.pature.ui.PatureStackLayout;
 
@@ -25,7 +32,8 @@ public final class HomeFragment extends Fragment {
 
     private static final String TAG = "HomeFragment";
 
-    // Явный конфиг (правится сверху, без магии)
+    // Явный конфиг (правится сверху, без магии). Первая страница с теми же параметрами грузится
+    // ещё на старте в StartupOrchestrator.
     private static final int PAGE_LIMIT = 30;
     private static final int PREFETCH_WHEN_LEFT = 8;
     private static final boolean HAS_PHOTOS_ONLY = false;
@@ -38,12 +46,26 @@ public final class HomeFragment extends Fragment {
 
     private final AnimalRepository repo = new AnimalRepository();
 
-    private int offset = 0;
+    // Запросы живут, пока жива view: при её уничтожении недогруженная страница отменяется.
+    @Nullable
+    private RequestScope requests;
+
+    // Курсор, offset и отсев дубликатов – внутри пейджера.
+    // TODO: сюда позже подключишь фильтры пользователя (species/city/age и т.д.)
+    private final AnimalPager pager = repo.feedPager(
+            null,           // species
+            null,           // city
+            null,           // sex
+            null,           // ageFromYears
+            null,           // ageToYears
+            HAS_PHOTOS_ONLY,
+            PAGE_LIMIT
+    );
+
+    // Идёт загрузка: своя страница пейджера или ожидание страницы со старта.
     private boolean isLoading = false;
-    private boolean isEndReached = false;
 
     private final List<AnimalCardItem> cards = new ArrayList<>();
-    private final Set<Long> seenIds = new HashSet<>();
 
     public HomeFragment() {
         super(R.layout.fragment_home);
@@ -54,6 +76,7 @@ public final class HomeFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
 
         stack = view.findViewById(R.id.patureStack);
+        requests = RequestScope.bind(getViewLifecycleOwner());
 
         CardAdapter a = new CardAdapter(requireContext());
         a.setListener(new CardAdapter.CardActionListener() {
@@ -98,10 +121,26 @@ public final class HomeFragment extends Fragment {
             });
         }
 
-        // Первая загрузка
+        SwipeOutbox.getInstance().setListener(this::onReactionSent);
+        // Свежие версии карточек (в том числе показанных из сохранённой колоды) приходят сюда.
+        AnimalStore.getInstance().observe(getViewLifecycleOwner(), this::onAnimalChanged);
+
+        // Первая загрузка: сохранённая с прошлого запуска колода сразу, сеть следом.
+        if (cards.isEmpty()) {
+            showSavedFeed();
+        }
         loadNextPageIfNeeded(true);
     }
 
+    @Override
+    public void onDestroyView() {
+        SwipeOutbox.getInstance().setListener(null);
+        // Запрос страницы уже отменён вместе с view, следующая view начнёт загрузку заново.
+        requests = null;
+        isLoading = false;
+        super.onDestroyView();
+    }
+
     private void onSwiped(int adapterPosition, @NonNull PatureStackLayout.Direction direction) {
         if (adapterPosition < 0 || adapterPosition >= cards.size()) {
             Log.w(TAG, "swipe position out of range: " + adapterPosition + " size=" + cards.size());
@@ -111,31 +150,26 @@ public final class HomeFragment extends Fragment {
         AnimalCardItem item = cards.get(adapterPosition);
         boolean isLike = direction == PatureStackLayout.Direction.RIGHT;
 
+        repo.onFeedCardSwiped(item.getId());
+
         sendLikeDislike(item, isLike);
     }
 
     private void sendLikeDislike(@NonNull AnimalCardItem item, boolean isLike) {
-        repo.likeAnimal(item.getId(), isLike, result -> {
-            if (!isAdded()) {
-                return;
-            }
-
-            if (result.isSuccess && result.data != null) {
-                AnimalRepository.AnimalLikeResultDto dto = result.data;
-
-                if (dto.matchCreated) {
-                    Toast.makeText(requireContext(), "Это матч", Toast.LENGTH_SHORT).show();
-                    // Здесь можно открыть экран матчей, когда он будет готов.
-                }
-                return;
-            }
+        // Реакция уходит через журнал: не теряется при плохой сети и переживает перезапуск.
+        // Ошибку лайка не превращаем в откат свайпа: UX обычно лучше без “возврата” карточки.
+        SwipeOutbox.getInstance().enqueue(item.getId(), isLike);
+    }
 
-            // Ошибку лайка не превращаем в откат свайпа: UX обычно лучше без “возврата” карточки.
-            String msg = buildRepoError("likeAnimal", result);
-            Log.e(TAG, msg);
-            Toast.makeText(requireContext(), "Не удалось отправить реакцию", Toast.LENGTH_SHORT).show();
-        });
+    private void onReactionSent(long animalId, boolean isLike, @NonNull AnimalRepository.AnimalLikeResultDto dto) {
+        if (!isAdded()) {
+            return;
+        }
 
+        if (dto.matchCreated) {
+            Toast.makeText(requireContext(), "Это матч", Toast.LENGTH_SHORT).show();
+            // Здесь можно открыть экран матчей, когда он будет готов.
+        }
     }
 
     private void maybePrefetch() {
@@ -154,83 +188,138 @@ public final class HomeFragment extends Fragment {
         }
     }
 
+    private void showSavedFeed() {
+        repo.getSavedFeed(PAGE_LIMIT, result -> {
+            if (!isAdded() || requests == null || result.data == null) {
+                return;
+            }
+            for (AnimalRepository.AnimalDto dto : result.data) {
+                // Карточка могла уже прийти из сети, пока читался диск.
+                if (pager.markSeen(dto.id)) {
+                    onFeedItem(dto);
+                }
+            }
+        });
+    }
+
+    private void onAnimalChanged(long animalId, @Nullable AnimalRepository.AnimalDto dto) {
+        CardAdapter a = adapter;
+        if (dto == null || a == null) {
+            return;
+        }
+        for (int i = 0; i < cards.size(); i++) {
+            if (cards.get(i).getId() == animalId) {
+                AnimalCardItem item = AnimalCardMapper.fromDto(dto);
+                cards.set(i, item);
+                a.replaceItem(i, item);
+                return;
+            }
+        }
+    }
+
     private void loadNextPageIfNeeded(boolean isInitial) {
-        if (isLoading || isEndReached) {
+        if (isLoading || pager.isEndReached()) {
             return;
         }
 
         isLoading = true;
 
-        // TODO: сюда позже подключишь фильтры пользователя (species/city/age и т.д.)
-        repo.getFeed(
-                null,           // species
-                null,           // city
-                null,           // sex
-                null,           // ageFromYears
-                null,           // ageToYears
-                HAS_PHOTOS_ONLY,
-                PAGE_LIMIT,
-                offset,
-                result -> {
-                    if (!isAdded()) {
-                        isLoading = false;
-                        return;
+        // Первую страницу мог уже загрузить StartupOrchestrator, пока висел splash.
+        if (pager.isAtStart()) {
+            CompletableFuture<StartupOrchestrator.FirstFeedPage> prefetched =
+                    StartupOrchestrator.getInstance().takeFirstFeedPage();
+            if (prefetched != null) {
+                prefetched.thenAcceptAsync(first -> {
+                    if (first == null || !first.result.isSuccess || first.result.data == null || !pager.isAtStart()) {
+                        fetchPage(isInitial);
+                    } else {
+                        onFirstPageLoaded(isInitial, first.result.data, first.nextCursor);
                     }
+                }, ContextCompat.getMainExecutor(requireContext()));
+                return;
+            }
+        }
 
-                    if (!result.isSuccess) {
-                        isLoading = false;
-
-                        String msg = buildRepoError("getFeed", result);
-                        Log.e(TAG, msg);
+        fetchPage(isInitial);
+    }
 
-                        if (isInitial) {
-                            Toast.makeText(requireContext(), "Ошибка загрузки ленты", Toast.LENGTH_SHORT).show();
-                        }
-                        return;
+    private void fetchPage(boolean isInitial) {
+        RequestScope scope = requests;
+        if (scope == null) {
+            isLoading = false;
+            return;
+        }
+        // Страница читается потоком: первая карточка показывается, пока остальные ещё идут по сети.
+        scope.add(pager.loadNext(
+                // Следующая страница грузится заранее, пока пользователь листает текущую.
+                isInitial ? PriorityDispatcher.Priority.INTERACTIVE : PriorityDispatcher.Priority.PREFETCH,
+                new AnimalPager.Listener() {
+                    @Override
+                    public void onItem(@NonNull AnimalRepository.AnimalDto dto) {
+                        onFeedItem(dto);
                     }
 
-                    List<AnimalRepository.AnimalDto> data = result.data;
-                    if (data == null || data.isEmpty()) {
-                        isLoading = false;
-                        isEndReached = true;
-                        return;
+                    @Override
+                    public void onLoaded(@NonNull AnimalRepository.RepoResult<List<AnimalRepository.AnimalDto>> result) {
+                        onPageFinished(isInitial, result);
                     }
+                }
+        ));
+    }
 
-                    List<AnimalCardItem> mapped = new ArrayList<>();
-                    for (AnimalRepository.AnimalDto dto : data) {
-                        if (dto == null) {
-                            continue;
-                        }
-                        if (seenIds.contains(dto.id)) {
-                            continue;
-                        }
-                        seenIds.add(dto.id);
-                        mapped.add(AnimalCardMapper.fromDto(dto));
-                    }
+    /**
+     * Первая страница, загруженная на старте: пейджер учитывает её и продолжает со следующей.
+     */
+    private void onFirstPageLoaded(boolean isInitial,
+                                   @NonNull List<AnimalRepository.AnimalDto> page,
+                                   @Nullable String nextCursor) {
+        List<AnimalRepository.AnimalDto> fresh = pager.acceptFirstPage(page, nextCursor);
+        for (AnimalRepository.AnimalDto dto : fresh) {
+            onFeedItem(dto);
+        }
+        onPageFinished(isInitial, AnimalRepository.RepoResult.success(fresh));
+    }
 
-                    if (mapped.isEmpty()) {
-                        // Сервер отдал только дубликаты (например, из-за offset/фильтров)
-                        // Двигаем offset и пробуем ещё раз один раз.
-                        offset += data.size();
-                        isLoading = false;
-                        loadNextPageIfNeeded(false);
-                        return;
-                    }
+    private void onFeedItem(@NonNull AnimalRepository.AnimalDto dto) {
+        if (!isAdded()) {
+            return;
+        }
+        AnimalCardItem item = AnimalCardMapper.fromDto(dto);
 
-                    offset += data.size();
+        boolean wasEmpty = cards.isEmpty();
+        cards.add(item);
 
-                    cards.addAll(mapped);
+        CardAdapter a = adapter;
+        if (a != null) {
+            // Стек подписан на адаптер и сам достроит карточки снизу, не трогая верхние.
+            a.addItems(Collections.singletonList(item));
+            if (wasEmpty) {
+                StartupOrchestrator.getInstance().getTrace().mark("first_card_swipeable");
+            }
+        }
+    }
 
-                    CardAdapter a = adapter;
-                    PatureStackLayout s = stack;
-                    if (a != null && s != null) {
-                        a.setItems(cards);
-                        s.setAdapter(a); // простой и надёжный ре-рендер
-                    }
+    private void onPageFinished(boolean isInitial, @NonNull AnimalRepository.RepoResult<List<AnimalRepository.AnimalDto>> result) {
+        isLoading = false;
 
-                    isLoading = false;
-                }
-        );
+        if (!isAdded()) {
+            return;
+        }
+
+        if (!result.isSuccess) {
+            String msg = buildRepoError("feedPage", result);
+            Log.e(TAG, msg);
+
+            if (isInitial && cards.isEmpty()) {
+                Toast.makeText(requireContext(), "Ошибка загрузки ленты", Toast.LENGTH_SHORT).show();
+            }
+            return;
+        }
+
+        if (result.data != null && result.data.isEmpty() && !pager.isEndReached()) {
+            // Лимит запросов на загрузку ушёл на дубликаты; следующая попытка – со следующим свайпом.
+            Log.w(TAG, "feed page had no new cards");
+        }
     }
 
     @NonNull
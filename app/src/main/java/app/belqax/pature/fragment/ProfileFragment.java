@@ -35,15 +35,21 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 
 import app.belqax.pature.R;
 import app.belqax.pature.activity.EditProfileFieldActivity;
 import app.belqax.pature.activity.ProfileSettingsActivity;
+import app.belqax.pature.data.repository.AnimalRepository;
 import app.belqax.pature.data.repository.ProfileRepository;
 import app.belqax.pature.data.repository.ProfileRepository.MeResponse;
 import app.belqax.pature.data.repository.ProfileRepository.ProfileDto;
 import app.belqax.pature.data.repository.ProfileRepository.ProfileError;
 import app.belqax.pature.data.repository.ProfileRepository.UpdateProfileRequest;
+import app.belqax.pature.data.repository.RepoException;
+import app.belqax.pature.data.repository.RepoFuture;
+import app.belqax.pature.data.repository.RepoFutures;
+import app.belqax.pature.helper.RequestScope;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
@@ -83,7 +89,15 @@ public class ProfileFragment extends Fragment {
     private MaterialButton myAnimalsButton;
 
 
+    // Сколько ждать список животных для счётчика на кнопке; дальше запрос отменяется, кнопка остаётся без счётчика.
+    private static final long MY_ANIMALS_WAIT_MS = 3_000L;
+
     private ProfileRepository profileRepository;
+    private final AnimalRepository animalRepository = new AnimalRepository();
+
+    // Чтение профиля привязано к view; правки и загрузка аватара доходят до сервера и без экрана.
+    @Nullable
+    private RequestScope requests;
 
     @Nullable
     private MeResponse currentMe;
@@ -244,6 +258,7 @@ public class ProfileFragment extends Fragment {
     public void onViewCreated(@NonNull View view,
                               @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
+        requests = RequestScope.bind(getViewLifecycleOwner());
         bindViews(view);
         setupClickListeners();
 
@@ -508,38 +523,59 @@ public class ProfileFragment extends Fragment {
     // region Load / bind
 
     private void loadProfile() {
+        RequestScope scope = requests;
+        if (scope == null) {
+            return;
+        }
         setUiEnabled(false);
-        profileRepository.loadProfile(new ProfileRepository.ProfileCallback() {
-            @Override
-            public void onSuccess(@NonNull MeResponse meResponse) {
-                if (!isAdded()) {
-                    return;
-                }
-                currentMe = meResponse;
-                bindProfileToUi(meResponse);
-                setUiEnabled(true);
-            }
 
-            @Override
-            public void onError(@NonNull ProfileError error) {
-                if (!isAdded()) {
-                    return;
-                }
-                setUiEnabled(true);
-                Log.w(TAG, "loadProfile: error " + error.getMessage());
-                Toast.makeText(
-                        requireContext(),
-                        error.getMessage(),
-                        Toast.LENGTH_LONG
-                ).show();
+        // Профиль и список животных грузятся параллельно. Экран рисуется и включается по профилю,
+        // счётчик на кнопке дописывается, когда придёт список: медленный или упавший список профиль не держит.
+        RepoFuture<MeResponse> profile = profileRepository.loadProfileAsync();
+        RepoFuture<List<AnimalRepository.AnimalDto>> animals =
+                RepoFutures.withTimeout(animalRepository.listMyAnimalsAsync(), MY_ANIMALS_WAIT_MS);
+        scope.add(profile);
+        scope.add(animals);
+
+        profile.whenComplete((meResponse, error) -> {
+            // Отмена – view уже уничтожена (RequestScope), рисовать некуда.
+            if (!isAdded() || profile.isCancelled()) {
+                return;
+            }
+            setUiEnabled(true);
+            if (error != null) {
+                onProfileLoadError(error);
+                return;
+            }
+            currentMe = meResponse;
+            bindProfileToUi(meResponse);
+        });
 
-                if (error.isUnauthorized()) {
-                    handleUnauthorized();
-                }
+        animals.thenAccept(list -> {
+            if (!isAdded()) {
+                return;
             }
+            int count = list != null ? list.size() : 0;
+            myAnimalsButton.setText(getString(R.string.profile_my_animals_count, count));
         });
     }
 
+    private void onProfileLoadError(@Nullable Throwable error) {
+        Log.w(TAG, "loadProfile: error " + error);
+        String message = error != null && error.getMessage() != null
+                ? error.getMessage()
+                : getString(R.string.profile_load_error);
+        Toast.makeText(
+                requireContext(),
+                message,
+                Toast.LENGTH_LONG
+        ).show();
+
+        if (error instanceof RepoException && ((RepoException) error).isUnauthorized()) {
+            handleUnauthorized();
+        }
+    }
+
     private void bindProfileToUi(@NonNull MeResponse meResponse) {
         ProfileDto profile = meResponse.getProfile();
         if (profile == null) {
@@ -0,0 +1,104 @@
+package app.belqax.pature.helper;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Отслеживает переход приложения на передний план и обратно по числу запущенных Activity.
+ * Колбэки приходят на главном потоке.
+ */
+public final class AppForegroundTracker implements Application.ActivityLifecycleCallbacks {
+
+    public interface Listener {
+        void onForeground();
+
+        void onBackground();
+    }
+
+    private static AppForegroundTracker instance;
+
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private int startedActivities = 0;
+    private boolean changingConfiguration = false;
+
+    private AppForegroundTracker() {
+    }
+
+    public static void init(@NonNull Application app) {
+        if (instance == null) {
+            instance = new AppForegroundTracker();
+            app.registerActivityLifecycleCallbacks(instance);
+        }
+    }
+
+    @NonNull
+    public static AppForegroundTracker getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("AppForegroundTracker.init() must be called in Application.onCreate()");
+        }
+        return instance;
+    }
+
+    public boolean isForeground() {
+        return startedActivities > 0;
+    }
+
+    public void addListener(@NonNull Listener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void onActivityStarted(@NonNull Activity activity) {
+        startedActivities++;
+        if (startedActivities == 1 && !changingConfiguration) {
+            for (Listener l : listeners) {
+                l.onForeground();
+            }
+        }
+    }
+
+    @Override
+    public void onActivityStopped(@NonNull Activity activity) {
+        if (startedActivities == 0) {
+            return;
+        }
+        startedActivities--;
+        // Смена конфигурации пересоздаёт Activity, но это не уход в фон и не возврат.
+        changingConfiguration = activity.isChangingConfigurations();
+        if (startedActivities == 0 && !changingConfiguration) {
+            for (Listener l : listeners) {
+                l.onBackground();
+            }
+        }
+    }
+
+    @Override
+    public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+    }
+
+    @Override
+    public void onActivityResumed(@NonNull Activity activity) {
+    }
+
+    @Override
+    public void onActivityPaused(@NonNull Activity activity) {
+    }
+
+    @Override
+    public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+    }
+
+    @Override
+    public void onActivityDestroyed(@NonNull Activity activity) {
+    }
+}
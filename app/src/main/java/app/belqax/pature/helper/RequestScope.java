@@ -0,0 +1,88 @@
+package app.belqax.pature.helper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import app.belqax.pature.data.network.RequestHandle;
+
+/**
+ * Набор запросов экрана, привязанный к Lifecycle: на ON_DESTROY все незавершённые запросы
+ * отменяются, их callback'и уже не придут в уничтоженную Activity или view фрагмента.
+ *
+ * Для фрагментов привязывать к getViewLifecycleOwner(): view уничтожается раньше фрагмента.
+ * Работает на главном потоке.
+ */
+public final class RequestScope implements LifecycleEventObserver {
+
+    private final List<RequestHandle> handles = new ArrayList<>();
+    private boolean destroyed = false;
+
+    private RequestScope() {
+    }
+
+    @NonNull
+    public static RequestScope bind(@NonNull LifecycleOwner owner) {
+        RequestScope scope = new RequestScope();
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            scope.destroyed = true;
+        } else {
+            owner.getLifecycle().addObserver(scope);
+        }
+        return scope;
+    }
+
+    /**
+     * Запоминает запрос экрана. Если экран уже уничтожен, запрос отменяется сразу.
+     */
+    @NonNull
+    public RequestHandle add(@NonNull RequestHandle handle) {
+        if (destroyed) {
+            handle.cancel();
+            return handle;
+        }
+        Iterator<RequestHandle> it = handles.iterator();
+        while (it.hasNext()) {
+            if (it.next().isDone()) {
+                it.remove();
+            }
+        }
+        if (!handle.isDone()) {
+            handles.add(handle);
+        }
+        return handle;
+    }
+
+    /**
+     * Отменяет запрос, если он ещё идёт (null допустим).
+     */
+    public void cancel(@Nullable RequestHandle handle) {
+        if (handle != null) {
+            handle.cancel();
+            handles.remove(handle);
+        }
+    }
+
+    public void cancelAll() {
+        List<RequestHandle> copy = new ArrayList<>(handles);
+        handles.clear();
+        for (RequestHandle h : copy) {
+            h.cancel();
+        }
+    }
+
+    @Override
+    public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            destroyed = true;
+            source.getLifecycle().removeObserver(this);
+            cancelAll();
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package app.belqax.pature.helper;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import app.belqax.pature.adapter.AnimalCardMapper;
+import app.belqax.pature.data.network.ApiClient;
+import app.belqax.pature.data.network.PriorityDispatcher;
+import app.belqax.pature.data.repository.AnimalRepository;
+import app.belqax.pature.data.repository.AnimalStore;
+import app.belqax.pature.data.repository.AuthRepository;
+import app.belqax.pature.data.repository.SwipeOutbox;
+import app.belqax.pature.data.storage.AnimalDatabase;
+import app.belqax.pature.data.storage.AuthStorage;
+import app.belqax.pature.data.storage.ProfileStorage;
+
+/**
+ * Параллельный запуск приложения вместо фиксированной задержки splash.
+ *
+ * Стартует из Application.onCreate() и сразу раскидывает независимые задачи по пулу:
+ * - загрузка AuthStorage;
+ * - сборка ApiClient/OkHttp;
+ * - прогрев соединения к API_BASE_URL;
+ * - инициализация Glide;
+ * - чтение закешированного профиля;
+ * - для залогиненного пользователя: первая страница ленты и декодирование картинок верхних карточек.
+ *
+ * Критический набор (хранилище + сеть, а для залогиненного ещё первая страница, но не дольше
+ * FEED_WAIT_BUDGET_MS) определяет, когда splash можно закрывать. Все фазы пишутся в StartupTrace.
+ */
+public final class StartupOrchestrator {
+
+    private static final String TAG = "StartupOrchestrator";
+
+    private static final int STARTUP_THREADS = 3;
+    private static final long AUTH_LOAD_TIMEOUT_MS = 5_000L;
+
+    // Параметры совпадают с первым запросом HomeFragment, чтобы страница подошла ему как есть.
+    private static final int FIRST_PAGE_LIMIT = 30;
+    private static final boolean FIRST_PAGE_HAS_PHOTOS_ONLY = false;
+    private static final int TOP_IMAGES_TO_DECODE = 3;
+    private static final long IMAGE_DECODE_TIMEOUT_MS = 5_000L;
+
+    // Сколько splash максимум ждёт первую страницу ленты после готовности критического набора.
+    private static final long FEED_WAIT_BUDGET_MS = 1_500L;
+
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    private static StartupOrchestrator instance;
+
+    private final Application app;
+    private final StartupTrace trace = new StartupTrace();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(STARTUP_THREADS, r -> {
+        Thread t = new Thread(r, "startup-" + THREAD_IDS.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final CompletableFuture<Boolean> authReady = new CompletableFuture<>();
+    private final CompletableFuture<Void> coreReady = new CompletableFuture<>();
+    // null – пользователь не залогинен или страница не загружалась.
+    private final CompletableFuture<FirstFeedPage> firstFeedPage = new CompletableFuture<>();
+
+    // Доступ только с главного потока.
+    private boolean firstFeedPageTaken = false;
+
+    private StartupOrchestrator(@NonNull Application app) {
+        this.app = app;
+    }
+
+    /**
+     * Вызывается в Application.onCreate().
+     */
+    public static void start(@NonNull Application app) {
+        if (instance == null) {
+            instance = new StartupOrchestrator(app);
+            instance.run();
+        }
+    }
+
+    @NonNull
+    public static StartupOrchestrator getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("StartupOrchestrator.start() must be called in Application.onCreate()");
+        }
+        return instance;
+    }
+
+    @NonNull
+    public StartupTrace getTrace() {
+        return trace;
+    }
+
+    private void run() {
+        trace.begin("auth_storage");
+        AuthStorage.init(app);
+        AuthStorage storage = AuthStorage.getInstance();
+        executor.execute(() -> {
+            boolean ok = storage.awaitReady(AUTH_LOAD_TIMEOUT_MS);
+            trace.end("auth_storage");
+            authReady.complete(ok);
+        });
+
+        trace.begin("api_client");
+        ApiClient.initAsync(app, storage, executor)
+                .exceptionally(e -> {
+                    // Один повтор на том же потоке: сбой мог быть разовым (диск, ключи TLS).
+                    Log.w(TAG, "api_client init failed, retrying: " + e);
+                    ApiClient.init(app, storage);
+                    return ApiClient.getInstance();
+                })
+                .thenRun(() -> {
+                    trace.end("api_client");
+                    // Подписки на foreground делаются с главного потока, как и сами колбэки.
+                    mainHandler.post(() -> {
+                        ApiClient.getInstance().getTokenRefreshScheduler().start();
+                        ApiClient.getInstance().getConnectionWarmer().start();
+                        ApiClient.getInstance().getMetricsFileWriter().start();
+                    });
+                    coreReady.complete(null);
+                    preconnect();
+                })
+                .exceptionally(e -> {
+                    Log.e(TAG, "api_client init failed: " + e);
+                    coreReady.completeExceptionally(e);
+                    return null;
+                });
+
+        // Синхронно: экран может открыться в обход splash (восстановление процесса) и сразу
+        // обратиться к SwipeOutbox. Сеть он дожидается сам, на своём потоке.
+        trace.begin("swipe_outbox");
+        SwipeOutbox.init(app);
+        trace.end("swipe_outbox");
+
+        executor.execute(() -> {
+            trace.begin("glide");
+            Glide.get(app);
+            trace.end("glide");
+        });
+
+        // Сохранённая колода и "мои животные": база открывается в фоне, экраны читают её до сети.
+        AnimalStore animalStore = AnimalStore.getInstance();
+        animalStore.attachDatabase(new AnimalDatabase(app));
+        // clearAll() зовут и с потоков OkHttp (отказ refresh), а AnimalStore живёт на главном.
+        storage.addSessionListener(() -> mainHandler.post(animalStore::clear));
+
+        executor.execute(() -> {
+            trace.begin("cached_profile");
+            // Первое чтение снимка (файл + разбор) – здесь, в фоне; дальше экраны берут его из памяти.
+            ProfileStorage.getInstance(app).getProfile();
+            trace.end("cached_profile");
+        });
+
+        CompletableFuture.allOf(authReady, coreReady)
+                .thenRunAsync(this::prefetchFirstFeedPage, executor)
+                .exceptionally(e -> {
+                    firstFeedPage.complete(null);
+                    return null;
+                });
+    }
+
+    private void preconnect() {
+        trace.begin("preconnect");
+        ApiClient.getInstance().getConnectionWarmer().warm("start", () -> trace.end("preconnect"));
+    }
+
+    private void prefetchFirstFeedPage() {
+        if (!new AuthRepository(AuthStorage.getInstance()).isLoggedIn()) {
+            firstFeedPage.complete(null);
+            return;
+        }
+
+        trace.begin("feed_first_page");
+        // Потоком, а не getFeed: только так виден X-Next-Cursor, и пейджер продолжит по курсору.
+        new AnimalRepository().streamFeed(
+                null,
+                null,
+                null,
+                null,
+                null,
+                FIRST_PAGE_HAS_PHOTOS_ONLY,
+                FIRST_PAGE_LIMIT,
+                0,
+                PriorityDispatcher.Priority.INTERACTIVE,
+                new AnimalRepository.FeedStreamListener() {
+                    @Nullable
+                    private String nextCursor;
+
+                    @Override
+                    public void onItem(@NonNull AnimalRepository.AnimalDto dto) {
+                    }
+
+                    @Override
+                    public void onNextCursor(@Nullable String cursor) {
+                        nextCursor = cursor;
+                    }
+
+                    @Override
+                    public void onComplete(@NonNull AnimalRepository.RepoResult<List<AnimalRepository.AnimalDto>> result) {
+                        trace.end("feed_first_page");
+                        firstFeedPage.complete(new FirstFeedPage(result, nextCursor));
+                        if (result.isSuccess && result.data != null) {
+                            executor.execute(() -> decodeTopImages(result.data));
+                        }
+                    }
+                }
+        );
+    }
+
+    /**
+     * Скачивает и декодирует картинки верхних карточек в кеши Glide до того, как стек их запросит.
+     */
+    private void decodeTopImages(@NonNull List<AnimalRepository.AnimalDto> page) {
+        trace.begin("top_images");
+        int decoded = 0;
+        for (AnimalRepository.AnimalDto dto : page) {
+            if (decoded >= TOP_IMAGES_TO_DECODE) {
+                break;
+            }
+            if (dto == null) {
+                continue;
+            }
+            String url = AnimalCardMapper.fromDto(dto).getImageUrl();
+            if (url == null) {
+                continue;
+            }
+            try {
+                Glide.with(app).load(url).centerCrop().submit().get(IMAGE_DECODE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                Log.w(TAG, "decodeTopImages: " + url + " " + e);
+            }
+            decoded++;
+        }
+        trace.end("top_images");
+    }
+
+    /**
+     * Выполняет action на главном потоке, когда можно уходить со splash: критический набор готов,
+     * а для залогиненного пользователя ещё и первая страница ленты (не дольше FEED_WAIT_BUDGET_MS).
+     * Если сетевое ядро так и не собралось, вместо action вызывается onFailure: дальше любой
+     * ApiClient.getInstance() бросил бы исключение.
+     */
+    public void whenReadyForFirstScreen(@NonNull Runnable action, @NonNull Consumer<Throwable> onFailure) {
+        CompletableFuture.allOf(authReady, coreReady)
+                // copy(): completeOnTimeout завершает future, на котором вызван, а firstFeedPage
+                // ещё нужен HomeFragment целиком, а не обрезанный бюджетом splash.
+                .thenCompose(v -> firstFeedPage
+                        .copy()
+                        .completeOnTimeout(null, FEED_WAIT_BUDGET_MS, TimeUnit.MILLISECONDS))
+                .whenComplete((r, e) -> mainHandler.post(() -> {
+                    trace.mark("splash_done");
+                    if (e != null) {
+                        Log.e(TAG, "startup failed: " + e);
+                        onFailure.accept(e);
+                        return;
+                    }
+                    action.run();
+                }));
+    }
+
+    /**
+     * Первая страница ленты, загруженная на старте. Отдаётся один раз; null, если её нет
+     * или её уже забрали. Вызывается с главного потока.
+     */
+    @Nullable
+    public CompletableFuture<FirstFeedPage> takeFirstFeedPage() {
+        if (firstFeedPageTaken) {
+            return null;
+        }
+        firstFeedPageTaken = true;
+        return firstFeedPage;
+    }
+
+    /**
+     * Первая страница ленты и курсор следующей из X-Next-Cursor (null – сервер не прислал).
+     */
+    public static final class FirstFeedPage {
+
+        @NonNull
+        public final AnimalRepository.RepoResult<List<AnimalRepository.AnimalDto>> result;
+        @Nullable
+        public final String nextCursor;
+
+        FirstFeedPage(@NonNull AnimalRepository.RepoResult<List<AnimalRepository.AnimalDto>> result,
+                      @Nullable String nextCursor) {
+            this.result = result;
+            this.nextCursor = nextCursor;
+        }
+    }
+}
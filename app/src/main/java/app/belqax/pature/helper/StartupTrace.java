@@ -0,0 +1,85 @@
+package app.belqax.pature.helper;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Тайминги фаз запуска относительно старта процесса (Process.getStartUptimeMillis()).
+ * Каждая законченная фаза пишется в лог с тегом "Startup", dump() отдаёт всю картину по порядку начала.
+ */
+public final class StartupTrace {
+
+    private static final String TAG = "Startup";
+
+    private final long processStartMs = Process.getStartUptimeMillis();
+    private final Map<String, Phase> phases = new ConcurrentHashMap<>();
+
+    public void begin(@NonNull String name) {
+        phases.put(name, new Phase(name, now()));
+    }
+
+    public void end(@NonNull String name) {
+        Phase p = phases.get(name);
+        if (p == null || p.endMs >= 0) {
+            return;
+        }
+        p.endMs = now();
+        Log.i(TAG, name + " " + p.startMs + ".." + p.endMs + "ms (" + (p.endMs - p.startMs) + "ms)");
+    }
+
+    /**
+     * Одиночная отметка, например "first_card_swipeable".
+     */
+    public void mark(@NonNull String name) {
+        if (phases.containsKey(name)) {
+            return;
+        }
+        long t = now();
+        Phase p = new Phase(name, t);
+        p.endMs = t;
+        phases.put(name, p);
+        Log.i(TAG, name + " @" + t + "ms");
+    }
+
+    @NonNull
+    public String dump() {
+        List<Phase> list = new ArrayList<>(phases.values());
+        Collections.sort(list, (a, b) -> Long.compare(a.startMs, b.startMs));
+
+        StringBuilder sb = new StringBuilder();
+        for (Phase p : list) {
+            sb.append(p.name).append(": ").append(p.startMs);
+            if (p.endMs < 0) {
+                sb.append("..(running)");
+            } else if (p.endMs != p.startMs) {
+                sb.append("..").append(p.endMs).append(" (").append(p.endMs - p.startMs).append("ms)");
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private long now() {
+        return SystemClock.uptimeMillis() - processStartMs;
+    }
+
+    private static final class Phase {
+        final String name;
+        final long startMs;
+        volatile long endMs = -1L;
+
+        Phase(@NonNull String name, long startMs) {
+            this.name = name;
+            this.startMs = startMs;
+        }
+    }
+}
@@ -53,8 +53,7 @@ public class ChangePasswordBottomSheet extends BottomSheetDialogFragment {
     public void onViewCreated(@NonNull View view,
                               @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
-        AuthStorage authStorage = new AuthStorage(requireContext().getApplicationContext());
-        authRepository = new AuthRepository(authStorage);
+        authRepository = new AuthRepository(AuthStorage.getInstance());
 
         bindViews(view);
         bindActions();
@@ -15,7 +15,8 @@ import android.widget.FrameLayout;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import app.belqax.pature.R;
+import java.util.ArrayDeque;
+
 import app.belqax.pature.adapter.CardAdapter;
 
 public final class PatureStackLayout extends FrameLayout {
@@ -38,6 +39,9 @@ public final class PatureStackLayout extends FrameLayout {
 
     private static final long ANIM_DURATION_MS = 220L;
 
+    // Размер пула переиспользуемых карточек. Одновременно «вне стека» бывает максимум одна-две (вылетающие).
+    private static final int MAX_SCRAP = 2;
+
     // Плавность подтягивания задней карточки во время drag:
     // 0 = не двигается, 1 = полностью переходит в позицию топ-карты при progress=1
     private static final float BACK_CARD_PULL_FACTOR = 1.0f;
@@ -45,6 +49,10 @@ public final class PatureStackLayout extends FrameLayout {
     private CardAdapter adapter;
     private int topPosition = 0;
 
+    private final ArrayDeque<CardAdapter.CardViewHolder> scrapPool = new ArrayDeque<>(MAX_SCRAP);
+    private int createdCardCount = 0;
+    private int reboundCardCount = 0;
+
     private float downX;
     private float downY;
     private boolean isDragging;
@@ -56,6 +64,23 @@ public final class PatureStackLayout extends FrameLayout {
     @Nullable
     private OnCardSwipedListener swipedListener;
 
+    private final CardAdapter.DataObserver dataObserver = new CardAdapter.DataObserver() {
+        @Override
+        public void onChanged() {
+            onAdapterChanged();
+        }
+
+        @Override
+        public void onItemsAppended(int positionStart, int itemCount) {
+            onAdapterItemsAppended();
+        }
+
+        @Override
+        public void onItemRemoved(int position) {
+            onAdapterItemRemoved(position);
+        }
+    };
+
     public PatureStackLayout(@NonNull Context context) {
         super(context);
         init(context);
@@ -80,8 +105,19 @@ public final class PatureStackLayout extends FrameLayout {
     }
 
     public void setAdapter(@NonNull CardAdapter adapter) {
+        CardAdapter old = this.adapter;
+        if (old != null) {
+            old.unregisterDataObserver(dataObserver);
+        }
+        if (old != adapter) {
+            // Холдеры чужого адаптера переиспользовать нельзя.
+            recycleAllChildren();
+            removeAllViews();
+            scrapPool.clear();
+        }
         this.adapter = adapter;
         this.topPosition = 0;
+        adapter.registerDataObserver(dataObserver);
         buildInitialStack();
     }
 
@@ -93,6 +129,20 @@ public final class PatureStackLayout extends FrameLayout {
         return topPosition;
     }
 
+    /**
+     * Сколько карточек было создано (inflate) за жизнь стека. После прогрева перестаёт расти.
+     */
+    public int getCreatedCardCount() {
+        return createdCardCount;
+    }
+
+    /**
+     * Сколько раз карточка была взята из пула и переиспользована без inflate.
+     */
+    public int getReboundCardCount() {
+        return reboundCardCount;
+    }
+
     public boolean hasCards() {
         return adapter != null && topPosition < adapter.getCount();
     }
@@ -115,6 +165,7 @@ public final class PatureStackLayout extends FrameLayout {
 
     /**
      * Убирает верхнюю карточку без анимации и без вызова onCardSwiped.
+     * Возвращённая вью уже лежит в пуле и валидна только до следующего изменения стека.
      */
     @Nullable
     public View popCard() {
@@ -134,6 +185,7 @@ public final class PatureStackLayout extends FrameLayout {
         promoteRemainingCardsAnimated();
         fillStackIfNeeded();
         bindTopCardGesture();
+        recycleCard(top);
         return top;
     }
 
@@ -166,6 +218,7 @@ public final class PatureStackLayout extends FrameLayout {
             l.onCardSwiped(top, swipedPosition, direction);
         }
 
+        recycleCard(top);
         return top;
     }
 
@@ -195,6 +248,7 @@ public final class PatureStackLayout extends FrameLayout {
     }
 
     private void buildInitialStack() {
+        recycleAllChildren();
         removeAllViews();
 
         if (adapter == null) {
@@ -210,7 +264,7 @@ public final class PatureStackLayout extends FrameLayout {
 
         // Важно: добавляет снизу вверх, последней добавится topPosition и будет top-most.
         for (int i = end - 1; i >= topPosition; i--) {
-            View v = adapter.getView(i, this);
+            View v = obtainCard(i);
             addView(v, new LayoutParams(
                     ViewGroup.LayoutParams.MATCH_PARENT,
                     ViewGroup.LayoutParams.MATCH_PARENT
@@ -221,6 +275,117 @@ public final class PatureStackLayout extends FrameLayout {
         bindTopCardGesture();
     }
 
+    private void onAdapterChanged() {
+        if (adapter != null && topPosition > adapter.getCount()) {
+            topPosition = adapter.getCount();
+        }
+        buildInitialStack();
+    }
+
+    private void onAdapterItemsAppended() {
+        // Показанные карточки не трогает: только достраивает стек снизу, если в нём есть место.
+        if (getChildCount() >= MAX_VISIBLE) {
+            return;
+        }
+        boolean wasEmpty = getChildCount() == 0;
+        fillStackIfNeeded();
+        if (wasEmpty) {
+            bindTopCardGesture();
+        }
+    }
+
+    private void onAdapterItemRemoved(int position) {
+        if (position < topPosition) {
+            topPosition -= 1;
+            return;
+        }
+
+        int indexFromTop = position - topPosition;
+        int n = getChildCount();
+        if (indexFromTop >= n) {
+            return;
+        }
+
+        View removed = getChildAt((n - 1) - indexFromTop);
+        removed.animate().setListener(null);
+        removed.animate().cancel();
+        try {
+            removeView(removed);
+        } catch (Exception ex) {
+            Log.w(TAG, "onAdapterItemRemoved: removeView failed: " + ex);
+            return;
+        }
+
+        promoteRemainingCardsAnimated();
+        fillStackIfNeeded();
+        bindTopCardGesture();
+        recycleCard(removed);
+    }
+
+    // ======================================================================
+    // Пул карточек
+    // ======================================================================
+
+    @NonNull
+    private View obtainCard(int position) {
+        CardAdapter.CardViewHolder h = scrapPool.pollFirst();
+        if (h == null) {
+            h = adapter.createViewHolder(this);
+            h.itemView.setTag(h);
+            createdCardCount += 1;
+        } else {
+            reboundCardCount += 1;
+        }
+        adapter.bindViewHolder(h, position);
+        return h.itemView;
+    }
+
+    /**
+     * Сбрасывает состояние улетевшей карточки и кладёт её в пул для следующей позиции.
+     */
+    private void recycleCard(@NonNull View card) {
+        CardAdapter.CardViewHolder h = holderOf(card);
+        if (h == null || card.getParent() != null) {
+            return;
+        }
+
+        card.animate().setListener(null);
+        card.animate().cancel();
+        card.setOnTouchListener(null);
+        card.setTranslationX(0f);
+        card.setTranslationY(0f);
+        card.setRotation(0f);
+        card.setAlpha(1f);
+        card.setScaleX(1f);
+        card.setScaleY(1f);
+        resetOverlays(h);
+
+        if (adapter != null) {
+            adapter.onViewRecycled(h);
+        }
+        if (scrapPool.size() < MAX_SCRAP && !scrapPool.contains(h)) {
+            scrapPool.addLast(h);
+        }
+    }
+
+    private void recycleAllChildren() {
+        int n = getChildCount();
+        View[] children = new View[n];
+        for (int i = 0; i < n; i++) {
+            children[i] = getChildAt(i);
+        }
+        removeAllViews();
+        for (View child : children) {
+            recycleCard(child);
+        }
+    }
+
+    @Nullable
+    private static CardAdapter.CardViewHolder holderOf(@NonNull View card) {
+        Object tag = card.getTag();
+        return tag instanceof CardAdapter.CardViewHolder ? (CardAdapter.CardViewHolder) tag : null;
+    }
+
     private void applyStackTransformsImmediate() {
         int n = getChildCount();
         float density = getResources().getDisplayMetrics().density;
@@ -271,7 +436,7 @@ public final class PatureStackLayout extends FrameLayout {
                 break;
             }
 
-            View newBottom = adapter.getView(nextIndex, this);
+            View newBottom = obtainCard(nextIndex);
 
             // Новый элемент добавляется в "низ" стека, то есть в начало списка детей.
             // При этом он должен быть визуально "самым дальним".
@@ -434,13 +599,28 @@ public final class PatureStackLayout extends FrameLayout {
         if (l != null) {
             l.onCardSwiped(card, swipedPosition, dir);
         }
+
+        // В пул только после слушателя, чтобы он получил карточку в исходном состоянии.
+        recycleCard(card);
+    }
+
+    private static void resetOverlays(@NonNull CardAdapter.CardViewHolder h) {
+        if (h.likeBg != null) h.likeBg.setAlpha(0f);
+        if (h.dislikeBg != null) h.dislikeBg.setAlpha(0f);
+        if (h.likeOverlay != null) h.likeOverlay.setAlpha(0f);
+        if (h.dislikeOverlay != null) h.dislikeOverlay.setAlpha(0f);
     }
 
     private void updateOverlays(@NonNull View card, float progress, @NonNull Direction dir) {
-        View likeBg = card.findViewById(R.id.swipeLikeBg);
-        View dislikeBg = card.findViewById(R.id.swipeDislikeBg);
-        View likeOverlay = card.findViewById(R.id.swipeLikeOverlay);
-        View dislikeOverlay = card.findViewById(R.id.swipeDislikeOverlay);
+        CardAdapter.CardViewHolder h = holderOf(card);
+        if (h == null) {
+            return;
+        }
+
+        View likeBg = h.likeBg;
+        View dislikeBg = h.dislikeBg;
+        View likeOverlay = h.likeOverlay;
+        View dislikeOverlay = h.dislikeOverlay;
 
         if (likeBg != null) likeBg.setAlpha(dir == Direction.RIGHT ? progress : 0f);
         if (dislikeBg != null) dislikeBg.setAlpha(dir == Direction.LEFT ? progress : 0f);
@@ -0,0 +1,68 @@
+package app.belqax.pature.utils;
+
+import android.util.Base64;
+
+import androidx.annotation.Nullable;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Минимальный разбор JWT без проверки подписи: только чтение claims на клиенте.
+ */
+public final class JwtUtils {
+
+    private JwtUtils() {
+    }
+
+    /**
+     * Возвращает момент истечения токена (claim "exp") в миллисекундах epoch или 0, если его нет.
+     * Это время по часам сервера: сравнивать его с часами устройства можно только приблизительно.
+     */
+    public static long getExpiresAtMs(@Nullable String jwt) {
+        return getClaimMs(jwt, "exp");
+    }
+
+    /**
+     * Время жизни токена (exp - iat) в миллисекундах или 0, если одного из claims нет.
+     * Не зависит от расхождения часов устройства и сервера.
+     */
+    public static long getLifetimeMs(@Nullable String jwt) {
+        long expMs = getClaimMs(jwt, "exp");
+        long iatMs = getClaimMs(jwt, "iat");
+        if (expMs <= 0L || iatMs <= 0L || expMs <= iatMs) {
+            return 0L;
+        }
+        return expMs - iatMs;
+    }
+
+    private static long getClaimMs(@Nullable String jwt, String name) {
+        if (jwt == null) {
+            return 0L;
+        }
+
+        String[] parts = jwt.split("\\.");
+        if (parts.length < 2) {
+            return 0L;
+        }
+
+        try {
+            byte[] payload = Base64.decode(parts[1], Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+            JsonElement root = JsonParser.parseString(new String(payload, StandardCharsets.UTF_8));
+            if (!root.isJsonObject()) {
+                return 0L;
+            }
+            JsonObject obj = root.getAsJsonObject();
+            JsonElement claim = obj.get(name);
+            if (claim == null || !claim.isJsonPrimitive()) {
+                return 0L;
+            }
+            return claim.getAsLong() * 1000L;
+        } catch (RuntimeException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package app.belqax.pature.data.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PriorityDispatcher: лимиты полос, резерв INTERACTIVE и старение. Часы управляемые, ожидания нет.
+ */
+public class PriorityDispatcherTest {
+
+    private final AtomicLong now = new AtomicLong(1_000L);
+    private final PriorityDispatcher dispatcher = new PriorityDispatcher(Runnable::run, now::get);
+    private final List<PriorityDispatcher.Ticket> started = new ArrayList<>();
+
+    @Test
+    public void reserveIsKeptForInteractive() {
+        int unreserved = PriorityDispatcher.MAX_ACTIVE - PriorityDispatcher.RESERVED_FOR_INTERACTIVE;
+        for (int i = 0; i < unreserved; i++) {
+            submit(PriorityDispatcher.Priority.INTERACTIVE);
+        }
+
+        PriorityDispatcher.Ticket prefetch = submit(PriorityDispatcher.Priority.PREFETCH);
+        assertFalse(prefetch.started);
+
+        for (int i = 0; i < PriorityDispatcher.RESERVED_FOR_INTERACTIVE; i++) {
+            assertTrue(submit(PriorityDispatcher.Priority.INTERACTIVE).started);
+        }
+        PriorityDispatcher.Ticket overflow = submit(PriorityDispatcher.Priority.INTERACTIVE);
+        assertFalse(overflow.started);
+        assertEquals(PriorityDispatcher.MAX_ACTIVE, started.size());
+
+        // Освободившийся слот из резерва снова достаётся INTERACTIVE, а не ждущему дольше PREFETCH.
+        dispatcher.release(started.get(0));
+        assertTrue(overflow.started);
+        assertFalse(prefetch.started);
+    }
+
+    @Test
+    public void laneLimitQueuesExtraCalls() {
+        int limit = PriorityDispatcher.LANE_LIMITS[PriorityDispatcher.Priority.PREFETCH.ordinal()];
+        for (int i = 0; i < limit; i++) {
+            assertTrue(submit(PriorityDispatcher.Priority.PREFETCH).started);
+        }
+        PriorityDispatcher.Ticket extra = submit(PriorityDispatcher.Priority.PREFETCH);
+        assertFalse(extra.started);
+
+        // Общих слотов хватает, держит только лимит полосы.
+        assertTrue(submit(PriorityDispatcher.Priority.BULK).started);
+        assertFalse(extra.started);
+
+        dispatcher.release(started.get(0));
+        assertTrue(extra.started);
+    }
+
+    @Test
+    public void agedBulkTakesReserveWhileFreshPrefetchWaits() {
+        int unreserved = PriorityDispatcher.MAX_ACTIVE - PriorityDispatcher.RESERVED_FOR_INTERACTIVE;
+        for (int i = 0; i < unreserved; i++) {
+            submit(PriorityDispatcher.Priority.INTERACTIVE);
+        }
+        PriorityDispatcher.Ticket bulk = submit(PriorityDispatcher.Priority.BULK);
+        assertFalse(bulk.started);
+
+        // BULK прождал два интервала старения и дорос до класса INTERACTIVE; новый PREFETCH – нет.
+        now.addAndGet(2 * PriorityDispatcher.AGING_MS);
+        PriorityDispatcher.Ticket prefetch = submit(PriorityDispatcher.Priority.PREFETCH);
+
+        assertTrue(bulk.started);
+        assertFalse(prefetch.started);
+        assertTrue(dispatcher.dump(), dispatcher.dump().contains("bulk: active=1/2 queued=0 started=1 avgWaitMs=4000"));
+        assertTrue(dispatcher.dump(), dispatcher.dump().contains("promoted=1"));
+    }
+
+    @Test
+    public void oneAgingStepIsNotEnoughForBulk() {
+        int unreserved = PriorityDispatcher.MAX_ACTIVE - PriorityDispatcher.RESERVED_FOR_INTERACTIVE;
+        for (int i = 0; i < unreserved; i++) {
+            submit(PriorityDispatcher.Priority.INTERACTIVE);
+        }
+        PriorityDispatcher.Ticket bulk = submit(PriorityDispatcher.Priority.BULK);
+
+        now.addAndGet(PriorityDispatcher.AGING_MS);
+        submit(PriorityDispatcher.Priority.BULK);
+
+        assertFalse(bulk.started);
+    }
+
+    @Test
+    public void withdrawnTicketNeverStarts() {
+        int unreserved = PriorityDispatcher.MAX_ACTIVE - PriorityDispatcher.RESERVED_FOR_INTERACTIVE;
+        for (int i = 0; i < unreserved; i++) {
+            submit(PriorityDispatcher.Priority.INTERACTIVE);
+        }
+        PriorityDispatcher.Ticket prefetch = submit(PriorityDispatcher.Priority.PREFETCH);
+
+        assertTrue(dispatcher.withdraw(prefetch));
+        dispatcher.release(started.get(0));
+
+        assertFalse(prefetch.started);
+        assertFalse(dispatcher.withdraw(started.get(1)));
+    }
+
+    private PriorityDispatcher.Ticket submit(PriorityDispatcher.Priority priority) {
+        return dispatcher.submit(priority, started::add);
+    }
+}
@@ -0,0 +1,288 @@
+package app.belqax.pature.data.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * RetryPolicy и RetryingCall.execute(): что повторяется, сколько ждать и когда остановиться.
+ */
+public class RetryPolicyTest {
+
+    private static final String URL = "https://api.example.test/animals/1";
+
+    // Без пауз: тест проверяет решения о повторе, а не время ожидания.
+    private static final RetryPolicy NO_DELAY = new RetryPolicy(3, 0L, 0L, 15_000L, false);
+
+    @Test
+    public void idempotentMethodsAreRetried() {
+        assertTrue(RetryPolicy.DEFAULT.allows(request("GET")));
+        assertTrue(RetryPolicy.DEFAULT.allows(request("PUT")));
+        assertTrue(RetryPolicy.DEFAULT.allows(request("DELETE")));
+        assertTrue(RetryPolicy.DEFAULT.allows(request("HEAD")));
+    }
+
+    @Test
+    public void nonIdempotentMethodsAreNotRetriedWithoutKey() {
+        assertFalse(RetryPolicy.DEFAULT.allows(request("POST")));
+        assertFalse(RetryPolicy.DEFAULT.allows(request("PATCH")));
+    }
+
+    @Test
+    public void postWithIdempotencyKeyOrRepeatSafeIsRetried() {
+        Request keyed = request("POST").newBuilder()
+                .header(RetryPolicy.IDEMPOTENCY_KEY_HEADER, "k-1")
+                .build();
+        assertTrue(RetryPolicy.DEFAULT.allows(keyed));
+        assertTrue(RetryPolicy.DEFAULT.repeatSafe().allows(request("PATCH")));
+    }
+
+    @Test
+    public void noneNeverRetries() {
+        assertFalse(RetryPolicy.NONE.allows(request("GET")));
+        assertFalse(RetryPolicy.NONE.repeatSafe().allows(request("GET")));
+    }
+
+    @Test
+    public void onlyTransientStatusesAreRetryable() {
+        assertTrue(RetryPolicy.isRetryableStatus(408));
+        assertTrue(RetryPolicy.isRetryableStatus(429));
+        assertTrue(RetryPolicy.isRetryableStatus(503));
+        assertFalse(RetryPolicy.isRetryableStatus(400));
+        assertFalse(RetryPolicy.isRetryableStatus(401));
+        assertFalse(RetryPolicy.isRetryableStatus(404));
+        assertFalse(RetryPolicy.isRetryableStatus(501));
+    }
+
+    @Test
+    public void backoffStaysWithinExponentialCap() {
+        RetryPolicy policy = new RetryPolicy(5, 100L, 1_000L, 15_000L, false);
+        long[] caps = {100L, 200L, 400L, 800L, 1_000L, 1_000L};
+        for (int retry = 0; retry < caps.length; retry++) {
+            for (int i = 0; i < 500; i++) {
+                long delay = policy.backoffMs(retry);
+                assertTrue("retry " + retry + ": " + delay, delay >= 0L && delay <= caps[retry]);
+            }
+        }
+    }
+
+    @Test
+    public void retryAfterSecondsAndHttpDate() {
+        assertEquals(3_000L, RetryPolicy.retryAfterMs(raw(503, "3")));
+        assertEquals(0L, RetryPolicy.retryAfterMs(raw(503, "-5")));
+
+        Date inTenSeconds = new Date(System.currentTimeMillis() + 10_000L);
+        long fromDate = RetryPolicy.retryAfterMs(raw(503, httpDate(inTenSeconds)));
+        // HTTP-дата с точностью до секунды.
+        assertTrue(String.valueOf(fromDate), fromDate > 8_000L && fromDate <= 10_000L);
+
+        assertEquals(-1L, RetryPolicy.retryAfterMs(raw(503, "soon")));
+        assertEquals(-1L, RetryPolicy.retryAfterMs(raw(503, null)));
+        assertEquals(-1L, RetryPolicy.retryAfterMs(null));
+    }
+
+    @Test
+    public void transientFailuresAreRetriedUntilSuccess() throws IOException {
+        ScriptedCall call = new ScriptedCall(request("GET"), error(503, null), error(502, null), ok());
+        RetryingCall<String> retrying = retrying(call, NO_DELAY);
+
+        Response<String> response = retrying.execute();
+
+        assertTrue(response.isSuccessful());
+        assertEquals(3, call.script.attempts);
+        assertEquals(2, retrying.getRetries());
+    }
+
+    @Test
+    public void retriesStopAtMaxRetries() throws IOException {
+        ScriptedCall call = new ScriptedCall(request("GET"),
+                error(503, null), error(503, null), error(503, null), error(503, null), ok());
+        RetryingCall<String> retrying = retrying(call, NO_DELAY);
+
+        Response<String> response = retrying.execute();
+
+        assertEquals(503, response.code());
+        assertEquals(4, call.script.attempts);
+        assertEquals(3, retrying.getRetries());
+    }
+
+    @Test
+    public void retryAfterBeyondDeadlineStopsRetrying() throws IOException {
+        RetryPolicy shortDeadline = new RetryPolicy(3, 0L, 0L, 3_000L, false);
+        ScriptedCall call = new ScriptedCall(request("GET"), error(503, "10"), ok());
+        RetryingCall<String> retrying = retrying(call, shortDeadline);
+
+        Response<String> response = retrying.execute();
+
+        // Ждать 10 с при дедлайне 3 с бессмысленно: отдаём ответ сервера сразу.
+        assertEquals(503, response.code());
+        assertEquals(1, call.script.attempts);
+    }
+
+    @Test
+    public void nonIdempotentPostIsNotRetried() throws IOException {
+        ScriptedCall call = new ScriptedCall(request("POST"), error(503, null), ok());
+        RetryingCall<String> retrying = retrying(call, NO_DELAY);
+
+        assertEquals(503, retrying.execute().code());
+        assertEquals(1, call.script.attempts);
+    }
+
+    @Test
+    public void networkErrorsAreRetried() throws IOException {
+        ScriptedCall call = new ScriptedCall(request("GET"), new IOException("reset"), ok());
+        RetryingCall<String> retrying = retrying(call, NO_DELAY);
+
+        assertTrue(retrying.execute().isSuccessful());
+        assertEquals(2, call.script.attempts);
+    }
+
+    @Test
+    public void clientErrorIsReturnedWithoutRetry() throws IOException {
+        ScriptedCall call = new ScriptedCall(request("GET"), error(404, null), ok());
+        RetryingCall<String> retrying = retrying(call, NO_DELAY);
+
+        assertEquals(404, retrying.execute().code());
+        assertEquals(1, call.script.attempts);
+    }
+
+    // region helpers
+
+    private static RetryingCall<String> retrying(ScriptedCall call, RetryPolicy policy) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        return new RetryingCall<>(new CallRetrier(Runnable::run), "test", policy, call, scheduler, Runnable::run);
+    }
+
+    private static Request request(String method) {
+        RequestBody body = "GET".equals(method) || "HEAD".equals(method) || "DELETE".equals(method)
+                ? null
+                : RequestBody.create(new byte[0], MediaType.get("application/json"));
+        return new Request.Builder().url(URL).method(method, body).build();
+    }
+
+    private static okhttp3.Response raw(int code, String retryAfter) {
+        okhttp3.Response.Builder b = new okhttp3.Response.Builder()
+                .request(request("GET"))
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("status " + code);
+        if (retryAfter != null) {
+            b.header("Retry-After", retryAfter);
+        }
+        return b.build();
+    }
+
+    private static Response<String> error(int code, String retryAfter) {
+        return Response.error(ResponseBody.create("", MediaType.get("application/json")), raw(code, retryAfter));
+    }
+
+    private static String httpDate(Date date) {
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format.format(date);
+    }
+
+    private static Response<String> ok() {
+        return Response.success("ok");
+    }
+
+    /**
+     * Call с заранее заданными исходами попыток; clone() продолжает тот же сценарий.
+     */
+    private static final class ScriptedCall implements Call<String> {
+
+        static final class Script {
+            final Deque<Object> outcomes = new ArrayDeque<>();
+            int attempts = 0;
+        }
+
+        final Script script;
+        private final Request request;
+        private boolean executed = false;
+        private boolean canceled = false;
+
+        ScriptedCall(Request request, Object... outcomes) {
+            this.request = request;
+            this.script = new Script();
+            for (Object o : outcomes) {
+                script.outcomes.addLast(o);
+            }
+        }
+
+        private ScriptedCall(Request request, Script script) {
+            this.request = request;
+            this.script = script;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Response<String> execute() throws IOException {
+            executed = true;
+            script.attempts++;
+            Object next = script.outcomes.pollFirst();
+            if (next instanceof IOException) {
+                throw (IOException) next;
+            }
+            return (Response<String>) next;
+        }
+
+        @Override
+        public void enqueue(Callback<String> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Call<String> clone() {
+            return new ScriptedCall(request, script);
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+    }
+
+    // endregion
+}
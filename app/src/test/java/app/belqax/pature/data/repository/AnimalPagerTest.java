@@ -0,0 +1,132 @@
+package app.belqax.pature.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import app.belqax.pature.data.network.PriorityDispatcher;
+import app.belqax.pature.data.network.RequestHandle;
+
+/**
+ * AnimalPager: первая страница со старта продолжается по её курсору, без курсора – по offset.
+ */
+public class AnimalPagerTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    private final List<String> cursors = new ArrayList<>();
+    private final List<Integer> offsets = new ArrayList<>();
+    private final List<AnimalRepository.FeedStreamListener> pages = new ArrayList<>();
+
+    private final AnimalPager pager = new AnimalPager((cursor, offset, limit, priority, listener) -> {
+        cursors.add(cursor);
+        offsets.add(offset);
+        pages.add(listener);
+        return RequestHandle.DONE;
+    }, PAGE_SIZE);
+
+    private final List<Long> items = new ArrayList<>();
+    private final List<AnimalRepository.RepoResult<List<AnimalRepository.AnimalDto>>> loaded = new ArrayList<>();
+
+    @Test
+    public void firstPageCursorIsUsedForSecondPage() {
+        pager.acceptFirstPage(animals(1, 2, 3), "c2");
+
+        loadNext();
+
+        assertEquals(Collections.singletonList("c2"), cursors);
+    }
+
+    @Test
+    public void firstPageWithoutCursorFallsBackToOffset() {
+        pager.acceptFirstPage(animals(1, 2, 3), null);
+
+        loadNext();
+
+        assertNull(cursors.get(0));
+        assertEquals(Integer.valueOf(3), offsets.get(0));
+    }
+
+    @Test
+    public void emptyFirstPageWithoutCursorEndsFeed() {
+        pager.acceptFirstPage(Collections.emptyList(), null);
+
+        assertTrue(pager.isEndReached());
+        assertSame(RequestHandle.DONE, loadNext());
+        assertTrue(pages.isEmpty());
+    }
+
+    @Test
+    public void cursorModeEndsOnPageWithoutCursor() {
+        pager.acceptFirstPage(animals(1, 2, 3), "c2");
+
+        loadNext();
+        deliver(pages.get(0), null, 4, 5);
+
+        assertTrue(pager.isEndReached());
+        assertEquals(Arrays.asList(4L, 5L), items);
+        assertTrue(loaded.get(0).isSuccess);
+    }
+
+    @Test
+    public void firstPageCardsAreNotRepeated() {
+        List<AnimalRepository.AnimalDto> fresh = pager.acceptFirstPage(animals(1, 2, 2), "c2");
+        assertEquals(2, fresh.size());
+
+        loadNext();
+        deliver(pages.get(0), "c3", 2, 3);
+
+        assertEquals(Collections.singletonList(3L), items);
+        assertFalse(pager.isEndReached());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void firstPageIsAcceptedOnlyAtStart() {
+        pager.acceptFirstPage(animals(1), "c2");
+        pager.acceptFirstPage(animals(2), "c3");
+    }
+
+    private RequestHandle loadNext() {
+        return pager.loadNext(PriorityDispatcher.Priority.INTERACTIVE, new AnimalPager.Listener() {
+            @Override
+            public void onItem(@NonNull AnimalRepository.AnimalDto dto) {
+                items.add(dto.id);
+            }
+
+            @Override
+            public void onLoaded(@NonNull AnimalRepository.RepoResult<List<AnimalRepository.AnimalDto>> result) {
+                loaded.add(result);
+            }
+        });
+    }
+
+    private static void deliver(AnimalRepository.FeedStreamListener page, String nextCursor, long... ids) {
+        List<AnimalRepository.AnimalDto> data = animals(ids);
+        for (AnimalRepository.AnimalDto dto : data) {
+            page.onItem(dto);
+        }
+        page.onNextCursor(nextCursor);
+        page.onComplete(AnimalRepository.RepoResult.success(data));
+    }
+
+    private static List<AnimalRepository.AnimalDto> animals(long... ids) {
+        List<AnimalRepository.AnimalDto> list = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            AnimalRepository.AnimalDto dto = new AnimalRepository.AnimalDto();
+            dto.id = id;
+            list.add(dto);
+        }
+        return list;
+    }
+}
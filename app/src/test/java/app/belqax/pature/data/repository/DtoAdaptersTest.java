@@ -0,0 +1,172 @@
+package app.belqax.pature.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.annotations.SerializedName;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import app.belqax.pature.data.network.GsonProvider;
+
+/**
+ * Каждый адаптер из DtoAdapters против Gson с reflection.
+ *
+ * JSON строится по полям DTO, а не вручную: поле, добавленное в DTO, но забытое в адаптере,
+ * даёт расхождение здесь, а не пустое значение в приложении.
+ */
+public class DtoAdaptersTest {
+
+    private static final Gson REFLECTIVE = new Gson();
+    // Эталон для сравнения: reflection и явные null, чтобы пропущенное поле было видно в diff.
+    private static final Gson CANONICAL = new GsonBuilder().serializeNulls().create();
+    private static final Gson ADAPTED = GsonProvider.get();
+
+    @Test
+    public void everyFieldIsReadLikeReflection() {
+        for (Class<?> type : DtoAdapters.ADAPTERS.keySet()) {
+            assertReadsLikeReflection(type, filled(type, 1).toString());
+        }
+    }
+
+    @Test
+    public void explicitNullsAreReadLikeReflection() {
+        for (Class<?> type : DtoAdapters.ADAPTERS.keySet()) {
+            assertReadsLikeReflection(type, nulls(type).toString());
+        }
+    }
+
+    @Test
+    public void missingFieldsKeepDefaults() {
+        for (Class<?> type : DtoAdapters.ADAPTERS.keySet()) {
+            assertReadsLikeReflection(type, "{}");
+        }
+    }
+
+    @Test
+    public void unknownFieldsAreSkipped() {
+        for (Class<?> type : DtoAdapters.ADAPTERS.keySet()) {
+            JsonObject json = filled(type, 1);
+            json.add("unknown_object", JsonParser.parseString("{\"a\":[1,{\"b\":null}],\"c\":\"d\"}"));
+            json.addProperty("unknown_number", 12.5);
+            assertReadsLikeReflection(type, json.toString());
+        }
+    }
+
+    @Test
+    public void writeRoundTripsThroughReflection() {
+        for (Class<?> type : DtoAdapters.ADAPTERS.keySet()) {
+            Object dto = REFLECTIVE.fromJson(filled(type, 1), type);
+
+            String written = ADAPTED.toJson(dto, type);
+
+            assertEquals(type.getName(), CANONICAL.toJson(dto), CANONICAL.toJson(REFLECTIVE.fromJson(written, type)));
+        }
+    }
+
+    @Test
+    public void nullDocumentIsNull() {
+        for (Class<?> type : DtoAdapters.ADAPTERS.keySet()) {
+            assertNull(type.getName(), ADAPTED.fromJson("null", type));
+        }
+    }
+
+    @Test
+    public void adaptersCoverAllResponseDtos() {
+        // Если список сократится, остальные тесты станут проверять меньше, чем кажется.
+        assertEquals(13, DtoAdapters.ADAPTERS.size());
+        assertFalse(DtoAdapters.ADAPTERS.containsKey(null));
+    }
+
+    // region helpers
+
+    private static void assertReadsLikeReflection(Class<?> type, String json) {
+        Object expected = REFLECTIVE.fromJson(json, type);
+        Object actual = ADAPTED.fromJson(json, type);
+        assertEquals(type.getName() + " from " + json, CANONICAL.toJson(expected), CANONICAL.toJson(actual));
+    }
+
+    /**
+     * Объект, где у каждого поля своё значение, отличное от значения по умолчанию.
+     */
+    private static JsonObject filled(Class<?> type, int seed) {
+        JsonObject json = new JsonObject();
+        int i = seed;
+        for (Field field : jsonFields(type)) {
+            json.add(jsonName(field), value(field.getGenericType(), field.getName(), i++));
+        }
+        return json;
+    }
+
+    private static JsonObject nulls(Class<?> type) {
+        JsonObject json = new JsonObject();
+        for (Field field : jsonFields(type)) {
+            json.add(jsonName(field), JsonNull.INSTANCE);
+        }
+        return json;
+    }
+
+    private static JsonElement value(Type type, String fieldName, int seed) {
+        if (type == String.class) {
+            return new JsonPrimitive(fieldName + "-" + seed + " ё");
+        }
+        if (type == int.class || type == Integer.class) {
+            return new JsonPrimitive(100 + seed);
+        }
+        if (type == long.class || type == Long.class) {
+            // Больше Integer.MAX_VALUE: проверяет, что поле читается как long.
+            return new JsonPrimitive(5_000_000_000L + seed);
+        }
+        if (type == double.class || type == Double.class) {
+            return new JsonPrimitive(seed + 0.25);
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return new JsonPrimitive(true);
+        }
+        if (type instanceof Class && DtoAdapters.ADAPTERS.containsKey(type)) {
+            return filled((Class<?>) type, seed * 100);
+        }
+        if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == List.class) {
+            Type element = ((ParameterizedType) type).getActualTypeArguments()[0];
+            JsonArray array = new JsonArray();
+            array.add(value(element, fieldName, seed * 10));
+            array.add(value(element, fieldName, seed * 10 + 1));
+            return array;
+        }
+        throw new AssertionError("no test value for " + fieldName + ": " + type + "; extend DtoAdaptersTest.value()");
+    }
+
+    private static List<Field> jsonFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static String jsonName(Field field) {
+        SerializedName name = field.getAnnotation(SerializedName.class);
+        return name != null ? name.value() : field.getName();
+    }
+
+    // endregion
+}
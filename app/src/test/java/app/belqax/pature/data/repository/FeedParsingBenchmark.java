@@ -0,0 +1,152 @@
+package app.belqax.pature.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assume.assumeTrue;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import app.belqax.pature.data.network.GsonProvider;
+
+/**
+ * JVM-бенчмарк разбора страницы ленты: Gson с reflection против DtoAdapters.
+ *
+ * feed_page_50.json – записанный ответ /animals/feed на 50 карточек (с лишним полем, которого
+ * нет в DTO). Результат печатается в stdout; время не проверяется, чтобы тест не зависел от машины.
+ * Сам замер идёт только с -Dbenchmark=true (в Gradle: -Pbenchmark); проверка совпадения с reflection – всегда.
+ */
+public class FeedParsingBenchmark {
+
+    private static final Type FEED = new TypeToken<List<AnimalRepository.AnimalDto>>() {}.getType();
+
+    private static final int WARMUP_ITERATIONS = 300;
+    private static final int MEASURED_ITERATIONS = 2_000;
+    private static final int COLD_ITERATIONS = 200;
+
+    @Test
+    public void adaptersMatchReflection() throws IOException {
+        String json = readResource("feed_page_50.json");
+        Gson reflective = new Gson();
+
+        List<AnimalRepository.AnimalDto> expected = reflective.fromJson(json, FEED);
+        List<AnimalRepository.AnimalDto> actual = GsonProvider.get().fromJson(json, FEED);
+
+        assertEquals(50, actual.size());
+        // Сравнение через сериализацию reflection: одинаковый JSON – одинаковые значения всех полей.
+        assertEquals(reflective.toJson(expected, FEED), reflective.toJson(actual, FEED));
+        assertEquals(reflective.toJson(expected, FEED), GsonProvider.get().toJson(actual, FEED));
+    }
+
+    @Test
+    public void benchmark() throws IOException {
+        assumeTrue("benchmark skipped, run with -Pbenchmark", Boolean.getBoolean("benchmark"));
+        String json = readResource("feed_page_50.json");
+
+        Result reflective = measure(new Gson(), json);
+        Result adapters = measure(GsonProvider.get(), json);
+
+        System.out.println("feed page (50 items, " + json.length() + " chars)");
+        System.out.println("  reflective: " + reflective);
+        System.out.println("  adapters:   " + adapters);
+        System.out.println(String.format(Locale.ROOT, "  speedup x%.2f, allocations x%.2f",
+                reflective.nanosPerPage / adapters.nanosPerPage,
+                adapters.bytesPerPage > 0 ? (double) reflective.bytesPerPage / adapters.bytesPerPage : 0.0));
+
+        // Первый разбор новым Gson: reflection строит адаптер DTO (поля, аннотации, конструктор)
+        // при первом обращении, так выглядит первая страница ленты после старта процесса.
+        Result reflectiveCold = measureCold(Gson::new, json);
+        Result adaptersCold = measureCold(
+                () -> new GsonBuilder().registerTypeAdapterFactory(DtoAdapters.FACTORY).create(), json);
+        System.out.println("first parse with a fresh Gson");
+        System.out.println("  reflective: " + reflectiveCold);
+        System.out.println("  adapters:   " + adaptersCold);
+    }
+
+    private static Result measureCold(Supplier<Gson> factory, String json) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertNotNull(factory.get().fromJson(json, FEED));
+        }
+
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < COLD_ITERATIONS; i++) {
+            List<AnimalRepository.AnimalDto> page = factory.get().fromJson(json, FEED);
+            assertEquals(50, page.size());
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = allocatedBytes() - bytesBefore;
+        return new Result((double) elapsed / COLD_ITERATIONS, bytes < 0 ? -1 : bytes / COLD_ITERATIONS);
+    }
+
+    private static Result measure(Gson gson, String json) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertNotNull(gson.fromJson(json, FEED));
+        }
+
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            List<AnimalRepository.AnimalDto> page = gson.fromJson(json, FEED);
+            sink += page.size();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = allocatedBytes() - bytesBefore;
+
+        assertEquals(50L * MEASURED_ITERATIONS, sink);
+        return new Result((double) elapsed / MEASURED_ITERATIONS, bytes < 0 ? -1 : bytes / MEASURED_ITERATIONS);
+    }
+
+    /**
+     * Байты, выделенные текущим потоком; -1, если JVM это не умеет.
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static String readResource(String name) throws IOException {
+        try (InputStream in = FeedParsingBenchmark.class.getClassLoader().getResourceAsStream(name)) {
+            assertNotNull("missing test resource " + name, in);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Result {
+        final double nanosPerPage;
+        final long bytesPerPage;
+
+        Result(double nanosPerPage, long bytesPerPage) {
+            this.nanosPerPage = nanosPerPage;
+            this.bytesPerPage = bytesPerPage;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%.1f us/page, %d KB/page", nanosPerPage / 1000.0, bytesPerPage / 1024);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package app.belqax.pature.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * ProfileSnapshotCodec: снимок переживает encode/decode без потерь, обрезанные и лишние байты отвергаются.
+ */
+public class ProfileSnapshotCodecTest {
+
+    // Обычный Gson без DtoAdapters: эталонное представление для сравнения снимков.
+    private static final Gson GSON = new Gson();
+
+    static final String FULL_ME_JSON = "{"
+            + "\"user\":{\"id\":42,\"phone\":\"+79990001122\",\"email\":\"user@example.com\",\"is_active\":true},"
+            + "\"profile\":{\"display_name\":\"Анна 🐾\",\"age\":29,\"about\":\"Люблю собак\","
+            + "\"location_formatted\":\"Москва, Россия\",\"location_city\":\"Москва\","
+            + "\"location_state\":\"Москва\",\"location_country\":\"Россия\",\"location_postcode\":\"101000\","
+            + "\"location_lat\":55.7558,\"location_lon\":37.6173,\"location_result_type\":\"city\","
+            + "\"location_confidence\":0.93,\"avatar_url\":\"https://cdn.example.com/a/42.jpg\"},"
+            + "\"privacy\":{\"profile_visibility\":\"everyone\",\"photos_visibility\":\"matches\","
+            + "\"online_status_visibility\":\"nobody\",\"last_seen_precision\":\"day\","
+            + "\"show_age\":true,\"show_distance\":false},"
+            + "\"settings\":{\"language_code\":\"ru\",\"timezone\":\"Europe/Moscow\","
+            + "\"biometric_login_enabled\":true,\"push_enabled\":true,\"push_new_messages\":false,"
+            + "\"push_events\":true,\"push_news\":false}"
+            + "}";
+
+    @Test
+    public void fullSnapshotRoundTrips() throws IOException {
+        ProfileRepository.MeResponse me = GSON.fromJson(FULL_ME_JSON, ProfileRepository.MeResponse.class);
+
+        ProfileRepository.MeResponse decoded = ProfileSnapshotCodec.decode(ProfileSnapshotCodec.encode(me));
+
+        assertEquals(GSON.toJson(me), GSON.toJson(decoded));
+    }
+
+    @Test
+    public void missingSectionsAndNullFieldsStayNull() throws IOException {
+        ProfileRepository.MeResponse me = GSON.fromJson(
+                "{\"user\":{\"id\":7,\"is_active\":false},\"profile\":{\"display_name\":\"\"}}",
+                ProfileRepository.MeResponse.class);
+
+        ProfileRepository.MeResponse decoded = ProfileSnapshotCodec.decode(ProfileSnapshotCodec.encode(me));
+
+        assertEquals(GSON.toJson(me), GSON.toJson(decoded));
+        assertNotNull(decoded.getProfile());
+        assertEquals("", decoded.getProfile().getDisplayName());
+        assertNull(decoded.getProfile().getAge());
+        assertNull(decoded.getProfile().getLocationLat());
+        assertNull(decoded.getUser().getPhone());
+        assertNull(decoded.getPrivacy());
+        assertNull(decoded.getSettings());
+    }
+
+    @Test
+    public void emptySnapshotRoundTrips() throws IOException {
+        ProfileRepository.MeResponse decoded =
+                ProfileSnapshotCodec.decode(ProfileSnapshotCodec.encode(new ProfileRepository.MeResponse()));
+
+        assertNull(decoded.getUser());
+        assertNull(decoded.getProfile());
+        assertNull(decoded.getPrivacy());
+        assertNull(decoded.getSettings());
+    }
+
+    @Test
+    public void stringsLongerThanWriteUtfLimitRoundTrip() throws IOException {
+        ProfileRepository.MeResponse me = GSON.fromJson(FULL_ME_JSON, ProfileRepository.MeResponse.class);
+        char[] about = new char[70_000];
+        Arrays.fill(about, 'ж');
+        me.profile.about = new String(about);
+
+        ProfileRepository.MeResponse decoded = ProfileSnapshotCodec.decode(ProfileSnapshotCodec.encode(me));
+
+        assertEquals(me.profile.about, decoded.getProfile().getAbout());
+    }
+
+    @Test
+    public void everyTruncationIsRejected() throws IOException {
+        byte[] full = ProfileSnapshotCodec.encode(GSON.fromJson(FULL_ME_JSON, ProfileRepository.MeResponse.class));
+
+        for (int length = 0; length < full.length; length++) {
+            try {
+                ProfileSnapshotCodec.decode(Arrays.copyOf(full, length));
+                fail("decoded a snapshot truncated to " + length + " of " + full.length + " bytes");
+            } catch (IOException expected) {
+                // EOFException или неверная длина строки.
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void trailingBytesAreRejected() throws IOException {
+        byte[] full = ProfileSnapshotCodec.encode(GSON.fromJson(FULL_ME_JSON, ProfileRepository.MeResponse.class));
+
+        ProfileSnapshotCodec.decode(Arrays.copyOf(full, full.length + 1));
+    }
+
+    @Test(expected = IOException.class)
+    public void negativeStringLengthIsRejected() throws IOException {
+        // Есть профиль, длина display_name = -2.
+        byte[] data = {0b0010, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFE};
+
+        ProfileSnapshotCodec.decode(data);
+    }
+}
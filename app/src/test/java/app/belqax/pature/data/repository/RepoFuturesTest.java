@@ -0,0 +1,290 @@
+package app.belqax.pature.data.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import app.belqax.pature.data.network.RequestHandle;
+
+/**
+ * Комбинаторы RepoFutures: порядок значений, какая ошибка побеждает и какие запросы отменяются.
+ * Future завершаются вручную, таймаут идёт по ручному таймеру.
+ */
+public class RepoFuturesTest {
+
+    private final List<Request> requests = new ArrayList<>();
+
+    // region all
+
+    @Test
+    public void allKeepsInputOrder() {
+        RepoFuture<String> a = request();
+        RepoFuture<String> b = request();
+
+        RepoFuture<List<String>> out = RepoFutures.all(Arrays.asList(a, b));
+        b.complete("b");
+        assertFalse(out.isDone());
+        a.complete("a");
+
+        assertEquals(Arrays.asList("a", "b"), out.join());
+        assertNoRequestCanceled();
+    }
+
+    @Test
+    public void allFailsOnFirstErrorAndCancelsTheRest() {
+        RepoFuture<String> a = request();
+        RepoFuture<String> b = request();
+        RepoException error = error("a failed");
+
+        RepoFuture<List<String>> out = RepoFutures.all(Arrays.asList(a, b));
+        a.completeExceptionally(error);
+
+        assertSame(error, failureOf(out));
+        assertTrue(b.isCancelled());
+        assertTrue(requests.get(1).canceled);
+    }
+
+    @Test
+    public void canceledAllCancelsInputs() {
+        RepoFuture<String> a = request();
+        RepoFuture<String> b = request();
+
+        RepoFuture<List<String>> out = RepoFutures.all(Arrays.asList(a, b));
+        out.cancel();
+
+        assertTrue(a.isCancelled());
+        assertTrue(b.isCancelled());
+        assertTrue(requests.get(0).canceled);
+        assertTrue(requests.get(1).canceled);
+    }
+
+    @Test
+    public void allOfNothingIsEmpty() {
+        assertEquals(Collections.emptyList(), RepoFutures.<String>all(Collections.emptyList()).join());
+    }
+
+    @Test
+    public void varargsAllCompletesWithNull() {
+        RepoFuture<String> a = request();
+        RepoFuture<Integer> b = request();
+
+        RepoFuture<Void> out = RepoFutures.all(a, b);
+        a.complete("a");
+        b.complete(1);
+
+        assertNull(out.join());
+    }
+
+    // endregion
+
+    // region settled
+
+    @Test
+    public void settledWaitsForFailuresAndCancelsNothing() {
+        RepoFuture<String> a = request();
+        RepoFuture<String> b = request();
+
+        RepoFuture<Void> out = RepoFutures.settled(a, b);
+        a.completeExceptionally(error("a failed"));
+        assertFalse(out.isDone());
+        b.complete("b");
+
+        assertNull(out.join());
+        assertNoRequestCanceled();
+    }
+
+    // endregion
+
+    // region firstSuccess
+
+    @Test
+    public void firstSuccessWinsAndCancelsTheRest() {
+        RepoFuture<String> a = request();
+        RepoFuture<String> b = request();
+        RepoFuture<String> c = request();
+
+        RepoFuture<String> out = RepoFutures.firstSuccess(Arrays.asList(a, b, c));
+        a.completeExceptionally(error("a failed"));
+        b.complete("b");
+
+        assertEquals("b", out.join());
+        assertTrue(c.isCancelled());
+        assertTrue(requests.get(2).canceled);
+    }
+
+    @Test
+    public void firstSuccessWithoutSuccessReportsLastErrorWithEarlierSuppressed() {
+        RepoFuture<String> a = request();
+        RepoFuture<String> b = request();
+        RepoException first = error("a failed");
+        RepoException last = error("b failed");
+
+        RepoFuture<String> out = RepoFutures.firstSuccess(Arrays.asList(a, b));
+        a.completeExceptionally(first);
+        assertFalse(out.isDone());
+        b.completeExceptionally(last);
+
+        assertSame(last, failureOf(out));
+        assertArrayEquals(new Throwable[]{first}, last.getSuppressed());
+    }
+
+    @Test
+    public void firstSuccessOfNothingFails() {
+        Throwable error = failureOf(RepoFutures.<String>firstSuccess(Collections.emptyList()));
+
+        assertTrue(error instanceof NoSuchElementException);
+    }
+
+    @Test
+    public void canceledFirstSuccessCancelsInputs() {
+        RepoFuture<String> a = request();
+        RepoFuture<String> b = request();
+
+        RepoFutures.firstSuccess(Arrays.asList(a, b)).cancel();
+
+        assertTrue(requests.get(0).canceled);
+        assertTrue(requests.get(1).canceled);
+    }
+
+    // endregion
+
+    // region withTimeout
+
+    @Test
+    public void timeoutFailsFutureAndCancelsRequest() {
+        ManualTimer timer = new ManualTimer();
+        RepoFuture<String> a = request();
+
+        RepoFuture<String> out = RepoFutures.withTimeout(a, 3_000L, timer);
+        assertSame(a, out);
+        assertEquals(3_000L, timer.delayMs);
+
+        timer.fire();
+
+        assertTrue(failureOf(out) instanceof TimeoutException);
+        // Future завершён таймаутом, а не отменён: зависимые стадии видят TimeoutException.
+        assertFalse(out.isCancelled());
+        assertTrue(requests.get(0).canceled);
+    }
+
+    @Test
+    public void resultBeforeDeadlineRemovesTimer() {
+        ManualTimer timer = new ManualTimer();
+        RepoFuture<String> a = request();
+
+        RepoFutures.withTimeout(a, 3_000L, timer);
+        a.complete("a");
+
+        assertNull(timer.task);
+        assertEquals("a", a.join());
+        assertFalse(requests.get(0).canceled);
+    }
+
+    @Test
+    public void lateTimerAfterResultChangesNothing() {
+        ManualTimer timer = new ManualTimer();
+        RepoFuture<String> a = request();
+        RepoFutures.withTimeout(a, 3_000L, timer);
+        Runnable expire = timer.task;
+
+        a.complete("a");
+        // Задача уже вынута из очереди главного потока, когда пришёл результат.
+        expire.run();
+
+        assertEquals("a", a.join());
+        assertFalse(requests.get(0).canceled);
+    }
+
+    // endregion
+
+    private <T> RepoFuture<T> request() {
+        Request request = new Request();
+        requests.add(request);
+        RepoFuture<T> future = new RepoFuture<>();
+        future.attach(request);
+        return future;
+    }
+
+    private void assertNoRequestCanceled() {
+        for (Request r : requests) {
+            assertFalse(r.canceled);
+        }
+    }
+
+    private static RepoException error(String message) {
+        return new RepoException(message, 500, false, null, 0, null);
+    }
+
+    private static Throwable failureOf(CompletableFuture<?> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            return e.getCause();
+        }
+        fail("future completed normally");
+        return null;
+    }
+
+    /**
+     * Сетевой запрос, у которого видно только, отменили ли его.
+     */
+    private static final class Request implements RequestHandle {
+        boolean canceled = false;
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return canceled;
+        }
+    }
+
+    private static final class ManualTimer implements RepoFutures.Timer {
+        Runnable task;
+        long delayMs;
+
+        @Override
+        public void schedule(@NonNull Runnable task, long delayMs) {
+            this.task = task;
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public void cancel(@NonNull Runnable task) {
+            if (this.task == task) {
+                this.task = null;
+            }
+        }
+
+        void fire() {
+            Runnable t = task;
+            task = null;
+            t.run();
+        }
+    }
+}
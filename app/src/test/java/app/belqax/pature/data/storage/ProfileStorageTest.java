@@ -0,0 +1,118 @@
+package app.belqax.pature.data.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import app.belqax.pature.data.repository.ProfileRepository;
+
+/**
+ * Рамка файла ProfileStorage: сигнатура, версия, длина и CRC32 отсекают чужие и повреждённые файлы.
+ */
+public class ProfileStorageTest {
+
+    private static final Gson GSON = new Gson();
+
+    // Смещения полей рамки: сигнатура, версия, длина, затем тело и CRC32.
+    private static final int VERSION_OFFSET = 4;
+    private static final int LENGTH_OFFSET = 8;
+    private static final int PAYLOAD_OFFSET = 12;
+
+    private static final String ME_JSON = "{"
+            + "\"user\":{\"id\":42,\"email\":\"user@example.com\",\"is_active\":true},"
+            + "\"profile\":{\"display_name\":\"Анна\",\"age\":29,\"location_lat\":55.7558},"
+            + "\"settings\":{\"language_code\":\"ru\",\"push_enabled\":true}"
+            + "}";
+
+    @Test
+    public void fileRoundTrips() throws IOException {
+        ProfileRepository.MeResponse me = me();
+
+        ProfileRepository.MeResponse decoded = ProfileStorage.decode(ProfileStorage.encode(me));
+
+        assertEquals(GSON.toJson(me), GSON.toJson(decoded));
+    }
+
+    @Test
+    public void badMagicIsRejected() throws IOException {
+        byte[] file = ProfileStorage.encode(me());
+        file[0] ^= 0x01;
+
+        assertRejected(file, "bad magic");
+    }
+
+    @Test
+    public void otherFormatVersionIsRejected() throws IOException {
+        byte[] file = ProfileStorage.encode(me());
+        ByteBuffer.wrap(file).putInt(VERSION_OFFSET, 2);
+
+        assertRejected(file, "unsupported format version 2");
+    }
+
+    @Test
+    public void corruptedPayloadFailsChecksum() throws IOException {
+        byte[] file = ProfileStorage.encode(me());
+        file[PAYLOAD_OFFSET + 5] ^= 0x20;
+
+        assertRejected(file, "checksum mismatch");
+    }
+
+    @Test
+    public void corruptedChecksumIsRejected() throws IOException {
+        byte[] file = ProfileStorage.encode(me());
+        file[file.length - 1] ^= 0x01;
+
+        assertRejected(file, "checksum mismatch");
+    }
+
+    @Test
+    public void lengthBeyondFileIsRejected() throws IOException {
+        byte[] file = ProfileStorage.encode(me());
+        ByteBuffer.wrap(file).putInt(LENGTH_OFFSET, file.length);
+
+        assertRejected(file, "bad payload length");
+    }
+
+    @Test
+    public void negativeLengthIsRejected() throws IOException {
+        byte[] file = ProfileStorage.encode(me());
+        ByteBuffer.wrap(file).putInt(LENGTH_OFFSET, -1);
+
+        assertRejected(file, "bad payload length");
+    }
+
+    @Test
+    public void everyTruncationIsRejected() throws IOException {
+        byte[] file = ProfileStorage.encode(me());
+
+        for (int length = 0; length < file.length; length++) {
+            try {
+                ProfileStorage.decode(Arrays.copyOf(file, length));
+                fail("decoded a file truncated to " + length + " of " + file.length + " bytes");
+            } catch (IOException expected) {
+                // Оборванная запись: файл удаляется, профиль перезагрузится с сервера.
+            }
+        }
+    }
+
+    private static ProfileRepository.MeResponse me() {
+        return GSON.fromJson(ME_JSON, ProfileRepository.MeResponse.class);
+    }
+
+    private static void assertRejected(byte[] file, String reason) {
+        try {
+            ProfileStorage.decode(file);
+            fail("expected IOException: " + reason);
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(reason));
+        }
+    }
+}